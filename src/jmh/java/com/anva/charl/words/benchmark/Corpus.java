@@ -0,0 +1,150 @@
+package com.anva.charl.words.benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A generated benchmark text together with its vocabulary.
+ * Words are drawn from the vocabulary with Zipf distributed frequencies, so the first
+ * words are very common and most of the vocabulary is rare, as in natural language.
+ * The same arguments always generate the same text.
+ *
+ * @param text The generated text
+ * @param vocabulary The distinct words of the text, the most frequent first
+ */
+record Corpus(String text, String[] vocabulary) {
+
+    enum Script { LATIN, CJK, MIXED }
+
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final String LATIN_LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String CYRILLIC_LETTERS = "абвгдежзийклмнопрстуфхцчшщыэюя";
+    private static final int CJK_FIRST = 0x4E00;
+    private static final int CJK_COUNT = 0x9FFF - CJK_FIRST + 1;
+
+    /**
+     * Generates a corpus of about the given size.
+     *
+     * @param script The script(s) the words are written in
+     * @param vocabularySize Number of distinct words to draw from
+     * @param utf8Bytes Size of the text when encoded as UTF-8
+     * @param seed Seed of the random generator
+     * @return The generated corpus
+     */
+    static Corpus generate(Script script, int vocabularySize, long utf8Bytes, long seed) {
+        Random random = new Random(seed);
+        String[] vocabulary = vocabulary(script, vocabularySize, random);
+        double[] cumulative = zipfCumulative(vocabularySize);
+
+        StringBuilder text = new StringBuilder((int) Math.min(utf8Bytes, Integer.MAX_VALUE - 16));
+        long bytes = 0;
+        boolean sentenceStart = true;
+        while (bytes < utf8Bytes) {
+            String word = vocabulary[rank(cumulative, random.nextDouble())];
+            String appended = sentenceStart && !isCjk(word) ? capitalize(word) : word;
+            text.append(appended);
+            bytes += utf8Length(appended);
+
+            String separator = separator(word, random);
+            text.append(separator);
+            bytes += utf8Length(separator);
+            sentenceStart = separator.startsWith(".") || separator.startsWith("。");
+        }
+        return new Corpus(text.toString(), vocabulary);
+    }
+
+    /**
+     * Parses a size such as {@code 1KB}, {@code 1MB} or {@code 100MB} into bytes.
+     */
+    static long parseSize(String size) {
+        String upper = size.trim().toUpperCase();
+        if (upper.endsWith("MB")) {
+            return Long.parseLong(upper.substring(0, upper.length() - 2)) * 1024 * 1024;
+        }
+        if (upper.endsWith("KB")) {
+            return Long.parseLong(upper.substring(0, upper.length() - 2)) * 1024;
+        }
+        return Long.parseLong(upper.endsWith("B") ? upper.substring(0, upper.length() - 1) : upper);
+    }
+
+    private static String[] vocabulary(Script script, int size, Random random) {
+        Set<String> words = new LinkedHashSet<>(size * 2);
+        while (words.size() < size) {
+            // Mixed text alternates Latin, CJK and Cyrillic words through all frequency ranks
+            int kind = switch (script) {
+                case LATIN -> 0;
+                case CJK -> 1;
+                case MIXED -> words.size() % 3;
+            };
+            words.add(switch (kind) {
+                case 0 -> alphabetWord(LATIN_LETTERS, random);
+                case 1 -> cjkWord(random);
+                default -> alphabetWord(CYRILLIC_LETTERS, random);
+            });
+        }
+        return words.toArray(String[]::new);
+    }
+
+    private static String alphabetWord(String letters, Random random) {
+        int length = 2 + random.nextInt(9);
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            word[i] = letters.charAt(random.nextInt(letters.length()));
+        }
+        return new String(word);
+    }
+
+    private static String cjkWord(Random random) {
+        int length = 1 + random.nextInt(3);
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            word[i] = (char) (CJK_FIRST + random.nextInt(CJK_COUNT));
+        }
+        return new String(word);
+    }
+
+    private static String separator(String word, Random random) {
+        int pick = random.nextInt(20);
+        if (isCjk(word)) {
+            return pick == 0 ? "。" : pick < 4 ? "，" : "、";
+        }
+        return pick == 0 ? ". " : pick < 3 ? ", " : " ";
+    }
+
+    private static double[] zipfCumulative(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / Math.pow(rank, ZIPF_EXPONENT);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int rank(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static boolean isCjk(String word) {
+        return word.charAt(0) >= CJK_FIRST;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static long utf8Length(String s) {
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,69 @@
+package com.anva.charl.words.benchmark;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.VectorWordTokenizer;
+import com.anva.charl.words.service.tokenizer.WordTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and the vectorized tokenizer on generated corpora, on their own
+ * and counting into a {@link FrequencyTable} as the service does for a single segment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class TokenizerBenchmark {
+
+    private static final long SEED = 20_250_927L;
+
+    @Param({"1MB"})
+    public String size;
+
+    @Param({"LATIN", "CJK", "MIXED"})
+    public String script;
+
+    @Param({"100", "100000"})
+    public int vocabulary;
+
+    @Param({"scalar", "vector"})
+    public String tokenizer;
+
+    private WordTokenizer wordTokenizer;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        text = Corpus.generate(Corpus.Script.valueOf(script), vocabulary, Corpus.parseSize(size), SEED).text();
+        wordTokenizer = "vector".equals(tokenizer) ? new VectorWordTokenizer() : new CodePointWordTokenizer();
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        wordTokenizer.tokenize(text, (buffer, length) -> blackhole.consume(length));
+    }
+
+    @Benchmark
+    public FrequencyTable count() {
+        FrequencyTable table = new FrequencyTable();
+        wordTokenizer.tokenize(text, table);
+        return table;
+    }
+}
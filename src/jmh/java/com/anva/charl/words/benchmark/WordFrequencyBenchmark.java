@@ -0,0 +1,98 @@
+package com.anva.charl.words.benchmark;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.AnalysisProperties;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.cache.FrequencyTableCache;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link SimpleFrequencySearchService} analyses on generated corpora.
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:exec}, see the ReadMe for options.
+ *
+ * The frequency table cache is disabled, every invocation counts the whole text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WordFrequencyBenchmark {
+
+    private static final long SEED = 20_250_927L;
+    private static final int TOP_N = 10;
+
+    @Param({"1KB", "1MB", "100MB"})
+    public String size;
+
+    @Param({"LATIN", "CJK", "MIXED"})
+    public String script;
+
+    @Param({"100", "100000"})
+    public int vocabulary;
+
+    /** Threads for parallel counting of texts above the parallel threshold, to measure how it scales. */
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private SimpleFrequencySearchService service;
+    private String text;
+    private String word;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Corpus corpus = Corpus.generate(Corpus.Script.valueOf(script), vocabulary, Corpus.parseSize(size), SEED);
+        text = corpus.text();
+        // A word of medium rank, neither the most common nor one that hardly occurs
+        word = corpus.vocabulary()[corpus.vocabulary().length / 100];
+
+        AnalysisProperties defaults = AnalysisProperties.defaults();
+        var properties = new AnalysisProperties(defaults.parallelThreshold(), parallelism, defaults.countingThreads(), false,
+                defaults.scratchSets(), defaults.scratchTableSize());
+        service = new SimpleFrequencySearchService(new CodePointWordTokenizer(), properties, FrequencyTableCache.disabled());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public int highestFrequency() {
+        return service.calculateHighestFrequency(text);
+    }
+
+    @Benchmark
+    public int frequencyForWord() {
+        return service.calculateFrequencyForWord(text, word);
+    }
+
+    @Benchmark
+    public List<WordFrequency> mostFrequentNWords() {
+        return service.calculateMostFrequentNWords(text, TOP_N);
+    }
+
+    @Benchmark
+    public List<WordFrequency> mostFrequentNWordsStreamed() throws IOException {
+        return service.calculateMostFrequentNWords(new StringReader(text), TOP_N);
+    }
+}
@@ -2,8 +2,10 @@ package com.anva.charl.words;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class WordSearchApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,49 @@
+package com.anva.charl.words;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.WordTable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command line entry point that analyzes a UTF-8 file on disk without starting the web application.
+ * The file is memory-mapped and counted in parallel, it is never read onto the heap.
+ *
+ * Usage: {@code WordSearchCli <file> [limit]}, prints the highest frequency and the most frequent words.
+ */
+public class WordSearchCli {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: WordSearchCli <file> [limit]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        if (!Files.isRegularFile(file)) {
+            System.err.println("Not a file: " + file);
+            System.exit(1);
+        }
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LIMIT;
+
+        SimpleFrequencySearchService service = new SimpleFrequencySearchService();
+        WordTable table = service.buildFrequencyTable(file);
+        print(table, limit, System.out);
+        service.shutdown();
+    }
+
+    static void print(WordTable table, int limit, PrintStream out) {
+        out.println("Distinct words: " + table.size());
+        out.println("Total words: " + table.totalCount());
+        out.println("Highest frequency: " + table.maxCount());
+        for (WordFrequency wordFrequency : TopWordsSelector.select(table, limit)) {
+            out.println(wordFrequency.frequency() + "\t" + wordFrequency.word());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.anva.charl.words.data.model;
+
+/**
+ * A word with its estimated frequency. The true frequency lies between
+ * {@code frequency - errorBound} and {@code frequency}, with the given confidence.
+ */
+public record ApproximateWordFrequency(String word, int frequency, int errorBound, double confidence) implements WordFrequency {
+
+}
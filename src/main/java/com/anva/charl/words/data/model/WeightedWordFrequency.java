@@ -0,0 +1,6 @@
+package com.anva.charl.words.data.model;
+
+
+public record WeightedWordFrequency(String word, int frequency, double weight) implements WordFrequency {
+
+}
@@ -0,0 +1,13 @@
+package com.anva.charl.words.data.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Where a word occurs in a text.
+ *
+ * @param start Index in the text of the first character of the word
+ * @param end Index in the text after the last character of the word
+ * @param snippet The word with the text around it, or null if no snippet was asked for
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WordOccurrence(int start, int end, String snippet) {}
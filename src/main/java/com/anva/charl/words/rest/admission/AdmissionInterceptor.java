@@ -0,0 +1,39 @@
+package com.anva.charl.words.rest.admission;
+
+import com.anva.charl.words.service.admission.AdmissionController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests with a body before the body is read, weighted by its declared length.
+ * Rejections surface as {@link com.anva.charl.words.service.admission.AdmissionRejectedException}
+ * and are turned into responses by the exception handler.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionController admissionController;
+
+    public AdmissionInterceptor(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"POST".equals(request.getMethod())) return true;
+
+        request.setAttribute(PERMIT_ATTRIBUTE, admissionController.admit(request.getContentLengthLong()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionController.Permit permit) {
+            permit.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.rest.model.HighestFrequencyRequest;
+import com.anva.charl.words.rest.model.HighestFrequencySpecificRequest;
+import com.anva.charl.words.rest.model.MostFrequentWordsRequest;
+import com.anva.charl.words.service.approximate.ApproximateFrequency;
+import com.anva.charl.words.service.approximate.ApproximateFrequencyService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST Controller for the approximate variants of the {@link WordFrequencyController} endpoints.
+ * Texts are counted in a fixed amount of memory however large their vocabulary is, and every
+ * frequency comes with an error bound and the confidence of that bound.
+ *
+ * Like the exact endpoints, every endpoint also accepts the text as a streamed {@code text/plain} body.
+ */
+@RestController
+@RequestMapping("/api/words/approximate")
+public class ApproximateFrequencyController {
+
+    private final ApproximateFrequencyService approximateService;
+
+    public ApproximateFrequencyController(ApproximateFrequencyService approximateService) {
+        this.approximateService = approximateService;
+    }
+
+    /**
+     * Estimates the highest frequency of any word in the provided text.
+     *
+     * @param request Contains the text to analyze
+     * @return ResponseEntity with the estimated highest frequency and its error bound
+     */
+    @PostMapping("/freq/highest")
+    public ResponseEntity<ApproximateFrequency> calculateHighestFrequency(@Valid @RequestBody HighestFrequencyRequest request) {
+        return ResponseEntity.ok(approximateService.calculateHighestFrequency(request.text()));
+    }
+
+    /**
+     * Estimates the frequency of a specific word in the provided text.
+     *
+     * @param request Contains the text to analyze and the specific word to search for
+     * @return ResponseEntity with the estimated frequency of the word and its error bound
+     */
+    @PostMapping("/freq/specific")
+    public ResponseEntity<ApproximateFrequency> calculateFrequencyForWord(@Valid @RequestBody HighestFrequencySpecificRequest request) {
+        return ResponseEntity.ok(approximateService.calculateFrequencyForWord(request.text(), request.word()));
+    }
+
+    /**
+     * Estimates the N most frequent words in the provided text.
+     *
+     * @param request Contains the text to analyze and the limit (N) for number of results
+     * @return ResponseEntity with the N words with the highest estimates and their error bounds
+     */
+    @PostMapping("/freq/page")
+    public ResponseEntity<List<ApproximateWordFrequency>> calculateMostFrequentWords(@Valid @RequestBody MostFrequentWordsRequest request) {
+        return ResponseEntity.ok(approximateService.calculateMostFrequentNWords(request.text(), request.limit()));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateHighestFrequency(HighestFrequencyRequest)} for plain text bodies.
+     *
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the estimated highest frequency and its error bound
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/highest", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ApproximateFrequency> streamHighestFrequency(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(approximateService.calculateHighestFrequency(
+                WordFrequencyController.bodyReader(request), request.getContentLengthLong()));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateFrequencyForWord(HighestFrequencySpecificRequest)} for plain text bodies.
+     *
+     * @param word The specific word to search for
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the estimated frequency of the word and its error bound
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/specific", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ApproximateFrequency> streamFrequencyForWord(
+            @RequestParam(required = false) @NotBlank(message = "A word to search for is missing") String word,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(approximateService.calculateFrequencyForWord(
+                WordFrequencyController.bodyReader(request), request.getContentLengthLong(), word));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateMostFrequentWords(MostFrequentWordsRequest)} for plain text bodies.
+     *
+     * @param limit The maximum number of results to return
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the N words with the highest estimates and their error bounds
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/page", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<List<ApproximateWordFrequency>> streamMostFrequentWords(
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(approximateService.calculateMostFrequentNWords(
+                WordFrequencyController.bodyReader(request), request.getContentLengthLong(), limit));
+    }
+}
@@ -0,0 +1,113 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.rest.error.ValidationError;
+import com.anva.charl.words.rest.model.BatchTextResult;
+import com.anva.charl.words.rest.model.BatchTextsRequest;
+import com.anva.charl.words.rest.model.BatchWordsRequest;
+import com.anva.charl.words.rest.model.BatchWordsResponse;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.batch.BatchFrequencyService;
+import com.anva.charl.words.service.batch.TextAnalysis;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST Controller for batch queries, answering many questions in one request:
+ * - The frequencies of many words in one text
+ * - The same query over many texts
+ *
+ * Invalid items (blank words or texts) do not fail the whole request, they are
+ * reported per item in the same form as request validation errors.
+ */
+@RestController
+@RequestMapping("/api/words/batch")
+public class BatchController {
+
+    private static final String ITEM_PROBLEM = "Input Validation Failed";
+
+    private final SimpleFrequencySearchService searchService;
+    private final BatchFrequencyService batchService;
+
+    public BatchController(SimpleFrequencySearchService searchService, BatchFrequencyService batchService) {
+        this.searchService = searchService;
+        this.batchService = batchService;
+    }
+
+    /**
+     * Calculates the frequencies of many words in one text, in a single pass over the text.
+     *
+     * @param request Contains the text to analyze and the words to search for
+     * @return ResponseEntity with the frequency of every valid word and the errors of the invalid ones
+     */
+    @PostMapping("/specific")
+    public ResponseEntity<BatchWordsResponse> calculateFrequencyForWords(@Valid @RequestBody BatchWordsRequest request) {
+        List<ValidationError.FieldError> fieldErrors = new ArrayList<>();
+        List<String> words = validWords(request.words(), fieldErrors);
+
+        var frequencies = searchService.calculateFrequencyForWords(request.text(), words);
+        return ResponseEntity.ok(new BatchWordsResponse(frequencies, itemErrors(fieldErrors)));
+    }
+
+    /**
+     * Answers the same query for many texts, which are analyzed concurrently.
+     * For every text the highest frequency is reported, plus the frequencies of the
+     * requested words and the N most frequent words when asked for.
+     *
+     * @param request Contains the texts to analyze and the shared query
+     * @return ResponseEntity with one result per text, in the order of the texts
+     */
+    @PostMapping("/texts")
+    public ResponseEntity<List<BatchTextResult>> analyzeTexts(@Valid @RequestBody BatchTextsRequest request) {
+        List<ValidationError.FieldError> wordErrors = new ArrayList<>();
+        List<String> words = request.words() == null ? List.of() : validWords(request.words(), wordErrors);
+
+        List<Integer> validIndexes = new ArrayList<>();
+        List<String> validTexts = new ArrayList<>();
+        for (int i = 0; i < request.texts().size(); i++) {
+            String text = request.texts().get(i);
+            if (text != null && !text.isBlank()) {
+                validIndexes.add(i);
+                validTexts.add(text);
+            }
+        }
+        List<TextAnalysis> analyses = batchService.analyzeTexts(validTexts, words, request.limit());
+
+        List<BatchTextResult> results = new ArrayList<>(request.texts().size());
+        int next = 0;
+        for (int i = 0; i < request.texts().size(); i++) {
+            if (next < validIndexes.size() && validIndexes.get(next) == i) {
+                TextAnalysis analysis = analyses.get(next++);
+                results.add(new BatchTextResult(i, analysis.highestFrequency(), analysis.frequencies(),
+                        analysis.mostFrequentWords(), itemErrors(wordErrors)));
+            } else {
+                var fieldError = new ValidationError.FieldError("texts[" + i + "]", "Text block to search in is missing");
+                results.add(new BatchTextResult(i, null, null, null, itemErrors(List.of(fieldError))));
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    private static List<String> validWords(List<String> words, List<ValidationError.FieldError> fieldErrors) {
+        List<String> valid = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (word == null || word.isBlank()) {
+                fieldErrors.add(new ValidationError.FieldError("words[" + i + "]", "A word to search for is missing"));
+            } else {
+                valid.add(word);
+            }
+        }
+        return valid;
+    }
+
+    private static ValidationError itemErrors(List<ValidationError.FieldError> fieldErrors) {
+        return fieldErrors.isEmpty() ? null : new ValidationError(ITEM_PROBLEM, fieldErrors);
+    }
+}
@@ -0,0 +1,44 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.rest.model.CorpusRequest;
+import com.anva.charl.words.rest.model.NormalizationParameters;
+import com.anva.charl.words.service.corpus.CorpusAnalysis;
+import com.anva.charl.words.service.corpus.CorpusAnalysisService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+/**
+ * REST Controller for corpus queries, which analyze many documents together:
+ * - The frequencies of terms in every document
+ * - The number of documents every term occurs in
+ * - The keywords of every document, its terms weighted by TF-IDF or BM25 against the corpus
+ */
+@RestController
+@RequestMapping("/api/words/corpus")
+public class CorpusController {
+
+    private final CorpusAnalysisService corpusService;
+
+    public CorpusController(CorpusAnalysisService corpusService) {
+        this.corpusService = corpusService;
+    }
+
+    /**
+     * Analyzes the documents concurrently and picks the keywords of every document.
+     *
+     * @param request Contains the documents, the optional terms and the number and weighting of the keywords
+     * @param normalization Optional normalization of the words, the terms are normalized as well
+     * @return ResponseEntity with the document frequencies of the terms and one result per document, in the order of the documents
+     */
+    @PostMapping("/keywords")
+    public ResponseEntity<CorpusAnalysis> analyzeCorpus(@Valid @RequestBody CorpusRequest request,
+                                                        @Valid NormalizationParameters normalization) {
+        return ResponseEntity.ok(corpusService.analyze(request.documents(), request.termsOrEmpty(),
+                request.limitOrDefault(), request.toWeighting(), normalization.toOptions()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.rest.model.DocumentRequest;
+import com.anva.charl.words.rest.model.DocumentResponse;
+import com.anva.charl.words.rest.model.HighestFrequencyResponse;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.document.DocumentStore;
+import com.anva.charl.words.service.document.StoredDocument;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * REST Controller for documents that are uploaded once and queried by id.
+ * Uploading a document analyzes it and keeps its frequency table, after which
+ * the same queries as {@link WordFrequencyController} are answered without
+ * sending or tokenizing the text again.
+ */
+@RestController
+@RequestMapping("/api/documents")
+public class DocumentController {
+
+    private final SimpleFrequencySearchService searchService;
+    private final DocumentStore documentStore;
+
+    public DocumentController(SimpleFrequencySearchService searchService, DocumentStore documentStore) {
+        this.searchService = searchService;
+        this.documentStore = documentStore;
+    }
+
+    /**
+     * Uploads a document and analyzes it.
+     *
+     * @param request Contains the text of the document
+     * @return ResponseEntity with the id of the new document
+     */
+    @PostMapping
+    public ResponseEntity<DocumentResponse> addDocument(@Valid @RequestBody DocumentRequest request) {
+        StoredDocument document = documentStore.add(searchService.buildFrequencyTable(request.text()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(new DocumentResponse(document.id(), document.distinctWords()));
+    }
+
+    /**
+     * Uploads a document sent as a plain text body, the body is streamed through the analysis.
+     *
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the id of the new document
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<DocumentResponse> streamDocument(HttpServletRequest request) throws IOException {
+        try (Reader reader = WordFrequencyController.bodyReader(request)) {
+            StoredDocument document = documentStore.add(searchService.buildFrequencyTable(reader));
+            return ResponseEntity.status(HttpStatus.CREATED).body(new DocumentResponse(document.id(), document.distinctWords()));
+        }
+    }
+
+    /**
+     * Calculates the highest frequency of any word in the document.
+     *
+     * @param id The document id
+     * @return ResponseEntity with HighestFrequencyResponse containing the highest frequency count
+     */
+    @GetMapping("/{id}/freq/highest")
+    public ResponseEntity<HighestFrequencyResponse> calculateHighestFrequency(@PathVariable String id) {
+        return ResponseEntity.ok(new HighestFrequencyResponse(documentStore.get(id).highestFrequency()));
+    }
+
+    /**
+     * Calculates the frequency of a specific word in the document.
+     *
+     * @param id The document id
+     * @param word The specific word to search for
+     * @return ResponseEntity with HighestFrequencyResponse containing the frequency count for the specified word
+     */
+    @GetMapping("/{id}/freq/specific")
+    public ResponseEntity<HighestFrequencyResponse> calculateFrequencyForWord(
+            @PathVariable String id,
+            @RequestParam(required = false) @NotBlank(message = "A word to search for is missing") String word) {
+        return ResponseEntity.ok(new HighestFrequencyResponse(documentStore.get(id).frequencyForWord(word)));
+    }
+
+    /**
+     * Finds the N most frequent words in the document.
+     *
+     * @param id The document id
+     * @param limit The maximum number of results to return
+     * @return ResponseEntity with List of WordFrequency objects containing the top N most frequent words
+     */
+    @GetMapping("/{id}/freq/page")
+    public ResponseEntity<List<WordFrequency>> calculateMostFrequentWords(
+            @PathVariable String id,
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit) {
+        return ResponseEntity.ok(documentStore.get(id).mostFrequentWords(limit));
+    }
+
+    /**
+     * Deletes a document, freeing its memory and its file.
+     *
+     * @param id The document id
+     * @return ResponseEntity without content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteDocument(@PathVariable String id) {
+        documentStore.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
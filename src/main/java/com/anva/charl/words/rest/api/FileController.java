@@ -0,0 +1,98 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.rest.model.HighestFrequencyResponse;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.admission.AdmissionController;
+import com.anva.charl.words.service.file.CorpusFiles;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * REST Controller for UTF-8 files that are already on the local disk of the service.
+ * Files are named by their path relative to the configured corpus directory and are
+ * memory-mapped for the analysis, so they can be far larger than a request body.
+ * Every analysis is admitted with the size of the file as its weight.
+ */
+@RestController
+@RequestMapping("/api/files")
+public class FileController {
+
+    private static final String PATH_MISSING = "A path of a file to analyze is missing";
+
+    private final SimpleFrequencySearchService searchService;
+    private final CorpusFiles corpusFiles;
+    private final AdmissionController admissionController;
+
+    public FileController(SimpleFrequencySearchService searchService, CorpusFiles corpusFiles,
+                          AdmissionController admissionController) {
+        this.searchService = searchService;
+        this.corpusFiles = corpusFiles;
+        this.admissionController = admissionController;
+    }
+
+    /**
+     * Calculates the highest frequency of any word in the file.
+     *
+     * @param path The path of the file, relative to the corpus directory
+     * @return ResponseEntity with HighestFrequencyResponse containing the highest frequency count
+     * @throws IOException If reading the file fails
+     */
+    @GetMapping("/freq/highest")
+    public ResponseEntity<HighestFrequencyResponse> calculateHighestFrequency(
+            @RequestParam(required = false) @NotBlank(message = PATH_MISSING) String path) throws IOException {
+        Path file = corpusFiles.resolve(path);
+        try (var permit = admissionController.admit(Files.size(file))) {
+            return ResponseEntity.ok(new HighestFrequencyResponse(searchService.calculateHighestFrequency(file)));
+        }
+    }
+
+    /**
+     * Calculates the frequency of a specific word in the file.
+     *
+     * @param path The path of the file, relative to the corpus directory
+     * @param word The specific word to search for
+     * @return ResponseEntity with HighestFrequencyResponse containing the frequency count for the specified word
+     * @throws IOException If reading the file fails
+     */
+    @GetMapping("/freq/specific")
+    public ResponseEntity<HighestFrequencyResponse> calculateFrequencyForWord(
+            @RequestParam(required = false) @NotBlank(message = PATH_MISSING) String path,
+            @RequestParam(required = false) @NotBlank(message = "A word to search for is missing") String word) throws IOException {
+        Path file = corpusFiles.resolve(path);
+        try (var permit = admissionController.admit(Files.size(file))) {
+            return ResponseEntity.ok(new HighestFrequencyResponse(searchService.calculateFrequencyForWord(file, word)));
+        }
+    }
+
+    /**
+     * Finds the N most frequent words in the file.
+     *
+     * @param path The path of the file, relative to the corpus directory
+     * @param limit The maximum number of results to return
+     * @return ResponseEntity with List of WordFrequency objects containing the top N most frequent words
+     * @throws IOException If reading the file fails
+     */
+    @GetMapping("/freq/page")
+    public ResponseEntity<List<WordFrequency>> calculateMostFrequentWords(
+            @RequestParam(required = false) @NotBlank(message = PATH_MISSING) String path,
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit) throws IOException {
+        Path file = corpusFiles.resolve(path);
+        try (var permit = admissionController.admit(Files.size(file))) {
+            return ResponseEntity.ok(searchService.calculateMostFrequentNWords(file, limit));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.rest.model.HighestFrequencyResponse;
+import com.anva.charl.words.rest.model.JobResponse;
+import com.anva.charl.words.rest.model.NormalizationParameters;
+import com.anva.charl.words.service.file.CorpusFiles;
+import com.anva.charl.words.service.job.AnalysisJob;
+import com.anva.charl.words.service.job.JobStore;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * REST Controller for analyses that take longer than a request may stay open.
+ * Submitting a text or a file returns a job at once, 202 Accepted, while the job is analyzed
+ * on a bounded pool in the background. Clients poll the job for its progress, query its
+ * results once it has completed, and may cancel it at any time.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobStore jobStore;
+    private final CorpusFiles corpusFiles;
+
+    public JobController(JobStore jobStore, CorpusFiles corpusFiles) {
+        this.jobStore = jobStore;
+        this.corpusFiles = corpusFiles;
+    }
+
+    /**
+     * Submits a job analyzing the plain text body. The request ends once the body has been received.
+     *
+     * @param normalization Optional normalization of the words
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the new job, or the earlier job for the same text
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<JobResponse> submitText(@Valid NormalizationParameters normalization,
+                                                  HttpServletRequest request) throws IOException {
+        AnalysisJob job = WordFrequencyController.isUtf8(request)
+                ? jobStore.submitText(request.getInputStream(), normalization.toOptions())
+                : jobStore.submitText(WordFrequencyController.bodyReader(request), normalization.toOptions());
+        return accepted(job);
+    }
+
+    /**
+     * Submits a job analyzing a UTF-8 file from the corpus directory.
+     *
+     * @param path The path of the file, relative to the corpus directory
+     * @param normalization Optional normalization of the words
+     * @return ResponseEntity with the new job, or the earlier job for the same version of the file
+     * @throws IOException If the file cannot be read
+     */
+    @PostMapping("/files")
+    public ResponseEntity<JobResponse> submitFile(
+            @RequestParam(required = false) @NotBlank(message = "A path of a file to analyze is missing") String path,
+            @Valid NormalizationParameters normalization) throws IOException {
+        return accepted(jobStore.submitFile(corpusFiles.resolve(path), normalization.toOptions()));
+    }
+
+    /**
+     * @param id The job id
+     * @return ResponseEntity with the state and progress of the job
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobResponse> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(response(jobStore.get(id)));
+    }
+
+    /**
+     * Cancels a job, a running job stops after the chunk it is counting.
+     *
+     * @param id The job id
+     * @return ResponseEntity with the state of the job
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<JobResponse> cancelJob(@PathVariable String id) {
+        return ResponseEntity.ok(response(jobStore.cancel(id)));
+    }
+
+    /**
+     * Cancels a job and drops its results.
+     *
+     * @param id The job id
+     * @return ResponseEntity without content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteJob(@PathVariable String id) {
+        jobStore.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Calculates the highest frequency of any word in the text of a completed job.
+     *
+     * @param id The job id
+     * @return ResponseEntity with HighestFrequencyResponse containing the highest frequency count
+     */
+    @GetMapping("/{id}/freq/highest")
+    public ResponseEntity<HighestFrequencyResponse> calculateHighestFrequency(@PathVariable String id) {
+        return ResponseEntity.ok(new HighestFrequencyResponse(jobStore.get(id).highestFrequency()));
+    }
+
+    /**
+     * Calculates the frequency of a specific word in the text of a completed job.
+     *
+     * @param id The job id
+     * @param word The specific word to search for, normalized like the text
+     * @return ResponseEntity with HighestFrequencyResponse containing the frequency count for the specified word
+     */
+    @GetMapping("/{id}/freq/specific")
+    public ResponseEntity<HighestFrequencyResponse> calculateFrequencyForWord(
+            @PathVariable String id,
+            @RequestParam(required = false) @NotBlank(message = "A word to search for is missing") String word) {
+        return ResponseEntity.ok(new HighestFrequencyResponse(jobStore.get(id).frequencyForWord(word)));
+    }
+
+    /**
+     * Finds the N most frequent words in the text of a completed job.
+     *
+     * @param id The job id
+     * @param limit The maximum number of results to return
+     * @return ResponseEntity with List of WordFrequency objects containing the top N most frequent words
+     */
+    @GetMapping("/{id}/freq/page")
+    public ResponseEntity<List<WordFrequency>> calculateMostFrequentWords(
+            @PathVariable String id,
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit) {
+        return ResponseEntity.ok(jobStore.get(id).mostFrequentWords(limit));
+    }
+
+    private static ResponseEntity<JobResponse> accepted(AnalysisJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.id()))
+                .body(response(job));
+    }
+
+    private static JobResponse response(AnalysisJob job) {
+        Duration eta = job.eta();
+        return new JobResponse(job.id(), job.state(), job.bytesProcessed(), job.totalBytes(), job.words(),
+                eta == null ? null : eta.toSeconds(), job.elapsed().toMillis(), job.error());
+    }
+}
@@ -0,0 +1,165 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.rest.model.HighestFrequencyRequest;
+import com.anva.charl.words.rest.model.HighestFrequencyResponse;
+import com.anva.charl.words.rest.model.MostFrequentWordsRequest;
+import com.anva.charl.words.rest.model.NormalizationParameters;
+import com.anva.charl.words.rest.model.PhraseFrequencyRequest;
+import com.anva.charl.words.service.approximate.ApproximateFrequency;
+import com.anva.charl.words.service.ngram.NGramCounts;
+import com.anva.charl.words.service.ngram.NGramFrequencyService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * REST Controller for the n-gram variants of the {@link WordFrequencyController} endpoints,
+ * which count phrases of n consecutive words instead of single words. The number of words
+ * is given as the {@code n} query parameter, 2 unless given.
+ *
+ * The n-grams of a text are counted in bounded memory, so like the approximate endpoints the
+ * frequencies come with an error bound, which stays 0 unless the text has more distinct n-grams
+ * than fit. A specific phrase is always counted exactly.
+ *
+ * Like the exact endpoints, every endpoint also accepts the text as a streamed {@code text/plain} body
+ * and takes the optional normalization parameters.
+ */
+@RestController
+@RequestMapping("/api/words/ngrams")
+public class NGramFrequencyController {
+
+    private final NGramFrequencyService ngramService;
+
+    public NGramFrequencyController(NGramFrequencyService ngramService) {
+        this.ngramService = ngramService;
+    }
+
+    /**
+     * Calculates the highest frequency of any n-gram in the provided text.
+     *
+     * @param request Contains the text to analyze
+     * @param n Number of words per n-gram
+     * @param normalization Optional normalization of the words
+     * @return ResponseEntity with the highest frequency and its error bound
+     */
+    @PostMapping("/freq/highest")
+    public ResponseEntity<ApproximateFrequency> calculateHighestFrequency(
+            @Valid @RequestBody HighestFrequencyRequest request,
+            @RequestParam(defaultValue = "2")
+            @Min(value = 1, message = "An n-gram has at least 1 word")
+            @Max(value = NGramCounts.MAX_N, message = "An n-gram has at most 5 words") int n,
+            @Valid NormalizationParameters normalization) {
+        return ResponseEntity.ok(ngramService.calculateHighestFrequency(request.text(), n, normalization.toOptions()));
+    }
+
+    /**
+     * Calculates the frequency of a phrase in the provided text.
+     *
+     * @param request Contains the text to analyze and the phrase to search for
+     * @param normalization Optional normalization of the words, the phrase is normalized as well
+     * @return ResponseEntity with HighestFrequencyResponse containing the frequency of the phrase
+     */
+    @PostMapping("/freq/specific")
+    public ResponseEntity<HighestFrequencyResponse> calculateFrequencyForPhrase(@Valid @RequestBody PhraseFrequencyRequest request,
+                                                                                @Valid NormalizationParameters normalization) {
+        int occurrence = ngramService.calculateFrequencyForPhrase(request.text(), request.phrase(), normalization.toOptions());
+        return ResponseEntity.ok(new HighestFrequencyResponse(occurrence));
+    }
+
+    /**
+     * Finds the N most frequent n-grams in the provided text.
+     * Results are sorted by frequency (descending) and then alphabetically.
+     *
+     * @param request Contains the text to analyze and the limit (N) for number of results
+     * @param n Number of words per n-gram
+     * @param normalization Optional normalization of the words
+     * @return ResponseEntity with the N most frequent n-grams, their words separated by single spaces
+     */
+    @PostMapping("/freq/page")
+    public ResponseEntity<List<ApproximateWordFrequency>> calculateMostFrequentNGrams(
+            @Valid @RequestBody MostFrequentWordsRequest request,
+            @RequestParam(defaultValue = "2")
+            @Min(value = 1, message = "An n-gram has at least 1 word")
+            @Max(value = NGramCounts.MAX_N, message = "An n-gram has at most 5 words") int n,
+            @Valid NormalizationParameters normalization) {
+        return ResponseEntity.ok(ngramService.calculateMostFrequentNGrams(request.text(), n, request.limit(), normalization.toOptions()));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateHighestFrequency(HighestFrequencyRequest, int, NormalizationParameters)} for plain text bodies.
+     *
+     * @param n Number of words per n-gram
+     * @param normalization Optional normalization of the words
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the highest frequency and its error bound
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/highest", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ApproximateFrequency> streamHighestFrequency(
+            @RequestParam(defaultValue = "2")
+            @Min(value = 1, message = "An n-gram has at least 1 word")
+            @Max(value = NGramCounts.MAX_N, message = "An n-gram has at most 5 words") int n,
+            @Valid NormalizationParameters normalization,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(ngramService.calculateHighestFrequency(
+                WordFrequencyController.bodyReader(request), n, normalization.toOptions()));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateFrequencyForPhrase(PhraseFrequencyRequest, NormalizationParameters)} for plain text bodies.
+     *
+     * @param phrase The phrase to search for
+     * @param normalization Optional normalization of the words, the phrase is normalized as well
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with HighestFrequencyResponse containing the frequency of the phrase
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/specific", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<HighestFrequencyResponse> streamFrequencyForPhrase(
+            @RequestParam(required = false) @NotBlank(message = "A phrase to search for is missing") String phrase,
+            @Valid NormalizationParameters normalization,
+            HttpServletRequest request) throws IOException {
+        int occurrence = ngramService.calculateFrequencyForPhrase(
+                WordFrequencyController.bodyReader(request), phrase, normalization.toOptions());
+        return ResponseEntity.ok(new HighestFrequencyResponse(occurrence));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateMostFrequentNGrams(MostFrequentWordsRequest, int, NormalizationParameters)} for plain text bodies.
+     *
+     * @param limit The maximum number of results to return
+     * @param n Number of words per n-gram
+     * @param normalization Optional normalization of the words
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the N most frequent n-grams, their words separated by single spaces
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/page", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<List<ApproximateWordFrequency>> streamMostFrequentNGrams(
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit,
+            @RequestParam(defaultValue = "2")
+            @Min(value = 1, message = "An n-gram has at least 1 word")
+            @Max(value = NGramCounts.MAX_N, message = "An n-gram has at most 5 words") int n,
+            @Valid NormalizationParameters normalization,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(ngramService.calculateMostFrequentNGrams(
+                WordFrequencyController.bodyReader(request), n, limit, normalization.toOptions()));
+    }
+}
@@ -0,0 +1,158 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.rest.model.HighestFrequencyResponse;
+import com.anva.charl.words.rest.model.SessionRequest;
+import com.anva.charl.words.rest.model.SessionResponse;
+import com.anva.charl.words.rest.model.SessionTextRequest;
+import com.anva.charl.words.service.session.FrequencySession;
+import com.anva.charl.words.service.session.SessionStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * REST Controller for sessions over text that arrives in pieces, such as chat or log streams.
+ * Clients append chunks to a session and the frequencies are kept up to date as they arrive,
+ * optionally over a sliding window of the most recent words, so queries never recount the text.
+ */
+@RestController
+@RequestMapping("/api/sessions")
+public class SessionController {
+
+    private final SessionStore sessionStore;
+
+    public SessionController(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Opens a session, without a window all appended words are counted.
+     *
+     * @param request Optional window of the most recent words and/or seconds to count
+     * @return ResponseEntity with the id of the new session
+     */
+    @PostMapping
+    public ResponseEntity<SessionResponse> createSession(@Valid @RequestBody(required = false) SessionRequest request) {
+        int windowWords = request == null || request.windowWords() == null ? 0 : request.windowWords();
+        Duration windowAge = request == null || request.windowSeconds() == null
+                ? Duration.ZERO
+                : Duration.ofSeconds(request.windowSeconds());
+        FrequencySession session = sessionStore.create(windowWords, windowAge);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response(session));
+    }
+
+    /**
+     * Appends a chunk of text to the session.
+     *
+     * @param id The session id
+     * @param request Contains the chunk of text
+     * @return ResponseEntity with the size of the session's window
+     */
+    @PostMapping("/{id}/text")
+    public ResponseEntity<SessionResponse> appendText(@PathVariable String id, @Valid @RequestBody SessionTextRequest request) {
+        return ResponseEntity.ok(response(sessionStore.append(id, request.text())));
+    }
+
+    /**
+     * Appends a chunk of text sent as a plain text body to the session.
+     *
+     * @param id The session id
+     * @param request The request carrying the chunk as its body
+     * @return ResponseEntity with the size of the session's window
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/{id}/text", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<SessionResponse> appendPlainText(@PathVariable String id, HttpServletRequest request) throws IOException {
+        StringWriter text = new StringWriter();
+        try (Reader reader = WordFrequencyController.bodyReader(request)) {
+            reader.transferTo(text);
+        }
+        return ResponseEntity.ok(response(sessionStore.append(id, text.toString())));
+    }
+
+    /**
+     * @param id The session id
+     * @return ResponseEntity with the size of the session's window
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<SessionResponse> getSession(@PathVariable String id) {
+        return ResponseEntity.ok(response(sessionStore.get(id)));
+    }
+
+    /**
+     * Calculates the highest frequency of any word in the session's window.
+     *
+     * @param id The session id
+     * @return ResponseEntity with HighestFrequencyResponse containing the highest frequency count
+     */
+    @GetMapping("/{id}/freq/highest")
+    public ResponseEntity<HighestFrequencyResponse> calculateHighestFrequency(@PathVariable String id) {
+        return ResponseEntity.ok(new HighestFrequencyResponse(sessionStore.get(id).highestFrequency()));
+    }
+
+    /**
+     * Calculates the frequency of a specific word in the session's window.
+     *
+     * @param id The session id
+     * @param word The specific word to search for
+     * @return ResponseEntity with HighestFrequencyResponse containing the frequency count for the specified word
+     */
+    @GetMapping("/{id}/freq/specific")
+    public ResponseEntity<HighestFrequencyResponse> calculateFrequencyForWord(
+            @PathVariable String id,
+            @RequestParam(required = false) @NotBlank(message = "A word to search for is missing") String word) {
+        return ResponseEntity.ok(new HighestFrequencyResponse(sessionStore.get(id).frequencyForWord(word)));
+    }
+
+    /**
+     * Finds the N most frequent words in the session's window.
+     *
+     * @param id The session id
+     * @param limit The maximum number of results to return
+     * @return ResponseEntity with List of WordFrequency objects containing the top N most frequent words
+     */
+    @GetMapping("/{id}/freq/page")
+    public ResponseEntity<List<WordFrequency>> calculateMostFrequentWords(
+            @PathVariable String id,
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit) {
+        return ResponseEntity.ok(sessionStore.get(id).mostFrequentWords(limit));
+    }
+
+    /**
+     * Closes a session, freeing its memory.
+     *
+     * @param id The session id
+     * @return ResponseEntity without content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSession(@PathVariable String id) {
+        sessionStore.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static SessionResponse response(FrequencySession session) {
+        return new SessionResponse(session.id(), session.distinctWords(), session.totalWords());
+    }
+}
@@ -0,0 +1,119 @@
+package com.anva.charl.words.rest.api;
+
+import com.anva.charl.words.rest.model.HighestFrequencyRequest;
+import com.anva.charl.words.service.summary.FrequencySummaryService;
+import com.anva.charl.words.service.summary.MergedSummary;
+import com.anva.charl.words.service.summary.SummaryWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST Controller for counting a corpus sharded across several instances.
+ * Every instance returns the frequency summary of its shards, a compact binary form of its
+ * frequency table, and the summaries of all shards are merged into the global top N.
+ *
+ * Summaries are uploaded to the merge endpoints as {@code multipart/form-data} parts named {@code summary}.
+ */
+@RestController
+@RequestMapping("/api/words/summary")
+public class SummaryController {
+
+    private static final MediaType SUMMARY = MediaType.parseMediaType(SummaryWriter.MEDIA_TYPE);
+
+    private final FrequencySummaryService summaryService;
+
+    public SummaryController(FrequencySummaryService summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    /**
+     * Summarizes the provided text.
+     *
+     * @param request Contains the text to summarize
+     * @param compressed Whether to deflate the summary
+     * @return ResponseEntity with the frequency summary of the text
+     * @throws IOException If writing the summary fails
+     */
+    @PostMapping(produces = SummaryWriter.MEDIA_TYPE)
+    public ResponseEntity<byte[]> summarize(@Valid @RequestBody HighestFrequencyRequest request,
+                                            @RequestParam(defaultValue = "false") boolean compressed) throws IOException {
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        summaryService.summarize(request.text(), summary, compressed);
+        return ResponseEntity.ok().contentType(SUMMARY).body(summary.toByteArray());
+    }
+
+    /**
+     * Streaming variant of {@link #summarize(HighestFrequencyRequest, boolean)} for plain text bodies.
+     *
+     * @param compressed Whether to deflate the summary
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the frequency summary of the text
+     * @throws IOException If reading the body or writing the summary fails
+     */
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE, produces = SummaryWriter.MEDIA_TYPE)
+    public ResponseEntity<byte[]> streamSummarize(@RequestParam(defaultValue = "false") boolean compressed,
+                                                  HttpServletRequest request) throws IOException {
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        if (WordFrequencyController.isUtf8(request)) {
+            summaryService.summarize(request.getInputStream(), summary, compressed);
+        } else {
+            summaryService.summarize(WordFrequencyController.bodyReader(request), summary, compressed);
+        }
+        return ResponseEntity.ok().contentType(SUMMARY).body(summary.toByteArray());
+    }
+
+    /**
+     * Merges the summaries of all shards into the global result.
+     *
+     * @param summaries The frequency summaries of the shards
+     * @param limit The maximum number of results to return
+     * @return ResponseEntity with the global totals, highest frequency and N most frequent words
+     * @throws IOException If reading a summary fails
+     */
+    @PostMapping(value = "/merge", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MergedSummary> mergeSummaries(
+            @RequestParam("summary") List<MultipartFile> summaries,
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit) throws IOException {
+        return ResponseEntity.ok(summaryService.merge(open(summaries), limit));
+    }
+
+    /**
+     * Merges summaries into a single summary, for merging the summaries of many shards in stages.
+     *
+     * @param summaries The frequency summaries to merge
+     * @param compressed Whether to deflate the merged summary
+     * @return ResponseEntity with the merged frequency summary
+     * @throws IOException If reading a summary fails
+     */
+    @PostMapping(value = "/merge/summary", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = SummaryWriter.MEDIA_TYPE)
+    public ResponseEntity<byte[]> mergeToSummary(@RequestParam("summary") List<MultipartFile> summaries,
+                                                 @RequestParam(defaultValue = "false") boolean compressed) throws IOException {
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        summaryService.merge(open(summaries), merged, compressed);
+        return ResponseEntity.ok().contentType(SUMMARY).body(merged.toByteArray());
+    }
+
+    private static List<InputStream> open(List<MultipartFile> summaries) throws IOException {
+        List<InputStream> streams = new ArrayList<>(summaries.size());
+        for (MultipartFile summary : summaries) streams.add(summary.getInputStream());
+        return streams;
+    }
+}
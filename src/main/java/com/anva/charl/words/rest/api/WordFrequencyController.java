@@ -1,18 +1,40 @@
 package com.anva.charl.words.rest.api;
 
 import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.rest.error.UnsupportedBodyCharsetException;
 import com.anva.charl.words.rest.model.HighestFrequencyRequest;
 import com.anva.charl.words.rest.model.HighestFrequencyResponse;
 import com.anva.charl.words.rest.model.HighestFrequencySpecificRequest;
 import com.anva.charl.words.rest.model.MostFrequentWordsRequest;
+import com.anva.charl.words.rest.model.NormalizationParameters;
+import com.anva.charl.words.rest.model.WordPositionsRequest;
 import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.cache.CacheStats;
+import com.anva.charl.words.service.cache.FrequencyTableCache;
+import com.anva.charl.words.service.position.WordPositions;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.List;
 
 /**
@@ -21,29 +43,44 @@ import java.util.List;
  * - Finding the highest frequency word
  * - Calculating frequency of specific words
  * - Finding N most frequent words
+ * - Finding where a specific word occurs
  *
  * All endpoints support multi-language text and handle various text processing requirements
  * including punctuation and case-sensitivity.
+ *
+ * Every endpoint also accepts the text as a raw {@code text/plain} body, with the other
+ * parameters in the query string. Such bodies are streamed through the analysis in chunks
+ * instead of being read into a single String, which suits very large texts. UTF-8 bodies,
+ * the default, are tokenized as bytes without decoding them to chars at all. Only the positions
+ * endpoint reads the whole body, since its snippets are cut from the text.
+ *
+ * Every endpoint takes optional normalization parameters in the query string:
+ * {@code nfkc}, {@code caseFold}, {@code stripDiacritics}, {@code stopwords} and {@code stemmer}.
  */
 @RestController
 @RequestMapping("/api/words/")
 public class WordFrequencyController {
 
     private final SimpleFrequencySearchService searchService;
+    private final FrequencyTableCache frequencyTableCache;
 
-    public WordFrequencyController(SimpleFrequencySearchService simpleFrequencySearchService) {
+    public WordFrequencyController(SimpleFrequencySearchService simpleFrequencySearchService,
+                                   FrequencyTableCache frequencyTableCache) {
         this.searchService = simpleFrequencySearchService;
+        this.frequencyTableCache = frequencyTableCache;
     }
 
     /**
      * Calculates the highest frequency of any word in the provided text.
      *
      * @param request Contains the text to analyze
+     * @param normalization Optional normalization of the words
      * @return ResponseEntity with HighestFrequencyResponse containing the highest frequency count
      */
     @PostMapping("/freq/highest")
-    public ResponseEntity<HighestFrequencyResponse> calculateHighestFrequency(@Valid @RequestBody HighestFrequencyRequest request) {
-        int highestOccurrence = searchService.calculateHighestFrequency(request.text());
+    public ResponseEntity<HighestFrequencyResponse> calculateHighestFrequency(@Valid @RequestBody HighestFrequencyRequest request,
+                                                                              @Valid NormalizationParameters normalization) {
+        int highestOccurrence = searchService.calculateHighestFrequency(request.text(), normalization.toOptions());
         return ResponseEntity.ok(new HighestFrequencyResponse(highestOccurrence));
     }
 
@@ -52,11 +89,13 @@ public class WordFrequencyController {
      * The search is case-insensitive and handles various forms of punctuation.
      *
      * @param request Contains the text to analyze and the specific word to search for
+     * @param normalization Optional normalization of the words, the searched word is normalized as well
      * @return ResponseEntity with HighestFrequencyResponse containing the frequency count for the specified word
      */
     @PostMapping("/freq/specific")
-    public ResponseEntity<HighestFrequencyResponse> calculateFrequencyForWord(@Valid @RequestBody HighestFrequencySpecificRequest request) {
-        int occurrence = searchService.calculateFrequencyForWord(request.text(), request.word());
+    public ResponseEntity<HighestFrequencyResponse> calculateFrequencyForWord(@Valid @RequestBody HighestFrequencySpecificRequest request,
+                                                                              @Valid NormalizationParameters normalization) {
+        int occurrence = searchService.calculateFrequencyForWord(request.text(), request.word(), normalization.toOptions());
         return ResponseEntity.ok(new HighestFrequencyResponse(occurrence));
     }
 
@@ -65,11 +104,154 @@ public class WordFrequencyController {
      * Results are sorted by frequency (descending) and then alphabetically.
      *
      * @param request Contains the text to analyze and the limit (N) for number of results
+     * @param normalization Optional normalization of the words
      * @return ResponseEntity with List of WordFrequency objects containing the top N most frequent words
      */
     @PostMapping("/freq/page")
-    public ResponseEntity<List<WordFrequency>> calculateFrequencyForWord(@Valid @RequestBody MostFrequentWordsRequest request) {
-        var wordList = searchService.calculateMostFrequentNWords(request.text(), request.limit());
+    public ResponseEntity<List<WordFrequency>> calculateFrequencyForWord(@Valid @RequestBody MostFrequentWordsRequest request,
+                                                                         @Valid NormalizationParameters normalization) {
+        var wordList = searchService.calculateMostFrequentNWords(request.text(), request.limit(), normalization.toOptions());
+        return ResponseEntity.ok(wordList);
+    }
+
+    /**
+     * Finds where a specific word occurs in the provided text, optionally with a snippet of the text around every occurrence.
+     * The text is indexed with the offsets of all its words in one pass, and the index is cached,
+     * so further words of the same text are looked up without tokenizing the text again.
+     *
+     * @param request Contains the text to analyze, the word to search for, the number of occurrences and the context of the snippets
+     * @param normalization Optional normalization of the words, the searched word is normalized as well
+     * @return ResponseEntity with the frequency of the word and its first occurrences
+     */
+    @PostMapping("/freq/positions")
+    public ResponseEntity<WordPositions> findWordPositions(@Valid @RequestBody WordPositionsRequest request,
+                                                           @Valid NormalizationParameters normalization) {
+        var positions = searchService.findWordPositions(request.text(), request.word(), request.limitOrDefault(),
+                request.contextOrNone(), normalization.toOptions());
+        return ResponseEntity.ok(positions);
+    }
+
+    /**
+     * Streaming variant of {@link #calculateHighestFrequency(HighestFrequencyRequest, NormalizationParameters)} for plain text bodies.
+     *
+     * @param normalization Optional normalization of the words
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with HighestFrequencyResponse containing the highest frequency count
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/highest", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<HighestFrequencyResponse> streamHighestFrequency(@Valid NormalizationParameters normalization,
+                                                                           HttpServletRequest request) throws IOException {
+        int highestOccurrence = isUtf8(request)
+                ? searchService.calculateHighestFrequency(request.getInputStream(), normalization.toOptions())
+                : searchService.calculateHighestFrequency(bodyReader(request), normalization.toOptions());
+        return ResponseEntity.ok(new HighestFrequencyResponse(highestOccurrence));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateFrequencyForWord(HighestFrequencySpecificRequest, NormalizationParameters)} for plain text bodies.
+     *
+     * @param word The specific word to search for
+     * @param normalization Optional normalization of the words, the searched word is normalized as well
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with HighestFrequencyResponse containing the frequency count for the specified word
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/specific", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<HighestFrequencyResponse> streamFrequencyForWord(
+            @RequestParam(required = false) @NotBlank(message = "A word to search for is missing") String word,
+            @Valid NormalizationParameters normalization,
+            HttpServletRequest request) throws IOException {
+        int occurrence = isUtf8(request)
+                ? searchService.calculateFrequencyForWord(request.getInputStream(), word, normalization.toOptions())
+                : searchService.calculateFrequencyForWord(bodyReader(request), word, normalization.toOptions());
+        return ResponseEntity.ok(new HighestFrequencyResponse(occurrence));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateFrequencyForWord(MostFrequentWordsRequest, NormalizationParameters)} for plain text bodies.
+     *
+     * @param limit The maximum number of results to return
+     * @param normalization Optional normalization of the words
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with List of WordFrequency objects containing the top N most frequent words
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/page", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<List<WordFrequency>> streamMostFrequentWords(
+            @RequestParam(required = false)
+            @NotNull(message = "A Limit number must be provided")
+            @Positive(message = "The Limit number must be a positive integer") Integer limit,
+            @Valid NormalizationParameters normalization,
+            HttpServletRequest request) throws IOException {
+        var wordList = isUtf8(request)
+                ? searchService.calculateMostFrequentNWords(request.getInputStream(), limit, normalization.toOptions())
+                : searchService.calculateMostFrequentNWords(bodyReader(request), limit, normalization.toOptions());
         return ResponseEntity.ok(wordList);
     }
+
+    /**
+     * Variant of {@link #findWordPositions(WordPositionsRequest, NormalizationParameters)} for plain text bodies.
+     * The body is read into a String rather than streamed, since the snippets are cut from it.
+     *
+     * @param word The specific word to search for
+     * @param limit The maximum number of occurrences to return, 10 unless given
+     * @param context Number of characters around every occurrence to return as its snippet, none unless given
+     * @param normalization Optional normalization of the words, the searched word is normalized as well
+     * @param request The request carrying the text as its body
+     * @return ResponseEntity with the frequency of the word and its first occurrences
+     * @throws IOException If reading the body fails
+     */
+    @PostMapping(value = "/freq/positions", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<WordPositions> streamWordPositions(
+            @RequestParam(required = false) @NotBlank(message = "A word to search for is missing") String word,
+            @RequestParam(defaultValue = "10")
+            @Positive(message = "The Limit number must be a positive integer") int limit,
+            @RequestParam(required = false)
+            @PositiveOrZero(message = "The context must not be negative")
+            @Max(value = WordPositionsRequest.MAX_CONTEXT, message = "The context is at most 1000 characters") Integer context,
+            @Valid NormalizationParameters normalization,
+            HttpServletRequest request) throws IOException {
+        String text = new String(request.getInputStream().readAllBytes(), bodyCharset(request));
+        var positions = searchService.findWordPositions(text, word, limit, context == null ? -1 : context,
+                normalization.toOptions());
+        return ResponseEntity.ok(positions);
+    }
+
+    /**
+     * Reports the hit, miss and eviction counters of the frequency table cache.
+     *
+     * @return ResponseEntity with the current CacheStats
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> cacheStats() {
+        return ResponseEntity.ok(frequencyTableCache.stats());
+    }
+
+    /**
+     * Plain text bodies are UTF-8 unless the request declares another charset.
+     */
+    static boolean isUtf8(HttpServletRequest request) {
+        return bodyCharset(request).equals(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Plain text bodies are decoded as UTF-8 unless the request declares another charset.
+     */
+    static Reader bodyReader(HttpServletRequest request) throws IOException {
+        return new InputStreamReader(request.getInputStream(), bodyCharset(request));
+    }
+
+    /**
+     * @throws UnsupportedBodyCharsetException If the declared charset is not known or not a valid name
+     */
+    static Charset bodyCharset(HttpServletRequest request) {
+        String charset = request.getCharacterEncoding();
+        if (charset == null) return StandardCharsets.UTF_8;
+        try {
+            return Charset.forName(charset);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnsupportedBodyCharsetException(charset, e);
+        }
+    }
 }
@@ -1,10 +1,21 @@
 package com.anva.charl.words.rest.error;
 
+import com.anva.charl.words.service.admission.AdmissionRejectedException;
+import com.anva.charl.words.service.document.DocumentNotFoundException;
+import com.anva.charl.words.service.file.CorpusFileNotFoundException;
+import com.anva.charl.words.service.job.JobNotCompletedException;
+import com.anva.charl.words.service.job.JobNotFoundException;
+import com.anva.charl.words.service.session.SessionNotFoundException;
+import com.anva.charl.words.service.summary.InvalidSummaryException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.List;
 
@@ -34,4 +45,121 @@ public class GlobalExceptionHandler {
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(error);
     }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ValidationError> handleParameterValidationErrors(HandlerMethodValidationException ex) {
+
+        List<ValidationError.FieldError> fieldErrors = ex.getParameterValidationResults()
+            .stream()
+            .flatMap(result -> result.getResolvableErrors()
+                .stream()
+                .map(error -> new ValidationError.FieldError(
+                    result.getMethodParameter().getParameterName(),
+                    error.getDefaultMessage()
+                )))
+            .toList();
+
+        ValidationError error = new ValidationError(
+            "Input Validation Failed",
+            fieldErrors
+        );
+
+        return ResponseEntity
+                .badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    @ExceptionHandler({DocumentNotFoundException.class, CorpusFileNotFoundException.class, SessionNotFoundException.class,
+            JobNotFoundException.class})
+    public ResponseEntity<ValidationError> handleNotFound(RuntimeException ex) {
+
+        ValidationError error = new ValidationError(
+            ex.getMessage(),
+            List.of()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    @ExceptionHandler(JobNotCompletedException.class)
+    public ResponseEntity<ValidationError> handleJobNotCompleted(JobNotCompletedException ex) {
+
+        ValidationError error = new ValidationError(
+            ex.getMessage(),
+            List.of()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    @ExceptionHandler(InvalidSummaryException.class)
+    public ResponseEntity<ValidationError> handleInvalidSummary(InvalidSummaryException ex) {
+
+        ValidationError error = new ValidationError(
+            ex.getMessage(),
+            List.of()
+        );
+
+        return ResponseEntity
+                .badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    @ExceptionHandler(UnsupportedBodyCharsetException.class)
+    public ResponseEntity<ValidationError> handleUnsupportedCharset(UnsupportedBodyCharsetException ex) {
+
+        ValidationError error = new ValidationError(
+            ex.getMessage(),
+            List.of()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    /**
+     * Also covers a Content-Type whose charset cannot be parsed, which no mapping matches.
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ValidationError> handleUnsupportedMediaType(HttpMediaTypeNotSupportedException ex) {
+
+        ValidationError error = new ValidationError(
+            ex.getMessage(),
+            List.of()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .headers(ex.getHeaders())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ValidationError> handleAdmissionRejected(AdmissionRejectedException ex) {
+
+        ValidationError error = new ValidationError(
+            ex.getMessage(),
+            List.of()
+        );
+
+        HttpStatus status = ex.reason() == AdmissionRejectedException.Reason.QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity
+                .status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.retryAfter().toSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
 }
@@ -0,0 +1,11 @@
+package com.anva.charl.words.rest.error;
+
+/**
+ * Thrown when a plain text body declares a charset that is not known or not valid.
+ */
+public class UnsupportedBodyCharsetException extends RuntimeException {
+
+    public UnsupportedBodyCharsetException(String charset, Throwable cause) {
+        super("Charset '" + charset + "' of the request body is not supported", cause);
+    }
+}
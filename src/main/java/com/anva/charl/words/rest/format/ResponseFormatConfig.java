@@ -0,0 +1,28 @@
+package com.anva.charl.words.rest.format;
+
+import com.anva.charl.words.service.metrics.AnalysisMetrics;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds the compact response formats behind the default converters, so they are only used when
+ * a client asks for them. CBOR needs no converter of its own, Spring MVC registers one for
+ * {@code application/cbor} since the Jackson CBOR data format is on the classpath.
+ */
+@Configuration
+public class ResponseFormatConfig implements WebMvcConfigurer {
+
+    private final AnalysisMetrics metrics;
+
+    public ResponseFormatConfig(AnalysisMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new WordFrequencyColumnsHttpMessageConverter(metrics));
+    }
+}
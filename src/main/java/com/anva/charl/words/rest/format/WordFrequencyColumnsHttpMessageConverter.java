@@ -0,0 +1,112 @@
+package com.anva.charl.words.rest.format;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.metrics.AnalysisMetrics;
+import com.anva.charl.words.service.ranking.RankedWords;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes lists of word frequencies in a compact columnar layout, chosen with
+ * {@code Accept: application/x-word-frequency-columns}. Large results are a fraction of the
+ * size of their JSON and are decoded without parsing:
+ *
+ * - the magic number {@code WFC1} and the number of words, as 32 bit big-endian ints
+ * - the frequencies in rank order, as 32 bit big-endian ints
+ * - the words in the same order, each as its UTF-8 length in an unsigned LEB128 varint followed by its bytes
+ *
+ * The layout is written straight to the response while the words are read, and writing it
+ * is timed as the {@code serialize} stage like JSON. The converter is registered after the
+ * default converters by {@link ResponseFormatConfig}, so JSON stays the default.
+ */
+public class WordFrequencyColumnsHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<? extends WordFrequency>> {
+
+    /** Media type of the columnar layout. */
+    public static final String MEDIA_TYPE = "application/x-word-frequency-columns";
+
+    static final int MAGIC = 0x57464331; // "WFC1"
+
+    private final AnalysisMetrics metrics;
+
+    public WordFrequencyColumnsHttpMessageConverter(AnalysisMetrics metrics) {
+        super(MediaType.parseMediaType(MEDIA_TYPE));
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(clazz, mediaType)) return false;
+        Class<?> element = ResolvableType.forType(type != null ? type : clazz).asCollection().resolveGeneric(0);
+        return element != null && WordFrequency.class.isAssignableFrom(element);
+    }
+
+    @Override
+    public List<? extends WordFrequency> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Word frequency columns are only written", inputMessage);
+    }
+
+    @Override
+    protected List<? extends WordFrequency> readInternal(Class<? extends List<? extends WordFrequency>> clazz,
+                                                         HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Word frequency columns are only written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(List<? extends WordFrequency> words, Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        long start = metrics.start();
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputMessage.getBody(), 8 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(words.size());
+            // ranked words are read straight from their table, without an object per word
+            if (words instanceof RankedWords ranked) {
+                for (int i = 0; i < ranked.size(); i++) out.writeInt(ranked.frequency(i));
+                for (int i = 0; i < ranked.size(); i++) writeWord(out, ranked.word(i));
+            } else {
+                for (WordFrequency word : words) out.writeInt(word.frequency());
+                for (WordFrequency word : words) writeWord(out, word.word());
+            }
+            out.flush();
+        } finally {
+            metrics.recordSerialize(start);
+        }
+    }
+
+    private static void writeWord(DataOutputStream out, String word) throws IOException {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            out.writeByte((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.writeByte(length);
+        out.write(bytes);
+    }
+}
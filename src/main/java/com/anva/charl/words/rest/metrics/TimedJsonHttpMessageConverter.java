@@ -0,0 +1,37 @@
+package com.anva.charl.words.rest.metrics;
+
+import com.anva.charl.words.service.metrics.AnalysisMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that times writing the response body as the {@code serialize} stage.
+ * Being a subclass of the default Jackson converter, it replaces that converter.
+ */
+@Component
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final AnalysisMetrics metrics;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, AnalysisMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = metrics.start();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            metrics.recordSerialize(start);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.anva.charl.words.rest.model;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.rest.error.ValidationError;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchTextResult(
+    int index,
+    Integer highestFrequency,
+    Map<String, Integer> frequencies,
+    List<WordFrequency> mostFrequentWords,
+    ValidationError error
+) {}
@@ -0,0 +1,19 @@
+package com.anva.charl.words.rest.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTextsRequest(
+    @NotEmpty(message = "At least one text to search in must be provided")
+    @Size(max = 1_000, message = "At most 1000 texts can be analyzed at once")
+    List<String> texts,
+
+    @Size(max = 10_000, message = "At most 10000 words can be searched for at once")
+    List<String> words,
+
+    @Positive(message = "The Limit number must be a positive integer")
+    Integer limit
+) {}
@@ -0,0 +1,16 @@
+package com.anva.charl.words.rest.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchWordsRequest(
+    @NotBlank(message = "Text block to search in is missing")
+    String text,
+
+    @NotEmpty(message = "At least one word to search for must be provided")
+    @Size(max = 10_000, message = "At most 10000 words can be searched for at once")
+    List<String> words
+) {}
@@ -0,0 +1,9 @@
+package com.anva.charl.words.rest.model;
+
+import com.anva.charl.words.rest.error.ValidationError;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchWordsResponse(Map<String, Integer> frequencies, ValidationError error) {}
@@ -0,0 +1,41 @@
+package com.anva.charl.words.rest.model;
+
+import com.anva.charl.words.service.corpus.TermWeighting;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CorpusRequest(
+    @NotEmpty(message = "At least one document must be provided")
+    @Size(max = 1_000, message = "At most 1000 documents can be analyzed at once")
+    List<String> documents,
+
+    @Size(max = 10_000, message = "At most 10000 terms can be searched for at once")
+    List<@NotBlank(message = "A term to search for is missing") String> terms,
+
+    @Positive(message = "The Limit number must be a positive integer")
+    Integer limit,
+
+    @Pattern(regexp = "(?i)tf-idf|bm25", message = "The weighting is tf-idf or bm25")
+    String weighting
+) {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    public List<String> termsOrEmpty() {
+        return terms == null ? List.of() : terms;
+    }
+
+    public int limitOrDefault() {
+        return limit == null ? DEFAULT_LIMIT : limit;
+    }
+
+    public TermWeighting toWeighting() {
+        return "bm25".equalsIgnoreCase(weighting) ? TermWeighting.BM25 : TermWeighting.TF_IDF;
+    }
+}
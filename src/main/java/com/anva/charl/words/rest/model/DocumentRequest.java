@@ -0,0 +1,8 @@
+package com.anva.charl.words.rest.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record DocumentRequest(
+    @NotBlank(message = "Text of the document is missing")
+    String text
+) {}
@@ -0,0 +1,3 @@
+package com.anva.charl.words.rest.model;
+
+public record DocumentResponse(String id, int distinctWords) {}
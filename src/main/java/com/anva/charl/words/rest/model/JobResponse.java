@@ -0,0 +1,14 @@
+package com.anva.charl.words.rest.model;
+
+import com.anva.charl.words.service.job.JobState;
+
+public record JobResponse(
+    String id,
+    JobState state,
+    long bytesProcessed,
+    long totalBytes,
+    long words,
+    Long etaSeconds,
+    long elapsedMillis,
+    String error
+) {}
@@ -0,0 +1,33 @@
+package com.anva.charl.words.rest.model;
+
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Normalization options of a request, bound from the query string so they work the same
+ * for JSON and for plain text bodies. All options are off unless given.
+ */
+public record NormalizationParameters(
+    Boolean nfkc,
+
+    Boolean caseFold,
+
+    Boolean stripDiacritics,
+
+    @Pattern(regexp = "(?i)en|de|fr|es", message = "Stopwords are available for en, de, fr and es")
+    String stopwords,
+
+    @Pattern(regexp = "(?i)en|de", message = "A stemmer is available for en and de")
+    String stemmer
+) {
+
+    public NormalizationOptions toOptions() {
+        return new NormalizationOptions(
+                Boolean.TRUE.equals(nfkc),
+                Boolean.TRUE.equals(caseFold),
+                Boolean.TRUE.equals(stripDiacritics),
+                stopwords,
+                stemmer);
+    }
+}
@@ -0,0 +1,11 @@
+package com.anva.charl.words.rest.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record PhraseFrequencyRequest(
+    @NotBlank(message = "Text block to search in is missing")
+    String text,
+
+    @NotBlank(message = "A phrase to search for is missing")
+    String phrase
+) {}
@@ -0,0 +1,11 @@
+package com.anva.charl.words.rest.model;
+
+import jakarta.validation.constraints.Positive;
+
+public record SessionRequest(
+    @Positive(message = "The window size must be a positive number of words")
+    Integer windowWords,
+
+    @Positive(message = "The window age must be a positive number of seconds")
+    Long windowSeconds
+) {}
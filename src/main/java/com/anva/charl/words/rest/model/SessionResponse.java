@@ -0,0 +1,3 @@
+package com.anva.charl.words.rest.model;
+
+public record SessionResponse(String id, int distinctWords, long totalWords) {}
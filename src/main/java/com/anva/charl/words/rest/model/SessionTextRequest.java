@@ -0,0 +1,8 @@
+package com.anva.charl.words.rest.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record SessionTextRequest(
+    @NotBlank(message = "Text to append is missing")
+    String text
+) {}
@@ -0,0 +1,36 @@
+package com.anva.charl.words.rest.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record WordPositionsRequest(
+    @NotBlank(message = "Text block to search in is missing")
+    String text,
+
+    @NotBlank(message = "A word to search for is missing")
+    String word,
+
+    @Positive(message = "The Limit number must be a positive integer")
+    Integer limit,
+
+    @PositiveOrZero(message = "The context must not be negative")
+    @Max(value = WordPositionsRequest.MAX_CONTEXT, message = "The context is at most 1000 characters")
+    Integer context
+) {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_CONTEXT = 1_000;
+
+    public int limitOrDefault() {
+        return limit == null ? DEFAULT_LIMIT : limit;
+    }
+
+    /**
+     * @return The context of the snippets, or -1 for no snippets
+     */
+    public int contextOrNone() {
+        return context == null ? -1 : context;
+    }
+}
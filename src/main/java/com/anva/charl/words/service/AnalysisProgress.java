@@ -0,0 +1,16 @@
+package com.anva.charl.words.service;
+
+/**
+ * Receives the progress of a streamed analysis. It is called by the analyzing thread
+ * after every chunk, and may stop the analysis by throwing an unchecked exception.
+ */
+@FunctionalInterface
+public interface AnalysisProgress {
+
+    AnalysisProgress NONE = words -> {};
+
+    /**
+     * @param words The number of words counted so far
+     */
+    void counted(long words);
+}
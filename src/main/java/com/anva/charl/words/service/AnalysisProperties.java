@@ -0,0 +1,29 @@
+package com.anva.charl.words.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tuning of the frequency analysis, bound from the {@code words.analysis} properties.
+ *
+ * @param parallelThreshold Texts with at least this many characters are counted in parallel
+ * @param parallelism Number of threads used for parallel counting, 0 uses the common ForkJoinPool
+ * @param countingThreads Number of threads counting texts below the parallel threshold and streamed texts, 0 uses one per processor
+ * @param vectorTokenizer Tokenize with the Vector API, needs {@code --add-modules jdk.incubator.vector}
+ * @param scratchSets Number of idle scratch sets kept for reuse, 0 allocates the buffers and tables of every request
+ * @param scratchTableSize Tables that grew beyond this size are dropped instead of being cleared for reuse
+ */
+@ConfigurationProperties("words.analysis")
+public record AnalysisProperties(
+    @DefaultValue("10000") int parallelThreshold,
+    @DefaultValue("0") int parallelism,
+    @DefaultValue("0") int countingThreads,
+    @DefaultValue("false") boolean vectorTokenizer,
+    @DefaultValue("16") int scratchSets,
+    @DefaultValue("4MB") DataSize scratchTableSize
+) {
+    public static AnalysisProperties defaults() {
+        return new AnalysisProperties(10_000, 0, 0, false, 16, DataSize.ofMegabytes(4));
+    }
+}
@@ -0,0 +1,102 @@
+package com.anva.charl.words.service;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.table.Utf8FrequencyTable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Idle scratch sets of the analyses that are reused instead of allocated for every request:
+ * the chunk buffers of the streamed analyses, the histogram of the top-N selection and
+ * frequency tables that are cleared between texts.
+ *
+ * A request borrows a set for as long as it analyzes and hands it back afterwards, so a set is
+ * never used by two threads at once. The sets are shared by all threads instead of being kept
+ * per thread, since requests run on virtual threads that never handle a second request.
+ * At most the configured number of idle sets are kept, a set that is handed back when the pool
+ * is full is left to the garbage collector, and so is a table that grew beyond the retained size.
+ *
+ * Thread-safe.
+ */
+class AnalysisScratchPool {
+
+    private final ArrayBlockingQueue<Scratch> idle;
+    private final int chunkSize;
+    private final int histogramSize;
+    private final long maxTableBytes;
+
+    /**
+     * @param sets Maximum number of idle sets kept, 0 keeps none
+     * @param chunkSize Length of the chunk buffers
+     * @param histogramSize Length of the histogram of the top-N selection
+     * @param maxTableBytes Tables that hold more are dropped instead of being cleared
+     */
+    AnalysisScratchPool(int sets, int chunkSize, int histogramSize, long maxTableBytes) {
+        this.idle = sets > 0 ? new ArrayBlockingQueue<>(sets) : null;
+        this.chunkSize = chunkSize;
+        this.histogramSize = histogramSize;
+        this.maxTableBytes = maxTableBytes;
+    }
+
+    /**
+     * @return An idle set, or a new one if there is none
+     */
+    Scratch acquire() {
+        Scratch scratch = idle != null ? idle.poll() : null;
+        return scratch != null ? scratch : new Scratch(chunkSize, histogramSize);
+    }
+
+    /**
+     * Clears a set and keeps it for the next request. Nothing it holds may be used afterwards.
+     *
+     * @param scratch The set returned by {@link #acquire()}
+     */
+    void release(Scratch scratch) {
+        if (idle == null) return;
+        scratch.reset(maxTableBytes);
+        idle.offer(scratch);
+    }
+
+    /**
+     * Buffers and tables of one analysis, used by one thread at a time.
+     */
+    static final class Scratch {
+
+        final char[] chars;
+        final byte[] bytes;
+        // the counting pass of a text with higher frequencies allocates its own histogram
+        final int[] histogram;
+        private FrequencyTable table;
+        private Utf8FrequencyTable utf8Table;
+
+        private Scratch(int chunkSize, int histogramSize) {
+            this.chars = new char[chunkSize];
+            this.bytes = new byte[chunkSize];
+            this.histogram = new int[histogramSize];
+        }
+
+        /**
+         * @param textLength Length of the text, to size the table if it has to be created
+         * @return An empty table
+         */
+        FrequencyTable table(long textLength) {
+            if (table == null) table = FrequencyTable.forText(textLength);
+            return table;
+        }
+
+        /**
+         * @return An empty table
+         */
+        Utf8FrequencyTable utf8Table() {
+            if (utf8Table == null) utf8Table = new Utf8FrequencyTable();
+            return utf8Table;
+        }
+
+        private void reset(long maxTableBytes) {
+            if (table != null && table.estimatedBytes() > maxTableBytes) table = null;
+            if (table != null) table.clear();
+            if (utf8Table != null && utf8Table.estimatedBytes() > maxTableBytes) utf8Table = null;
+            if (utf8Table != null) utf8Table.clear();
+        }
+    }
+}
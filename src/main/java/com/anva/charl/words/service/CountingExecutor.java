@@ -0,0 +1,139 @@
+package com.anva.charl.words.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of platform threads the CPU-bound counting of the analyses runs on.
+ *
+ * Requests are handled on virtual threads, which share as many carrier threads as there are cores.
+ * A virtual thread that counts keeps its carrier until it is done, so a few large texts counted at
+ * once would keep every other request from being scheduled. The counting is handed to this pool
+ * instead, and the virtual thread gives up its carrier while it waits. Streamed texts are read on the
+ * calling thread and only every chunk read is handed over, so a slow client never holds a counting
+ * thread, and the chunks of all requests queue in arrival order: a small text waits for at most a
+ * chunk of every large text ahead of it, not for the whole text.
+ *
+ * The queue is not bounded, every caller has at most one task in it and the number of callers is
+ * bounded by the admission control. Idle threads end after a while.
+ *
+ * The counting ignores interrupts. A caller that is interrupted while its task runs therefore waits
+ * for the task to finish before it gives up, so the buffers and tables the task writes to are never
+ * handed to the next request while it still writes to them. A task that has not started yet is
+ * dropped instead.
+ *
+ * Thread-safe.
+ */
+class CountingExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param threads Number of threads counting at the same time, 0 uses one per available processor
+     */
+    CountingExecutor(int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(size, size, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("word-counter-", 0).daemon().factory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Counts on a thread of the pool and waits for the result.
+     *
+     * @param task The counting, which must not use the pool itself
+     * @return The result of the task
+     * @throws CancellationException If the calling thread is interrupted while it waits, once the task
+     *                               is done or dropped, or if the pool is shut down before the task starts
+     */
+    <T> T call(Supplier<T> task) {
+        CountingTask<T> counting = new CountingTask<>(task);
+        executor.execute(counting);
+        try {
+            return counting.get();
+        } catch (InterruptedException e) {
+            counting.abandon();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while counting");
+        }
+    }
+
+    /**
+     * Variant of {@link #call(Supplier)} for counting without a result.
+     *
+     * @param task The counting, which must not use the pool itself
+     * @throws CancellationException If the calling thread is interrupted while it waits
+     */
+    void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) ((CountingTask<?>) queued).cancel();
+    }
+
+    // runs at most once, either on a thread of the pool or not at all once its caller gave up on it
+    private static final class CountingTask<T> implements Runnable {
+
+        private final Supplier<T> task;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private T result;
+        private Throwable failure;
+
+        private CountingTask(Supplier<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) return;
+            try {
+                result = task.get();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private T get() throws InterruptedException {
+            done.await();
+            if (failure instanceof RuntimeException runtime) throw runtime;
+            if (failure instanceof Error error) throw error;
+            if (failure != null) throw new IllegalStateException(failure);
+            return result;
+        }
+
+        // keeps the task from starting, returns whether it did
+        private boolean cancel() {
+            if (!started.compareAndSet(false, true)) return false;
+            failure = new CancellationException("Counting was shut down");
+            done.countDown();
+            return true;
+        }
+
+        // a task that already runs is waited for without interruption
+        private void abandon() {
+            if (cancel()) return;
+            while (true) {
+                try {
+                    done.await();
+                    return;
+                } catch (InterruptedException e) {
+                    // the caller is interrupted again once the task is done
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.anva.charl.words.service;
+
+import com.anva.charl.words.service.table.Utf8FrequencyTable;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.Utf8WordTokenizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Counts the words of a UTF-8 file without reading it onto the heap.
+ * The file is split into regions at ASCII separator bytes, which are never part of a
+ * multi-byte UTF-8 sequence, so no word or character crosses a region. Every region is
+ * memory-mapped and tokenized as UTF-8 bytes straight from the mapping, without decoding
+ * it to chars, on the pool, and the tables of the regions are merged at the end.
+ *
+ * Mappings are made in a confined arena per window and released as soon as the window
+ * is tokenized, so address space is returned without waiting for garbage collection.
+ */
+class MappedFileWordCounter {
+
+    private static final long MAX_WINDOW_SIZE = 1L << 30;
+    private static final int PROBE_SIZE = 4 * 1024;
+
+    private final ForkJoinPool pool;
+    private final long minRegionSize;
+
+    /**
+     * @param pool The pool the regions are counted on
+     * @param minRegionSize Files up to this size are counted as a single region
+     */
+    MappedFileWordCounter(ForkJoinPool pool, long minRegionSize) {
+        this.pool = pool;
+        this.minRegionSize = Math.max(1, minRegionSize);
+    }
+
+    /**
+     * Counts all words of the file.
+     *
+     * @param file The UTF-8 encoded file to analyze
+     * @return Table holding the frequency of every word
+     * @throws IOException If the file cannot be read
+     */
+    Utf8FrequencyTable count(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // at least one region per worker, but never smaller than the configured size
+            long regionSize = Math.max(minRegionSize, size / (pool.getParallelism() * 4L));
+            long[] bounds = regionBounds(channel, size, regionSize);
+
+            List<ForkJoinTask<Utf8FrequencyTable>> regions = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                regions.add(pool.submit(() -> countRegion(channel, start, end)));
+            }
+
+            Utf8FrequencyTable table = new Utf8FrequencyTable();
+            try {
+                for (ForkJoinTask<Utf8FrequencyTable> region : regions) table.merge(region.join());
+            } catch (UncheckedIOException e) {
+                regions.forEach(region -> region.cancel(true));
+                throw e.getCause();
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Splits the file at the first separator byte after every region size.
+     */
+    private static long[] regionBounds(FileChannel channel, long size, long regionSize) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long next = regionSize;
+        while (next < size) {
+            long boundary = nextSeparator(channel, next, size, probe);
+            if (boundary >= size) break;
+            bounds.add(boundary);
+            next = boundary + regionSize;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextSeparator(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                byte b = probe.get(i);
+                if (b >= 0 && CodePointWordTokenizer.isSeparator((char) b)) return position + i;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static Utf8FrequencyTable countRegion(FileChannel channel, long start, long end) {
+        Utf8FrequencyTable table = new Utf8FrequencyTable();
+        Utf8WordTokenizer tokenizer = new Utf8WordTokenizer(table);
+        try {
+            long position = start;
+            while (position < end) {
+                long length = Math.min(MAX_WINDOW_SIZE, end - position);
+                try (Arena arena = Arena.ofConfined()) {
+                    // a character cut off at the end of the window is completed from the next one
+                    tokenizer.feed(channel.map(FileChannel.MapMode.READ_ONLY, position, length, arena).asByteBuffer());
+                }
+                position += length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        tokenizer.finish();
+        return table;
+    }
+}
@@ -0,0 +1,119 @@
+package com.anva.charl.words.service;
+
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.WordTokenizer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the words of a large text in parallel on a {@link ForkJoinPool}.
+ * The text is recursively halved at word boundaries until the segments are smaller
+ * than the segment size, every segment is counted on its own and the tables are
+ * merged on the way back up, which gives exactly the counts of a sequential run.
+ *
+ * Texts containing a capital sigma are counted sequentially, since its lowercase form
+ * depends on surrounding context that a segment does not have.
+ *
+ * Every segment runs the words through its own sink of the normalization pipeline.
+ */
+class ParallelWordCounter {
+
+    private static final char CAPITAL_SIGMA = '\u03A3';
+
+    private final WordTokenizer tokenizer;
+    private final ForkJoinPool pool;
+    private final int segmentSize;
+
+    /**
+     * @param tokenizer The tokenizer used for every segment
+     * @param pool The pool the segments are counted on
+     * @param segmentSize Texts up to this length are not split any further
+     */
+    ParallelWordCounter(WordTokenizer tokenizer, ForkJoinPool pool, int segmentSize) {
+        this.tokenizer = tokenizer;
+        this.pool = pool;
+        this.segmentSize = Math.max(1, segmentSize);
+    }
+
+    /**
+     * Counts all words of the text.
+     *
+     * @param text The input text to analyze
+     * @return Table holding the frequency of every word
+     */
+    FrequencyTable count(String text) {
+        return count(text, NormalizationPipeline.NONE);
+    }
+
+    /**
+     * Counts all words of the text after normalizing them.
+     *
+     * @param text The input text to analyze
+     * @param pipeline The normalization applied to every word
+     * @return Table holding the frequency of every normalized word
+     */
+    FrequencyTable count(String text, NormalizationPipeline pipeline) {
+        if (text.indexOf(CAPITAL_SIGMA) >= 0) {
+            // still counted on the pool, a large text is never counted on the calling thread
+            return pool.invoke(ForkJoinTask.adapt(() -> {
+                FrequencyTable table = FrequencyTable.forText(text.length());
+                tokenizer.tokenize(text, pipeline.wrap(table));
+                return table;
+            }));
+        }
+        // at least one segment per worker, but never smaller than the configured size
+        int size = Math.max(segmentSize, text.length() / (pool.getParallelism() * 4));
+        return pool.invoke(new SegmentTask(text, 0, text.length(), size, pipeline));
+    }
+
+    private final class SegmentTask extends RecursiveTask<FrequencyTable> {
+        private final String text;
+        private final int start;
+        private final int end;
+        private final int size;
+        private final NormalizationPipeline pipeline;
+
+        SegmentTask(String text, int start, int end, int size, NormalizationPipeline pipeline) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.size = size;
+            this.pipeline = pipeline;
+        }
+
+        @Override
+        protected FrequencyTable compute() {
+            int split = end - start > size ? boundaryAfter(start + (end - start) / 2) : end;
+            if (split >= end) {
+                FrequencyTable table = FrequencyTable.forText(end - start);
+                tokenizer.tokenize(text, start, end, pipeline.wrap(table));
+                return table;
+            }
+
+            SegmentTask left = new SegmentTask(text, start, split, size, pipeline);
+            left.fork();
+            FrequencyTable right = new SegmentTask(text, split, end, size, pipeline).compute();
+            FrequencyTable merged = left.join();
+
+            // merge the smaller table into the larger one
+            if (merged.size() < right.size()) {
+                right.merge(merged);
+                return right;
+            }
+            merged.merge(right);
+            return merged;
+        }
+
+        // first position at or after the given index where the text can be split, or end
+        private int boundaryAfter(int index) {
+            for (int i = index; i < end; i++) {
+                if (CodePointWordTokenizer.isSeparator(text.charAt(i))) return i;
+            }
+            return end;
+        }
+    }
+}
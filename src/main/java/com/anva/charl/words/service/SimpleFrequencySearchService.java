@@ -1,17 +1,42 @@
 package com.anva.charl.words.service;
 
 import com.anva.charl.words.data.model.WordFrequency;
-import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.service.cache.ContentKey;
+import com.anva.charl.words.service.cache.FrequencyTableCache;
+import com.anva.charl.words.service.metrics.AnalysisMetrics;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import com.anva.charl.words.service.position.PositionalIndex;
+import com.anva.charl.words.service.position.WordPositions;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.table.Utf8FrequencyTable;
+import com.anva.charl.words.service.table.WordTable;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.StreamingWordTokenizer;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+import com.anva.charl.words.service.tokenizer.Utf8WordTokenizer;
+import com.anva.charl.words.service.tokenizer.WordOccurrenceCounter;
+import com.anva.charl.words.service.tokenizer.WordTokenizer;
+import com.anva.charl.words.service.tokenizer.WordTokenizers;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Service implementation for analyzing word frequencies in text.
@@ -23,36 +48,410 @@ import java.util.regex.Pattern;
  * Features:
  * - Case-insensitive word matching
  * - Unicode support for multi-language text
- * - Efficient punctuation handling using regex
+ * - Optional normalization of the words while tokenizing: NFKC, case folding, diacritics, stopwords and stemming
+ * - Single pass tokenization through a pluggable {@link WordTokenizer}, optionally vectorized
+ * - Parallel counting of large texts on a ForkJoinPool, and counting of the other texts on a bounded pool of
+ *   platform threads, so request threads never count
+ * - Streaming analysis of text read in chunks, UTF-8 bytes are tokenized without decoding
+ * - Parallel analysis of memory-mapped UTF-8 files
+ * - Content addressed caching of frequency tables across requests
+ * - Positional indexes of where every word occurs, cached along with the frequency tables
+ * - Bounded top-N selection instead of sorting the whole vocabulary
+ * - Pooled chunk buffers, histograms and tables, a table that is kept is copied out sized to its words
+ * - Timers of the analysis stages and summaries of the text sizes
  * - Thread-safe implementation
  */
 @Service
 public class SimpleFrequencySearchService implements WordFrequencyAnalyzer {
 
-    private static final int LARGE_TEXT_THRESHOLD = 10_000;
-    // Updated pattern to keep Unicode letters and numbers, removing all other characters
-    private static final Pattern WORD_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
+    // large enough that handing every chunk to the counting threads costs next to nothing
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+    private static final int HISTOGRAM_SIZE = 8 * 1024;
+    private static final long MAPPED_REGION_SIZE = 16 * 1024 * 1024;
+    private static final int[] NO_HISTOGRAM = new int[0];
+    private static final char CAPITAL_SIGMA = '\u03A3';
+
+    private final WordTokenizer tokenizer;
+    private final String normalization;
+    private final int largeTextThreshold;
+    private final ForkJoinPool pool;
+    private final CountingExecutor counting;
+    private final ParallelWordCounter parallelCounter;
+    private final MappedFileWordCounter mappedFileCounter;
+    private final FrequencyTableCache cache;
+    private final AnalysisMetrics metrics;
+    private final AnalysisScratchPool scratchPool;
+
+    public SimpleFrequencySearchService() {
+        this(new CodePointWordTokenizer(), AnalysisProperties.defaults(), FrequencyTableCache.disabled());
+    }
+
+    @Autowired
+    public SimpleFrequencySearchService(AnalysisProperties properties, FrequencyTableCache cache, AnalysisMetrics metrics) {
+        this(WordTokenizers.create(properties.vectorTokenizer()), properties, cache, metrics);
+    }
+
+    public SimpleFrequencySearchService(WordTokenizer tokenizer, AnalysisProperties properties, FrequencyTableCache cache) {
+        this(tokenizer, properties, cache, AnalysisMetrics.noop());
+    }
+
+    public SimpleFrequencySearchService(WordTokenizer tokenizer, AnalysisProperties properties, FrequencyTableCache cache,
+                                        AnalysisMetrics metrics) {
+        this.tokenizer = tokenizer;
+        this.normalization = tokenizer.getClass().getSimpleName();
+        this.cache = cache;
+        this.metrics = metrics;
+        this.largeTextThreshold = properties.parallelThreshold();
+        this.pool = properties.parallelism() > 0
+                ? new ForkJoinPool(properties.parallelism())
+                : ForkJoinPool.commonPool();
+        this.counting = new CountingExecutor(properties.countingThreads());
+        this.parallelCounter = new ParallelWordCounter(tokenizer, pool, largeTextThreshold);
+        this.mappedFileCounter = new MappedFileWordCounter(pool, MAPPED_REGION_SIZE);
+        this.scratchPool = new AnalysisScratchPool(properties.scratchSets(), STREAM_CHUNK_SIZE, HISTOGRAM_SIZE,
+                properties.scratchTableSize().toBytes());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        counting.shutdown();
+    }
 
     /**
-     * Creates a frequency map of words in the given text.
+     * Creates a frequency table of words in the given text.
      * Words are processed case-insensitively and punctuation is removed.
+     * Texts above the large text threshold are counted in parallel segments.
+     * Tables are cached by the content of the text, so repeated texts are only analyzed once.
+     * The returned table may be shared and must not be modified.
+     *
+     * @param text The input text to analyze
+     * @return Table with the frequency of every word
+     */
+    public FrequencyTable buildFrequencyTable(String text) {
+        return buildFrequencyTable(text, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Creates a frequency table of the normalized words in the given text.
+     * Tables are cached by the content of the text and the normalization options.
+     * The returned table may be shared and must not be modified.
      *
      * @param text The input text to analyze
-     * @return Map with words as keys and their frequencies as values
+     * @param options The normalization applied to every word
+     * @return Table with the frequency of every normalized word
      */
-    private Map<String, Integer> buildFrequencyMap(String text) {
-        if (text == null || text.isEmpty()) return Collections.emptyMap();
+    public FrequencyTable buildFrequencyTable(String text, NormalizationOptions options) {
+        if (text == null || text.isEmpty()) return new FrequencyTable();
+        metrics.recordInput(text.length());
 
-        Map<String, Integer> freqMap = new HashMap<>();
-        var matcher = WORD_PATTERN.matcher(text.toLowerCase(Locale.ROOT));
+        NormalizationPipeline pipeline = NormalizationPipeline.of(options);
+        FrequencyTable table = cache.isEnabled()
+                ? cache.get(key(text, options), () -> countWords(text, pipeline))
+                : countWords(text, pipeline);
+        metrics.recordWords(table);
+        return table;
+    }
 
-        while (matcher.find()) {
-            String word = matcher.group();
-            if (!word.isEmpty()) {
-                freqMap.put(word, freqMap.getOrDefault(word, 0) + 1);
+    private FrequencyTable countWords(String text, NormalizationPipeline pipeline) {
+        long start = metrics.start();
+        FrequencyTable table;
+        if (text.length() >= largeTextThreshold) {
+            table = parallelCounter.count(text, pipeline);
+        } else {
+            // counted in a pooled table, only the copy that is kept is sized to the words
+            AnalysisScratchPool.Scratch scratch = scratchPool.acquire();
+            try {
+                table = countInTable(text, pipeline, scratch.table(text.length())).compactCopy();
+            } finally {
+                scratchPool.release(scratch);
             }
         }
-        return freqMap;
+        metrics.recordCount(start);
+        return table;
+    }
+
+    private FrequencyTable countInTable(String text, NormalizationPipeline pipeline, FrequencyTable table) {
+        counting.run(() -> tokenizer.tokenize(text, pipeline.wrap(table)));
+        return table;
+    }
+
+    private PositionalIndex countPositions(String text, NormalizationPipeline pipeline) {
+        long start = metrics.start();
+        PositionalIndex index = counting.call(() -> PositionalIndex.build(text, pipeline));
+        metrics.recordCount(start);
+        return index;
+    }
+
+    // small texts are counted in a pooled table when there is no cache that would keep the table
+    private boolean countsInScratch(String text) {
+        return !cache.isEnabled() && text != null && !text.isEmpty() && text.length() < largeTextThreshold;
+    }
+
+    /**
+     * Counts a text in a pooled table and queries it. The table is cleared for the next
+     * request afterwards, so the query must not return anything that refers to it.
+     */
+    private <T> T countInScratch(String text, NormalizationOptions options, TableQuery<T> query) {
+        metrics.recordInput(text.length());
+        AnalysisScratchPool.Scratch scratch = scratchPool.acquire();
+        try {
+            long start = metrics.start();
+            FrequencyTable table = countInTable(text, NormalizationPipeline.of(options), scratch.table(text.length()));
+            metrics.recordCount(start);
+            metrics.recordWords(table);
+            return query.apply(table, scratch);
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #countInScratch(String, NormalizationOptions, TableQuery)}.
+     * Text that is just lowercased is counted as UTF-8 bytes, like in {@link #buildFrequencyTable(InputStream, NormalizationOptions)}.
+     */
+    private <T> T countInScratch(InputStream in, NormalizationOptions options, TableQuery<T> query)
+            throws IOException {
+        if (!options.isNone()) return countInScratch(new InputStreamReader(in, StandardCharsets.UTF_8), options, query);
+        return withScratch(scratch -> {
+            Utf8FrequencyTable table = scratch.utf8Table();
+            tokenize(in, new Utf8WordTokenizer(table), scratch.bytes, () -> {});
+            metrics.recordWords(table);
+            return query.apply(table, scratch);
+        });
+    }
+
+    private <T> T countInScratch(Reader reader, NormalizationOptions options, TableQuery<T> query)
+            throws IOException {
+        return withScratch(scratch -> {
+            FrequencyTable table = scratch.table(0);
+            tokenize(reader, NormalizationPipeline.of(options).wrap(table), scratch.chars, () -> {});
+            metrics.recordWords(table);
+            return query.apply(table, scratch);
+        });
+    }
+
+    // the scratch set is handed back when the analysis returns, nothing of it may escape
+    private <T> T withScratch(ScratchAnalysis<T> analysis) throws IOException {
+        AnalysisScratchPool.Scratch scratch = scratchPool.acquire();
+        try {
+            return analysis.apply(scratch);
+        } finally {
+            scratchPool.release(scratch);
+        }
+    }
+
+    /**
+     * Creates a frequency table of the words read from the given reader.
+     * The text is consumed in fixed size chunks, so apart from the table itself
+     * memory use does not grow with the size of the text.
+     *
+     * @param reader The source of the text to analyze
+     * @return Table with the frequency of every word
+     * @throws IOException If reading fails
+     */
+    public FrequencyTable buildFrequencyTable(Reader reader) throws IOException {
+        return buildFrequencyTable(reader, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Streaming variant of {@link #buildFrequencyTable(String, NormalizationOptions)}.
+     *
+     * @param reader The source of the text to analyze
+     * @param options The normalization applied to every word
+     * @return Table with the frequency of every normalized word
+     * @throws IOException If reading fails
+     */
+    public FrequencyTable buildFrequencyTable(Reader reader, NormalizationOptions options) throws IOException {
+        return buildFrequencyTable(reader, options, AnalysisProgress.NONE);
+    }
+
+    private FrequencyTable buildFrequencyTable(Reader reader, NormalizationOptions options, AnalysisProgress progress)
+            throws IOException {
+        FrequencyTable table = new FrequencyTable();
+        withScratch(scratch -> {
+            tokenize(reader, NormalizationPipeline.of(options).wrap(table), scratch.chars,
+                    () -> progress.counted(table.totalCount()));
+            return table;
+        });
+        metrics.recordWords(table);
+        return table;
+    }
+
+    /**
+     * Creates a frequency table of the words in a UTF-8 encoded file.
+     * The file is memory-mapped and decoded in place, in regions that are counted in
+     * parallel, so it is never read onto the heap however large it is.
+     *
+     * @param file The file to analyze
+     * @return Table with the frequency of every word
+     * @throws IOException If reading the file fails
+     */
+    public Utf8FrequencyTable buildFrequencyTable(Path file) throws IOException {
+        long start = metrics.start();
+        Utf8FrequencyTable table = mappedFileCounter.count(file);
+        metrics.recordCount(start);
+        metrics.recordInputBytes(Files.size(file));
+        metrics.recordWords(table);
+        return table;
+    }
+
+    /**
+     * Creates a frequency table of the words in UTF-8 encoded bytes read from the stream.
+     * The bytes are tokenized and case-folded directly, without decoding them to chars,
+     * and the words are kept as UTF-8 in the table.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @return Table with the frequency of every word
+     * @throws IOException If reading fails
+     */
+    public Utf8FrequencyTable buildFrequencyTable(InputStream in) throws IOException {
+        return buildUtf8FrequencyTable(in, AnalysisProgress.NONE);
+    }
+
+    /**
+     * Variant of {@link #buildFrequencyTable(String, NormalizationOptions)} for UTF-8 bytes.
+     * Only text that is just lowercased is tokenized as bytes, the normalization stages work on chars.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @param options The normalization applied to every word
+     * @return Table with the frequency of every normalized word
+     * @throws IOException If reading fails
+     */
+    public WordTable buildFrequencyTable(InputStream in, NormalizationOptions options) throws IOException {
+        return buildFrequencyTable(in, options, AnalysisProgress.NONE);
+    }
+
+    /**
+     * Variant of {@link #buildFrequencyTable(InputStream, NormalizationOptions)} that reports
+     * the number of counted words after every chunk, for analyses that run in the background.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @param options The normalization applied to every word
+     * @param progress Receives the progress, an exception it throws stops the analysis
+     * @return Table with the frequency of every normalized word
+     * @throws IOException If reading fails
+     */
+    public WordTable buildFrequencyTable(InputStream in, NormalizationOptions options, AnalysisProgress progress)
+            throws IOException {
+        if (!options.isNone()) {
+            return buildFrequencyTable(new InputStreamReader(in, StandardCharsets.UTF_8), options, progress);
+        }
+        return buildUtf8FrequencyTable(in, progress);
+    }
+
+    private Utf8FrequencyTable buildUtf8FrequencyTable(InputStream in, AnalysisProgress progress) throws IOException {
+        Utf8FrequencyTable table = new Utf8FrequencyTable();
+        withScratch(scratch -> {
+            tokenize(in, new Utf8WordTokenizer(table), scratch.bytes, () -> progress.counted(table.totalCount()));
+            return table;
+        });
+        metrics.recordWords(table);
+        return table;
+    }
+
+    /**
+     * Feeds the words of the text to the sink on the counting threads, for analyses of other services
+     * that count into sinks of their own. A large text is handed over in chunks that end at word
+     * boundaries, so like a streamed text it holds a counting thread for a chunk at a time only.
+     * Texts containing a capital sigma are handed over whole, since its lowercase form depends on
+     * the surrounding text.
+     *
+     * @param text The input text to tokenize
+     * @param sink Receiver of the case-folded words, in order of appearance
+     */
+    public void tokenize(String text, TokenSink sink) {
+        if (text.length() <= STREAM_CHUNK_SIZE || text.indexOf(CAPITAL_SIGMA) >= 0) {
+            counting.run(() -> tokenizer.tokenize(text, sink));
+            return;
+        }
+        int start = 0;
+        while (start < text.length()) {
+            int from = start;
+            int to = boundaryAfter(text, Math.min(text.length(), start + STREAM_CHUNK_SIZE));
+            counting.run(() -> tokenizer.tokenize(text, from, to, sink));
+            start = to;
+        }
+    }
+
+    /**
+     * Runs counting of another service that does not fit {@link #tokenize(String, TokenSink)}, such as
+     * feeding a tokenizer that carries a word over to the next text, on the counting threads.
+     *
+     * @param task The counting, which must not use the counting threads itself
+     */
+    public void count(Runnable task) {
+        counting.run(task);
+    }
+
+    // first position at or after the index where the text can be split, or its end
+    private static int boundaryAfter(String text, int index) {
+        for (int i = index; i < text.length(); i++) {
+            if (CodePointWordTokenizer.isSeparator(text.charAt(i))) return i;
+        }
+        return text.length();
+    }
+
+    /**
+     * Feeds the text read from the reader to the sink, one chunk at a time.
+     * The text is read on the calling thread and every chunk is counted on the counting threads.
+     *
+     * @param reader The source of the text to tokenize
+     * @param sink Receiver of the case-folded words
+     * @throws IOException If reading fails
+     */
+    public void tokenize(Reader reader, TokenSink sink) throws IOException {
+        withScratch(scratch -> {
+            tokenize(reader, sink, scratch.chars, () -> {});
+            return null;
+        });
+    }
+
+    private void tokenize(Reader reader, TokenSink sink, char[] chunk, Runnable afterChunk) throws IOException {
+        long start = metrics.start();
+        StreamingWordTokenizer streamingTokenizer = new StreamingWordTokenizer(sink);
+
+        long chars = 0;
+        int read;
+        while ((read = fill(reader, chunk)) > 0) {
+            int length = read;
+            counting.run(() -> streamingTokenizer.feed(chunk, 0, length));
+            chars += read;
+            afterChunk.run();
+        }
+        streamingTokenizer.finish();
+        metrics.recordCount(start);
+        metrics.recordInput(chars);
+    }
+
+    /**
+     * Feeds the bytes read from the stream to the tokenizer, one chunk at a time.
+     * The bytes are read on the calling thread and every chunk is counted on the counting threads.
+     */
+    private void tokenize(InputStream in, Utf8WordTokenizer utf8Tokenizer, byte[] chunk, Runnable afterChunk)
+            throws IOException {
+        long start = metrics.start();
+        long bytes = 0;
+        int read;
+        while ((read = in.readNBytes(chunk, 0, chunk.length)) > 0) {
+            int length = read;
+            counting.run(() -> utf8Tokenizer.feed(chunk, 0, length));
+            bytes += read;
+            afterChunk.run();
+        }
+        utf8Tokenizer.finish();
+        metrics.recordCount(start);
+        metrics.recordInputBytes(bytes);
+    }
+
+    // a full chunk is handed to the counting threads at once, rather than whatever a single read returned
+    private static int fill(Reader reader, char[] chunk) throws IOException {
+        int filled = 0;
+        int read;
+        while (filled < chunk.length && (read = reader.read(chunk, filled, chunk.length - filled)) != -1) {
+            filled += read;
+        }
+        return filled;
     }
 
     /**
@@ -64,13 +463,83 @@ public class SimpleFrequencySearchService implements WordFrequencyAnalyzer {
      */
     @Override
     public int calculateHighestFrequency(String text) {
-        return buildFrequencyMap(text).values().stream()
-                .max(Integer::compareTo).orElse(0);
+        return calculateHighestFrequency(text, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Variant of {@link #calculateHighestFrequency(String)} that normalizes the words first.
+     *
+     * @param text The input text to analyze
+     * @param options The normalization applied to every word
+     * @return The frequency of the most frequent normalized word, or 0 if text is empty/null
+     */
+    public int calculateHighestFrequency(String text, NormalizationOptions options) {
+        if (countsInScratch(text)) return countInScratch(text, options, (table, scratch) -> table.maxCount());
+        return buildFrequencyTable(text, options).maxCount();
+    }
+
+    /**
+     * Streaming variant of {@link #calculateHighestFrequency(String)}.
+     *
+     * @param reader The source of the text to analyze
+     * @return The frequency of the most frequent word, or 0 if the text is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateHighestFrequency(Reader reader) throws IOException {
+        return calculateHighestFrequency(reader, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Streaming variant of {@link #calculateHighestFrequency(String, NormalizationOptions)}.
+     *
+     * @param reader The source of the text to analyze
+     * @param options The normalization applied to every word
+     * @return The frequency of the most frequent normalized word, or 0 if the text is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateHighestFrequency(Reader reader, NormalizationOptions options) throws IOException {
+        return countInScratch(reader, options, (table, scratch) -> table.maxCount());
+    }
+
+    /**
+     * Variant of {@link #calculateHighestFrequency(String)} for UTF-8 bytes.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @return The frequency of the most frequent word, or 0 if the text is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateHighestFrequency(InputStream in) throws IOException {
+        return calculateHighestFrequency(in, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Variant of {@link #calculateHighestFrequency(String, NormalizationOptions)} for UTF-8 bytes.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @param options The normalization applied to every word
+     * @return The frequency of the most frequent normalized word, or 0 if the text is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateHighestFrequency(InputStream in, NormalizationOptions options) throws IOException {
+        return countInScratch(in, options, (table, scratch) -> table.maxCount());
+    }
+
+    /**
+     * Variant of {@link #calculateHighestFrequency(String)} for a UTF-8 file.
+     *
+     * @param file The file to analyze
+     * @return The frequency of the most frequent word, or 0 if the file is empty
+     * @throws IOException If reading the file fails
+     */
+    public int calculateHighestFrequency(Path file) throws IOException {
+        return buildFrequencyTable(file).maxCount();
     }
 
     /**
      * Calculates how many times a specific word appears in the text.
      * The search is case-insensitive and ignores punctuation.
+     * If the text was analyzed before, its cached frequency table answers the query,
+     * otherwise only the requested word is counted and no frequency table is built.
      *
      * @param text The input text to analyze
      * @param word The specific word to search for
@@ -78,31 +547,209 @@ public class SimpleFrequencySearchService implements WordFrequencyAnalyzer {
      */
     @Override
     public int calculateFrequencyForWord(String text, String word) {
+        return calculateFrequencyForWord(text, word, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Variant of {@link #calculateFrequencyForWord(String, String)} that normalizes the words first.
+     * The searched word is normalized the same way, a stopword is never found.
+     *
+     * @param text The input text to analyze
+     * @param word The specific word to search for
+     * @param options The normalization applied to every word
+     * @return The frequency of the normalized word, or 0 if text/word is empty/null
+     */
+    public int calculateFrequencyForWord(String text, String word, NormalizationOptions options) {
+        if (word == null || word.isBlank() || text == null) return 0;
+        NormalizationPipeline pipeline = NormalizationPipeline.of(options);
+        String target = pipeline.normalizeWord(word);
+        if (target == null) return 0;
+        metrics.recordInput(text.length());
+
+        if (cache.isEnabled()) {
+            FrequencyTable cached = cache.getIfPresent(key(text, options));
+            if (cached != null) return cached.get(target);
+        }
+        long start = metrics.start();
+        int occurrences = counting.call(() -> {
+            if (pipeline.isNone()) return WordOccurrenceCounter.count(text, word);
+            char[] targetChars = target.toCharArray();
+            int[] matches = new int[1];
+            tokenizer.tokenize(text, pipeline.wrap((buffer, length) -> {
+                if (length == targetChars.length && Arrays.equals(buffer, 0, length, targetChars, 0, length)) matches[0]++;
+            }));
+            return matches[0];
+        });
+        metrics.recordCount(start);
+        return occurrences;
+    }
+
+    /**
+     * Builds the positional index of a text: its frequency table together with the offsets of
+     * every word, in a single pass over the text. Indexes are cached like frequency tables and
+     * answer their queries as well, so later queries for the same text do not tokenize it again.
+     * The returned index may be shared and must not be modified.
+     *
+     * @param text The input text to index
+     * @param options The normalization applied to every word
+     * @return The positional index of the text
+     */
+    public PositionalIndex buildPositionalIndex(String text, NormalizationOptions options) {
+        String indexed = text == null ? "" : text;
+        metrics.recordInput(indexed.length());
+
+        NormalizationPipeline pipeline = NormalizationPipeline.of(options);
+        PositionalIndex index = cache.isEnabled() && !indexed.isEmpty()
+                ? cache.getPositions(key(indexed, options), () -> countPositions(indexed, pipeline))
+                : countPositions(indexed, pipeline);
+        metrics.recordWords(index.table());
+        return index;
+    }
+
+    /**
+     * Finds where a specific word occurs in the text, from the positional index of the text.
+     *
+     * @param text The input text to analyze
+     * @param word The specific word to search for, normalized like the text
+     * @param limit The maximum number of occurrences to return
+     * @param context Number of characters around every occurrence to return as its snippet, or a negative number for none
+     * @param options The normalization applied to every word
+     * @return The frequency and the first occurrences of the normalized word, none if text/word is empty/null
+     */
+    public WordPositions findWordPositions(String text, String word, int limit, int context, NormalizationOptions options) {
+        if (word == null || word.isBlank() || text == null || text.isEmpty()) return WordPositions.NONE;
+        String target = NormalizationPipeline.of(options).normalizeWord(word);
+        if (target == null) return WordPositions.NONE;
+
+        PositionalIndex index = buildPositionalIndex(text, options);
+        return new WordPositions(index.frequency(target), index.occurrences(target, limit, context));
+    }
+
+    /**
+     * Streaming variant of {@link #calculateFrequencyForWord(String, String)}.
+     *
+     * @param reader The source of the text to analyze
+     * @param word The specific word to search for
+     * @return The frequency of the specified word, or 0 if the text/word is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateFrequencyForWord(Reader reader, String word) throws IOException {
+        return calculateFrequencyForWord(reader, word, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Streaming variant of {@link #calculateFrequencyForWord(String, String, NormalizationOptions)}.
+     *
+     * @param reader The source of the text to analyze
+     * @param word The specific word to search for
+     * @param options The normalization applied to every word
+     * @return The frequency of the normalized word, or 0 if the text/word is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateFrequencyForWord(Reader reader, String word, NormalizationOptions options) throws IOException {
         if (word == null || word.isBlank()) return 0;
-        return buildFrequencyMap(text).getOrDefault(word.toLowerCase(Locale.ROOT), 0);
+        NormalizationPipeline pipeline = NormalizationPipeline.of(options);
+        String normalized = pipeline.normalizeWord(word);
+        if (normalized == null) return 0;
+        char[] target = normalized.toCharArray();
+
+        int[] occurrences = new int[1];
+        tokenize(reader, pipeline.wrap((buffer, length) -> {
+            if (length == target.length && Arrays.equals(buffer, 0, length, target, 0, length)) occurrences[0]++;
+        }));
+        return occurrences[0];
     }
 
     /**
-     * Alternative implementation using Stream API.
-     * Finds the N most frequent words in the text.
-     * Results are sorted by frequency (descending) and then alphabetically.
+     * Variant of {@link #calculateFrequencyForWord(String, String)} for UTF-8 bytes.
+     * Only the requested word is counted, no frequency table is built.
      *
-     * Note: This implementation is currently not used as the imperative version
-     * was easier to debug the sorting logic, but left it for reference.
+     * @param in The source of the UTF-8 text to analyze
+     * @param word The specific word to search for
+     * @return The frequency of the specified word, or 0 if the text/word is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateFrequencyForWord(InputStream in, String word) throws IOException {
+        if (word == null || word.isBlank()) return 0;
+        byte[] target = word.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+
+        int[] occurrences = new int[1];
+        Utf8WordTokenizer utf8Tokenizer = new Utf8WordTokenizer((buffer, length) -> {
+            if (length == target.length && Arrays.equals(buffer, 0, length, target, 0, length)) occurrences[0]++;
+        });
+        withScratch(scratch -> {
+            tokenize(in, utf8Tokenizer, scratch.bytes, () -> {});
+            return null;
+        });
+        return occurrences[0];
+    }
+
+    /**
+     * Variant of {@link #calculateFrequencyForWord(String, String, NormalizationOptions)} for UTF-8 bytes.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @param word The specific word to search for
+     * @param options The normalization applied to every word
+     * @return The frequency of the normalized word, or 0 if the text/word is empty
+     * @throws IOException If reading fails
+     */
+    public int calculateFrequencyForWord(InputStream in, String word, NormalizationOptions options) throws IOException {
+        if (options.isNone()) return calculateFrequencyForWord(in, word);
+        return calculateFrequencyForWord(new InputStreamReader(in, StandardCharsets.UTF_8), word, options);
+    }
+
+    /**
+     * Variant of {@link #calculateFrequencyForWord(String, String)} for a UTF-8 file.
+     *
+     * @param file The file to analyze
+     * @param word The specific word to search for
+     * @return The frequency of the specified word, or 0 if the file/word is empty
+     * @throws IOException If reading the file fails
+     */
+    public int calculateFrequencyForWord(Path file, String word) throws IOException {
+        if (word == null || word.isBlank()) return 0;
+        return buildFrequencyTable(file).get(word.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Calculates the frequencies of several words in a single pass over the text.
+     * The requested words are put in a small table and every word of the text is
+     * looked up in it, so no table of the whole vocabulary is built. If the text was
+     * analyzed before, its cached frequency table answers the query instead.
      *
      * @param text The input text to analyze
-     * @param n The maximum number of results to return
-     * @return List of WordFrequency objects containing the top N words
+     * @param words The words to search for
+     * @return Map with the requested words as keys, in request order, and their frequencies as values
      */
-    public List<WordFrequency> calculateMostFrequentNWordsWithStream(String text, int n) {
+    public Map<String, Integer> calculateFrequencyForWords(String text, Collection<String> words) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        if (words.isEmpty()) return result;
+
+        FrequencyTable cached = cache.isEnabled() && text != null && !text.isEmpty()
+                ? cache.getIfPresent(key(text, NormalizationOptions.NONE))
+                : null;
+        if (cached != null) {
+            for (String word : words) result.put(word, cached.get(word.toLowerCase(Locale.ROOT)));
+            return result;
+        }
+
+        FrequencyTable targets = new FrequencyTable(words.size());
+        for (String word : words) {
+            char[] folded = word.toLowerCase(Locale.ROOT).toCharArray();
+            targets.add(folded, 0, folded.length, 0);
+        }
+        if (text != null && !text.isEmpty()) {
+            metrics.recordInput(text.length());
+            long start = metrics.start();
+            tokenize(text, (buffer, length) -> {
+                int entry = targets.find(buffer, 0, length);
+                if (entry >= 0) targets.increment(entry);
+            });
+            metrics.recordCount(start);
+        }
 
-       return buildFrequencyMap(text).entrySet().stream()
-                .map(e -> (WordFrequency)new WordFrequencyDTO(e.getKey(), e.getValue()))
-                .sorted(Comparator
-                        .comparing(WordFrequency::frequency, Comparator.reverseOrder())
-                        .thenComparing(WordFrequency::word))
-                .limit(n)
-                .toList();
+        for (String word : words) result.put(word, targets.get(word.toLowerCase(Locale.ROOT)));
+        return result;
     }
 
     /**
@@ -116,22 +763,117 @@ public class SimpleFrequencySearchService implements WordFrequencyAnalyzer {
      */
     @Override
     public List<WordFrequency> calculateMostFrequentNWords(String text, int n) {
+        return calculateMostFrequentNWords(text, n, NormalizationOptions.NONE);
+    }
 
-        List<WordFrequency> wordsToSort = new ArrayList<>();
-        for (Map.Entry<String, Integer> e : buildFrequencyMap(text).entrySet()) {
-            WordFrequency wordFrequency = new WordFrequencyDTO(e.getKey(), e.getValue());
-            wordsToSort.add(wordFrequency);
+    /**
+     * Variant of {@link #calculateMostFrequentNWords(String, int)} that normalizes the words first.
+     *
+     * @param text The input text to analyze
+     * @param n The maximum number of results to return
+     * @param options The normalization applied to every word
+     * @return List of WordFrequency objects containing the top N normalized words
+     */
+    public List<WordFrequency> calculateMostFrequentNWords(String text, int n, NormalizationOptions options) {
+        if (countsInScratch(text)) {
+            return countInScratch(text, options, (table, scratch) -> List.copyOf(rank(table, n, scratch.histogram)));
         }
-        wordsToSort.sort(Comparator
-                .comparing(WordFrequency::frequency, Comparator.reverseOrder())
-                .thenComparing(WordFrequency::word));
-        List<WordFrequency> list = new ArrayList<>();
-
-        long limit = n;
-        for (WordFrequency wordFrequency : wordsToSort) {
-            if (limit-- == 0) break;
-            list.add(wordFrequency);
+        FrequencyTable table = buildFrequencyTable(text, options);
+        // the histogram is only used while ranking, the result is a view of the cached table
+        AnalysisScratchPool.Scratch scratch = scratchPool.acquire();
+        try {
+            return rank(table, n, scratch.histogram);
+        } finally {
+            scratchPool.release(scratch);
         }
-        return list;
+    }
+
+    /**
+     * Streaming variant of {@link #calculateMostFrequentNWords(String, int)}.
+     *
+     * @param reader The source of the text to analyze
+     * @param n The maximum number of results to return
+     * @return List of WordFrequency objects containing the top N words
+     * @throws IOException If reading fails
+     */
+    public List<WordFrequency> calculateMostFrequentNWords(Reader reader, int n) throws IOException {
+        return calculateMostFrequentNWords(reader, n, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Streaming variant of {@link #calculateMostFrequentNWords(String, int, NormalizationOptions)}.
+     *
+     * @param reader The source of the text to analyze
+     * @param n The maximum number of results to return
+     * @param options The normalization applied to every word
+     * @return List of WordFrequency objects containing the top N normalized words
+     * @throws IOException If reading fails
+     */
+    public List<WordFrequency> calculateMostFrequentNWords(Reader reader, int n, NormalizationOptions options) throws IOException {
+        return countInScratch(reader, options, (table, scratch) -> List.copyOf(rank(table, n, scratch.histogram)));
+    }
+
+    /**
+     * Variant of {@link #calculateMostFrequentNWords(String, int)} for UTF-8 bytes.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @param n The maximum number of results to return
+     * @return List of WordFrequency objects containing the top N words
+     * @throws IOException If reading fails
+     */
+    public List<WordFrequency> calculateMostFrequentNWords(InputStream in, int n) throws IOException {
+        return calculateMostFrequentNWords(in, n, NormalizationOptions.NONE);
+    }
+
+    /**
+     * Variant of {@link #calculateMostFrequentNWords(String, int, NormalizationOptions)} for UTF-8 bytes.
+     *
+     * @param in The source of the UTF-8 text to analyze
+     * @param n The maximum number of results to return
+     * @param options The normalization applied to every word
+     * @return List of WordFrequency objects containing the top N normalized words
+     * @throws IOException If reading fails
+     */
+    public List<WordFrequency> calculateMostFrequentNWords(InputStream in, int n, NormalizationOptions options) throws IOException {
+        return countInScratch(in, options, (table, scratch) -> List.copyOf(rank(table, n, scratch.histogram)));
+    }
+
+    /**
+     * Variant of {@link #calculateMostFrequentNWords(String, int)} for a UTF-8 file.
+     *
+     * @param file The file to analyze
+     * @param n The maximum number of results to return
+     * @return List of WordFrequency objects containing the top N words
+     * @throws IOException If reading the file fails
+     */
+    public List<WordFrequency> calculateMostFrequentNWords(Path file, int n) throws IOException {
+        return rank(buildFrequencyTable(file), n);
+    }
+
+    // the normalization options are part of the key, the same text gives another table with other options
+    private ContentKey key(String text, NormalizationOptions options) {
+        return ContentKey.of(options.isNone() ? normalization : normalization + options.key(), text);
+    }
+
+    private List<WordFrequency> rank(WordTable table, int n) {
+        return rank(table, n, NO_HISTOGRAM);
+    }
+
+    private List<WordFrequency> rank(WordTable table, int n, int[] histogram) {
+        long start = metrics.start();
+        List<WordFrequency> mostFrequent = TopWordsSelector.select(table, n, histogram);
+        metrics.recordRank(start);
+        return mostFrequent;
+    }
+
+    // a query of a pooled table, which may use the rest of the scratch set as well
+    @FunctionalInterface
+    private interface TableQuery<T> {
+        T apply(WordTable table, AnalysisScratchPool.Scratch scratch);
+    }
+
+    @FunctionalInterface
+    private interface ScratchAnalysis<T> {
+        T apply(AnalysisScratchPool.Scratch scratch) throws IOException;
     }
 }
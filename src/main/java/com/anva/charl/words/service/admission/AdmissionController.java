@@ -0,0 +1,108 @@
+package com.anva.charl.words.service.admission;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control weighted by the size of the request body.
+ * Small requests are always admitted, so they never queue behind large ones.
+ * Large requests take a share of a fixed in-flight budget equal to their size,
+ * a request larger than the whole budget takes all of it and runs alone.
+ * A body of unknown length may be any size, so it is charged a configured size, the whole budget by default.
+ * Waiting requests are served in arrival order, so a large request is not starved
+ * by a stream of medium ones. When too many requests are waiting, or a request
+ * waited too long, it is rejected instead of piling up work the service cannot finish.
+ */
+@Component
+public class AdmissionController {
+
+    private static final Permit UNLIMITED = () -> {};
+
+    private final boolean enabled;
+    private final long largeRequestSize;
+    private final long unknownRequestSize;
+    private final int budget;
+    private final Semaphore inFlight;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Duration queueTimeout;
+    private final Duration retryAfter;
+
+    public AdmissionController(AdmissionProperties properties) {
+        this.enabled = properties.enabled();
+        this.largeRequestSize = properties.largeRequestSize().toBytes();
+        this.unknownRequestSize = Math.max(largeRequestSize, properties.unknownRequestSize().toBytes());
+        this.budget = (int) Math.min(Integer.MAX_VALUE, properties.maxInFlight().toBytes());
+        this.inFlight = new Semaphore(budget, true);
+        this.maxQueued = properties.maxQueued();
+        this.queueTimeout = properties.queueTimeout();
+        this.retryAfter = queueTimeout.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : queueTimeout;
+    }
+
+    /**
+     * Admits a request, waiting for budget if it is large.
+     *
+     * @param bodySize Size of the request body in bytes, negative if unknown
+     * @return The permit to close once the request is done
+     * @throws AdmissionRejectedException If the request is not admitted
+     */
+    public Permit admit(long bodySize) {
+        // A body of unknown length is streamed and may be of any size, so it is never charged less than a large request
+        long size = bodySize < 0 ? unknownRequestSize : bodySize;
+        if (!enabled || size < largeRequestSize) return UNLIMITED;
+
+        int weight = (int) Math.min(size, budget);
+        if (tryAcquire(weight, 0)) return release(weight);
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.QUEUE_FULL, retryAfter);
+        }
+        try {
+            if (tryAcquire(weight, queueTimeout.toNanos())) return release(weight);
+        } finally {
+            queued.decrementAndGet();
+        }
+        throw new AdmissionRejectedException(AdmissionRejectedException.Reason.TIMEOUT, retryAfter);
+    }
+
+    /**
+     * @return The part of the in-flight budget in bytes that is not taken
+     */
+    public int availableBudget() {
+        return inFlight.availablePermits();
+    }
+
+    /**
+     * Unlike {@link Semaphore#tryAcquire(int)}, the timed variant does not barge ahead of waiting requests.
+     */
+    private boolean tryAcquire(int weight, long timeoutNanos) {
+        try {
+            return inFlight.tryAcquire(weight, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Permit release(int weight) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) inFlight.release(weight);
+        };
+    }
+
+    /**
+     * An admitted request, closing it returns its budget. Closing more than once has no effect.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,28 @@
+package com.anva.charl.words.service.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the admission control, bound from the {@code words.admission} properties.
+ *
+ * @param enabled Whether large requests are limited at all
+ * @param largeRequestSize Requests with a body of at least this size share the in-flight budget, smaller ones are always admitted
+ * @param maxInFlight Total body size of the large requests processed at the same time
+ * @param unknownRequestSize Size a body of unknown length, such as a chunked upload, is charged as,
+ *                           by default the whole budget so such a body runs alone
+ * @param maxQueued Number of large requests that may wait for budget, more are rejected right away
+ * @param queueTimeout How long a large request waits for budget before it is rejected
+ */
+@ConfigurationProperties("words.admission")
+public record AdmissionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1MB") DataSize largeRequestSize,
+    @DefaultValue("128MB") DataSize maxInFlight,
+    @DefaultValue("128MB") DataSize unknownRequestSize,
+    @DefaultValue("16") int maxQueued,
+    @DefaultValue("10s") Duration queueTimeout
+) {}
@@ -0,0 +1,38 @@
+package com.anva.charl.words.service.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the {@link AdmissionController} does not admit a request.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    public enum Reason {
+        /** Too many large requests are already waiting */
+        QUEUE_FULL,
+        /** The request waited too long for the in-flight budget */
+        TIMEOUT
+    }
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(Reason reason, Duration retryAfter) {
+        super(reason == Reason.QUEUE_FULL
+                ? "Too many large texts are waiting to be analyzed"
+                : "The service is too busy to analyze this text");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public Reason reason() {
+        return reason;
+    }
+
+    /**
+     * @return A suggested delay before the request is retried
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
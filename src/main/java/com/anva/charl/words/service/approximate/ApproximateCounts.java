@@ -0,0 +1,160 @@
+package com.anva.charl.words.service.approximate;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Approximate word counts of a text in a fixed amount of memory.
+ * Every word is counted in a {@link CountMinSketch}, which bounds the count of any word,
+ * and in a {@link SpaceSaving} summary, which keeps the most frequent words themselves.
+ *
+ * An estimate is the lower of the two upper bounds. Its error bound is the tighter of
+ * the deterministic Space-Saving error and the probabilistic sketch error, the confidence
+ * is 1 for the former and 1 - e^-depth for the latter.
+ *
+ * Not thread-safe, one instance is used per text.
+ */
+public class ApproximateCounts implements TokenSink {
+
+    private static final Comparator<ApproximateWordFrequency> RANKING =
+            Comparator.comparingInt(ApproximateWordFrequency::frequency).reversed()
+                    .thenComparing(ApproximateWordFrequency::word);
+
+    private final CountMinSketch sketch;
+    private final SpaceSaving heavyHitters;
+    private long total;
+
+    /**
+     * @param sketchWidth Counters per row of the sketch, rounded down to a power of two
+     * @param sketchDepth Rows of the sketch
+     * @param heavyHitters Number of most frequent words that are monitored
+     */
+    public ApproximateCounts(int sketchWidth, int sketchDepth, int heavyHitters) {
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.heavyHitters = new SpaceSaving(heavyHitters);
+    }
+
+    /**
+     * Sizes the sketch by the properties, but no wider than needed for a text of the given length:
+     * a text of L chars has at most L / 2 distinct words, and a row with a counter for every one
+     * of them keeps the error bound below e. Small texts then do not allocate the whole sketch.
+     *
+     * @param properties The memory of the sketch and the number of heavy hitters
+     * @param maxLength Upper bound of the length of the text in chars, or a negative number if unknown
+     * @return Empty counts sized by the properties and the text length
+     */
+    public static ApproximateCounts of(ApproximateProperties properties, long maxLength) {
+        long width = properties.sketchSize().toBytes() / ((long) Integer.BYTES * properties.sketchDepth());
+        if (maxLength >= 0) {
+            long distinctWords = Math.max(2, (maxLength + 1) / 2);
+            width = Math.min(width, Long.highestOneBit(distinctWords - 1) << 1);
+        }
+        return new ApproximateCounts((int) Math.min(width, 1 << 30), properties.sketchDepth(), properties.heavyHitters());
+    }
+
+    @Override
+    public void accept(char[] buffer, int length) {
+        long hash = hash(buffer, 0, length);
+        sketch.add(hash);
+        heavyHitters.offer(buffer, length, (int) hash);
+        total++;
+    }
+
+    /**
+     * @return The number of counted words
+     */
+    public long totalWords() {
+        return total;
+    }
+
+    /**
+     * @param word The case-folded word
+     * @return The estimated frequency of the word
+     */
+    public ApproximateFrequency frequency(String word) {
+        char[] chars = word.toCharArray();
+        long hash = hash(chars, 0, chars.length);
+        int slot = heavyHitters.find(chars, 0, chars.length, (int) hash);
+        return estimate(hash, slot);
+    }
+
+    /**
+     * @return The estimated frequency of the most frequent word
+     */
+    public ApproximateFrequency highestFrequency() {
+        List<ApproximateWordFrequency> top = mostFrequentWords(1);
+        if (top.isEmpty()) return ApproximateFrequency.NONE;
+        ApproximateWordFrequency first = top.getFirst();
+        return new ApproximateFrequency(first.frequency(), first.errorBound(), first.confidence());
+    }
+
+    /**
+     * Ranks the monitored words by their estimate. N is limited by the number of heavy hitters.
+     *
+     * @param n The maximum number of results to return
+     * @return The N words with the highest estimates, by estimate (descending) and then alphabetically
+     */
+    public List<ApproximateWordFrequency> mostFrequentWords(int n) {
+        List<ApproximateWordFrequency> candidates = new ArrayList<>(heavyHitters.size());
+        for (int slot = 0; slot < heavyHitters.size(); slot++) {
+            String word = heavyHitters.word(slot);
+            char[] chars = word.toCharArray();
+            ApproximateFrequency estimate = estimate(hash(chars, 0, chars.length), slot);
+            candidates.add(new ApproximateWordFrequency(word, estimate.frequency(), estimate.errorBound(), estimate.confidence()));
+        }
+        candidates.sort(RANKING);
+        return List.copyOf(candidates.subList(0, Math.min(Math.max(n, 0), candidates.size())));
+    }
+
+    /**
+     * @return Approximate number of bytes held by the counts
+     */
+    public long estimatedBytes() {
+        return sketch.estimatedBytes() + heavyHitters.estimatedBytes();
+    }
+
+    private ApproximateFrequency estimate(long hash, int slot) {
+        if (total == 0) return ApproximateFrequency.NONE;
+
+        int sketchEstimate = sketch.estimate(hash);
+        int upper;
+        int guaranteed;
+        if (slot >= 0) {
+            upper = Math.min(sketchEstimate, heavyHitters.count(slot));
+            guaranteed = heavyHitters.count(slot) - heavyHitters.error(slot);
+        } else {
+            // a word that is not monitored occurred at most as often as the least frequent monitored word
+            upper = Math.min(sketchEstimate, heavyHitters.minCount());
+            guaranteed = 0;
+        }
+        long probable = sketchEstimate - (long) Math.ceil(sketch.epsilon() * total);
+
+        if (guaranteed >= probable) {
+            return new ApproximateFrequency(upper, upper - Math.min(upper, guaranteed), 1.0);
+        }
+        int lower = (int) Math.min(upper, probable);
+        return new ApproximateFrequency(upper, upper - lower, sketch.confidence());
+    }
+
+    /**
+     * 64 bit FNV-1a hash of a word with a final avalanche step, the sketch rows use both halves.
+     *
+     * @param chars Array holding the word
+     * @param offset Start of the word in the array
+     * @param length Length of the word
+     * @return The hash
+     */
+    static long hash(char[] chars, int offset, int length) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = offset; i < offset + length; i++) h = (h ^ chars[i]) * 0x100000001B3L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,14 @@
+package com.anva.charl.words.service.approximate;
+
+/**
+ * An estimated frequency. The true frequency lies between {@code frequency - errorBound}
+ * and {@code frequency}, with the given confidence.
+ *
+ * @param frequency The estimate, never below the true frequency
+ * @param errorBound The most the estimate exceeds the true frequency
+ * @param confidence The probability that the error bound holds
+ */
+public record ApproximateFrequency(int frequency, int errorBound, double confidence) {
+
+    static final ApproximateFrequency NONE = new ApproximateFrequency(0, 0, 1.0);
+}
@@ -0,0 +1,115 @@
+package com.anva.charl.words.service.approximate;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Opt-in approximate variant of the {@link SimpleFrequencySearchService} analyses for texts whose
+ * vocabulary, full of ids, hashes and typos, would not fit an exact frequency table.
+ * Every analysis uses the fixed memory configured in {@link ApproximateProperties} and reports
+ * error bounds with its estimates.
+ */
+@Service
+public class ApproximateFrequencyService {
+
+    private final SimpleFrequencySearchService searchService;
+    private final ApproximateProperties properties;
+
+    public ApproximateFrequencyService(SimpleFrequencySearchService searchService, ApproximateProperties properties) {
+        this.searchService = searchService;
+        this.properties = properties;
+    }
+
+    /**
+     * Counts the words of a text approximately.
+     *
+     * @param text The input text to analyze
+     * @return The approximate counts of the text
+     */
+    public ApproximateCounts count(String text) {
+        ApproximateCounts counts = ApproximateCounts.of(properties, text == null ? 0 : text.length());
+        if (text != null) searchService.tokenize(text, counts);
+        return counts;
+    }
+
+    /**
+     * Counts the words read from the given reader approximately, one chunk at a time.
+     *
+     * @param reader The source of the text to analyze
+     * @param maxLength Upper bound of the length of the text in chars, such as the number of bytes
+     *                  of the request body, or a negative number if unknown
+     * @return The approximate counts of the text
+     * @throws IOException If reading fails
+     */
+    public ApproximateCounts count(Reader reader, long maxLength) throws IOException {
+        ApproximateCounts counts = ApproximateCounts.of(properties, maxLength);
+        searchService.tokenize(reader, counts);
+        return counts;
+    }
+
+    /**
+     * @param text The input text to analyze
+     * @return The estimated highest frequency of any word in the text
+     */
+    public ApproximateFrequency calculateHighestFrequency(String text) {
+        return count(text).highestFrequency();
+    }
+
+    /**
+     * @param reader The source of the text to analyze
+     * @param maxLength Upper bound of the length of the text in chars, or a negative number if unknown
+     * @return The estimated highest frequency of any word in the text
+     * @throws IOException If reading fails
+     */
+    public ApproximateFrequency calculateHighestFrequency(Reader reader, long maxLength) throws IOException {
+        return count(reader, maxLength).highestFrequency();
+    }
+
+    /**
+     * @param text The input text to analyze
+     * @param word The specific word to search for
+     * @return The estimated frequency of the word in the text
+     */
+    public ApproximateFrequency calculateFrequencyForWord(String text, String word) {
+        if (word == null || word.isBlank()) return ApproximateFrequency.NONE;
+        return count(text).frequency(word.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param reader The source of the text to analyze
+     * @param maxLength Upper bound of the length of the text in chars, or a negative number if unknown
+     * @param word The specific word to search for
+     * @return The estimated frequency of the word in the text
+     * @throws IOException If reading fails
+     */
+    public ApproximateFrequency calculateFrequencyForWord(Reader reader, long maxLength, String word) throws IOException {
+        if (word == null || word.isBlank()) return ApproximateFrequency.NONE;
+        return count(reader, maxLength).frequency(word.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param text The input text to analyze
+     * @param n The maximum number of results to return, at most the configured number of heavy hitters
+     * @return The N most frequent words by estimate (descending) and then alphabetically
+     */
+    public List<ApproximateWordFrequency> calculateMostFrequentNWords(String text, int n) {
+        return count(text).mostFrequentWords(n);
+    }
+
+    /**
+     * @param reader The source of the text to analyze
+     * @param maxLength Upper bound of the length of the text in chars, or a negative number if unknown
+     * @param n The maximum number of results to return, at most the configured number of heavy hitters
+     * @return The N most frequent words by estimate (descending) and then alphabetically
+     * @throws IOException If reading fails
+     */
+    public List<ApproximateWordFrequency> calculateMostFrequentNWords(Reader reader, long maxLength, int n) throws IOException {
+        return count(reader, maxLength).mostFrequentWords(n);
+    }
+}
@@ -0,0 +1,26 @@
+package com.anva.charl.words.service.approximate;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the approximate analysis, bound from the {@code words.approximate} properties.
+ * Every approximate analysis uses at most a fixed amount of memory, the sketch plus the heavy hitters,
+ * however many distinct words the text has. The sketch of a text of known length is not made wider
+ * than the number of distinct words the text can have.
+ *
+ * @param sketchSize Most memory of the Count-Min Sketch, more memory lowers the error bound
+ * @param sketchDepth Rows of the Count-Min Sketch, the bound holds with probability 1 - e^-depth
+ * @param heavyHitters Number of most frequent words that are monitored, and the largest top N answered
+ */
+@ConfigurationProperties("words.approximate")
+public record ApproximateProperties(
+    @DefaultValue("16MB") DataSize sketchSize,
+    @DefaultValue("5") int sketchDepth,
+    @DefaultValue("1000") int heavyHitters
+) {
+    public static ApproximateProperties defaults() {
+        return new ApproximateProperties(DataSize.ofMegabytes(16), 5, 1000);
+    }
+}
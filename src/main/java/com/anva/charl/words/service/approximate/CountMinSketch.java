@@ -0,0 +1,80 @@
+package com.anva.charl.words.service.approximate;
+
+/**
+ * Count-Min Sketch: a fixed grid of counters, depth rows of width counters, in which every
+ * word increments one counter per row. The estimate of a word is the smallest of its counters,
+ * which is never below the true count and, with probability 1 - e^-depth, exceeds it by at
+ * most e / width times the number of counted words.
+ *
+ * Counting uses conservative update, only the counters that are at the current minimum are
+ * incremented, which keeps the same bound but lowers the overestimate in practice.
+ *
+ * Not thread-safe.
+ */
+class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final int[] counters;
+
+    /**
+     * @param width Counters per row, rounded down to a power of two
+     * @param depth Number of rows
+     */
+    CountMinSketch(int width, int depth) {
+        int rowWidth = Integer.highestOneBit(Math.max(2, width));
+        this.depth = depth;
+        this.widthMask = rowWidth - 1;
+        this.counters = new int[rowWidth * depth];
+    }
+
+    /**
+     * Counts one occurrence of a word.
+     *
+     * @param hash The 64 bit hash of the word, see {@link ApproximateCounts#hash(char[], int, int)}
+     */
+    void add(long hash) {
+        int estimate = estimate(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0; row < depth; row++) {
+            int cell = row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+            if (counters[cell] == estimate) counters[cell] = estimate + 1;
+        }
+    }
+
+    /**
+     * @param hash The 64 bit hash of the word
+     * @return The estimated count of the word, never below its true count
+     */
+    int estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * (widthMask + 1) + ((h1 + row * h2) & widthMask)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * @return The relative error bound e / width, the overestimate is at most this times the number of counted words
+     */
+    double epsilon() {
+        return Math.E / (widthMask + 1);
+    }
+
+    /**
+     * @return The probability that an estimate stays within the error bound, 1 - e^-depth
+     */
+    double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    /**
+     * @return Number of bytes held by the counters
+     */
+    long estimatedBytes() {
+        return (long) counters.length * Integer.BYTES;
+    }
+}
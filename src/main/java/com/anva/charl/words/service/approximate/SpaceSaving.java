@@ -0,0 +1,203 @@
+package com.anva.charl.words.service.approximate;
+
+import java.util.Arrays;
+
+/**
+ * Space-Saving top-k summary: at most k words are monitored, each with a count and the error
+ * it may have inherited. A word that is not monitored takes over the counter of the monitored
+ * word with the lowest count, so its count overestimates by at most that inherited error.
+ * Every word occurring more than N / k times out of N is guaranteed to be monitored.
+ *
+ * The monitored words are kept in a min-heap by count, so the word to replace is always on top,
+ * and are found through an open addressing index that deletes by shifting entries back instead
+ * of leaving tombstones, so its probe sequences stay short however many words are replaced.
+ *
+ * Not thread-safe.
+ */
+class SpaceSaving {
+
+    private final int capacity;
+    private final char[][] words;
+    private final int[] lengths;
+    private final int[] hashes;
+    private final int[] counts;
+    private final int[] errors;
+    private int size;
+
+    // slot ids as a min-heap by count, and the heap position of every slot
+    private final int[] heap;
+    private final int[] heapPositions;
+
+    // slot id + 1 per index position, 0 marks an empty position
+    private final int[] index;
+    private final int mask;
+
+    /**
+     * @param capacity Maximum number of monitored words, k
+     */
+    SpaceSaving(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.words = new char[this.capacity][];
+        this.lengths = new int[this.capacity];
+        this.hashes = new int[this.capacity];
+        this.counts = new int[this.capacity];
+        this.errors = new int[this.capacity];
+        this.heap = new int[this.capacity];
+        this.heapPositions = new int[this.capacity];
+        int indexSize = Integer.highestOneBit(this.capacity * 2 - 1) << 1;
+        this.index = new int[indexSize];
+        this.mask = indexSize - 1;
+    }
+
+    /**
+     * Counts one occurrence of a word.
+     *
+     * @param chars Array holding the case-folded word
+     * @param length Length of the word
+     * @param hash Hash of the word
+     */
+    void offer(char[] chars, int length, int hash) {
+        int slot = find(chars, 0, length, hash);
+        if (slot >= 0) {
+            counts[slot]++;
+            siftDown(heapPositions[slot]);
+            return;
+        }
+
+        if (size < capacity) {
+            slot = size++;
+            store(slot, chars, length, hash);
+            counts[slot] = 1;
+            heap[size - 1] = slot;
+            heapPositions[slot] = size - 1;
+            siftUp(size - 1);
+        } else {
+            // the word with the lowest count makes room, the new word inherits its count as error
+            slot = heap[0];
+            unindex(slot);
+            store(slot, chars, length, hash);
+            errors[slot] = counts[slot];
+            counts[slot]++;
+            siftDown(0);
+        }
+        insertIndex(slot);
+    }
+
+    /**
+     * @param chars Array holding the case-folded word
+     * @param offset Start of the word in the array
+     * @param length Length of the word
+     * @param hash Hash of the word
+     * @return The slot of the word, or -1 if it is not monitored
+     */
+    int find(char[] chars, int offset, int length, int hash) {
+        int position = hash & mask;
+        while (true) {
+            int slot = index[position] - 1;
+            if (slot < 0) return -1;
+            if (hashes[slot] == hash && lengths[slot] == length
+                    && Arrays.equals(words[slot], 0, length, chars, offset, offset + length)) {
+                return slot;
+            }
+            position = (position + 1) & mask;
+        }
+    }
+
+    /**
+     * @return The number of monitored words
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The lowest count of a monitored word, the most any word that is not monitored can have occurred
+     */
+    int minCount() {
+        return size < capacity ? 0 : counts[heap[0]];
+    }
+
+    int count(int slot) {
+        return counts[slot];
+    }
+
+    int error(int slot) {
+        return errors[slot];
+    }
+
+    String word(int slot) {
+        return new String(words[slot], 0, lengths[slot]);
+    }
+
+    /**
+     * @return Approximate number of bytes held by the summary
+     */
+    long estimatedBytes() {
+        long bytes = (long) capacity * 7 * Integer.BYTES + (long) index.length * Integer.BYTES;
+        for (int slot = 0; slot < size; slot++) bytes += (long) words[slot].length * Character.BYTES;
+        return bytes;
+    }
+
+    private void store(int slot, char[] chars, int length, int hash) {
+        if (words[slot] == null || words[slot].length < length) words[slot] = new char[Math.max(16, length)];
+        System.arraycopy(chars, 0, words[slot], 0, length);
+        lengths[slot] = length;
+        hashes[slot] = hash;
+    }
+
+    private void insertIndex(int slot) {
+        int position = hashes[slot] & mask;
+        while (index[position] != 0) position = (position + 1) & mask;
+        index[position] = slot + 1;
+    }
+
+    // Removes a slot from the index, moving later entries of the probe sequence into the gap
+    private void unindex(int slot) {
+        int hole = hashes[slot] & mask;
+        while (index[hole] != slot + 1) hole = (hole + 1) & mask;
+        index[hole] = 0;
+
+        int position = (hole + 1) & mask;
+        while (index[position] != 0) {
+            int home = hashes[index[position] - 1] & mask;
+            // the entry may move into the hole if the hole lies between its home and its position
+            if (((position - home) & mask) >= ((position - hole) & mask)) {
+                index[hole] = index[position];
+                index[position] = 0;
+                hole = position;
+            }
+            position = (position + 1) & mask;
+        }
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[heap[position]]) return;
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[heap[left]] < counts[heap[smallest]]) smallest = left;
+            if (right < size && counts[heap[right]] < counts[heap[smallest]]) smallest = right;
+            if (smallest == position) return;
+            swap(smallest, position);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int slotA = heap[a];
+        int slotB = heap[b];
+        heap[a] = slotB;
+        heap[b] = slotA;
+        heapPositions[slotB] = a;
+        heapPositions[slotA] = b;
+    }
+}
@@ -0,0 +1,60 @@
+package com.anva.charl.words.service.batch;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Answers the same query for many texts at once.
+ * Every text is analyzed once into a frequency table, concurrently on virtual threads that
+ * wait for the counting threads of the {@link SimpleFrequencySearchService}, and all parts of
+ * the query are then answered from that table.
+ */
+@Service
+public class BatchFrequencyService {
+
+    private final SimpleFrequencySearchService searchService;
+
+    public BatchFrequencyService(SimpleFrequencySearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Analyzes the texts concurrently.
+     *
+     * @param texts The input texts to analyze
+     * @param words The words to report the frequency of, may be empty
+     * @param limit The number of most frequent words to report, or null for none
+     * @return One TextAnalysis per text, in the order of the texts
+     */
+    public List<TextAnalysis> analyzeTexts(List<String> texts, List<String> words, Integer limit) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<TextAnalysis>> futures = new ArrayList<>(texts.size());
+            for (String text : texts) {
+                futures.add(CompletableFuture.supplyAsync(() -> analyze(text, words, limit), executor));
+            }
+            return futures.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
+    private TextAnalysis analyze(String text, List<String> words, Integer limit) {
+        FrequencyTable table = searchService.buildFrequencyTable(text);
+
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String word : words) frequencies.put(word, table.get(word.toLowerCase(Locale.ROOT)));
+
+        List<WordFrequency> mostFrequentWords = limit == null ? List.of() : TopWordsSelector.select(table, limit);
+        return new TextAnalysis(table.maxCount(), frequencies, mostFrequentWords);
+    }
+}
@@ -0,0 +1,19 @@
+package com.anva.charl.words.service.batch;
+
+import com.anva.charl.words.data.model.WordFrequency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The answers to a batch query for a single text.
+ *
+ * @param highestFrequency The frequency of the most frequent word
+ * @param frequencies The frequency of every requested word, empty if no words were requested
+ * @param mostFrequentWords The N most frequent words, empty if no limit was requested
+ */
+public record TextAnalysis(
+    int highestFrequency,
+    Map<String, Integer> frequencies,
+    List<WordFrequency> mostFrequentWords
+) {}
@@ -0,0 +1,23 @@
+package com.anva.charl.words.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the frequency table cache, bound from the {@code words.cache} properties.
+ *
+ * @param enabled Whether frequency tables are cached at all
+ * @param maxEntries Maximum number of cached texts
+ * @param maxWeight Maximum total size of the cached tables
+ * @param ttl How long a table stays cached after it was built, zero keeps it until evicted
+ */
+@ConfigurationProperties("words.cache")
+public record CacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("256") int maxEntries,
+    @DefaultValue("256MB") DataSize maxWeight,
+    @DefaultValue("0s") Duration ttl
+) {}
@@ -0,0 +1,12 @@
+package com.anva.charl.words.service.cache;
+
+/**
+ * Snapshot of the cache counters.
+ *
+ * @param hits Lookups answered from the cache
+ * @param misses Lookups that had to analyze the text
+ * @param evictions Tables removed because of the size, weight or time limits
+ * @param entries Number of cached tables
+ * @param weightBytes Estimated size of the cached tables in bytes
+ */
+public record CacheStats(long hits, long misses, long evictions, int entries, long weightBytes) {}
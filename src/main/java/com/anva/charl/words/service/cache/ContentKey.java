@@ -0,0 +1,43 @@
+package com.anva.charl.words.service.cache;
+
+/**
+ * Identifies a text by a 128 bit content hash, its length and the normalization it was
+ * analyzed with, so results can be shared between requests carrying the same text.
+ *
+ * @param normalization Description of the tokenization and normalization settings
+ * @param length The length of the text in chars
+ * @param high The upper 64 bits of the content hash
+ * @param low The lower 64 bits of the content hash
+ */
+public record ContentKey(String normalization, int length, long high, long low) {
+
+    /**
+     * Hashes the text with two independent 64 bit lanes (FNV-1a and a multiplicative
+     * polynomial) that the CPU can run side by side, finished with the MurmurHash3 mixer.
+     * Not cryptographic, but with 128 bits plus the length accidental collisions are
+     * not a practical concern.
+     *
+     * @param normalization Description of the tokenization and normalization settings
+     * @param text The text to hash
+     * @return The key of the text
+     */
+    public static ContentKey of(String normalization, CharSequence text) {
+        long fnv = 0xCBF29CE484222325L;
+        long poly = 0x27D4EB2F165667C5L;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            fnv = (fnv ^ c) * 0x100000001B3L;
+            poly = (poly + c) * 0x9E3779B97F4A7C15L;
+        }
+        return new ContentKey(normalization, length, mix(fnv ^ length), mix(poly + length));
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,273 @@
+package com.anva.charl.words.service.cache;
+
+import com.anva.charl.words.service.position.PositionalIndex;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used cache of frequency tables, keyed by the content of the analyzed text.
+ * Clients often send the same document to several endpoints, a repeated request then
+ * costs a hash of the text and a lookup instead of a full analysis.
+ *
+ * Eviction happens when the number of tables or their combined estimated size exceeds
+ * the configured limits, and expired tables are dropped when they are looked up.
+ * Cached tables are shared between requests and must not be modified.
+ *
+ * A text may also be cached with its {@link PositionalIndex}, which then answers the lookups
+ * of its frequency table as well, so a text is counted once whichever is asked for first.
+ *
+ * Tables are built outside the lock, but only once per key at a time: requests for a text that is
+ * being counted wait for that build instead of counting it again, so a burst of requests for the
+ * same new text costs a single analysis. A failed build is not shared, the waiting requests then
+ * build the table themselves.
+ */
+@Component
+public class FrequencyTableCache {
+
+    private final CacheProperties properties;
+    private final Clock clock;
+    private final LinkedHashMap<ContentKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<ContentKey, CompletableFuture<FrequencyTable>> tableBuilds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ContentKey, CompletableFuture<PositionalIndex>> positionBuilds = new ConcurrentHashMap<>();
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    @Autowired
+    public FrequencyTableCache(CacheProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    FrequencyTableCache(CacheProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * @return A cache that never stores anything
+     */
+    public static FrequencyTableCache disabled() {
+        return new FrequencyTableCache(new CacheProperties(false, 0, null, null));
+    }
+
+    /**
+     * @return Whether tables are cached at all
+     */
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Returns the cached table for the key, building and caching it on a miss.
+     * While the table or the positional index of the key is being built, waits for that build instead.
+     *
+     * @param key The content key of the text
+     * @param builder Builds the table when it is not cached
+     * @return The frequency table of the text
+     * @throws CancellationException If the calling thread is interrupted while it waits
+     */
+    public FrequencyTable get(ContentKey key, Supplier<FrequencyTable> builder) {
+        FrequencyTable table = getIfPresent(key);
+        if (table != null) return table;
+        if (!properties.enabled()) return builder.get();
+
+        CompletableFuture<PositionalIndex> indexing = positionBuilds.get(key);
+        PositionalIndex index = indexing != null ? await(indexing) : null;
+        if (index != null) return index.table();
+
+        return buildOnce(tableBuilds, key, () -> {
+            Entry entry = peek(key);
+            return entry != null ? entry.table() : null;
+        }, () -> {
+            FrequencyTable built = builder.get();
+            put(key, built);
+            return built;
+        });
+    }
+
+    /**
+     * Looks up a cached table without building it.
+     *
+     * @param key The content key of the text
+     * @return The cached table, or null
+     */
+    public synchronized FrequencyTable getIfPresent(ContentKey key) {
+        Entry entry = lookup(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.table();
+    }
+
+    /**
+     * Returns the cached positional index for the key, building and caching it on a miss.
+     * The index replaces a frequency table cached for the same key.
+     *
+     * @param key The content key of the text
+     * @param builder Builds the index when it is not cached
+     * @return The positional index of the text
+     * @throws CancellationException If the calling thread is interrupted while it waits for another build
+     */
+    public PositionalIndex getPositions(ContentKey key, Supplier<PositionalIndex> builder) {
+        PositionalIndex index = getPositionsIfPresent(key);
+        if (index != null) return index;
+        if (!properties.enabled()) return builder.get();
+
+        return buildOnce(positionBuilds, key, () -> {
+            Entry entry = peek(key);
+            return entry != null ? entry.positions() : null;
+        }, () -> {
+            PositionalIndex built = builder.get();
+            put(key, built.table(), built);
+            return built;
+        });
+    }
+
+    /**
+     * Looks up a cached positional index without building it.
+     *
+     * @param key The content key of the text
+     * @return The cached index, or null if the text is not cached or only with its frequency table
+     */
+    public synchronized PositionalIndex getPositionsIfPresent(ContentKey key) {
+        Entry entry = lookup(key);
+        if (entry == null || entry.positions() == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.positions();
+    }
+
+    /**
+     * Caches a table, evicting the least recently used tables when limits are exceeded.
+     * Tables larger than the whole cache are not stored.
+     *
+     * @param key The content key of the text
+     * @param table The frequency table of the text
+     */
+    public void put(ContentKey key, FrequencyTable table) {
+        put(key, table, null);
+    }
+
+    private synchronized void put(ContentKey key, FrequencyTable table, PositionalIndex positions) {
+        if (!properties.enabled()) return;
+
+        long tableWeight = positions != null ? positions.estimatedBytes() : table.estimatedBytes();
+        if (tableWeight > properties.maxWeight().toBytes()) return;
+
+        Entry previous = entries.put(key, new Entry(table, positions, tableWeight, clock.millis()));
+        if (previous != null) weight -= previous.weight();
+        weight += tableWeight;
+
+        Iterator<Map.Entry<ContentKey, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > properties.maxEntries() || weight > properties.maxWeight().toBytes())
+                && eldest.hasNext()) {
+            Map.Entry<ContentKey, Entry> next = eldest.next();
+            if (next.getKey().equals(key)) continue;
+            weight -= next.getValue().weight();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all cached tables.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return Snapshot of the cache counters
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), weight);
+    }
+
+    // runs the build unless one of the key is in flight, whose result is then awaited instead;
+    // the build is only published after it is cached, so the cache is checked again first
+    private static <T> T buildOnce(ConcurrentHashMap<ContentKey, CompletableFuture<T>> builds, ContentKey key,
+                                   Supplier<T> cached, Supplier<T> builder) {
+        while (true) {
+            CompletableFuture<T> build = new CompletableFuture<>();
+            CompletableFuture<T> running = builds.putIfAbsent(key, build);
+            if (running != null) {
+                T result = await(running);
+                if (result != null) return result;
+                continue;
+            }
+
+            try {
+                T result = cached.get();
+                if (result == null) result = builder.get();
+                build.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                build.completeExceptionally(e);
+                throw e;
+            } finally {
+                builds.remove(key, build);
+            }
+        }
+    }
+
+    // the result of a build of another thread, or null if it failed
+    private static <T> T await(CompletableFuture<T> build) {
+        try {
+            return build.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the table");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    // looks up without counting a hit or miss
+    private synchronized Entry peek(ContentKey key) {
+        return lookup(key);
+    }
+
+    // the entry of the key unless it expired, which is then dropped
+    private Entry lookup(ContentKey key) {
+        if (!properties.enabled()) return null;
+
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            remove(key, entry);
+            evictions++;
+            return null;
+        }
+        return entry;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return properties.ttl() != null
+                && !properties.ttl().isZero()
+                && clock.millis() - entry.createdAt() > properties.ttl().toMillis();
+    }
+
+    private void remove(ContentKey key, Entry entry) {
+        entries.remove(key);
+        weight -= entry.weight();
+    }
+
+    private record Entry(FrequencyTable table, PositionalIndex positions, long weight, long createdAt) {}
+}
@@ -0,0 +1,35 @@
+package com.anva.charl.words.service.corpus;
+
+import com.anva.charl.words.data.model.WeightedWordFrequency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The answers to a corpus query.
+ *
+ * @param documentCount The number of documents of the corpus
+ * @param vocabularySize The number of distinct terms of all documents
+ * @param documentFrequencies The number of documents every requested term occurs in, empty if no terms were requested
+ * @param documents The answers for every document, in the order of the documents
+ */
+public record CorpusAnalysis(
+    int documentCount,
+    int vocabularySize,
+    Map<String, Integer> documentFrequencies,
+    List<Document> documents
+) {
+
+    /**
+     * The answers for a single document.
+     *
+     * @param length The number of words of the document
+     * @param frequencies The frequency of every requested term in the document, empty if no terms were requested
+     * @param keywords The highest weighted terms of the document
+     */
+    public record Document(
+        int length,
+        Map<String, Integer> frequencies,
+        List<WeightedWordFrequency> keywords
+    ) {}
+}
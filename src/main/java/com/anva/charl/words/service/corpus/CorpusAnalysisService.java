@@ -0,0 +1,102 @@
+package com.anva.charl.words.service.corpus;
+
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Analyzes a corpus of documents together, so the words of every document are weighted by
+ * how many documents they occur in, and keywords can be picked instead of the most frequent words.
+ *
+ * The documents are counted concurrently, each on a virtual thread that hands its counting to the
+ * counting threads of the {@link SimpleFrequencySearchService}, and each into a table of its own.
+ * The words of a finished table are then interned once into the vocabulary shared by all documents,
+ * and the table is dropped, leaving only the term ids and counts of the document. The vocabulary is
+ * locked once per document rather than once per word, so the counting itself is never contended.
+ * Texts are not cached, since the tables of the documents are not kept.
+ */
+@Service
+public class CorpusAnalysisService {
+
+    private final SimpleFrequencySearchService searchService;
+
+    public CorpusAnalysisService(SimpleFrequencySearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Counts the documents concurrently. A null or blank document is an empty document of the corpus.
+     *
+     * @param documents The documents of the corpus
+     * @param options The normalization applied to every word
+     * @return The index of the corpus
+     */
+    public CorpusIndex index(List<String> documents, NormalizationOptions options) {
+        NormalizationPipeline pipeline = NormalizationPipeline.of(options);
+        FrequencyTable vocabulary = new FrequencyTable();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<DocumentTerms>> futures = new ArrayList<>(documents.size());
+            for (String document : documents) {
+                futures.add(CompletableFuture.supplyAsync(() -> count(document, pipeline, vocabulary), executor));
+            }
+            return new CorpusIndex(vocabulary, futures.stream().map(CompletableFuture::join).toList());
+        }
+    }
+
+    /**
+     * Indexes the documents and answers the same query for every one of them.
+     *
+     * @param documents The documents of the corpus
+     * @param terms The terms to report the frequencies of, may be empty
+     * @param limit The number of keywords to report per document
+     * @param weighting How the keywords are weighted
+     * @param options The normalization applied to every word, the terms are normalized as well
+     * @return The analysis of the corpus, with one result per document in the order of the documents
+     */
+    public CorpusAnalysis analyze(List<String> documents, List<String> terms, int limit, TermWeighting weighting,
+                                  NormalizationOptions options) {
+        CorpusIndex index = index(documents, options);
+        NormalizationPipeline pipeline = NormalizationPipeline.of(options);
+        List<String> normalized = terms.stream().map(pipeline::normalizeWord).toList();
+
+        Map<String, Integer> documentFrequencies = new LinkedHashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = normalized.get(i);
+            documentFrequencies.put(terms.get(i), term == null ? 0 : index.documentFrequency(term));
+        }
+
+        List<CorpusAnalysis.Document> results = new ArrayList<>(index.documentCount());
+        for (int document = 0; document < index.documentCount(); document++) {
+            Map<String, Integer> frequencies = new LinkedHashMap<>();
+            for (int i = 0; i < terms.size(); i++) {
+                String term = normalized.get(i);
+                frequencies.put(terms.get(i), term == null ? 0 : index.frequency(document, term));
+            }
+            results.add(new CorpusAnalysis.Document(index.documentLength(document), frequencies,
+                    index.topTerms(document, limit, weighting)));
+        }
+        return new CorpusAnalysis(index.documentCount(), index.vocabularySize(), documentFrequencies, results);
+    }
+
+    private DocumentTerms count(String document, NormalizationPipeline pipeline, FrequencyTable vocabulary) {
+        FrequencyTable table = FrequencyTable.forText(document == null ? 0 : document.length());
+        if (document != null) searchService.tokenize(document, pipeline.wrap(table));
+
+        int[] termIds;
+        synchronized (vocabulary) {
+            termIds = vocabulary.addWordsOf(table);
+        }
+        return DocumentTerms.of(termIds, table);
+    }
+}
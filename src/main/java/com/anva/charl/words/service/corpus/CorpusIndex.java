@@ -0,0 +1,167 @@
+package com.anva.charl.words.service.corpus;
+
+import com.anva.charl.words.data.model.WeightedWordFrequency;
+import com.anva.charl.words.service.table.FrequencyTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The term frequencies of every document of a corpus, together with the document frequency of
+ * every term. The terms are interned in one vocabulary shared by all documents, whose count of a
+ * term is the number of documents it occurs in, and the documents refer to them by term id.
+ * The memory of the term strings therefore grows with the vocabulary of the corpus, not with
+ * the number of documents.
+ *
+ * Immutable once built, so it can be queried by several threads.
+ */
+public class CorpusIndex {
+
+    private final FrequencyTable vocabulary;
+    private final DocumentTerms[] documents;
+    private final double averageLength;
+
+    /**
+     * @param vocabulary The terms of all documents, counting the documents every term occurs in
+     * @param documents The terms of every document, in the order of the documents
+     */
+    CorpusIndex(FrequencyTable vocabulary, List<DocumentTerms> documents) {
+        this.vocabulary = vocabulary;
+        this.documents = documents.toArray(DocumentTerms[]::new);
+        long words = 0;
+        for (DocumentTerms document : this.documents) words += document.length();
+        this.averageLength = this.documents.length == 0 ? 0 : (double) words / this.documents.length;
+    }
+
+    /**
+     * @return The number of documents
+     */
+    public int documentCount() {
+        return documents.length;
+    }
+
+    /**
+     * @return The number of distinct terms of all documents
+     */
+    public int vocabularySize() {
+        return vocabulary.size();
+    }
+
+    /**
+     * @param document Index of the document
+     * @return The number of words of the document
+     */
+    public int documentLength(int document) {
+        return documents[document].length();
+    }
+
+    /**
+     * @param term The normalized term to look up
+     * @return The number of documents the term occurs in
+     */
+    public int documentFrequency(String term) {
+        return vocabulary.get(term);
+    }
+
+    /**
+     * @param document Index of the document
+     * @param term The normalized term to look up
+     * @return The occurrences of the term in the document
+     */
+    public int frequency(int document, String term) {
+        char[] chars = term.toCharArray();
+        int id = vocabulary.find(chars, 0, chars.length);
+        return id < 0 ? 0 : documents[document].frequency(id);
+    }
+
+    /**
+     * Ranks the terms of a document by their weight against the corpus, keeping only the best
+     * {@code limit} terms in a heap instead of sorting all terms of the document. Terms of equal
+     * weight, such as all terms of a corpus of a single document under TF-IDF, rank by frequency.
+     *
+     * @param document Index of the document
+     * @param limit The maximum number of terms to return
+     * @param weighting How the terms are weighted
+     * @return The highest weighted terms by weight (descending), then by frequency (descending) and then alphabetically
+     */
+    public List<WeightedWordFrequency> topTerms(int document, int limit, TermWeighting weighting) {
+        DocumentTerms terms = documents[document];
+        int n = Math.min(limit, terms.size());
+        if (n <= 0) return List.of();
+
+        double[] weights = new double[terms.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weighting.weight(terms.count(i), vocabulary.count(terms.term(i)),
+                    documents.length, terms.length(), averageLength);
+        }
+
+        // min-heap of term positions, the lowest ranked of the best n at the root
+        int[] heap = new int[n];
+        int size = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (size < n) {
+                heap[size] = i;
+                siftUp(heap, size++, terms, weights);
+            } else if (ranksBefore(i, heap[0], terms, weights)) {
+                heap[0] = i;
+                siftDown(heap, n, terms, weights);
+            }
+        }
+
+        List<WeightedWordFrequency> result = new ArrayList<>(n);
+        for (int remaining = n; remaining > 0; remaining--) {
+            int i = heap[0];
+            result.add(new WeightedWordFrequency(vocabulary.word(terms.term(i)), terms.count(i), weights[i]));
+            heap[0] = heap[remaining - 1];
+            siftDown(heap, remaining - 1, terms, weights);
+        }
+        Collections.reverse(result);
+        return List.copyOf(result);
+    }
+
+    /**
+     * @return Approximate number of bytes held by the index
+     */
+    public long estimatedBytes() {
+        long bytes = vocabulary.estimatedBytes();
+        for (DocumentTerms document : documents) bytes += document.estimatedBytes();
+        return bytes;
+    }
+
+    private boolean ranksBefore(int a, int b, DocumentTerms terms, double[] weights) {
+        int byWeight = Double.compare(weights[a], weights[b]);
+        if (byWeight != 0) return byWeight > 0;
+        if (terms.count(a) != terms.count(b)) return terms.count(a) > terms.count(b);
+        return vocabulary.compareWords(terms.term(a), terms.term(b)) < 0;
+    }
+
+    private void siftUp(int[] heap, int index, DocumentTerms terms, double[] weights) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!ranksBefore(heap[parent], heap[index], terms, weights)) return;
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, DocumentTerms terms, double[] weights) {
+        int index = 0;
+        while (true) {
+            int lowest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && ranksBefore(heap[lowest], heap[left], terms, weights)) lowest = left;
+            if (right < size && ranksBefore(heap[lowest], heap[right], terms, weights)) lowest = right;
+            if (lowest == index) return;
+            swap(heap, index, lowest);
+            index = lowest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+}
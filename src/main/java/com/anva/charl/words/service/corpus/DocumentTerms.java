@@ -0,0 +1,88 @@
+package com.anva.charl.words.service.corpus;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+
+import java.util.Arrays;
+
+/**
+ * The term frequencies of one document of a corpus, as term ids of the shared vocabulary and
+ * their counts in two parallel arrays sorted by term id. A document holds no term strings, only
+ * eight bytes per distinct term.
+ */
+final class DocumentTerms {
+
+    private final int[] terms;
+    private final int[] counts;
+    private final int length;
+
+    private DocumentTerms(int[] terms, int[] counts, int length) {
+        this.terms = terms;
+        this.counts = counts;
+        this.length = length;
+    }
+
+    /**
+     * @param termIds The term id in the vocabulary of every entry of the table, indexed by entry id
+     * @param table The counts of the document
+     * @return The terms of the document
+     */
+    static DocumentTerms of(int[] termIds, FrequencyTable table) {
+        // term id in the high and count in the low half, so sorting the pairs sorts by term id
+        long[] pairs = new long[table.size()];
+        for (int entry = 0; entry < pairs.length; entry++) {
+            pairs[entry] = (long) termIds[entry] << 32 | table.count(entry);
+        }
+        Arrays.sort(pairs);
+
+        int[] terms = new int[pairs.length];
+        int[] counts = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            terms[i] = (int) (pairs[i] >>> 32);
+            counts[i] = (int) pairs[i];
+        }
+        return new DocumentTerms(terms, counts, (int) table.totalCount());
+    }
+
+    /**
+     * @return The number of distinct terms
+     */
+    int size() {
+        return terms.length;
+    }
+
+    /**
+     * @param index Position of the term, 0 to {@link #size()}
+     * @return The term id
+     */
+    int term(int index) {
+        return terms[index];
+    }
+
+    /**
+     * @param index Position of the term, 0 to {@link #size()}
+     * @return The occurrences of the term
+     */
+    int count(int index) {
+        return counts[index];
+    }
+
+    /**
+     * @param term The term id
+     * @return The occurrences of the term, or 0 if it does not occur in the document
+     */
+    int frequency(int term) {
+        int index = Arrays.binarySearch(terms, term);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * @return The number of words of the document
+     */
+    int length() {
+        return length;
+    }
+
+    long estimatedBytes() {
+        return (long) terms.length * 2 * Integer.BYTES;
+    }
+}
@@ -0,0 +1,46 @@
+package com.anva.charl.words.service.corpus;
+
+/**
+ * How a term of a document is weighted against the rest of the corpus, so that terms that are
+ * frequent in the document but rare in the corpus rank first, and words like "the" that occur
+ * in every document rank last.
+ */
+public enum TermWeighting {
+
+    /**
+     * The term frequency times the inverse document frequency {@code ln(N / df)}, which is 0 for terms
+     * that occur in every document.
+     */
+    TF_IDF {
+        @Override
+        public double weight(int frequency, int documentFrequency, int documents, int length, double averageLength) {
+            return frequency * Math.log((double) documents / documentFrequency);
+        }
+    },
+
+    /**
+     * Okapi BM25 with {@code k1 = 1.2} and {@code b = 0.75}: the term frequency saturates, and counts
+     * less in documents longer than the average.
+     */
+    BM25 {
+        @Override
+        public double weight(int frequency, int documentFrequency, int documents, int length, double averageLength) {
+            double idf = Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            double norm = K1 * (1 - B + B * length / averageLength);
+            return idf * frequency * (K1 + 1) / (frequency + norm);
+        }
+    };
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * @param frequency Occurrences of the term in the document
+     * @param documentFrequency Number of documents of the corpus the term occurs in
+     * @param documents Number of documents of the corpus
+     * @param length Number of words of the document
+     * @param averageLength Average number of words of the documents
+     * @return The weight of the term in the document
+     */
+    public abstract double weight(int frequency, int documentFrequency, int documents, int length, double averageLength);
+}
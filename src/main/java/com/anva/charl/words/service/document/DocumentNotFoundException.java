@@ -0,0 +1,11 @@
+package com.anva.charl.words.service.document;
+
+/**
+ * Thrown when a document id is not known to the {@link DocumentStore}.
+ */
+public class DocumentNotFoundException extends RuntimeException {
+
+    public DocumentNotFoundException(String id) {
+        super("No document found with id " + id);
+    }
+}
@@ -0,0 +1,16 @@
+package com.anva.charl.words.service.document;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the document store, bound from the {@code words.documents} properties.
+ *
+ * @param directory Directory the frequency tables of uploaded documents are persisted in
+ */
+@ConfigurationProperties("words.documents")
+public record DocumentProperties(
+    @DefaultValue("data/documents") Path directory
+) {}
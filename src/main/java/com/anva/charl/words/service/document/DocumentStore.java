@@ -0,0 +1,126 @@
+package com.anva.charl.words.service.document;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the frequency tables of uploaded documents, so clients send a text once
+ * and query it by id afterwards.
+ *
+ * Every document is persisted as a file in the configured directory, written to a
+ * temporary file first and then moved in place. On startup all files are loaded back,
+ * so a restart does not have to tokenize the documents again. Files that cannot be
+ * read back are skipped with a warning.
+ */
+@Component
+public class DocumentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentStore.class);
+
+    private static final String EXTENSION = ".wft";
+    private static final int MAGIC = 0x57465431; // "WFT1"
+
+    private final Path directory;
+    private final Map<String, StoredDocument> documents = new ConcurrentHashMap<>();
+
+    public DocumentStore(DocumentProperties properties) {
+        this.directory = properties.directory();
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String id = file.getFileName().toString().replace(EXTENSION, "");
+                try {
+                    documents.put(id, new StoredDocument(id, read(file)));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable document file {}", file, e);
+                }
+            }
+        }
+        log.info("Loaded {} documents from {}", documents.size(), directory);
+    }
+
+    /**
+     * Stores the frequency table of a new document.
+     *
+     * @param table The frequency table of the document, must not be modified afterwards
+     * @return The stored document with its new id
+     */
+    public StoredDocument add(FrequencyTable table) {
+        String id = UUID.randomUUID().toString();
+        StoredDocument document = new StoredDocument(id, table);
+        try {
+            write(file(id), table);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not persist document " + id, e);
+        }
+        documents.put(id, document);
+        return document;
+    }
+
+    /**
+     * @param id The document id
+     * @return The stored document
+     * @throws DocumentNotFoundException If the id is unknown
+     */
+    public StoredDocument get(String id) {
+        StoredDocument document = documents.get(id);
+        if (document == null) throw new DocumentNotFoundException(id);
+        return document;
+    }
+
+    /**
+     * Removes a document from memory and disk.
+     *
+     * @param id The document id
+     * @throws DocumentNotFoundException If the id is unknown
+     */
+    public void delete(String id) {
+        if (documents.remove(id) == null) throw new DocumentNotFoundException(id);
+        try {
+            Files.deleteIfExists(file(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete document " + id, e);
+        }
+    }
+
+    private Path file(String id) {
+        return directory.resolve(id + EXTENSION);
+    }
+
+    private static void write(Path file, FrequencyTable table) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            table.writeTo(out);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static FrequencyTable read(Path file) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a frequency table file");
+            return FrequencyTable.readFrom(in);
+        }
+    }
+}
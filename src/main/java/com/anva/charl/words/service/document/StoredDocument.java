@@ -0,0 +1,73 @@
+package com.anva.charl.words.service.document;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.FrequencyTable;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The analyzed form of an uploaded document.
+ * The complete ranking of its words is computed once when the document is stored,
+ * so queries only read precomputed values: the highest frequency is a field, a word
+ * frequency a table lookup and the top N the first N ranked entries.
+ */
+public final class StoredDocument {
+
+    private final String id;
+    private final FrequencyTable table;
+    private final int[] ranking;
+
+    StoredDocument(String id, FrequencyTable table) {
+        this.id = id;
+        this.table = table;
+        TopWordsSelector selector = new TopWordsSelector(table, table.size());
+        for (int entry = 0; entry < table.size(); entry++) selector.offer(entry);
+        this.ranking = selector.toEntries();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    FrequencyTable table() {
+        return table;
+    }
+
+    /**
+     * @return The number of distinct words in the document
+     */
+    public int distinctWords() {
+        return table.size();
+    }
+
+    /**
+     * @return The frequency of the most frequent word, or 0 for an empty document
+     */
+    public int highestFrequency() {
+        return ranking.length == 0 ? 0 : table.count(ranking[0]);
+    }
+
+    /**
+     * @param word The specific word to search for
+     * @return The frequency of the word in the document
+     */
+    public int frequencyForWord(String word) {
+        return table.get(word.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param n The maximum number of results to return
+     * @return The N most frequent words, by frequency (descending) and then alphabetically
+     */
+    public List<WordFrequency> mostFrequentWords(int n) {
+        int limit = Math.min(n, ranking.length);
+        WordFrequency[] result = new WordFrequency[limit];
+        for (int i = 0; i < limit; i++) {
+            result[i] = new WordFrequencyDTO(table.word(ranking[i]), table.count(ranking[i]));
+        }
+        return List.of(result);
+    }
+}
@@ -0,0 +1,11 @@
+package com.anva.charl.words.service.file;
+
+/**
+ * Thrown when a requested file does not exist in the corpus directory, or lies outside of it.
+ */
+public class CorpusFileNotFoundException extends RuntimeException {
+
+    public CorpusFileNotFoundException(String path) {
+        super("No file found at " + path);
+    }
+}
@@ -0,0 +1,16 @@
+package com.anva.charl.words.service.file;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the on-disk corpora, bound from the {@code words.files} properties.
+ *
+ * @param directory The only directory files are analyzed from, including its subdirectories
+ */
+@ConfigurationProperties("words.files")
+public record CorpusFileProperties(
+    @DefaultValue("data/corpora") Path directory
+) {}
@@ -0,0 +1,44 @@
+package com.anva.charl.words.service.file;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Resolves the files that may be analyzed from disk.
+ * Only regular files inside the configured directory are allowed. Paths are resolved
+ * with symbolic links followed, so neither {@code ..} nor a link can lead outside of it.
+ * A path outside of the directory is reported the same way as a missing file.
+ */
+@Component
+public class CorpusFiles {
+
+    private final Path directory;
+
+    public CorpusFiles(CorpusFileProperties properties) {
+        this.directory = properties.directory().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolves a path relative to the corpus directory.
+     *
+     * @param path The path of the file, relative to the corpus directory
+     * @return The real path of the file
+     * @throws CorpusFileNotFoundException If the file does not exist or lies outside of the corpus directory
+     */
+    public Path resolve(String path) {
+        try {
+            Path root = directory.toRealPath();
+            Path file = root.resolve(path).toRealPath();
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                throw new CorpusFileNotFoundException(path);
+            }
+            return file;
+        } catch (IOException | InvalidPathException e) {
+            throw new CorpusFileNotFoundException(path);
+        }
+    }
+}
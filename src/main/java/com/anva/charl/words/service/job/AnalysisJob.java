@@ -0,0 +1,293 @@
+package com.anva.charl.words.service.job;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.WordTable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The analysis of a UTF-8 text on disk that runs in the background, on a thread of the {@link JobStore}.
+ * The text is streamed through the analysis in chunks, after every chunk the job publishes how many
+ * bytes and words it has processed and checks whether it was cancelled. A cancelled job stops at the
+ * next chunk and drops its partial table.
+ *
+ * Once completed, the frequency table of the text answers the queries until the job is evicted.
+ * A text that was spooled for the job is deleted as soon as the job has ended.
+ *
+ * Thread-safe, the progress is read while the job runs.
+ */
+public final class AnalysisJob {
+
+    private final String id;
+    private final String key;
+    private final Path input;
+    private final boolean spooled;
+    private final long totalBytes;
+    private final NormalizationOptions options;
+    private final Clock clock;
+    private final long submittedAt;
+
+    private volatile JobState state = JobState.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile long bytesProcessed;
+    private volatile long words;
+    private volatile String error;
+    private volatile WordTable table;
+
+    private FutureTask<Void> task;
+
+    /**
+     * @param id The job id
+     * @param key Identifies the text and the options, jobs with the same key have the same results
+     * @param input The UTF-8 text to analyze
+     * @param spooled Whether the text was written for this job and is deleted when it ends
+     * @param options The normalization applied to every word
+     * @param clock The clock the progress is timed with
+     * @throws IOException If the size of the text cannot be read
+     */
+    AnalysisJob(String id, String key, Path input, boolean spooled, NormalizationOptions options, Clock clock)
+            throws IOException {
+        this.id = id;
+        this.key = key;
+        this.input = input;
+        this.spooled = spooled;
+        this.totalBytes = Files.size(input);
+        this.options = options;
+        this.clock = clock;
+        this.submittedAt = clock.millis();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    String key() {
+        return key;
+    }
+
+    public JobState state() {
+        return state;
+    }
+
+    /**
+     * @return The normalization applied to every word
+     */
+    public NormalizationOptions options() {
+        return options;
+    }
+
+    /**
+     * @return The size of the text in bytes
+     */
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return The number of bytes of the text read so far
+     */
+    public long bytesProcessed() {
+        return bytesProcessed;
+    }
+
+    /**
+     * @return The number of words counted so far
+     */
+    public long words() {
+        return words;
+    }
+
+    /**
+     * @return Why the analysis failed, or null if it did not
+     */
+    public String error() {
+        return error;
+    }
+
+    /**
+     * Extrapolates the time the job has taken for the bytes read so far to the rest of the text.
+     *
+     * @return The estimated time until the job completes, zero once it has ended, or null while it is unknown
+     */
+    public Duration eta() {
+        if (state.isFinished()) return Duration.ZERO;
+        long processed = bytesProcessed;
+        if (state != JobState.RUNNING || processed == 0) return null;
+        long elapsed = clock.millis() - startedAt;
+        return Duration.ofMillis((long) ((double) elapsed * (totalBytes - processed) / processed));
+    }
+
+    /**
+     * @return The time from submitting the job until it ended, or until now while it has not
+     */
+    public Duration elapsed() {
+        long end = state.isFinished() ? finishedAt : clock.millis();
+        return Duration.ofMillis(end - submittedAt);
+    }
+
+    /**
+     * @return The number of distinct words in the text
+     * @throws JobNotCompletedException If the job has not completed
+     */
+    public int distinctWords() {
+        return completedTable().size();
+    }
+
+    /**
+     * @return The frequency of the most frequent word, or 0 for an empty text
+     * @throws JobNotCompletedException If the job has not completed
+     */
+    public int highestFrequency() {
+        return completedTable().maxCount();
+    }
+
+    /**
+     * @param word The specific word to search for, normalized like the text
+     * @return The frequency of the word in the text
+     * @throws JobNotCompletedException If the job has not completed
+     */
+    public int frequencyForWord(String word) {
+        WordTable completed = completedTable();
+        String target = NormalizationPipeline.of(options).normalizeWord(word);
+        return target == null ? 0 : completed.get(target);
+    }
+
+    /**
+     * @param n The maximum number of results to return
+     * @return The N most frequent words, by frequency (descending) and then alphabetically
+     * @throws JobNotCompletedException If the job has not completed
+     */
+    public List<WordFrequency> mostFrequentWords(int n) {
+        return TopWordsSelector.select(completedTable(), n);
+    }
+
+    /**
+     * @return Approximate number of bytes held by the results
+     */
+    long estimatedBytes() {
+        WordTable completed = table;
+        return completed == null ? 0 : completed.estimatedBytes();
+    }
+
+    FutureTask<Void> task() {
+        return task;
+    }
+
+    void setTask(FutureTask<Void> task) {
+        this.task = task;
+    }
+
+    /**
+     * Analyzes the text, unless the job was cancelled while it was queued.
+     * The job keeps its state until the store has taken note of the result and {@link #finish(JobState)}es it.
+     *
+     * @param searchService The service the text is analyzed with
+     * @return The state the job ends in, or null if it was not started
+     */
+    JobState run(SimpleFrequencySearchService searchService) {
+        if (!start()) return null;
+        JobState result;
+        try (InputStream in = new CountingInputStream(Files.newInputStream(input))) {
+            WordTable completed = searchService.buildFrequencyTable(in, options, this::counted);
+            words = completed.totalCount();
+            table = completed;
+            result = JobState.COMPLETED;
+        } catch (CancellationException e) {
+            result = JobState.CANCELLED;
+        } catch (IOException | RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            result = JobState.FAILED;
+        }
+        deleteInput();
+        return result;
+    }
+
+    /**
+     * Asks the job to stop. A queued job never starts, a running one stops at its next chunk.
+     *
+     * @return Whether the job was still queued, and has to be finished as cancelled by the caller
+     */
+    synchronized boolean cancel() {
+        if (state.isFinished()) return false;
+        cancelRequested = true;
+        if (state != JobState.QUEUED) return false;
+        deleteInput();
+        return true;
+    }
+
+    /**
+     * Drops the results of a job that is evicted or deleted.
+     */
+    void release() {
+        table = null;
+    }
+
+    private synchronized boolean start() {
+        if (state != JobState.QUEUED || cancelRequested) return false;
+        startedAt = clock.millis();
+        state = JobState.RUNNING;
+        return true;
+    }
+
+    synchronized void finish(JobState finalState) {
+        finishedAt = clock.millis();
+        state = finalState;
+    }
+
+    // called by the analyzing thread after every chunk
+    private void counted(long counted) {
+        words = counted;
+        if (cancelRequested) throw new CancellationException("Job " + id + " was cancelled");
+    }
+
+    private WordTable completedTable() {
+        WordTable completed = table;
+        if (completed == null) throw new JobNotCompletedException(id, state);
+        return completed;
+    }
+
+    private void deleteInput() {
+        if (!spooled) return;
+        try {
+            Files.deleteIfExists(input);
+        } catch (IOException e) {
+            // the spool directory is cleaned up when the service starts
+        }
+    }
+
+    private final class CountingInputStream extends FilterInputStream {
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) bytesProcessed++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) bytesProcessed += read;
+            return read;
+        }
+    }
+}
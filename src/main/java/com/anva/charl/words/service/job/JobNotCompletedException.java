@@ -0,0 +1,11 @@
+package com.anva.charl.words.service.job;
+
+/**
+ * Thrown when the results of a job are queried before the job has completed.
+ */
+public class JobNotCompletedException extends RuntimeException {
+
+    public JobNotCompletedException(String id, JobState state) {
+        super("Job " + id + " has no results, it is " + state);
+    }
+}
@@ -0,0 +1,11 @@
+package com.anva.charl.words.service.job;
+
+/**
+ * Thrown when a job id is not known to the {@link JobStore}, or the results of the job have been evicted.
+ */
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(String id) {
+        super("No job found with id " + id);
+    }
+}
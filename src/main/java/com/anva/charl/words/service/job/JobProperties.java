@@ -0,0 +1,25 @@
+package com.anva.charl.words.service.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the analysis jobs, bound from the {@code words.jobs} properties.
+ *
+ * @param threads Number of jobs analyzed at the same time
+ * @param maxQueued Number of submitted jobs that may wait for a thread, more are rejected right away
+ * @param maxResults Number of finished jobs whose results are kept
+ * @param maxResultWeight Combined estimated size of the kept frequency tables
+ * @param directory Directory texts are spooled to until their job has analyzed them
+ */
+@ConfigurationProperties("words.jobs")
+public record JobProperties(
+    @DefaultValue("2") int threads,
+    @DefaultValue("16") int maxQueued,
+    @DefaultValue("32") int maxResults,
+    @DefaultValue("512MB") DataSize maxResultWeight,
+    @DefaultValue("data/jobs") Path directory
+) {}
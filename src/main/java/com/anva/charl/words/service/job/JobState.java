@@ -0,0 +1,24 @@
+package com.anva.charl.words.service.job;
+
+/**
+ * The life cycle of an {@link AnalysisJob}. A job ends in exactly one of the last three states.
+ */
+public enum JobState {
+    /** Waiting for a thread */
+    QUEUED,
+    /** Being analyzed */
+    RUNNING,
+    /** Analyzed, the results can be queried */
+    COMPLETED,
+    /** The analysis failed, see the error of the job */
+    FAILED,
+    /** Cancelled before it completed */
+    CANCELLED;
+
+    /**
+     * @return Whether the job has ended
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,263 @@
+package com.anva.charl.words.service.job;
+
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.admission.AdmissionRejectedException;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs analysis jobs on a fixed number of threads and keeps their results.
+ * Texts sent in a request are spooled to disk first, so the request ends as soon as the
+ * text has arrived, and only a bounded number of jobs may wait for a thread.
+ *
+ * Finished jobs are kept in least recently used order and evicted when there are more
+ * than the configured number, or their tables together exceed the configured size.
+ * A job that is submitted again for the same text and options while its earlier job is
+ * still queued, running or kept returns that job instead of analyzing the text again.
+ */
+@Component
+public class JobStore {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(30);
+
+    private final SimpleFrequencySearchService searchService;
+    private final JobProperties properties;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+
+    // all known jobs, least recently used first
+    private final LinkedHashMap<String, AnalysisJob> jobs = new LinkedHashMap<>(16, 0.75f, true);
+    // id of the job for every text and options, only for jobs that did not fail or get cancelled
+    private final Map<String, String> jobIds = new HashMap<>();
+
+    @Autowired
+    public JobStore(SimpleFrequencySearchService searchService, JobProperties properties) throws IOException {
+        this(searchService, properties, Clock.systemUTC());
+    }
+
+    JobStore(SimpleFrequencySearchService searchService, JobProperties properties, Clock clock) throws IOException {
+        this.searchService = searchService;
+        this.properties = properties;
+        this.clock = clock;
+        this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.maxQueued())),
+                Thread.ofPlatform().name("analysis-job-", 0).daemon().factory());
+        // texts spooled before a restart have no job anymore
+        Files.createDirectories(properties.directory());
+        try (var spooled = Files.newDirectoryStream(properties.directory(), "job-*.txt")) {
+            for (Path file : spooled) Files.deleteIfExists(file);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Spools a UTF-8 text to disk and submits a job analyzing it.
+     *
+     * @param text The UTF-8 text, read until its end
+     * @param options The normalization applied to every word
+     * @return The new job, or the earlier job for the same text and options
+     * @throws IOException If reading or spooling the text fails
+     * @throws AdmissionRejectedException If too many jobs are already waiting
+     */
+    public AnalysisJob submitText(InputStream text, NormalizationOptions options) throws IOException {
+        return spool(text::transferTo, options);
+    }
+
+    /**
+     * Spools a text to disk as UTF-8 and submits a job analyzing it.
+     *
+     * @param text The text, read until its end
+     * @param options The normalization applied to every word
+     * @return The new job, or the earlier job for the same text and options
+     * @throws IOException If reading or spooling the text fails
+     * @throws AdmissionRejectedException If too many jobs are already waiting
+     */
+    public AnalysisJob submitText(Reader text, NormalizationOptions options) throws IOException {
+        return spool(out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            text.transferTo(writer);
+            writer.flush();
+        }, options);
+    }
+
+    /**
+     * Submits a job analyzing a UTF-8 file. The file must not be changed while it is analyzed.
+     *
+     * @param file The file to analyze
+     * @param options The normalization applied to every word
+     * @return The new job, or the earlier job for the same version of the file and options
+     * @throws IOException If the attributes of the file cannot be read
+     * @throws AdmissionRejectedException If too many jobs are already waiting
+     */
+    public AnalysisJob submitFile(Path file, NormalizationOptions options) throws IOException {
+        String key = "file:" + file + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis() + options.key();
+        return submit(key, file, false, options);
+    }
+
+    /**
+     * @param id The job id
+     * @return The job
+     * @throws JobNotFoundException If the id is unknown or the job was evicted
+     */
+    public synchronized AnalysisJob get(String id) {
+        AnalysisJob job = jobs.get(id);
+        if (job == null) throw new JobNotFoundException(id);
+        return job;
+    }
+
+    /**
+     * Cancels a job that has not ended yet, a job that has ended stays as it is.
+     *
+     * @param id The job id
+     * @return The job
+     * @throws JobNotFoundException If the id is unknown or the job was evicted
+     */
+    public synchronized AnalysisJob cancel(String id) {
+        AnalysisJob job = get(id);
+        if (job.cancel()) {
+            executor.remove(job.task());
+            finished(job, JobState.CANCELLED);
+        }
+        return job;
+    }
+
+    /**
+     * Cancels a job if it has not ended yet and drops it with its results.
+     *
+     * @param id The job id
+     * @throws JobNotFoundException If the id is unknown or the job was evicted
+     */
+    public synchronized void delete(String id) {
+        AnalysisJob job = get(id);
+        if (job.cancel()) {
+            executor.remove(job.task());
+            job.finish(JobState.CANCELLED);
+        }
+        remove(job);
+    }
+
+    // the text is hashed while it is written, so identical texts are recognized without reading them again
+    private AnalysisJob spool(TextWriter text, NormalizationOptions options) throws IOException {
+        Path file = Files.createTempFile(properties.directory(), "job-", ".txt");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), digest)) {
+                text.writeTo(out);
+            }
+            return submit("text:" + HexFormat.of().formatHex(digest.digest()) + options.key(), file, true, options);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private synchronized AnalysisJob submit(String key, Path file, boolean spooled, NormalizationOptions options)
+            throws IOException {
+        String existing = jobIds.get(key);
+        if (existing != null && jobs.containsKey(existing)) {
+            if (spooled) Files.deleteIfExists(file);
+            return jobs.get(existing);
+        }
+
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString(), key, file, spooled, options, clock);
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            JobState result = job.run(searchService);
+            if (result != null) finished(job, result);
+        }, null);
+        job.setTask(task);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.QUEUE_FULL, RETRY_AFTER);
+        }
+        jobs.put(job.id(), job);
+        jobIds.put(key, job.id());
+        return job;
+    }
+
+    // the job ends while the store is locked, so lookups never see a finished job that is due for eviction
+    private synchronized void finished(AnalysisJob job, JobState result) {
+        job.finish(result);
+        if (!jobs.containsKey(job.id())) {
+            // deleted while it was running
+            job.release();
+            return;
+        }
+        // a failed or cancelled text is analyzed again when it is submitted again
+        if (job.state() != JobState.COMPLETED) jobIds.remove(job.key(), job.id());
+        evict();
+    }
+
+    private void evict() {
+        int finished = 0;
+        long weight = 0;
+        for (AnalysisJob job : jobs.values()) {
+            if (!job.state().isFinished()) continue;
+            finished++;
+            weight += job.estimatedBytes();
+        }
+
+        Iterator<AnalysisJob> eldest = jobs.values().iterator();
+        while ((finished > properties.maxResults() || weight > properties.maxResultWeight().toBytes()) && eldest.hasNext()) {
+            AnalysisJob job = eldest.next();
+            if (!job.state().isFinished()) continue;
+            finished--;
+            weight -= job.estimatedBytes();
+            eldest.remove();
+            jobIds.remove(job.key(), job.id());
+            job.release();
+        }
+    }
+
+    private void remove(AnalysisJob job) {
+        jobs.remove(job.id());
+        jobIds.remove(job.key(), job.id());
+        job.release();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TextWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,115 @@
+package com.anva.charl.words.service.metrics;
+
+import com.anva.charl.words.service.table.WordTable;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the analysis stages and of the size of the analyzed texts.
+ * All meters are registered up front, recording only reads the clock and
+ * updates counters, so the hot path does not allocate.
+ *
+ * Lowercasing, tokenizing and counting happen in a single pass over the text and
+ * are timed together as the {@code count} stage.
+ */
+@Component
+public class AnalysisMetrics {
+
+    static final String STAGE_TIMER = "words.analysis.stage";
+
+    private final Timer countTimer;
+    private final Timer rankTimer;
+    private final Timer serializeTimer;
+    private final DistributionSummary inputSize;
+    private final DistributionSummary inputBytes;
+    private final DistributionSummary tokens;
+    private final DistributionSummary distinctWords;
+
+    public AnalysisMetrics(MeterRegistry registry) {
+        this.countTimer = stageTimer(registry, "count", "Lowercasing, tokenizing and counting the words of a text");
+        this.rankTimer = stageTimer(registry, "rank", "Selecting the most frequent words");
+        this.serializeTimer = stageTimer(registry, "serialize", "Writing a JSON response");
+        this.inputSize = DistributionSummary.builder("words.analysis.input.size")
+                .description("Characters of an analyzed text")
+                .baseUnit("chars")
+                .register(registry);
+        this.inputBytes = DistributionSummary.builder("words.analysis.input.bytes")
+                .description("Bytes of an analyzed UTF-8 text")
+                .baseUnit("bytes")
+                .register(registry);
+        this.tokens = DistributionSummary.builder("words.analysis.tokens")
+                .description("Words counted in an analyzed text")
+                .baseUnit("words")
+                .register(registry);
+        this.distinctWords = DistributionSummary.builder("words.analysis.distinct.words")
+                .description("Distinct words in an analyzed text")
+                .baseUnit("words")
+                .register(registry);
+    }
+
+    /**
+     * @return Metrics that are not published anywhere, for use outside of Spring
+     */
+    public static AnalysisMetrics noop() {
+        return new AnalysisMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * @return The start time to pass to the record methods
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void recordCount(long start) {
+        countTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRank(long start) {
+        rankTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSerialize(long start) {
+        serializeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the size of an analyzed text.
+     *
+     * @param chars The number of characters of the text
+     */
+    public void recordInput(long chars) {
+        inputSize.record(chars);
+    }
+
+    /**
+     * Records the size of an analyzed text that was counted as UTF-8 bytes.
+     *
+     * @param bytes The number of bytes of the text
+     */
+    public void recordInputBytes(long bytes) {
+        inputBytes.record(bytes);
+    }
+
+    /**
+     * Records the number of words and distinct words of an analyzed text.
+     *
+     * @param table The frequency table of the text
+     */
+    public void recordWords(WordTable table) {
+        tokens.record(table.totalCount());
+        distinctWords.record(table.size());
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage, String description) {
+        return Timer.builder(STAGE_TIMER)
+                .description(description)
+                .tag("stage", stage)
+                .register(registry);
+    }
+}
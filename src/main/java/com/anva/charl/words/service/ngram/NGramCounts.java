@@ -0,0 +1,156 @@
+package com.anva.charl.words.service.ngram;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.service.approximate.ApproximateFrequency;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts of the n-grams of a text, the sequences of n consecutive words, for n from 1 to {@link #MAX_N}.
+ * The text is tokenized once: every word is given the entry id of a vocabulary table as its token id,
+ * the last n token ids are kept in a window, and every full window is counted in an {@link NGramTable}.
+ * The hash of the window is rolled along with it, the token leaving the window is subtracted and the
+ * new one added, so an n-gram is hashed in constant time and never concatenated into a String.
+ *
+ * The n-gram table is bounded by the configured memory. Counts stay exact until it is full, afterwards
+ * the estimates come with the error bound of the pruned counts, at a confidence of 1.
+ *
+ * Not thread-safe, one instance is used per text.
+ */
+public class NGramCounts implements TokenSink {
+
+    /**
+     * Longest n-grams that are counted.
+     */
+    public static final int MAX_N = 5;
+
+    private static final ApproximateFrequency NONE = new ApproximateFrequency(0, 0, 1.0);
+    // odd, so multiplying by it never loses bits of the hash
+    private static final int BASE = 0x01000193;
+
+    private final int n;
+    private final FrequencyTable vocabulary = new FrequencyTable();
+    private final NGramTable table;
+
+    // the last n token ids are written twice, at position and position + n, so they are always
+    // in order at position + 1 to position + n
+    private final int[] window;
+    private int position;
+    private long tokens;
+    private int rollingHash;
+    // BASE^(n - 1), the factor of the token leaving the window
+    private final int leavingFactor;
+
+    /**
+     * @param n Number of words per n-gram, 1 to {@link #MAX_N}
+     * @param maxEntries Number of distinct n-grams at which the table is pruned
+     */
+    public NGramCounts(int n, int maxEntries) {
+        if (n < 1 || n > MAX_N) throw new IllegalArgumentException("n must be between 1 and " + MAX_N + ": " + n);
+        this.n = n;
+        this.table = new NGramTable(vocabulary, n, maxEntries);
+        this.window = new int[2 * n];
+        int factor = 1;
+        for (int i = 1; i < n; i++) factor *= BASE;
+        this.leavingFactor = factor;
+    }
+
+    /**
+     * @param n Number of words per n-gram, 1 to {@link #MAX_N}
+     * @param properties The memory of the n-gram table
+     * @return Empty counts sized by the properties
+     */
+    public static NGramCounts of(int n, NGramProperties properties) {
+        long entries = properties.maxTableSize().toBytes() / NGramTable.bytesPerEntry(n);
+        return new NGramCounts(n, (int) Math.min(entries, 1 << 28));
+    }
+
+    @Override
+    public void accept(char[] buffer, int length) {
+        int token = vocabulary.add(buffer, 0, length, 1);
+
+        // the slot being overwritten holds the token that leaves the window, or 0 before the window is full
+        rollingHash = (rollingHash - window[position] * leavingFactor) * BASE + token;
+        window[position] = token;
+        window[position + n] = token;
+        tokens++;
+        if (tokens >= n) table.add(window, position + 1, mix(rollingHash));
+        position = position + 1 == n ? 0 : position + 1;
+    }
+
+    /**
+     * @return The number of words per n-gram
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * @return The number of n-grams in the text
+     */
+    public long totalNGrams() {
+        return table.totalCount();
+    }
+
+    /**
+     * @return The estimated frequency of the most frequent n-gram
+     */
+    public ApproximateFrequency highestFrequency() {
+        if (table.size() == 0) return NONE;
+        // a pruned n-gram occurred at most as often as the pruning level
+        int upper = Math.max(table.maxCount(), table.pruningLevel());
+        return new ApproximateFrequency(upper, upper - table.maxGuaranteedCount(), 1.0);
+    }
+
+    /**
+     * Ranks the n-grams by the upper bound of their count. Once the table was pruned, the ranking
+     * is only complete for the n-grams that occurred more often than the pruning level.
+     *
+     * @param limit The maximum number of results to return
+     * @return The most frequent n-grams, their words separated by single spaces, by estimate (descending) and then alphabetically
+     */
+    public List<ApproximateWordFrequency> mostFrequentNGrams(int limit) {
+        if (limit <= 0 || table.size() == 0) return List.of();
+        TopWordsSelector selector = new TopWordsSelector(table, Math.min(limit, table.size()));
+        for (int entry = 0; entry < table.size(); entry++) selector.offer(entry);
+
+        List<ApproximateWordFrequency> result = new ArrayList<>();
+        for (int entry : selector.toEntries()) {
+            result.add(new ApproximateWordFrequency(table.word(entry), table.count(entry), table.error(entry), 1.0));
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * @return Approximate number of bytes held by the counts
+     */
+    public long estimatedBytes() {
+        return vocabulary.estimatedBytes() + table.estimatedBytes();
+    }
+
+    /**
+     * The hash of a whole window, the same as the rolling hash arrives at.
+     *
+     * @param tokens The token ids of the n-gram, from index 0
+     * @param n Number of tokens
+     * @return The hash
+     */
+    static int hash(int[] tokens, int n) {
+        int h = 0;
+        for (int i = 0; i < n; i++) h = h * BASE + tokens[i];
+        return mix(h);
+    }
+
+    // the polynomial hash keeps the low bits of the last token, mixed so linear probing works on the low bits
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,147 @@
+package com.anva.charl.words.service.ngram;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.approximate.ApproximateFrequency;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Phrase variant of the {@link SimpleFrequencySearchService} analyses: counts n-grams, the
+ * sequences of n consecutive words, instead of single words. The words are found by the same
+ * tokenizer and normalized by the same pipeline as in the word analyses, in a single pass.
+ * Words are consecutive across punctuation, a sentence end does not break an n-gram.
+ */
+@Service
+public class NGramFrequencyService {
+
+    private final SimpleFrequencySearchService searchService;
+    private final NGramProperties properties;
+
+    public NGramFrequencyService(SimpleFrequencySearchService searchService, NGramProperties properties) {
+        this.searchService = searchService;
+        this.properties = properties;
+    }
+
+    /**
+     * Counts the n-grams of a text.
+     *
+     * @param text The input text to analyze
+     * @param n Number of words per n-gram, 1 to {@link NGramCounts#MAX_N}
+     * @param options The normalization applied to every word
+     * @return The n-gram counts of the text
+     */
+    public NGramCounts count(String text, int n, NormalizationOptions options) {
+        NGramCounts counts = NGramCounts.of(n, properties);
+        if (text != null) searchService.tokenize(text, NormalizationPipeline.of(options).wrap(counts));
+        return counts;
+    }
+
+    /**
+     * Counts the n-grams of the text read from the given reader, one chunk at a time.
+     *
+     * @param reader The source of the text to analyze
+     * @param n Number of words per n-gram, 1 to {@link NGramCounts#MAX_N}
+     * @param options The normalization applied to every word
+     * @return The n-gram counts of the text
+     * @throws IOException If reading fails
+     */
+    public NGramCounts count(Reader reader, int n, NormalizationOptions options) throws IOException {
+        NGramCounts counts = NGramCounts.of(n, properties);
+        searchService.tokenize(reader, NormalizationPipeline.of(options).wrap(counts));
+        return counts;
+    }
+
+    /**
+     * @param text The input text to analyze
+     * @param n Number of words per n-gram
+     * @param options The normalization applied to every word
+     * @return The highest frequency of any n-gram in the text
+     */
+    public ApproximateFrequency calculateHighestFrequency(String text, int n, NormalizationOptions options) {
+        return count(text, n, options).highestFrequency();
+    }
+
+    /**
+     * @param reader The source of the text to analyze
+     * @param n Number of words per n-gram
+     * @param options The normalization applied to every word
+     * @return The highest frequency of any n-gram in the text
+     * @throws IOException If reading fails
+     */
+    public ApproximateFrequency calculateHighestFrequency(Reader reader, int n, NormalizationOptions options) throws IOException {
+        return count(reader, n, options).highestFrequency();
+    }
+
+    /**
+     * Counts the occurrences of a phrase exactly. Only the phrase is counted, no n-gram table is built,
+     * so the phrase may have any number of words.
+     *
+     * @param text The input text to analyze
+     * @param phrase The phrase to search for, normalized like the text
+     * @param options The normalization applied to every word
+     * @return The frequency of the phrase, or 0 if the text is empty or the phrase has no words
+     */
+    public int calculateFrequencyForPhrase(String text, String phrase, NormalizationOptions options) {
+        PhraseCounter counter = phraseCounter(phrase, options);
+        if (counter == null || text == null) return 0;
+        searchService.tokenize(text, NormalizationPipeline.of(options).wrap(counter));
+        return counter.occurrences();
+    }
+
+    /**
+     * Streaming variant of {@link #calculateFrequencyForPhrase(String, String, NormalizationOptions)}.
+     *
+     * @param reader The source of the text to analyze
+     * @param phrase The phrase to search for, normalized like the text
+     * @param options The normalization applied to every word
+     * @return The frequency of the phrase, or 0 if the text is empty or the phrase has no words
+     * @throws IOException If reading fails
+     */
+    public int calculateFrequencyForPhrase(Reader reader, String phrase, NormalizationOptions options) throws IOException {
+        PhraseCounter counter = phraseCounter(phrase, options);
+        if (counter == null) return 0;
+        searchService.tokenize(reader, NormalizationPipeline.of(options).wrap(counter));
+        return counter.occurrences();
+    }
+
+    /**
+     * @param text The input text to analyze
+     * @param n Number of words per n-gram
+     * @param limit The maximum number of results to return
+     * @param options The normalization applied to every word
+     * @return The most frequent n-grams by frequency (descending) and then alphabetically
+     */
+    public List<ApproximateWordFrequency> calculateMostFrequentNGrams(String text, int n, int limit, NormalizationOptions options) {
+        return count(text, n, options).mostFrequentNGrams(limit);
+    }
+
+    /**
+     * @param reader The source of the text to analyze
+     * @param n Number of words per n-gram
+     * @param limit The maximum number of results to return
+     * @param options The normalization applied to every word
+     * @return The most frequent n-grams by frequency (descending) and then alphabetically
+     * @throws IOException If reading fails
+     */
+    public List<ApproximateWordFrequency> calculateMostFrequentNGrams(Reader reader, int n, int limit,
+                                                                     NormalizationOptions options) throws IOException {
+        return count(reader, n, options).mostFrequentNGrams(limit);
+    }
+
+    // the phrase is tokenized and normalized like the text, so it is compared word by word
+    private PhraseCounter phraseCounter(String phrase, NormalizationOptions options) {
+        if (phrase == null || phrase.isBlank()) return null;
+        List<char[]> words = new ArrayList<>();
+        searchService.tokenize(phrase, NormalizationPipeline.of(options).wrap(
+                (buffer, length) -> words.add(Arrays.copyOf(buffer, length))));
+        return words.isEmpty() ? null : new PhraseCounter(words.toArray(char[][]::new));
+    }
+}
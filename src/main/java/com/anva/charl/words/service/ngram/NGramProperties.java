@@ -0,0 +1,19 @@
+package com.anva.charl.words.service.ngram;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the n-gram analysis, bound from the {@code words.ngrams} properties.
+ *
+ * @param maxTableSize Memory of the n-gram table of an analysis, a table that fills it is pruned
+ */
+@ConfigurationProperties("words.ngrams")
+public record NGramProperties(
+    @DefaultValue("64MB") DataSize maxTableSize
+) {
+    public static NGramProperties defaults() {
+        return new NGramProperties(DataSize.ofMegabytes(64));
+    }
+}
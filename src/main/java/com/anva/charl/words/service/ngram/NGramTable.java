@@ -0,0 +1,261 @@
+package com.anva.charl.words.service.ngram;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.table.WordTable;
+
+import java.util.Arrays;
+
+/**
+ * Table of n-grams of a fixed length, every n-gram a sequence of n token ids of a vocabulary.
+ * Like the {@link FrequencyTable} the entries live in parallel int arrays, the token ids of
+ * all entries back to back, and are found through an open addressing slot array. The hash of
+ * an n-gram is computed by the caller, incrementally over its window of token ids.
+ *
+ * The table holds at most a fixed number of entries. When it is full, the entries with the
+ * lowest counts are pruned as in lossy counting: an n-gram that comes back later starts over
+ * with the pruning level as its error, so its count plus its error never falls below its
+ * true count. Until the first pruning all counts are exact.
+ *
+ * The table ranks like a {@link WordTable} by that upper bound, and renders the n-grams as
+ * their words separated by single spaces, which compares the same as comparing word by word.
+ *
+ * Not thread-safe.
+ */
+class NGramTable implements WordTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final FrequencyTable vocabulary;
+    private final int n;
+    private final int maxEntries;
+
+    private int[] tokens;
+    private int[] hashes;
+    private int[] counts;
+    private int[] errors;
+    private int size;
+    private long total;
+    private int pruningLevel;
+
+    // entry id + 1 per slot, 0 marks an empty slot
+    private int[] slots;
+    private int mask;
+
+    /**
+     * @param vocabulary The table the token ids are entries of
+     * @param n Number of tokens per n-gram
+     * @param maxEntries Number of entries at which the table is pruned
+     */
+    NGramTable(FrequencyTable vocabulary, int n, int maxEntries) {
+        this.vocabulary = vocabulary;
+        this.n = n;
+        this.maxEntries = Math.max(MIN_CAPACITY, maxEntries);
+        this.tokens = new int[MIN_CAPACITY * n];
+        this.hashes = new int[MIN_CAPACITY];
+        this.counts = new int[MIN_CAPACITY];
+        this.errors = new int[MIN_CAPACITY];
+        this.slots = new int[MIN_CAPACITY * 2];
+        this.mask = slots.length - 1;
+    }
+
+    /**
+     * @param n Number of tokens per n-gram
+     * @return Bytes an entry takes at most, including its share of the slot array and of a pruning
+     */
+    static int bytesPerEntry(int n) {
+        // the tokens, hash, count and error, up to four slots, and the bound sorted while pruning
+        return (n + 3 + 4 + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Counts one occurrence of an n-gram.
+     *
+     * @param window Array holding the token ids of the n-gram
+     * @param offset Start of the n-gram in the array
+     * @param hash Hash of the n-gram
+     */
+    void add(int[] window, int offset, int hash) {
+        total++;
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) break;
+            if (hashes[entry] == hash && Arrays.equals(tokens, entry * n, entry * n + n, window, offset, offset + n)) {
+                counts[entry]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == maxEntries) {
+            prune();
+            slot = hash & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+        }
+        int entry = insert(window, offset, hash);
+        slots[slot] = entry + 1;
+        if (size * 2 > slots.length) rehash(slots.length * 2);
+    }
+
+    /**
+     * Looks up the count of an n-gram.
+     *
+     * @param window Array holding the token ids of the n-gram
+     * @param hash Hash of the n-gram
+     * @return The entry id, or -1 if the n-gram is not in the table
+     */
+    int find(int[] window, int hash) {
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) return -1;
+            if (hashes[entry] == hash && Arrays.equals(tokens, entry * n, entry * n + n, window, 0, n)) return entry;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @param entry The entry id
+     * @return The most the count of the entry may exceed its true count by
+     */
+    int error(int entry) {
+        return errors[entry];
+    }
+
+    /**
+     * @return The most occurrences of any n-gram counted since it entered the table, a lower bound of the highest true count
+     */
+    int maxGuaranteedCount() {
+        int max = 0;
+        for (int entry = 0; entry < size; entry++) max = Math.max(max, counts[entry]);
+        return max;
+    }
+
+    /**
+     * @return The highest count an n-gram that is no longer in the table may have, 0 while nothing was pruned
+     */
+    int pruningLevel() {
+        return pruningLevel;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The upper bound of the count, the counted occurrences plus the error
+     */
+    @Override
+    public int count(int entry) {
+        return counts[entry] + errors[entry];
+    }
+
+    @Override
+    public String word(int entry) {
+        StringBuilder words = new StringBuilder();
+        for (int i = entry * n; i < entry * n + n; i++) {
+            if (i > entry * n) words.append(' ');
+            words.append(vocabulary.word(tokens[i]));
+        }
+        return words.toString();
+    }
+
+    /**
+     * Looks up an n-gram by its words separated by single spaces.
+     */
+    @Override
+    public int get(String words) {
+        String[] parts = words.split(" ");
+        if (parts.length != n) return 0;
+        int[] window = new int[n];
+        for (int i = 0; i < n; i++) {
+            char[] word = parts[i].toCharArray();
+            window[i] = vocabulary.find(word, 0, word.length);
+            if (window[i] < 0) return 0;
+        }
+        int entry = find(window, NGramCounts.hash(window, n));
+        return entry < 0 ? 0 : count(entry);
+    }
+
+    @Override
+    public int maxCount() {
+        int max = 0;
+        for (int entry = 0; entry < size; entry++) max = Math.max(max, count(entry));
+        return max;
+    }
+
+    /**
+     * @return The number of n-grams counted, including those that were pruned
+     */
+    @Override
+    public long totalCount() {
+        return total;
+    }
+
+    @Override
+    public int compareWords(int a, int b) {
+        for (int i = 0; i < n; i++) {
+            int ta = tokens[a * n + i];
+            int tb = tokens[b * n + i];
+            if (ta == tb) continue;
+            return vocabulary.compareWords(ta, tb);
+        }
+        return 0;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return (long) tokens.length * Integer.BYTES
+                + (long) counts.length * 3 * Integer.BYTES
+                + (long) slots.length * Integer.BYTES;
+    }
+
+    private int insert(int[] window, int offset, int hash) {
+        if (size == counts.length) {
+            int capacity = Math.min(size * 2, maxEntries);
+            tokens = Arrays.copyOf(tokens, capacity * n);
+            hashes = Arrays.copyOf(hashes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            errors = Arrays.copyOf(errors, capacity);
+        }
+        int entry = size++;
+        System.arraycopy(window, offset, tokens, entry * n, n);
+        hashes[entry] = hash;
+        counts[entry] = 1;
+        errors[entry] = pruningLevel;
+        return entry;
+    }
+
+    // Drops at least half of the entries, those whose upper bound is at or below the median
+    private void prune() {
+        int[] bounds = new int[size];
+        for (int entry = 0; entry < size; entry++) bounds[entry] = count(entry);
+        Arrays.sort(bounds);
+        pruningLevel = Math.max(pruningLevel + 1, bounds[size / 2]);
+
+        int kept = 0;
+        for (int entry = 0; entry < size; entry++) {
+            if (count(entry) <= pruningLevel) continue;
+            System.arraycopy(tokens, entry * n, tokens, kept * n, n);
+            hashes[kept] = hashes[entry];
+            counts[kept] = counts[entry];
+            errors[kept] = errors[entry];
+            kept++;
+        }
+        size = kept;
+        rehash(slots.length);
+    }
+
+    private void rehash(int slotCount) {
+        int[] rebuilt = new int[slotCount];
+        int rebuiltMask = slotCount - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hashes[entry] & rebuiltMask;
+            while (rebuilt[slot] != 0) slot = (slot + 1) & rebuiltMask;
+            rebuilt[slot] = entry + 1;
+        }
+        slots = rebuilt;
+        mask = rebuiltMask;
+    }
+}
@@ -0,0 +1,53 @@
+package com.anva.charl.words.service.ngram;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+
+import java.util.Arrays;
+
+/**
+ * Counts the occurrences of one phrase in a text without counting anything else.
+ * The words of the phrase are put in a small table, every word of the text is looked up in it
+ * and the resulting ids of the last words are kept in a window that is compared with the phrase.
+ * Memory only depends on the length of the phrase.
+ *
+ * Not thread-safe, one instance is used per text.
+ */
+class PhraseCounter implements TokenSink {
+
+    private final FrequencyTable phraseWords;
+    private final int[] phrase;
+    // the last ids are written twice, at position and position + length, like in NGramCounts
+    private final int[] window;
+    private int position;
+    private long words;
+    private int occurrences;
+
+    /**
+     * @param words The words of the phrase, as the tokenizer and the normalization produce them
+     */
+    PhraseCounter(char[][] words) {
+        this.phraseWords = new FrequencyTable(words.length);
+        this.phrase = new int[words.length];
+        for (int i = 0; i < words.length; i++) phrase[i] = phraseWords.add(words[i], 0, words[i].length, 0);
+        this.window = new int[2 * words.length];
+    }
+
+    @Override
+    public void accept(char[] buffer, int length) {
+        int n = phrase.length;
+        int id = phraseWords.find(buffer, 0, length);
+        window[position] = id;
+        window[position + n] = id;
+        words++;
+        if (words >= n && Arrays.equals(window, position + 1, position + 1 + n, phrase, 0, n)) occurrences++;
+        position = position + 1 == n ? 0 : position + 1;
+    }
+
+    /**
+     * @return The number of occurrences of the phrase
+     */
+    int occurrences() {
+        return occurrences;
+    }
+}
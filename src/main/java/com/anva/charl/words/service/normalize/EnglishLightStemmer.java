@@ -0,0 +1,33 @@
+package com.anva.charl.words.service.normalize;
+
+/**
+ * Harman's S-stemmer, which only conflates plural forms with their singular:
+ * "-ies" becomes "-y", "-es" becomes "-e" and a final "-s" is removed,
+ * except after "-us", "-ss" and in words like "aies", "eies", "aes", "ees" and "oes".
+ * It never changes a word beyond its plural ending, so it merges few words that do not belong together.
+ */
+class EnglishLightStemmer implements Stemmer {
+
+    @Override
+    public int stem(char[] word, int length) {
+        if (length < 3 || word[length - 1] != 's') return length;
+
+        switch (word[length - 2]) {
+            case 'u', 's' -> {
+                return length;
+            }
+            case 'e' -> {
+                if (length > 3 && word[length - 3] == 'i' && word[length - 4] != 'a' && word[length - 4] != 'e') {
+                    word[length - 3] = 'y';
+                    return length - 2;
+                }
+                char before = word[length - 3];
+                if (before == 'i' || before == 'a' || before == 'o' || before == 'e') return length;
+                return length - 1;
+            }
+            default -> {
+                return length - 1;
+            }
+        }
+    }
+}
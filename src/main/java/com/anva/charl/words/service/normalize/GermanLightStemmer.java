@@ -0,0 +1,55 @@
+package com.anva.charl.words.service.normalize;
+
+/**
+ * Savoy's light stemmer for German: umlauts and accented vowels are replaced by their base vowel,
+ * then inflectional endings such as "-ern", "-em", "-en", "-er", "-es", "-e", "-s" and "-est", "-st"
+ * are removed from words long enough to keep a stem.
+ */
+class GermanLightStemmer implements Stemmer {
+
+    @Override
+    public int stem(char[] word, int length) {
+        for (int i = 0; i < length; i++) {
+            switch (word[i]) {
+                case 'ä', 'à', 'á', 'â' -> word[i] = 'a';
+                case 'ö', 'ò', 'ó', 'ô' -> word[i] = 'o';
+                case 'ï', 'ì', 'í', 'î' -> word[i] = 'i';
+                case 'ü', 'ù', 'ú', 'û' -> word[i] = 'u';
+                default -> {
+                }
+            }
+        }
+        return removeSuperlative(word, removeInflection(word, length));
+    }
+
+    private static int removeInflection(char[] word, int length) {
+        if (length > 5 && word[length - 3] == 'e' && word[length - 2] == 'r' && word[length - 1] == 'n') return length - 3;
+        if (length > 4 && word[length - 2] == 'e') {
+            switch (word[length - 1]) {
+                case 'm', 'n', 'r', 's' -> {
+                    return length - 2;
+                }
+                default -> {
+                }
+            }
+        }
+        if (length > 3 && word[length - 1] == 'e') return length - 1;
+        if (length > 3 && word[length - 1] == 's' && isStEnding(word[length - 2])) return length - 1;
+        return length;
+    }
+
+    private static int removeSuperlative(char[] word, int length) {
+        if (length > 5 && word[length - 3] == 'e' && word[length - 2] == 's' && word[length - 1] == 't') return length - 3;
+        if (length > 4 && word[length - 2] == 'e' && (word[length - 1] == 'r' || word[length - 1] == 'n')) return length - 2;
+        if (length > 4 && word[length - 2] == 's' && word[length - 1] == 't' && isStEnding(word[length - 3])) return length - 2;
+        return length;
+    }
+
+    // letters after which a final "s" or "st" is an ending rather than part of the stem
+    private static boolean isStEnding(char c) {
+        return switch (c) {
+            case 'b', 'd', 'f', 'g', 'h', 'k', 'l', 'm', 'n', 'r', 't' -> true;
+            default -> false;
+        };
+    }
+}
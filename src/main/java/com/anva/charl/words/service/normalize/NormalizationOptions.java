@@ -0,0 +1,66 @@
+package com.anva.charl.words.service.normalize;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalization applied to every word on top of the lowercasing of the tokenizer.
+ * The stages run in the order of the components.
+ *
+ * @param nfkc Apply Unicode compatibility normalization (NFKC), so ligatures, full width and styled letters match their plain forms
+ * @param caseFold Apply full case folding instead of lowercasing only, so "straße" matches "strasse"
+ * @param stripDiacritics Remove accents and other combining marks, so "café" matches "cafe"
+ * @param stopwords Language whose stopwords are left out, or null to count all words
+ * @param stemmer Language whose light stemmer reduces words to their stem, or null to count words as they are
+ */
+public record NormalizationOptions(
+        boolean nfkc,
+        boolean caseFold,
+        boolean stripDiacritics,
+        String stopwords,
+        String stemmer) {
+
+    /** Languages with a stopword list. */
+    public static final Set<String> STOPWORD_LANGUAGES = Set.of("en", "de", "fr", "es");
+
+    /** Languages with a light stemmer. */
+    public static final Set<String> STEMMER_LANGUAGES = Set.of("en", "de");
+
+    /** Lowercasing only, the normalization of the tokenizer itself. */
+    public static final NormalizationOptions NONE = new NormalizationOptions(false, false, false, null, null);
+
+    public NormalizationOptions {
+        stopwords = language(stopwords, STOPWORD_LANGUAGES, "stopword");
+        stemmer = language(stemmer, STEMMER_LANGUAGES, "stemmer");
+    }
+
+    /**
+     * @return Whether words are only lowercased
+     */
+    public boolean isNone() {
+        return !nfkc && !caseFold && !stripDiacritics && stopwords == null && stemmer == null;
+    }
+
+    /**
+     * @return Description of the options for cache keys, empty if words are only lowercased
+     */
+    public String key() {
+        if (isNone()) return "";
+        StringBuilder key = new StringBuilder();
+        if (nfkc) key.append("+nfkc");
+        if (caseFold) key.append("+casefold");
+        if (stripDiacritics) key.append("+nodiacritics");
+        if (stopwords != null) key.append("+stopwords:").append(stopwords);
+        if (stemmer != null) key.append("+stemmer:").append(stemmer);
+        return key.toString();
+    }
+
+    private static String language(String language, Set<String> supported, String kind) {
+        if (language == null || language.isBlank()) return null;
+        String code = language.strip().toLowerCase(Locale.ROOT);
+        if (!supported.contains(code)) {
+            throw new IllegalArgumentException("Unsupported " + kind + " language " + language + ", supported are " + supported);
+        }
+        return code;
+    }
+}
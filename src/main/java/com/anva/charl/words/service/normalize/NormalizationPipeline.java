@@ -0,0 +1,231 @@
+package com.anva.charl.words.service.normalize;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The compiled chain of normalization stages for one set of {@link NormalizationOptions}.
+ * A pipeline is applied while tokenizing, as a {@link TokenSink} between the tokenizer and
+ * the frequency table, so the text is still read in a single pass.
+ *
+ * Pipelines are compiled once per set of options and shared: the stopwords are loaded
+ * and normalized the same way as the words of a text, and put in a {@link FrequencyTable}
+ * that is only read afterwards, so looking up a word does not allocate.
+ *
+ * The Unicode stages only run for words with a character outside of ASCII, lowercase ASCII
+ * words are already in normal form. Normalizing a word may split it into several,
+ * NFKC turns "½" into "1⁄2" for example, which are counted as separate words.
+ *
+ * Thread-safe, every sink created by {@link #wrap(TokenSink)} belongs to a single tokenization.
+ */
+public final class NormalizationPipeline {
+
+    /** The pipeline that leaves the words of the tokenizer as they are. */
+    public static final NormalizationPipeline NONE = new NormalizationPipeline(NormalizationOptions.NONE);
+
+    private static final ConcurrentMap<NormalizationOptions, NormalizationPipeline> PIPELINES = new ConcurrentHashMap<>();
+
+    // normalized words remembered per sink, most texts repeat their non-ASCII words often
+    private static final int MEMO_SIZE = 512;
+
+    private final NormalizationOptions options;
+    private final boolean unicode;
+    private final FrequencyTable stopwords;
+    private final Stemmer stemmer;
+
+    private NormalizationPipeline(NormalizationOptions options) {
+        this.options = options;
+        this.unicode = options.nfkc() || options.caseFold() || options.stripDiacritics();
+        this.stopwords = options.stopwords() == null ? null : loadStopwords(options.stopwords());
+        this.stemmer = options.stemmer() == null ? null : Stemmer.of(options.stemmer());
+    }
+
+    /**
+     * @param options The normalization options
+     * @return The shared pipeline of the options, compiled on first use
+     */
+    public static NormalizationPipeline of(NormalizationOptions options) {
+        if (options.isNone()) return NONE;
+        return PIPELINES.computeIfAbsent(options, NormalizationPipeline::new);
+    }
+
+    public NormalizationOptions options() {
+        return options;
+    }
+
+    /**
+     * @return Whether the pipeline leaves the words as they are
+     */
+    public boolean isNone() {
+        return options.isNone();
+    }
+
+    /**
+     * Puts the pipeline in front of a sink.
+     *
+     * @param sink Receiver of the normalized words
+     * @return Sink that normalizes the words of the tokenizer, or the sink itself if there is nothing to normalize
+     */
+    public TokenSink wrap(TokenSink sink) {
+        return isNone() ? sink : new NormalizingSink(sink);
+    }
+
+    /**
+     * Normalizes a word that is searched for the same way as the words of a text.
+     *
+     * @param word The word to search for
+     * @return The normalized word, or null if it is a stopword or normalizes to several words
+     */
+    public String normalizeWord(String word) {
+        char[] folded = word.toLowerCase(Locale.ROOT).toCharArray();
+        if (isNone()) return new String(folded);
+
+        String[] normalized = new String[1];
+        int[] words = new int[1];
+        wrap((buffer, length) -> {
+            normalized[0] = new String(buffer, 0, length);
+            words[0]++;
+        }).accept(folded, folded.length);
+        return words[0] == 1 ? normalized[0] : null;
+    }
+
+    private String foldUnicode(String word) {
+        if (options.nfkc()) word = Normalizer.normalize(word, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        if (options.caseFold()) word = word.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        if (options.stripDiacritics()) word = stripDiacritics(word);
+        return word;
+    }
+
+    // Removes the combining diacritical marks of the decomposed word, other combining marks such as the vowel signs of Indic scripts are kept
+    private static String stripDiacritics(String word) {
+        String decomposed = Normalizer.normalize(word, Normalizer.Form.NFD);
+        StringBuilder stripped = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (!isDiacritic(c)) stripped.append(c);
+        }
+        return Normalizer.normalize(stripped, Normalizer.Form.NFC);
+    }
+
+    private static boolean isDiacritic(char c) {
+        return (c >= '\u0300' && c <= '\u036F')
+                || (c >= '\u1AB0' && c <= '\u1AFF')
+                || (c >= '\u1DC0' && c <= '\u1DFF')
+                || (c >= '\u20D0' && c <= '\u20FF')
+                || (c >= '\uFE20' && c <= '\uFE2F');
+    }
+
+    private FrequencyTable loadStopwords(String language) {
+        FrequencyTable words = new FrequencyTable();
+        String resource = "/stopwords/" + language + ".txt";
+        try (InputStream in = NormalizationPipeline.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Missing stopword list " + resource);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.strip();
+                if (word.isEmpty() || word.startsWith("#")) continue;
+                // stopwords are compared after the Unicode stages, so they go through them as well
+                if (unicode) word = foldUnicode(word);
+                char[] chars = word.toCharArray();
+                words.add(chars, 0, chars.length, 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read stopword list " + resource, e);
+        }
+        return words;
+    }
+
+    private static boolean isAscii(char[] buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] >= 128) return false;
+        }
+        return true;
+    }
+
+    private final class NormalizingSink implements TokenSink {
+
+        private final TokenSink downstream;
+        private char[] scratch = new char[64];
+        private char[][] memoWords;
+        private String[] memoNormalized;
+
+        private NormalizingSink(TokenSink downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void accept(char[] buffer, int length) {
+            if (!unicode || isAscii(buffer, length)) {
+                filter(buffer, length);
+                return;
+            }
+
+            String word = normalized(buffer, length);
+            int start = -1;
+            for (int i = 0; i < word.length(); ) {
+                int codePoint = word.codePointAt(i);
+                boolean inWord = CodePointWordTokenizer.isWordCodePoint(codePoint);
+                if (inWord && start < 0) {
+                    start = i;
+                } else if (!inWord && start >= 0) {
+                    filter(word, start, i);
+                    start = -1;
+                }
+                i += Character.charCount(codePoint);
+            }
+            if (start >= 0) filter(word, start, word.length());
+        }
+
+        private String normalized(char[] buffer, int length) {
+            if (memoWords == null) {
+                memoWords = new char[MEMO_SIZE][];
+                memoNormalized = new String[MEMO_SIZE];
+            }
+            int hash = 0;
+            for (int i = 0; i < length; i++) hash = 31 * hash + buffer[i];
+            int slot = (hash ^ (hash >>> 16)) & (MEMO_SIZE - 1);
+
+            char[] memo = memoWords[slot];
+            if (memo != null && Arrays.equals(memo, 0, memo.length, buffer, 0, length)) return memoNormalized[slot];
+            String normalized = foldUnicode(new String(buffer, 0, length));
+            memoWords[slot] = Arrays.copyOf(buffer, length);
+            memoNormalized[slot] = normalized;
+            return normalized;
+        }
+
+        private void filter(String word, int start, int end) {
+            int length = end - start;
+            if (length > scratch.length) scratch = new char[Math.max(length, scratch.length * 2)];
+            word.getChars(start, end, scratch, 0);
+            filter(scratch, length);
+        }
+
+        private void filter(char[] buffer, int length) {
+            if (stopwords != null && stopwords.find(buffer, 0, length) >= 0) return;
+            if (stemmer == null) {
+                downstream.accept(buffer, length);
+                return;
+            }
+            // the buffer of the tokenizer is not changed, the stem is made in the scratch buffer
+            if (buffer != scratch) {
+                if (length > scratch.length) scratch = new char[Math.max(length, scratch.length * 2)];
+                System.arraycopy(buffer, 0, scratch, 0, length);
+            }
+            downstream.accept(scratch, stemmer.stem(scratch, length));
+        }
+    }
+}
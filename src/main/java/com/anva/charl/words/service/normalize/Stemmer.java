@@ -0,0 +1,27 @@
+package com.anva.charl.words.service.normalize;
+
+/**
+ * Reduces a lowercase word to its stem in place.
+ * Implementations are stateless.
+ */
+interface Stemmer {
+
+    /**
+     * @param word Array holding the word, changed in place
+     * @param length Length of the word
+     * @return Length of the stem
+     */
+    int stem(char[] word, int length);
+
+    /**
+     * @param language The language code
+     * @return The light stemmer of the language
+     */
+    static Stemmer of(String language) {
+        return switch (language) {
+            case "en" -> new EnglishLightStemmer();
+            case "de" -> new GermanLightStemmer();
+            default -> throw new IllegalArgumentException("No stemmer for language " + language);
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package com.anva.charl.words.service.position;
+
+import com.anva.charl.words.data.model.WordOccurrence;
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frequency table of a text together with where every word occurs in it, built in a single
+ * tokenization pass. The occurrences of a word are kept as a list of its offsets per entry of
+ * the table, in order of appearance: the start of an occurrence as the distance from the start
+ * of the previous one, followed by the length of the occurrence in the text, both as varints of
+ * seven bits per byte. Most occurrences take two to three bytes.
+ *
+ * The text is kept with the index, so snippets are cut from it without tokenizing it again.
+ * The offsets are those of the words in the text as it was sent, before any normalization;
+ * a word that normalizes to several words has the offsets of the whole word for every one of them.
+ *
+ * Immutable once built, so it can be shared by several threads.
+ */
+public class PositionalIndex {
+
+    private static final CodePointWordTokenizer TOKENIZER = new CodePointWordTokenizer();
+    private static final int MIN_CAPACITY = 16;
+    // room for an occurrence with two varints of up to five bytes
+    private static final int OCCURRENCE_BYTES = 10;
+
+    private final String text;
+    private final FrequencyTable table;
+
+    // varint encoded offsets of every entry of the table, the start of its last occurrence and the bytes used
+    private byte[][] postings;
+    private int[] lastStarts;
+    private int[] postingSizes;
+    private long postingBytes;
+
+    // offsets of the word being normalized
+    private int wordStart;
+    private int wordEnd;
+
+    private PositionalIndex(String text) {
+        this.text = text;
+        this.table = FrequencyTable.forText(text.length());
+        this.postings = new byte[MIN_CAPACITY][];
+        this.lastStarts = new int[MIN_CAPACITY];
+        this.postingSizes = new int[MIN_CAPACITY];
+    }
+
+    /**
+     * Counts and indexes the words of a text.
+     *
+     * @param text The input text to index
+     * @param pipeline The normalization applied to every word
+     * @return The index of the text
+     */
+    public static PositionalIndex build(String text, NormalizationPipeline pipeline) {
+        PositionalIndex index = new PositionalIndex(text);
+        // the pipeline hands on the normalized words while the offsets of the original word are set
+        TokenSink sink = pipeline.wrap(index::add);
+        TOKENIZER.tokenizeWithOffsets(text, (buffer, length, start, end) -> {
+            index.wordStart = start;
+            index.wordEnd = end;
+            sink.accept(buffer, length);
+        });
+        return index;
+    }
+
+    /**
+     * @return The frequency table of the text, which must not be modified
+     */
+    public FrequencyTable table() {
+        return table;
+    }
+
+    /**
+     * @return The indexed text
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * @param word The normalized word to look up
+     * @return The number of occurrences of the word
+     */
+    public int frequency(String word) {
+        return table.get(word);
+    }
+
+    /**
+     * Decodes the first occurrences of a word.
+     *
+     * @param word The normalized word to look up
+     * @param limit The maximum number of occurrences to return
+     * @param context Number of characters of the text to include on either side of every occurrence
+     *                in its snippet, or a negative number for no snippets
+     * @return The first occurrences of the word in order of appearance, empty if it does not occur
+     */
+    public List<WordOccurrence> occurrences(String word, int limit, int context) {
+        char[] chars = word.toCharArray();
+        int entry = table.find(chars, 0, chars.length);
+        if (entry < 0 || limit <= 0) return List.of();
+
+        byte[] bytes = postings[entry];
+        int size = postingSizes[entry];
+        List<WordOccurrence> result = new ArrayList<>(Math.min(limit, table.count(entry)));
+        int position = 0;
+        int start = 0;
+        while (position < size && result.size() < limit) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            start += value;
+
+            int length = 0;
+            shift = 0;
+            do {
+                b = bytes[position++];
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            result.add(new WordOccurrence(start, start + length, context < 0 ? null : snippet(start, start + length, context)));
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * @return Approximate number of bytes held by the index, including the text
+     */
+    public long estimatedBytes() {
+        return table.estimatedBytes()
+                + postingBytes
+                + (long) postings.length * (Long.BYTES + 2 * Integer.BYTES)
+                + (long) text.length() * Character.BYTES;
+    }
+
+    private void add(char[] buffer, int length) {
+        int size = table.size();
+        int entry = table.add(buffer, 0, length, 1);
+        if (entry == size && size == postings.length) {
+            postings = Arrays.copyOf(postings, size * 2);
+            lastStarts = Arrays.copyOf(lastStarts, size * 2);
+            postingSizes = Arrays.copyOf(postingSizes, size * 2);
+        }
+
+        byte[] bytes = postings[entry];
+        if (bytes == null) {
+            bytes = postings[entry] = new byte[OCCURRENCE_BYTES];
+            postingBytes += bytes.length;
+        } else if (postingSizes[entry] + OCCURRENCE_BYTES > bytes.length) {
+            postingBytes += bytes.length;
+            bytes = postings[entry] = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        int position = writeVarint(bytes, postingSizes[entry], wordStart - lastStarts[entry]);
+        postingSizes[entry] = writeVarint(bytes, position, wordEnd - wordStart);
+        lastStarts[entry] = wordStart;
+    }
+
+    private static int writeVarint(byte[] bytes, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    // the snippet is widened rather than split in the middle of a surrogate pair
+    private String snippet(int start, int end, int context) {
+        int from = Math.max(0, start - context);
+        int to = (int) Math.min(text.length(), (long) end + context);
+        if (from > 0 && Character.isLowSurrogate(text.charAt(from))) from--;
+        if (to < text.length() && Character.isLowSurrogate(text.charAt(to))) to++;
+        return text.substring(from, to);
+    }
+}
@@ -0,0 +1,16 @@
+package com.anva.charl.words.service.position;
+
+import com.anva.charl.words.data.model.WordOccurrence;
+
+import java.util.List;
+
+/**
+ * Where a word occurs in a text.
+ *
+ * @param frequency The number of occurrences of the word
+ * @param occurrences The first occurrences of the word, in order of appearance
+ */
+public record WordPositions(int frequency, List<WordOccurrence> occurrences) {
+
+    public static final WordPositions NONE = new WordPositions(0, List.of());
+}
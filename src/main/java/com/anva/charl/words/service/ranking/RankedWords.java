@@ -0,0 +1,59 @@
+package com.anva.charl.words.service.ranking;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.service.table.WordTable;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * The ranked result of a {@link TopWordsSelector}, a read-only list view of the selected entries
+ * of a frequency table. The {@link WordFrequency} of a position is only created when it is read,
+ * so a result of the whole vocabulary is serialized one word at a time instead of being held
+ * as a list of objects first.
+ *
+ * The table must not change while the list is in use, which holds for every table that is
+ * not counted any further once built.
+ */
+public final class RankedWords extends AbstractList<WordFrequency> implements RandomAccess {
+
+    private final WordTable table;
+    private final int[] entries;
+
+    /**
+     * @param table The table the entries belong to
+     * @param entries The entry ids in rank order
+     */
+    RankedWords(WordTable table, int[] entries) {
+        this.table = table;
+        this.entries = entries;
+    }
+
+    @Override
+    public WordFrequency get(int index) {
+        int entry = entries[index];
+        return new WordFrequencyDTO(table.word(entry), table.count(entry));
+    }
+
+    @Override
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * @param index The position in the ranking
+     * @return The word at the position, as a new String
+     */
+    public String word(int index) {
+        return table.word(entries[index]);
+    }
+
+    /**
+     * @param index The position in the ranking
+     * @return The frequency of the word at the position
+     */
+    public int frequency(int index) {
+        return table.count(entries[index]);
+    }
+}
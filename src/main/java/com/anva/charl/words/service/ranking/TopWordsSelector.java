@@ -0,0 +1,182 @@
+package com.anva.charl.words.service.ranking;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.service.table.WordTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Selects the N most frequent words without sorting the whole vocabulary.
+ * Ordering is by frequency (descending) and then alphabetically.
+ *
+ * Candidates are kept in a bounded binary heap of at most N entry ids with the
+ * weakest candidate on top, giving O(U log N) instead of O(U log U). Words are compared
+ * inside the {@link WordTable}, so Strings are only created for the N results.
+ * When frequencies are small, a counting pass over the frequencies first determines
+ * the lowest frequency that can still make it into the result, so most words are
+ * rejected with a single int comparison.
+ *
+ * The result of {@link #select(WordTable, int)} is a {@link RankedWords} view of the table,
+ * the words themselves are created while the result is serialized.
+ *
+ * Not thread-safe, a new selector is used for every query.
+ */
+public class TopWordsSelector {
+
+    // Largest frequency for which the counting pass is used, keeps the histogram small
+    private static final int MAX_BUCKET_FREQUENCY = 1 << 16;
+    private static final int[] NO_HISTOGRAM = new int[0];
+
+    private final WordTable table;
+    private final int[] entries;
+    private int size;
+
+    /**
+     * @param table The table the offered entry ids belong to
+     * @param capacity The maximum number of words to keep
+     */
+    public TopWordsSelector(WordTable table, int capacity) {
+        this.table = table;
+        this.entries = new int[capacity];
+    }
+
+    /**
+     * Finds the N most frequent words in the given frequency table.
+     *
+     * @param table Table with the frequency of every word
+     * @param n The maximum number of results to return
+     * @return List of WordFrequency objects containing the top N words, backed by the table
+     */
+    public static List<WordFrequency> select(WordTable table, int n) {
+        return select(table, n, NO_HISTOGRAM);
+    }
+
+    /**
+     * Variant of {@link #select(WordTable, int)} that counts the frequencies in a reusable histogram.
+     *
+     * @param table Table with the frequency of every word
+     * @param n The maximum number of results to return
+     * @param histogram Zeroed array for the counting pass, used if it is longer than the highest frequency and zeroed again afterwards
+     * @return List of WordFrequency objects containing the top N words, backed by the table
+     */
+    public static List<WordFrequency> select(WordTable table, int n, int[] histogram) {
+        if (n <= 0 || table.size() == 0) return List.of();
+
+        TopWordsSelector selector = new TopWordsSelector(table, Math.min(n, table.size()));
+        int minFrequency = n < table.size() ? minimumFrequency(table, n, histogram) : 0;
+
+        for (int entry = 0; entry < table.size(); entry++) {
+            if (table.count(entry) >= minFrequency) selector.offer(entry);
+        }
+        return new RankedWords(table, selector.toEntries());
+    }
+
+    /**
+     * Counting pass: the lowest frequency that at least N words reach.
+     * Words below it can never be part of the result.
+     */
+    private static int minimumFrequency(WordTable table, int n, int[] reusable) {
+        int max = table.maxCount();
+        if (max > MAX_BUCKET_FREQUENCY) return 0;
+
+        int[] histogram = reusable.length > max ? reusable : new int[max + 1];
+        for (int entry = 0; entry < table.size(); entry++) histogram[table.count(entry)]++;
+
+        int seen = 0;
+        int minFrequency = 0;
+        for (int frequency = max; frequency > 0; frequency--) {
+            seen += histogram[frequency];
+            if (seen >= n) {
+                minFrequency = frequency;
+                break;
+            }
+        }
+        if (histogram == reusable) Arrays.fill(histogram, 0, max + 1, 0);
+        return minFrequency;
+    }
+
+    /**
+     * Offers an entry to the selection, it is kept if it ranks among the best N seen so far.
+     *
+     * @param entry The entry id in the table
+     */
+    public void offer(int entry) {
+        if (entries.length == 0) return;
+        if (size < entries.length) {
+            entries[size] = entry;
+            siftUp(size++);
+        } else if (ranksBefore(entry, entries[0])) {
+            entries[0] = entry;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Empties the heap into a list ordered by frequency (descending) and then alphabetically.
+     * Unlike the result of {@link #select(WordTable, int)} the list is independent of the table,
+     * for tables that keep changing.
+     *
+     * @return List of WordFrequency objects containing the selected words
+     */
+    public List<WordFrequency> toList() {
+        int[] ranked = toEntries();
+        WordFrequency[] result = new WordFrequency[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            result[i] = new WordFrequencyDTO(table.word(ranked[i]), table.count(ranked[i]));
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Empties the heap into an array of entry ids ordered by frequency (descending) and then alphabetically.
+     *
+     * @return The selected entry ids in rank order
+     */
+    public int[] toEntries() {
+        int[] ranked = new int[size];
+        while (size > 0) {
+            ranked[size - 1] = entries[0];
+            entries[0] = entries[--size];
+            siftDown(0);
+        }
+        return ranked;
+    }
+
+    private boolean ranksBefore(int entry, int other) {
+        int frequency = table.count(entry);
+        int otherFrequency = table.count(other);
+        if (frequency != otherFrequency) return frequency > otherFrequency;
+        return table.compareWords(entry, other) < 0;
+    }
+
+    // The heap root is the weakest entry, so a parent must never rank before its children
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksBefore(entries[parent], entries[index])) break;
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int weakest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && ranksBefore(entries[weakest], entries[left])) weakest = left;
+            if (right < size && ranksBefore(entries[weakest], entries[right])) weakest = right;
+            if (weakest == index) return;
+            swap(weakest, index);
+            index = weakest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int entry = entries[a];
+        entries[a] = entries[b];
+        entries[b] = entry;
+    }
+}
@@ -0,0 +1,213 @@
+package com.anva.charl.words.service.session;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.tokenizer.StreamingWordTokenizer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * Word frequencies of a text that arrives in chunks, kept up to date as the chunks are appended.
+ * The chunks are pieces of one text, cut anywhere: a word is only counted once it ends, so a word
+ * split across two chunks is counted once, and the last word of a chunk is counted when the next
+ * chunk starts with a separator.
+ *
+ * A session may be limited to a sliding window of its most recent words, by number of words,
+ * by age, or both. The entries of the words in the window are kept in arrival order and the
+ * oldest are counted down again when they leave the window. Words leave the window by age
+ * whenever the session is appended to or queried.
+ *
+ * Thread-safe, appends and queries of a session are serialized.
+ */
+public final class FrequencySession {
+
+    private final String id;
+    private final int windowWords;
+    private final long windowMillis;
+    private final Clock clock;
+    private final RankedFrequencyTable counts = new RankedFrequencyTable();
+    // carries a word that is not finished yet over to the next chunk
+    private final StreamingWordTokenizer tokenizer = new StreamingWordTokenizer(this::count);
+
+    // entry ids of the words in the window, oldest first, only kept for windowed sessions
+    private int[] window = new int[16];
+    private int windowHead;
+    private int windowSize;
+    // chunks in the window, oldest first, only kept for sessions windowed by age
+    private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+    // the chunk being appended, the words ending in it count towards it
+    private Chunk appending;
+
+    private volatile long lastAccess;
+
+    /**
+     * @param id The session id
+     * @param windowWords Number of most recent words the session counts, 0 counts all
+     * @param windowAge Age up to which words are counted, zero counts all
+     * @param clock The clock word ages are measured with
+     */
+    FrequencySession(String id, int windowWords, Duration windowAge, Clock clock) {
+        this.id = id;
+        this.windowWords = windowWords;
+        this.windowMillis = windowAge.toMillis();
+        this.clock = clock;
+        this.lastAccess = clock.millis();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * @return Number of most recent words the session counts, 0 if it counts all
+     */
+    public int windowWords() {
+        return windowWords;
+    }
+
+    /**
+     * @return Age up to which words are counted, zero if all are counted
+     */
+    public Duration windowAge() {
+        return Duration.ofMillis(windowMillis);
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Counts the words of the next chunk of text and lets the oldest words leave the window.
+     *
+     * @param text The chunk
+     * @param counting Runs the tokenization of the chunk, which waits for it to finish
+     */
+    public synchronized void append(String text, Executor counting) {
+        long now = touch();
+        Chunk chunk = new Chunk(now);
+        appending = chunk;
+        char[] chars = text.toCharArray();
+        counting.execute(() -> tokenizer.feed(chars, 0, chars.length));
+        if (windowMillis > 0 && chunk.words > 0) chunks.addLast(chunk);
+
+        // the chunk is counted as a whole first, then trimmed back to the window
+        while (windowWords > 0 && windowSize > windowWords) removeOldest();
+        expire(now);
+    }
+
+    /**
+     * @return The number of distinct words in the window
+     */
+    public synchronized int distinctWords() {
+        expire(touch());
+        return counts.distinctWords();
+    }
+
+    /**
+     * @return The number of words in the window
+     */
+    public synchronized long totalWords() {
+        expire(touch());
+        return counts.totalWords();
+    }
+
+    /**
+     * @return The frequency of the most frequent word in the window, or 0 if it is empty
+     */
+    public synchronized int highestFrequency() {
+        expire(touch());
+        return counts.highestFrequency();
+    }
+
+    /**
+     * @param word The specific word to search for
+     * @return The frequency of the word in the window
+     */
+    public synchronized int frequencyForWord(String word) {
+        expire(touch());
+        return counts.frequencyForWord(word.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param n The maximum number of results to return
+     * @return The N most frequent words in the window, by frequency (descending) and then alphabetically
+     */
+    public synchronized List<WordFrequency> mostFrequentWords(int n) {
+        expire(touch());
+        return counts.mostFrequentWords(n);
+    }
+
+    private void count(char[] buffer, int length) {
+        int entry = counts.add(buffer, 0, length);
+        if (isWindowed()) {
+            push(entry);
+            appending.words++;
+        }
+    }
+
+    private boolean isWindowed() {
+        return windowWords > 0 || windowMillis > 0;
+    }
+
+    private long touch() {
+        long now = clock.millis();
+        lastAccess = now;
+        return now;
+    }
+
+    private void expire(long now) {
+        if (windowMillis > 0) {
+            while (!chunks.isEmpty() && now - chunks.peekFirst().time >= windowMillis) {
+                int words = chunks.peekFirst().words;
+                for (int i = 0; i < words; i++) removeOldest();
+            }
+        }
+        if (counts.isSparse()) compact();
+    }
+
+    private void push(int entry) {
+        if (windowSize == window.length) {
+            int[] grown = new int[window.length * 2];
+            for (int i = 0; i < windowSize; i++) grown[i] = window[(windowHead + i) % window.length];
+            window = grown;
+            windowHead = 0;
+        }
+        window[(windowHead + windowSize) % window.length] = entry;
+        windowSize++;
+    }
+
+    private void removeOldest() {
+        counts.remove(window[windowHead]);
+        windowHead = (windowHead + 1) % window.length;
+        windowSize--;
+        if (windowMillis > 0 && --chunks.peekFirst().words == 0) chunks.removeFirst();
+    }
+
+    private void compact() {
+        int[] renumbered = counts.compact();
+        for (int i = 0; i < windowSize; i++) {
+            int slot = (windowHead + i) % window.length;
+            window[slot] = renumbered[window[slot]];
+        }
+        if (window.length > 16 && windowSize < window.length / 4) {
+            int[] shrunk = new int[Math.max(16, windowSize * 2)];
+            for (int i = 0; i < windowSize; i++) shrunk[i] = window[(windowHead + i) % window.length];
+            window = shrunk;
+            windowHead = 0;
+        }
+    }
+
+    private static final class Chunk {
+
+        private final long time;
+        private int words;
+
+        private Chunk(long time) {
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.anva.charl.words.service.session;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.FrequencyTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frequency table that keeps its entries ranked while words are added and removed,
+ * so the highest frequency and the top N are read off the front of the ranking
+ * instead of going over the whole vocabulary for every query.
+ *
+ * The entries are kept in an array ordered by count (descending), and {@code atLeast[c]}
+ * holds the number of entries with a count of at least c, which is where the entries with
+ * count c - 1 start. Counts only change by one, so an entry just swaps places with the first
+ * or the last entry of its count: O(1) per word. Entries of equal count are in no particular
+ * order, queries rank the entries they need alphabetically with the {@link TopWordsSelector}.
+ *
+ * Words that drop to a count of 0 keep their entry until {@link #compact()} removes them.
+ *
+ * Not thread-safe.
+ */
+class RankedFrequencyTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private FrequencyTable table = new FrequencyTable();
+    // entry ids by count (descending), and the position of every entry in it
+    private int[] order = new int[MIN_CAPACITY];
+    private int[] positions = new int[MIN_CAPACITY];
+    // number of entries with a count of at least c, for c from 1 to the highest count
+    private int[] atLeast = new int[MIN_CAPACITY];
+
+    /**
+     * Counts one occurrence of a word.
+     *
+     * @param chars Array holding the case-folded word
+     * @param offset Start of the word in the array
+     * @param length Length of the word
+     * @return The entry id of the word
+     */
+    int add(char[] chars, int offset, int length) {
+        int size = table.size();
+        int entry = table.add(chars, offset, length, 1);
+        if (entry == size) {
+            if (size == order.length) {
+                order = Arrays.copyOf(order, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            // a new entry starts out behind all others, with a count of 0
+            order[size] = entry;
+            positions[entry] = size;
+        }
+        int count = table.count(entry);
+        if (count == atLeast.length) atLeast = Arrays.copyOf(atLeast, count * 2);
+        // the first entry with the previous count becomes the last one with the new count
+        swap(positions[entry], atLeast[count]);
+        atLeast[count]++;
+        return entry;
+    }
+
+    /**
+     * Removes one occurrence of a word.
+     *
+     * @param entry The entry id returned when the occurrence was added
+     */
+    void remove(int entry) {
+        int count = table.count(entry);
+        table.decrement(entry);
+        // the last entry with the previous count becomes the first one with the new count
+        swap(positions[entry], atLeast[count] - 1);
+        atLeast[count]--;
+    }
+
+    /**
+     * @return The number of words with a count above 0
+     */
+    int distinctWords() {
+        return atLeast[1];
+    }
+
+    /**
+     * @return The number of counted occurrences
+     */
+    long totalWords() {
+        return table.totalCount();
+    }
+
+    /**
+     * @return The highest count of any word, or 0 if there are none
+     */
+    int highestFrequency() {
+        return atLeast[1] == 0 ? 0 : table.count(order[0]);
+    }
+
+    /**
+     * @param word The case-folded word
+     * @return The count of the word
+     */
+    int frequencyForWord(String word) {
+        return table.get(word);
+    }
+
+    /**
+     * Ranks only the entries with at least the count of the N-th entry, the ones that can be part of the result.
+     *
+     * @param n The maximum number of results to return
+     * @return The N most frequent words, by frequency (descending) and then alphabetically
+     */
+    List<WordFrequency> mostFrequentWords(int n) {
+        int ranked = atLeast[1];
+        if (n <= 0 || ranked == 0) return List.of();
+
+        int limit = Math.min(n, ranked);
+        int candidates = atLeast[table.count(order[limit - 1])];
+        TopWordsSelector selector = new TopWordsSelector(table, limit);
+        for (int i = 0; i < candidates; i++) selector.offer(order[i]);
+        return selector.toList();
+    }
+
+    /**
+     * @return Whether most entries have dropped to a count of 0, so {@link #compact()} pays off
+     */
+    boolean isSparse() {
+        int dropped = table.size() - atLeast[1];
+        return dropped > MIN_CAPACITY && dropped > atLeast[1];
+    }
+
+    /**
+     * Rebuilds the table without the entries that have a count of 0.
+     * Entries are renumbered in rank order, so the ranking itself stays as it is.
+     *
+     * @return The new entry id of every old entry id, -1 for removed entries
+     */
+    int[] compact() {
+        int live = atLeast[1];
+        int[] renumbered = new int[table.size()];
+        Arrays.fill(renumbered, -1);
+
+        FrequencyTable compacted = new FrequencyTable(live);
+        for (int position = 0; position < live; position++) {
+            int entry = order[position];
+            char[] word = table.word(entry).toCharArray();
+            compacted.add(word, 0, word.length, table.count(entry));
+            renumbered[entry] = position;
+            order[position] = position;
+            positions[position] = position;
+        }
+        table = compacted;
+        return renumbered;
+    }
+
+    private void swap(int a, int b) {
+        int entryA = order[a];
+        int entryB = order[b];
+        order[a] = entryB;
+        order[b] = entryA;
+        positions[entryB] = a;
+        positions[entryA] = b;
+    }
+}
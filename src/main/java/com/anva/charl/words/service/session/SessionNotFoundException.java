@@ -0,0 +1,11 @@
+package com.anva.charl.words.service.session;
+
+/**
+ * Thrown when a session id is not known to the {@link SessionStore}, or the session has been idle for too long.
+ */
+public class SessionNotFoundException extends RuntimeException {
+
+    public SessionNotFoundException(String id) {
+        super("No session found with id " + id);
+    }
+}
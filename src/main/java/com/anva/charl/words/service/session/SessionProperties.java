@@ -0,0 +1,16 @@
+package com.anva.charl.words.service.session;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the frequency sessions, bound from the {@code words.sessions} properties.
+ *
+ * @param idleTimeout Sessions that are neither appended to nor queried for this long are removed
+ */
+@ConfigurationProperties("words.sessions")
+public record SessionProperties(
+    @DefaultValue("30m") Duration idleTimeout
+) {}
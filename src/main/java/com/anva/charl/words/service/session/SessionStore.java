@@ -0,0 +1,96 @@
+package com.anva.charl.words.service.session;
+
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the open frequency sessions in memory.
+ * Sessions are not persisted, and are removed once they have been idle for the configured timeout.
+ */
+@Component
+public class SessionStore {
+
+    private final SimpleFrequencySearchService searchService;
+    private final long idleTimeoutMillis;
+    private final Clock clock;
+    private final Map<String, FrequencySession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SessionStore(SimpleFrequencySearchService searchService, SessionProperties properties) {
+        this(searchService, properties, Clock.systemUTC());
+    }
+
+    SessionStore(SimpleFrequencySearchService searchService, SessionProperties properties, Clock clock) {
+        this.searchService = searchService;
+        this.idleTimeoutMillis = properties.idleTimeout().toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Opens a new session.
+     *
+     * @param windowWords Number of most recent words the session counts, 0 counts all
+     * @param windowAge Age up to which words are counted, zero counts all
+     * @return The new session
+     */
+    public FrequencySession create(int windowWords, Duration windowAge) {
+        removeIdle();
+        FrequencySession session = new FrequencySession(UUID.randomUUID().toString(), windowWords, windowAge, clock);
+        sessions.put(session.id(), session);
+        return session;
+    }
+
+    /**
+     * @param id The session id
+     * @return The session
+     * @throws SessionNotFoundException If the id is unknown or the session was idle for too long
+     */
+    public FrequencySession get(String id) {
+        FrequencySession session = sessions.get(id);
+        if (session == null) throw new SessionNotFoundException(id);
+        if (isIdle(session)) {
+            sessions.remove(id, session);
+            throw new SessionNotFoundException(id);
+        }
+        return session;
+    }
+
+    /**
+     * Counts the words of the next chunk of a session's text on the counting threads.
+     *
+     * @param id The session id
+     * @param text The chunk
+     * @return The session
+     * @throws SessionNotFoundException If the id is unknown or the session was idle for too long
+     */
+    public FrequencySession append(String id, String text) {
+        FrequencySession session = get(id);
+        session.append(text, searchService::count);
+        return session;
+    }
+
+    /**
+     * Closes a session.
+     *
+     * @param id The session id
+     * @throws SessionNotFoundException If the id is unknown
+     */
+    public void delete(String id) {
+        if (sessions.remove(id) == null) throw new SessionNotFoundException(id);
+    }
+
+    private void removeIdle() {
+        sessions.values().removeIf(this::isIdle);
+    }
+
+    private boolean isIdle(FrequencySession session) {
+        return idleTimeoutMillis > 0 && clock.millis() - session.lastAccess() >= idleTimeoutMillis;
+    }
+}
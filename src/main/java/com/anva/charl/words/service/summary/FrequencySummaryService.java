@@ -0,0 +1,131 @@
+package com.anva.charl.words.service.summary;
+
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counting of a corpus that is sharded across several instances. Every instance summarizes its
+ * shards with the exact analysis of the {@link SimpleFrequencySearchService}, and any instance
+ * merges the summaries into the global result, or into one summary to merge further up.
+ *
+ * Shards have to be split at word boundaries, a word cut in two is counted as two words.
+ */
+@Service
+public class FrequencySummaryService {
+
+    private final SimpleFrequencySearchService searchService;
+
+    public FrequencySummaryService(SimpleFrequencySearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Writes the frequency summary of a text.
+     *
+     * @param text The input text to summarize
+     * @param out The destination of the summary, it is not closed
+     * @param compressed Whether to deflate the summary
+     * @throws IOException If writing fails
+     */
+    public void summarize(String text, OutputStream out, boolean compressed) throws IOException {
+        SummaryWriter.write(searchService.buildFrequencyTable(text), out, compressed);
+    }
+
+    /**
+     * Writes the frequency summary of the text read from the given reader.
+     *
+     * @param reader The source of the text to summarize
+     * @param out The destination of the summary, it is not closed
+     * @param compressed Whether to deflate the summary
+     * @throws IOException If reading or writing fails
+     */
+    public void summarize(Reader reader, OutputStream out, boolean compressed) throws IOException {
+        SummaryWriter.write(searchService.buildFrequencyTable(reader), out, compressed);
+    }
+
+    /**
+     * Writes the frequency summary of the UTF-8 text read from the given stream.
+     *
+     * @param in The source of the UTF-8 text to summarize
+     * @param out The destination of the summary, it is not closed
+     * @param compressed Whether to deflate the summary
+     * @throws IOException If reading or writing fails
+     */
+    public void summarize(InputStream in, OutputStream out, boolean compressed) throws IOException {
+        SummaryWriter.write(searchService.buildFrequencyTable(in), out, compressed);
+    }
+
+    /**
+     * Merges summaries into the global highest frequency and top N, the sources are closed.
+     *
+     * @param summaries The summaries of the shards
+     * @param n The maximum number of most frequent words to return
+     * @return The merged totals and the N most frequent words
+     * @throws InvalidSummaryException If a source is not a valid summary
+     * @throws IOException If reading fails
+     */
+    public MergedSummary merge(List<InputStream> summaries, int n) throws IOException {
+        List<SummaryReader> readers = open(summaries);
+        try {
+            return SummaryMerger.merge(readers, n);
+        } finally {
+            close(readers);
+        }
+    }
+
+    /**
+     * Merges summaries into a single summary, the sources are closed.
+     *
+     * @param summaries The summaries to merge
+     * @param out The destination of the merged summary, it is not closed
+     * @param compressed Whether to deflate the merged summary
+     * @throws InvalidSummaryException If a source is not a valid summary
+     * @throws IOException If reading or writing fails
+     */
+    public void merge(List<InputStream> summaries, OutputStream out, boolean compressed) throws IOException {
+        List<SummaryReader> readers = open(summaries);
+        try {
+            SummaryMerger.merge(readers, out, compressed);
+        } finally {
+            close(readers);
+        }
+    }
+
+    private static List<SummaryReader> open(List<InputStream> summaries) throws IOException {
+        List<SummaryReader> readers = new ArrayList<>(summaries.size());
+        try {
+            for (InputStream summary : summaries) readers.add(new SummaryReader(summary));
+        } catch (IOException e) {
+            List<AutoCloseable> opened = new ArrayList<>(readers);
+            opened.addAll(summaries.subList(readers.size(), summaries.size()));
+            for (AutoCloseable source : opened) {
+                try {
+                    source.close();
+                } catch (Exception suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        return readers;
+    }
+
+    private static void close(List<SummaryReader> readers) throws IOException {
+        IOException failure = null;
+        for (SummaryReader reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e; else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+}
@@ -0,0 +1,17 @@
+package com.anva.charl.words.service.summary;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a frequency summary is truncated, corrupt or not a summary at all.
+ */
+public class InvalidSummaryException extends IOException {
+
+    public InvalidSummaryException(String message) {
+        super(message);
+    }
+
+    public InvalidSummaryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
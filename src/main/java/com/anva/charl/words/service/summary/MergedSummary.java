@@ -0,0 +1,23 @@
+package com.anva.charl.words.service.summary;
+
+import com.anva.charl.words.data.model.WordFrequency;
+
+import java.util.List;
+
+/**
+ * Global result of merging the frequency summaries of several shards.
+ * Frequencies above {@link Integer#MAX_VALUE} are reported as {@link Integer#MAX_VALUE}.
+ *
+ * @param summaries Number of merged summaries
+ * @param totalWords Number of words counted over all shards
+ * @param distinctWords Number of distinct words over all shards
+ * @param highestFrequency Frequency of the most frequent word, 0 if there are no words
+ * @param mostFrequentWords The N most frequent words, by frequency (descending) and then alphabetically
+ */
+public record MergedSummary(
+        int summaries,
+        long totalWords,
+        int distinctWords,
+        int highestFrequency,
+        List<WordFrequency> mostFrequentWords) {
+}
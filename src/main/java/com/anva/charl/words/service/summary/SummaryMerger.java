@@ -0,0 +1,133 @@
+package com.anva.charl.words.service.summary;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of frequency summaries. All summaries are sorted the same way, so the merge
+ * reads them side by side through a priority queue of readers ordered by their current word,
+ * adding up the counts of a word over all summaries it occurs in. Only the current word of
+ * every summary is held in memory, plus the N most frequent words when ranking.
+ */
+public final class SummaryMerger {
+
+    private static final Comparator<SummaryReader> BY_WORD = (a, b) ->
+            Arrays.compareUnsigned(a.word(), 0, a.length(), b.word(), 0, b.length());
+
+    // the weakest of the N most frequent words so far is on top, the one to replace
+    private static final Comparator<WordFrequency> WEAKEST_FIRST =
+            Comparator.comparingInt(WordFrequency::frequency)
+                    .thenComparing(WordFrequency::word, Comparator.reverseOrder());
+
+    private static final Comparator<WordFrequency> RANKING =
+            Comparator.comparingInt(WordFrequency::frequency).reversed()
+                    .thenComparing(WordFrequency::word);
+
+    private SummaryMerger() {
+    }
+
+    /**
+     * Merges summaries into the global highest frequency and top N. The readers are consumed but not closed.
+     *
+     * @param summaries The summaries of the shards
+     * @param n The maximum number of most frequent words to return
+     * @return The merged totals and the N most frequent words
+     * @throws IOException If reading a summary fails
+     */
+    public static MergedSummary merge(List<SummaryReader> summaries, int n) throws IOException {
+        PriorityQueue<WordFrequency> top = new PriorityQueue<>(WEAKEST_FIRST);
+        int[] distinct = new int[1];
+        long[] highest = new long[1];
+        merge(summaries, (word, length, count) -> {
+            distinct[0]++;
+            highest[0] = Math.max(highest[0], count);
+            if (n <= 0) return;
+
+            int frequency = saturate(count);
+            // the word is only decoded if it can make it into the top N
+            if (top.size() == n && frequency < top.peek().frequency()) return;
+            WordFrequency candidate = new WordFrequencyDTO(new String(word, 0, length, StandardCharsets.UTF_8), frequency);
+            if (top.size() < n) {
+                top.add(candidate);
+            } else if (WEAKEST_FIRST.compare(candidate, top.peek()) > 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        });
+
+        List<WordFrequency> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return new MergedSummary(summaries.size(), totalWords(summaries), distinct[0], saturate(highest[0]), List.copyOf(ranked));
+    }
+
+    /**
+     * Merges summaries into a single summary, which can be merged again with others.
+     * The readers are consumed but not closed.
+     *
+     * @param summaries The summaries to merge
+     * @param out The destination of the merged summary, it is not closed
+     * @param compressed Whether to deflate the merged summary
+     * @throws IOException If reading a summary or writing fails
+     */
+    public static void merge(List<SummaryReader> summaries, OutputStream out, boolean compressed) throws IOException {
+        try (SummaryWriter writer = new SummaryWriter(out, compressed, totalWords(summaries))) {
+            merge(summaries, writer::add);
+        }
+    }
+
+    private static void merge(List<SummaryReader> summaries, MergedWordSink sink) throws IOException {
+        PriorityQueue<SummaryReader> queue = new PriorityQueue<>(Math.max(1, summaries.size()), BY_WORD);
+        for (SummaryReader summary : summaries) {
+            if (summary.next()) queue.add(summary);
+        }
+
+        byte[] word = new byte[32];
+        List<SummaryReader> advanced = new ArrayList<>(summaries.size());
+        while (!queue.isEmpty()) {
+            SummaryReader first = queue.poll();
+            int length = first.length();
+            if (length > word.length) word = new byte[Math.max(length, word.length * 2)];
+            System.arraycopy(first.word(), 0, word, 0, length);
+            long count = first.count();
+            advanced.add(first);
+
+            // every other summary with the same word is at the front of the queue now
+            while (!queue.isEmpty() && BY_WORD.compare(queue.peek(), first) == 0) {
+                SummaryReader same = queue.poll();
+                count += same.count();
+                advanced.add(same);
+            }
+            sink.accept(word, length, count);
+
+            for (SummaryReader summary : advanced) {
+                if (summary.next()) queue.add(summary);
+            }
+            advanced.clear();
+        }
+    }
+
+    private static long totalWords(List<SummaryReader> summaries) {
+        long total = 0;
+        for (SummaryReader summary : summaries) total += summary.totalWords();
+        return total;
+    }
+
+    private static int saturate(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    @FunctionalInterface
+    private interface MergedWordSink {
+
+        void accept(byte[] word, int length, long count) throws IOException;
+    }
+}
@@ -0,0 +1,168 @@
+package com.anva.charl.words.service.summary;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads a frequency summary written by the {@link SummaryWriter} one word at a time,
+ * in ascending UTF-8 byte order, so summaries of any size are merged without loading them.
+ *
+ * Not thread-safe.
+ */
+public class SummaryReader implements AutoCloseable {
+
+    private final InputStream in;
+    private final Inflater inflater;
+    private final long totalWords;
+    private byte[] word = new byte[32];
+    private int length;
+    private long count;
+    private boolean finished;
+
+    /**
+     * Reads the header of a summary.
+     *
+     * @param source The summary, closed together with the reader
+     * @throws InvalidSummaryException If the source is not a frequency summary
+     * @throws IOException If reading fails
+     */
+    public SummaryReader(InputStream source) throws IOException {
+        DataInputStream header = new DataInputStream(source);
+        int flags;
+        try {
+            if (header.readInt() != SummaryWriter.MAGIC) throw new InvalidSummaryException("Not a frequency summary");
+            flags = header.readUnsignedByte();
+        } catch (EOFException e) {
+            throw new InvalidSummaryException("Not a frequency summary", e);
+        }
+        if ((flags & ~SummaryWriter.FLAG_COMPRESSED) != 0) {
+            throw new InvalidSummaryException("Unsupported frequency summary flags " + flags);
+        }
+        boolean compressed = (flags & SummaryWriter.FLAG_COMPRESSED) != 0;
+        this.inflater = compressed ? new Inflater() : null;
+        this.in = new BufferedInputStream(compressed ? new InflaterInputStream(source, inflater, 8 * 1024) : source, 8 * 1024);
+        this.totalWords = readVarint();
+    }
+
+    /**
+     * @return The number of counted words the summary stands for
+     */
+    public long totalWords() {
+        return totalWords;
+    }
+
+    /**
+     * Moves to the next word.
+     *
+     * @return Whether there is a next word, false at the end of the summary
+     * @throws InvalidSummaryException If the summary is truncated or corrupt
+     * @throws IOException If reading fails
+     */
+    public boolean next() throws IOException {
+        if (finished) return false;
+
+        int suffix = (int) Math.min(readVarint(), Integer.MAX_VALUE);
+        if (suffix == 0) {
+            finished = true;
+            return false;
+        }
+        long shared = readVarint();
+        if (shared > length || (long) suffix + shared > Integer.MAX_VALUE - 8) {
+            throw new InvalidSummaryException("Corrupt frequency summary");
+        }
+        int newLength = (int) shared + suffix;
+        if (newLength > word.length) word = Arrays.copyOf(word, Math.max(newLength, word.length * 2));
+
+        // the first differing byte decides the order, it has to be greater than the previous one
+        boolean ascending = shared == length;
+        byte previous = ascending ? 0 : word[(int) shared];
+        readFully(word, (int) shared, suffix);
+        if (!ascending && Byte.compareUnsigned(word[(int) shared], previous) <= 0) {
+            throw new InvalidSummaryException("Corrupt frequency summary, words are not in ascending order");
+        }
+        length = newLength;
+        count = readVarint();
+        return true;
+    }
+
+    /**
+     * @return Array holding the current word as UTF-8, valid until the next call to {@link #next()}
+     */
+    public byte[] word() {
+        return word;
+    }
+
+    /**
+     * @return Length of the current word in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return The current word as a new String
+     */
+    public String wordString() {
+        return new String(word, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The count of the current word
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            in.close();
+        } finally {
+            if (inflater != null) inflater.end();
+        }
+    }
+
+    private void readFully(byte[] buffer, int offset, int length) throws IOException {
+        while (length > 0) {
+            int read = read(buffer, offset, length);
+            if (read < 0) throw new InvalidSummaryException("Truncated frequency summary");
+            offset += read;
+            length -= read;
+        }
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = read();
+            if (b < 0) throw new InvalidSummaryException("Truncated frequency summary");
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new InvalidSummaryException("Corrupt frequency summary, varint too long");
+    }
+
+    private int read() throws IOException {
+        try {
+            return in.read();
+        } catch (ZipException | EOFException e) {
+            throw new InvalidSummaryException("Corrupt frequency summary", e);
+        }
+    }
+
+    private int read(byte[] buffer, int offset, int length) throws IOException {
+        try {
+            return in.read(buffer, offset, length);
+        } catch (ZipException | EOFException e) {
+            throw new InvalidSummaryException("Corrupt frequency summary", e);
+        }
+    }
+}
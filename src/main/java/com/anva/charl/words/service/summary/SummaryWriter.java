@@ -0,0 +1,123 @@
+package com.anva.charl.words.service.summary;
+
+import com.anva.charl.words.service.table.WordTable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes frequency summaries, the compact binary form in which partial results of
+ * a sharded corpus are exchanged and merged:
+ *
+ * - the magic number {@code WFS1} and a flags byte, bit 0 marks a deflate compressed body
+ * - the total number of counted words as a varint
+ * - every distinct word in ascending UTF-8 byte order: the length of its suffix, the number
+ *   of leading bytes it shares with the previous word, the suffix bytes and its count,
+ *   the numbers as unsigned LEB128 varints
+ * - a suffix length of 0 marks the end, every word has a suffix since words are distinct and sorted
+ *
+ * Words must be added in strictly ascending unsigned byte order.
+ */
+public class SummaryWriter implements AutoCloseable {
+
+    /** Media type of frequency summaries. */
+    public static final String MEDIA_TYPE = "application/x-word-frequency-summary";
+
+    static final int MAGIC = 0x57465331; // "WFS1"
+    static final int FLAG_COMPRESSED = 1;
+
+    private final DataOutputStream out;
+    private final DeflaterOutputStream deflater;
+    private byte[] previous = new byte[32];
+    private int previousLength;
+
+    /**
+     * Starts a summary, the header is written immediately.
+     *
+     * @param out The destination, it is not closed by the writer
+     * @param compressed Whether to deflate everything after the flags byte
+     * @param totalWords The number of counted words the summary stands for
+     * @throws IOException If writing fails
+     */
+    public SummaryWriter(OutputStream out, boolean compressed, long totalWords) throws IOException {
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeByte(compressed ? FLAG_COMPRESSED : 0);
+        this.deflater = compressed ? new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), 8 * 1024) : null;
+        this.out = new DataOutputStream(new BufferedOutputStream(compressed ? deflater : out, 8 * 1024));
+        writeVarint(totalWords);
+    }
+
+    /**
+     * Writes the summary of a frequency table.
+     *
+     * @param table The table to summarize
+     * @param out The destination, it is not closed
+     * @param compressed Whether to deflate the summary
+     * @throws IOException If writing fails
+     */
+    public static void write(WordTable table, OutputStream out, boolean compressed) throws IOException {
+        byte[][] words = new byte[table.size()][];
+        Integer[] entries = new Integer[table.size()];
+        for (int entry = 0; entry < table.size(); entry++) {
+            words[entry] = table.word(entry).getBytes(StandardCharsets.UTF_8);
+            entries[entry] = entry;
+        }
+        Arrays.sort(entries, (a, b) -> Arrays.compareUnsigned(words[a], words[b]));
+
+        try (SummaryWriter writer = new SummaryWriter(out, compressed, table.totalCount())) {
+            for (int entry : entries) writer.add(words[entry], words[entry].length, table.count(entry));
+        }
+    }
+
+    /**
+     * Adds the next word.
+     *
+     * @param word Array holding the UTF-8 word
+     * @param length Length of the word in bytes
+     * @param count The count of the word
+     * @throws IOException If writing fails
+     */
+    public void add(byte[] word, int length, long count) throws IOException {
+        int shared = Arrays.mismatch(previous, 0, previousLength, word, 0, length);
+        // a word must not equal or precede the previous one, so it always has a suffix
+        if (shared < 0 || shared == length
+                || (shared < previousLength && Byte.compareUnsigned(previous[shared], word[shared]) > 0)) {
+            throw new IllegalArgumentException("Words must be added in strictly ascending order");
+        }
+        writeVarint(length - shared);
+        writeVarint(shared);
+        out.write(word, shared, length - shared);
+        writeVarint(count);
+
+        if (length > previous.length) previous = new byte[Math.max(length, previous.length * 2)];
+        System.arraycopy(word, 0, previous, 0, length);
+        previousLength = length;
+    }
+
+    /**
+     * Writes the end marker and flushes, the underlying stream stays open.
+     *
+     * @throws IOException If writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        writeVarint(0);
+        out.flush();
+        if (deflater != null) deflater.finish();
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
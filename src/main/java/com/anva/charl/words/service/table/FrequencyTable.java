@@ -0,0 +1,390 @@
+package com.anva.charl.words.service.table;
+
+import com.anva.charl.words.service.tokenizer.TokenSink;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Word to count table specialized for frequency counting.
+ *
+ * Words are stored back to back in a single char arena and every distinct word is an
+ * entry id with its offset, length, hash and count in parallel int arrays. Lookups go
+ * through an open addressing (linear probing) slot array of entry ids, so a word can be
+ * counted straight from a tokenizer buffer without creating a String, counts are never
+ * boxed and there is no node object per entry.
+ *
+ * Entry ids are assigned in order of first appearance and stay stable, which lets
+ * ranking code work on ids and only create Strings for the words it returns.
+ *
+ * Not thread-safe, tables of parallel segments are combined with {@link #merge(FrequencyTable)}.
+ */
+public class FrequencyTable implements TokenSink, WordTable {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_PRESIZED_ENTRIES = 1 << 20;
+
+    private char[] arena;
+    private int arenaSize;
+
+    private int[] offsets;
+    private int[] lengths;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private long total;
+
+    // entry id + 1 per slot, 0 marks an empty slot
+    private int[] slots;
+    private int mask;
+
+    public FrequencyTable() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedWords Number of distinct words to size the table for
+     */
+    public FrequencyTable(int expectedWords) {
+        int entries = Math.max(MIN_CAPACITY, expectedWords);
+        int slotCount = Integer.highestOneBit(entries * 2 - 1) << 1;
+        this.slots = new int[slotCount];
+        this.mask = slotCount - 1;
+        this.offsets = new int[entries];
+        this.lengths = new int[entries];
+        this.hashes = new int[entries];
+        this.counts = new int[entries];
+        this.arena = new char[entries * 8];
+    }
+
+    // copy of the words and counts of another table in arrays without spare capacity
+    private FrequencyTable(FrequencyTable source) {
+        this.arena = Arrays.copyOf(source.arena, source.arenaSize);
+        this.arenaSize = source.arenaSize;
+        this.offsets = Arrays.copyOf(source.offsets, source.size);
+        this.lengths = Arrays.copyOf(source.lengths, source.size);
+        this.hashes = Arrays.copyOf(source.hashes, source.size);
+        this.counts = Arrays.copyOf(source.counts, source.size);
+        this.size = source.size;
+        this.total = source.total;
+        this.slots = slotsFor(Integer.highestOneBit(Math.max(MIN_CAPACITY, size) * 2 - 1) << 1);
+        this.mask = slots.length - 1;
+    }
+
+    /**
+     * Sizes a table for a text, so that it rarely has to grow while the text is counted.
+     * The distinct words are estimated with Heaps' law: their number grows with the square root
+     * of the number of words, which take about six characters each including the separator.
+     *
+     * @param textLength Number of characters of the text
+     * @return An empty table
+     */
+    public static FrequencyTable forText(long textLength) {
+        long words = textLength / 6;
+        return new FrequencyTable((int) Math.min(words, 20 * Math.sqrt(words)));
+    }
+
+    /**
+     * Copies the table into arrays sized to its words, keeping the entry ids. A table that is
+     * kept after counting takes no more memory than its words need, while the table it was
+     * counted in is cleared and reused.
+     *
+     * @return A copy of the table
+     */
+    public FrequencyTable compactCopy() {
+        return new FrequencyTable(this);
+    }
+
+    /**
+     * Removes all words but keeps the arrays at their size, so the table counts the next text without allocating.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+        total = 0;
+        arenaSize = 0;
+    }
+
+    @Override
+    public void accept(char[] buffer, int length) {
+        add(buffer, 0, length, 1);
+    }
+
+    /**
+     * Adds to the count of a word, inserting it if it is not in the table yet.
+     *
+     * @param chars Array holding the word
+     * @param offset Start of the word in the array
+     * @param length Length of the word
+     * @param delta The amount to add to the count
+     * @return The entry id of the word
+     */
+    public int add(char[] chars, int offset, int length, int delta) {
+        total += delta;
+        int hash = hash(chars, offset, length);
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) break;
+            if (hashes[entry] == hash && equals(entry, chars, offset, length)) {
+                counts[entry] += delta;
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int entry = insert(chars, offset, length, hash, delta);
+        slots[slot] = entry + 1;
+        if (size * 2 > slots.length) resize();
+        return entry;
+    }
+
+    /**
+     * Increments the count of an existing entry.
+     *
+     * @param entry The entry id
+     */
+    public void increment(int entry) {
+        counts[entry]++;
+        total++;
+    }
+
+    /**
+     * Decrements the count of an existing entry, the entry stays in the table at a count of 0.
+     *
+     * @param entry The entry id
+     */
+    public void decrement(int entry) {
+        counts[entry]--;
+        total--;
+    }
+
+    /**
+     * Looks up the count of a word.
+     *
+     * @param chars Array holding the word
+     * @param offset Start of the word in the array
+     * @param length Length of the word
+     * @return The count of the word, or 0 if it is not in the table
+     */
+    public int get(char[] chars, int offset, int length) {
+        int entry = find(chars, offset, length);
+        return entry < 0 ? 0 : counts[entry];
+    }
+
+    /**
+     * Looks up the count of an already case folded word.
+     *
+     * @param word The word to look up
+     * @return The count of the word, or 0 if it is not in the table
+     */
+    public int get(String word) {
+        char[] chars = word.toCharArray();
+        return get(chars, 0, chars.length);
+    }
+
+    /**
+     * Finds the entry id of a word.
+     *
+     * @param chars Array holding the word
+     * @param offset Start of the word in the array
+     * @param length Length of the word
+     * @return The entry id, or -1 if the word is not in the table
+     */
+    public int find(char[] chars, int offset, int length) {
+        int hash = hash(chars, offset, length);
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) return -1;
+            if (hashes[entry] == hash && equals(entry, chars, offset, length)) return entry;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds all counts of another table to this one.
+     *
+     * @param other The table to merge
+     */
+    public void merge(FrequencyTable other) {
+        for (int entry = 0; entry < other.size; entry++) {
+            add(other.arena, other.offsets[entry], other.lengths[entry], other.counts[entry]);
+        }
+    }
+
+    /**
+     * Adds every word of another table once, whatever its count there, which counts the
+     * documents a word occurs in when every document is a table of its own.
+     *
+     * @param other The table whose words are added
+     * @return The entry id in this table of every entry of the other table, indexed by its entry id there
+     */
+    public int[] addWordsOf(FrequencyTable other) {
+        int[] entries = new int[other.size];
+        for (int entry = 0; entry < other.size; entry++) {
+            entries[entry] = add(other.arena, other.offsets[entry], other.lengths[entry], 1);
+        }
+        return entries;
+    }
+
+    /**
+     * @return The number of distinct words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The sum of all counts, the number of words counted
+     */
+    public long totalCount() {
+        return total;
+    }
+
+    /**
+     * @param entry The entry id
+     * @return The count of the entry
+     */
+    public int count(int entry) {
+        return counts[entry];
+    }
+
+    /**
+     * @param entry The entry id
+     * @return The word of the entry as a new String
+     */
+    public String word(int entry) {
+        return new String(arena, offsets[entry], lengths[entry]);
+    }
+
+    /**
+     * @return The highest count of any word, or 0 if the table is empty
+     */
+    public int maxCount() {
+        int max = 0;
+        for (int entry = 0; entry < size; entry++) max = Math.max(max, counts[entry]);
+        return max;
+    }
+
+    /**
+     * Compares the words of two entries the same way as {@link String#compareTo(String)}.
+     *
+     * @param a The first entry id
+     * @param b The second entry id
+     * @return Negative, zero or positive like a comparator
+     */
+    public int compareWords(int a, int b) {
+        return Arrays.compare(arena, offsets[a], offsets[a] + lengths[a],
+                arena, offsets[b], offsets[b] + lengths[b]);
+    }
+
+    /**
+     * @return Approximate number of bytes held by the table
+     */
+    public long estimatedBytes() {
+        return (long) arena.length * Character.BYTES
+                + (long) offsets.length * 4 * Integer.BYTES
+                + (long) slots.length * Integer.BYTES;
+    }
+
+    /**
+     * Writes the table in a compact binary form: the number of entries, then the
+     * length, count and characters of every entry in entry id order.
+     *
+     * @param out The destination
+     * @throws IOException If writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int entry = 0; entry < size; entry++) {
+            out.writeInt(lengths[entry]);
+            out.writeInt(counts[entry]);
+            for (int i = offsets[entry]; i < offsets[entry] + lengths[entry]; i++) out.writeChar(arena[i]);
+        }
+    }
+
+    /**
+     * Reads a table written by {@link #writeTo(DataOutput)}, keeping the entry ids.
+     * Sizes and buffers only grow as far as the data actually read, so a corrupt
+     * header ends in an exception instead of a huge allocation.
+     *
+     * @param in The source
+     * @return The table
+     * @throws IOException If reading fails or the data is not a valid table
+     */
+    public static FrequencyTable readFrom(DataInput in) throws IOException {
+        int entries = in.readInt();
+        if (entries < 0) throw new IOException("Corrupt frequency table");
+        FrequencyTable table = new FrequencyTable(Math.min(entries, MAX_PRESIZED_ENTRIES));
+        char[] word = new char[32];
+        for (int entry = 0; entry < entries; entry++) {
+            int length = in.readInt();
+            int count = in.readInt();
+            if (length < 0 || count < 0) throw new IOException("Corrupt frequency table");
+            for (int i = 0; i < length; i++) {
+                if (i == word.length) word = Arrays.copyOf(word, (int) Math.min((long) word.length * 2, length));
+                word[i] = in.readChar();
+            }
+            if (table.add(word, 0, length, count) != entry) throw new IOException("Corrupt frequency table");
+        }
+        return table;
+    }
+
+    private int insert(char[] chars, int offset, int length, int hash, int count) {
+        if (size == counts.length) {
+            int capacity = Math.max(MIN_CAPACITY, size * 2);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+        }
+        System.arraycopy(chars, offset, arena, arenaSize, length);
+
+        int entry = size++;
+        offsets[entry] = arenaSize;
+        lengths[entry] = length;
+        hashes[entry] = hash;
+        counts[entry] = count;
+        arenaSize += length;
+        return entry;
+    }
+
+    private void resize() {
+        slots = slotsFor(slots.length * 2);
+        mask = slots.length - 1;
+    }
+
+    // a slot array of the given power of two length holding all entries
+    private int[] slotsFor(int slotCount) {
+        int[] filled = new int[slotCount];
+        int filledMask = slotCount - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hashes[entry] & filledMask;
+            while (filled[slot] != 0) slot = (slot + 1) & filledMask;
+            filled[slot] = entry + 1;
+        }
+        return filled;
+    }
+
+    private boolean equals(int entry, char[] chars, int offset, int length) {
+        return lengths[entry] == length
+                && Arrays.equals(arena, offsets[entry], offsets[entry] + length, chars, offset, offset + length);
+    }
+
+    // String.hashCode over the characters, mixed so linear probing works on the low bits
+    private static int hash(char[] chars, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) h = 31 * h + chars[i];
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
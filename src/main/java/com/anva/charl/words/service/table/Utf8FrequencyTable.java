@@ -0,0 +1,241 @@
+package com.anva.charl.words.service.table;
+
+import com.anva.charl.words.service.tokenizer.ByteTokenSink;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Variant of {@link FrequencyTable} for words in UTF-8, as found by the
+ * {@link com.anva.charl.words.service.tokenizer.Utf8WordTokenizer}.
+ *
+ * Words are stored back to back in a single byte arena, which for mostly ASCII text
+ * takes half the memory of a char arena, and are counted straight from the tokenizer
+ * buffer. Strings are only created for the words that are returned.
+ *
+ * Not thread-safe, tables of parallel regions are combined with {@link #merge(Utf8FrequencyTable)}.
+ */
+public class Utf8FrequencyTable implements ByteTokenSink, WordTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private byte[] arena;
+    private int arenaSize;
+
+    private int[] offsets;
+    private int[] lengths;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private long total;
+
+    // entry id + 1 per slot, 0 marks an empty slot
+    private int[] slots;
+    private int mask;
+
+    public Utf8FrequencyTable() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedWords Number of distinct words to size the table for
+     */
+    public Utf8FrequencyTable(int expectedWords) {
+        int entries = Math.max(MIN_CAPACITY, expectedWords);
+        int slotCount = Integer.highestOneBit(entries * 2 - 1) << 1;
+        this.slots = new int[slotCount];
+        this.mask = slotCount - 1;
+        this.offsets = new int[entries];
+        this.lengths = new int[entries];
+        this.hashes = new int[entries];
+        this.counts = new int[entries];
+        this.arena = new byte[entries * 8];
+    }
+
+    /**
+     * Removes all words but keeps the arrays at their size, so the table counts the next text without allocating.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+        total = 0;
+        arenaSize = 0;
+    }
+
+    @Override
+    public void accept(byte[] buffer, int length) {
+        add(buffer, 0, length, 1);
+    }
+
+    /**
+     * Adds to the count of a word, inserting it if it is not in the table yet.
+     *
+     * @param bytes Array holding the UTF-8 word
+     * @param offset Start of the word in the array
+     * @param length Length of the word in bytes
+     * @param delta The amount to add to the count
+     * @return The entry id of the word
+     */
+    public int add(byte[] bytes, int offset, int length, int delta) {
+        total += delta;
+        int hash = hash(bytes, offset, length);
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) break;
+            if (hashes[entry] == hash && equals(entry, bytes, offset, length)) {
+                counts[entry] += delta;
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int entry = insert(bytes, offset, length, hash, delta);
+        slots[slot] = entry + 1;
+        if (size * 2 > slots.length) resize();
+        return entry;
+    }
+
+    /**
+     * Finds the entry of a word.
+     *
+     * @param bytes Array holding the UTF-8 word
+     * @param offset Start of the word in the array
+     * @param length Length of the word in bytes
+     * @return The entry id, or -1 if the word is not in the table
+     */
+    public int find(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int slot = hash & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) return -1;
+            if (hashes[entry] == hash && equals(entry, bytes, offset, length)) return entry;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public int get(String word) {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        int entry = find(bytes, 0, bytes.length);
+        return entry < 0 ? 0 : counts[entry];
+    }
+
+    /**
+     * Adds all counts of another table to this one.
+     *
+     * @param other The table to merge
+     */
+    public void merge(Utf8FrequencyTable other) {
+        for (int entry = 0; entry < other.size; entry++) {
+            add(other.arena, other.offsets[entry], other.lengths[entry], other.counts[entry]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int count(int entry) {
+        return counts[entry];
+    }
+
+    @Override
+    public String word(int entry) {
+        return new String(arena, offsets[entry], lengths[entry], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int maxCount() {
+        int max = 0;
+        for (int entry = 0; entry < size; entry++) max = Math.max(max, counts[entry]);
+        return max;
+    }
+
+    @Override
+    public long totalCount() {
+        return total;
+    }
+
+    /**
+     * Byte order of UTF-8 is code point order. It only differs from the UTF-16 order of
+     * {@link String#compareTo(String)} where a supplementary character, stored as surrogates
+     * in UTF-16, meets a character from U+E000 to U+FFFF, whose lead bytes are 0xEE and 0xEF.
+     */
+    @Override
+    public int compareWords(int a, int b) {
+        int offsetA = offsets[a];
+        int offsetB = offsets[b];
+        int mismatch = Arrays.mismatch(arena, offsetA, offsetA + lengths[a], arena, offsetB, offsetB + lengths[b]);
+        if (mismatch < 0) return 0;
+        if (mismatch == lengths[a] || mismatch == lengths[b]) return lengths[a] - lengths[b];
+
+        int byteA = arena[offsetA + mismatch] & 0xFF;
+        int byteB = arena[offsetB + mismatch] & 0xFF;
+        if (byteA >= 0xF0 && byteB >= 0xEE && byteB < 0xF0) return -1;
+        if (byteB >= 0xF0 && byteA >= 0xEE && byteA < 0xF0) return 1;
+        return byteA - byteB;
+    }
+
+    /**
+     * @return Approximate number of bytes held by the table
+     */
+    public long estimatedBytes() {
+        return arena.length
+                + (long) offsets.length * 4 * Integer.BYTES
+                + (long) slots.length * Integer.BYTES;
+    }
+
+    private int insert(byte[] bytes, int offset, int length, int hash, int count) {
+        if (size == counts.length) {
+            int capacity = size * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+        }
+        System.arraycopy(bytes, offset, arena, arenaSize, length);
+
+        int entry = size++;
+        offsets[entry] = arenaSize;
+        lengths[entry] = length;
+        hashes[entry] = hash;
+        counts[entry] = count;
+        arenaSize += length;
+        return entry;
+    }
+
+    private void resize() {
+        int[] grown = new int[slots.length * 2];
+        int grownMask = grown.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hashes[entry] & grownMask;
+            while (grown[slot] != 0) slot = (slot + 1) & grownMask;
+            grown[slot] = entry + 1;
+        }
+        slots = grown;
+        mask = grownMask;
+    }
+
+    private boolean equals(int entry, byte[] bytes, int offset, int length) {
+        return lengths[entry] == length
+                && Arrays.equals(arena, offsets[entry], offsets[entry] + length, bytes, offset, offset + length);
+    }
+
+    // Polynomial hash over the bytes, mixed so linear probing works on the low bits
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) h = 31 * h + bytes[i];
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,58 @@
+package com.anva.charl.words.service.table;
+
+/**
+ * Read access to the words and counts of a frequency table by entry id,
+ * shared by the tables for UTF-16 and for UTF-8 text so ranking works on both.
+ * Entry ids run from 0 to {@link #size()} - 1.
+ */
+public interface WordTable {
+
+    /**
+     * @return The number of distinct words
+     */
+    int size();
+
+    /**
+     * @param entry The entry id
+     * @return The count of the entry
+     */
+    int count(int entry);
+
+    /**
+     * @param entry The entry id
+     * @return The word of the entry as a new String
+     */
+    String word(int entry);
+
+    /**
+     * Looks up the count of a case-folded word.
+     *
+     * @param word The word to look up
+     * @return The count of the word, or 0 if it is not in the table
+     */
+    int get(String word);
+
+    /**
+     * @return The highest count of any word, or 0 if the table is empty
+     */
+    int maxCount();
+
+    /**
+     * @return The sum of all counts, the number of words counted
+     */
+    long totalCount();
+
+    /**
+     * Compares the words of two entries the same way as {@link String#compareTo(String)}.
+     *
+     * @param a The first entry id
+     * @param b The second entry id
+     * @return Negative, zero or positive like a comparator
+     */
+    int compareWords(int a, int b);
+
+    /**
+     * @return Approximate number of bytes held by the table
+     */
+    long estimatedBytes();
+}
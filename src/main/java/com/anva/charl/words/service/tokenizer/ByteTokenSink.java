@@ -0,0 +1,16 @@
+package com.anva.charl.words.service.tokenizer;
+
+/**
+ * Receiver of the case-folded words of a UTF-8 tokenizer.
+ * The buffer holds the UTF-8 bytes of the word and is reused for the next word,
+ * so implementations must copy what they want to keep.
+ */
+@FunctionalInterface
+public interface ByteTokenSink {
+
+    /**
+     * @param buffer Array holding the word at its start
+     * @param length Length of the word in bytes
+     */
+    void accept(byte[] buffer, int length);
+}
@@ -0,0 +1,171 @@
+package com.anva.charl.words.service.tokenizer;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Single pass tokenizer that walks the text code point by code point.
+ * Case folding happens per code point while scanning, so no lowercased copy of
+ * the text is made and no String is created per word. ASCII is handled through
+ * a lookup table, everything else through {@link Character#getType(int)}.
+ *
+ * The output is identical to {@link RegexWordTokenizer}, including the two places where
+ * {@code String.toLowerCase(Locale.ROOT)} differs from {@link Character#toLowerCase(int)}:
+ * - U+0130 (capital I with dot) becomes "i" followed by a combining dot, which ends the word
+ * - U+03A3 (capital sigma) becomes a final sigma depending on its surrounding word
+ *
+ * The sigma rule depends on the JDK word break rules, so texts containing a capital sigma
+ * get one lowercased copy made on first sight to resolve them exactly.
+ */
+public class CodePointWordTokenizer implements WordTokenizer {
+
+    private static final int WORD_TYPES = (1 << Character.UPPERCASE_LETTER)
+            | (1 << Character.LOWERCASE_LETTER)
+            | (1 << Character.TITLECASE_LETTER)
+            | (1 << Character.MODIFIER_LETTER)
+            | (1 << Character.OTHER_LETTER)
+            | (1 << Character.DECIMAL_DIGIT_NUMBER)
+            | (1 << Character.LETTER_NUMBER)
+            | (1 << Character.OTHER_NUMBER);
+
+    private static final char CAPITAL_I_WITH_DOT = '\u0130';
+    private static final char CAPITAL_SIGMA = '\u03A3';
+
+    // Folded ASCII character, or 0 for ASCII characters that are not part of a word
+    private static final char[] ASCII_FOLD = new char[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) ASCII_FOLD[c] = c;
+        for (char c = 'a'; c <= 'z'; c++) ASCII_FOLD[c] = c;
+        for (char c = 'A'; c <= 'Z'; c++) ASCII_FOLD[c] = (char) (c | 0x20);
+    }
+
+    /**
+     * Folds an ASCII character.
+     *
+     * @param c The ASCII character
+     * @return The lowercase character, or 0 if it is not part of a word
+     */
+    static char foldAscii(char c) {
+        return ASCII_FOLD[c];
+    }
+
+    /**
+     * Returns true if the (already folded) code point belongs to {@code [\p{L}\p{N}]}.
+     *
+     * @param codePoint The code point to classify
+     * @return Whether the code point is a letter or a number
+     */
+    public static boolean isWordCodePoint(int codePoint) {
+        if (codePoint < 128) return ASCII_FOLD[codePoint] != 0;
+        return ((1 << Character.getType(codePoint)) & WORD_TYPES) != 0;
+    }
+
+    /**
+     * Returns true if a text can safely be split in front of the given character:
+     * it is never part of a word, neither by itself nor after case folding.
+     *
+     * @param c The character to check
+     * @return Whether the character separates words
+     */
+    public static boolean isSeparator(char c) {
+        if (c < 128) return ASCII_FOLD[c] == 0;
+        return !Character.isSurrogate(c)
+                && !isWordCodePoint(c)
+                && !isWordCodePoint(Character.toLowerCase(c));
+    }
+
+    @Override
+    public void tokenize(CharSequence text, TokenSink sink) {
+        tokenize(text, 0, text.length(), sink);
+    }
+
+    @Override
+    public void tokenize(CharSequence text, int start, int end, TokenSink sink) {
+        tokenize(text, start, end, sink, null);
+    }
+
+    /**
+     * Tokenizes the given text and hands every word to the sink together with its offsets in the text,
+     * in the same pass as the words are found.
+     *
+     * @param text The input text to tokenize
+     * @param sink Receiver of the case-folded words and their offsets
+     */
+    public void tokenizeWithOffsets(CharSequence text, OffsetTokenSink sink) {
+        tokenize(text, 0, text.length(), null, sink);
+    }
+
+    // exactly one of the sinks is given, the offsets of a word are only tracked for the offset sink
+    private void tokenize(CharSequence text, int start, int end, TokenSink sink, OffsetTokenSink offsetSink) {
+        char[] buffer = new char[32];
+        int length = 0;
+        int wordStart = start;
+
+        // only needed to resolve capital sigma, see foldSigma
+        String lowercased = null;
+        int dottedCapitalIs = 0;
+
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+
+            if (c < 128) {
+                char folded = ASCII_FOLD[c];
+                if (folded != 0) {
+                    if (length == 0) wordStart = i;
+                    if (length == buffer.length) buffer = Arrays.copyOf(buffer, length * 2);
+                    buffer[length++] = folded;
+                } else if (length > 0) {
+                    emit(buffer, length, wordStart, i, sink, offsetSink);
+                    length = 0;
+                }
+                i++;
+                continue;
+            }
+
+            int codePoint = Character.codePointAt(text, i);
+            int charCount = Character.charCount(codePoint);
+            boolean endsWord = false;
+
+            if (c == CAPITAL_I_WITH_DOT) {
+                // lowercases to "i" + U+0307, and the combining dot is not a letter
+                codePoint = 'i';
+                endsWord = true;
+                dottedCapitalIs++;
+            } else if (c == CAPITAL_SIGMA) {
+                if (lowercased == null) lowercased = text.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+                // U+0130 is the only character whose lowercase form is longer than itself
+                codePoint = lowercased.charAt(i - start + dottedCapitalIs);
+            } else {
+                codePoint = Character.toLowerCase(codePoint);
+            }
+
+            boolean inWord = isWordCodePoint(codePoint);
+            if (inWord) {
+                if (length == 0) wordStart = i;
+                if (length + 2 > buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                length += Character.toChars(codePoint, buffer, length);
+            } else {
+                endsWord = true;
+            }
+
+            if (endsWord && length > 0) {
+                // a capital I with dot ends the word it belongs to
+                emit(buffer, length, wordStart, inWord ? i + charCount : i, sink, offsetSink);
+                length = 0;
+            }
+            i += charCount;
+        }
+
+        if (length > 0) emit(buffer, length, wordStart, end, sink, offsetSink);
+    }
+
+    private static void emit(char[] buffer, int length, int start, int end, TokenSink sink, OffsetTokenSink offsetSink) {
+        if (offsetSink != null) {
+            offsetSink.accept(buffer, length, start, end);
+        } else {
+            sink.accept(buffer, length);
+        }
+    }
+}
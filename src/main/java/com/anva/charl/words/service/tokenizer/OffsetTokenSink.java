@@ -0,0 +1,19 @@
+package com.anva.charl.words.service.tokenizer;
+
+/**
+ * Receives the words found by a {@link CodePointWordTokenizer} together with where they are in the text.
+ * Like with a {@link TokenSink}, the buffer is owned by the tokenizer and reused for the next token.
+ */
+@FunctionalInterface
+public interface OffsetTokenSink {
+
+    /**
+     * Called once for every word in the text, in order of appearance.
+     *
+     * @param buffer The already case-folded characters of the word
+     * @param length The number of valid characters in the buffer
+     * @param start Index in the text of the first character of the word
+     * @param end Index in the text after the last character of the word
+     */
+    void accept(char[] buffer, int length, int start, int end);
+}
@@ -0,0 +1,23 @@
+package com.anva.charl.words.service.tokenizer;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reference tokenizer using the original lowercase + regex approach.
+ * Kept as the specification the faster tokenizers are verified against.
+ */
+public class RegexWordTokenizer implements WordTokenizer {
+
+    // Keep Unicode letters and numbers, removing all other characters
+    private static final Pattern WORD_PATTERN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    @Override
+    public void tokenize(CharSequence text, TokenSink sink) {
+        var matcher = WORD_PATTERN.matcher(text.toString().toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            char[] word = matcher.group().toCharArray();
+            sink.accept(word, word.length);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.anva.charl.words.service.tokenizer;
+
+import java.util.Arrays;
+
+/**
+ * Incremental version of {@link CodePointWordTokenizer} for text that arrives in chunks.
+ * Words and surrogate pairs may be split across chunks, the partial word is carried over
+ * to the next chunk, so memory use is bounded by the longest word.
+ *
+ * Since the whole text is never available, a capital sigma is resolved with the Unicode
+ * Final_Sigma condition within its word: it becomes a final sigma when preceded by a cased
+ * letter and not followed by one. This matches {@code String.toLowerCase(Locale.ROOT)} for
+ * regular Greek text.
+ *
+ * Not thread-safe, one instance is used per stream.
+ */
+public class StreamingWordTokenizer {
+
+    private static final char CAPITAL_I_WITH_DOT = '\u0130';
+    private static final char CAPITAL_SIGMA = '\u03A3';
+    private static final char FINAL_SIGMA = '\u03C2';
+
+    private final TokenSink sink;
+
+    private char[] buffer = new char[32];
+    private int length;
+    private char pendingHighSurrogate;
+    // position of a small sigma in the buffer that may still have to become a final sigma
+    private int openSigma = -1;
+    private boolean previousCased;
+
+    /**
+     * @param sink Receiver of the case-folded words
+     */
+    public StreamingWordTokenizer(TokenSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Tokenizes the next chunk of text.
+     *
+     * @param chars The chunk
+     * @param offset Start of the chunk in the array
+     * @param count Number of characters in the chunk
+     */
+    public void feed(char[] chars, int offset, int count) {
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+
+            if (c < 128) {
+                if (pendingHighSurrogate != 0) {
+                    codePoint(pendingHighSurrogate);
+                    pendingHighSurrogate = 0;
+                }
+                char folded = CodePointWordTokenizer.foldAscii(c);
+                if (folded != 0) {
+                    resolveSigma(Character.isLetter(folded));
+                    append(folded);
+                    previousCased = folded > '9';
+                } else {
+                    endWord();
+                }
+                continue;
+            }
+
+            if (pendingHighSurrogate != 0) {
+                char high = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    codePoint(Character.toCodePoint(high, c));
+                    continue;
+                }
+                codePoint(high);
+            }
+            if (Character.isHighSurrogate(c)) {
+                pendingHighSurrogate = c;
+            } else {
+                codePoint(c);
+            }
+        }
+    }
+
+    /**
+     * Signals the end of the text, flushing the last word.
+     */
+    public void finish() {
+        if (pendingHighSurrogate != 0) {
+            codePoint(pendingHighSurrogate);
+            pendingHighSurrogate = 0;
+        }
+        endWord();
+    }
+
+    private void codePoint(int codePoint) {
+        if (codePoint == CAPITAL_I_WITH_DOT) {
+            // lowercases to "i" + U+0307, and the combining dot is not a letter
+            resolveSigma(true);
+            append('i');
+            endWord();
+            return;
+        }
+
+        boolean cased = isCased(codePoint);
+        int folded = Character.toLowerCase(codePoint);
+        if (!CodePointWordTokenizer.isWordCodePoint(folded)) {
+            endWord();
+            return;
+        }
+
+        resolveSigma(cased);
+        if (codePoint == CAPITAL_SIGMA && previousCased && length > 0) {
+            openSigma = length;
+        }
+        if (length + 2 > buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        length += Character.toChars(folded, buffer, length);
+        previousCased = cased;
+    }
+
+    private void append(char c) {
+        if (length == buffer.length) buffer = Arrays.copyOf(buffer, length * 2);
+        buffer[length++] = c;
+    }
+
+    // An open sigma stays small when a cased letter follows, and becomes final otherwise
+    private void resolveSigma(boolean nextCased) {
+        if (openSigma < 0) return;
+        if (!nextCased) buffer[openSigma] = FINAL_SIGMA;
+        openSigma = -1;
+    }
+
+    private void endWord() {
+        resolveSigma(false);
+        previousCased = false;
+        if (length > 0) {
+            sink.accept(buffer, length);
+            length = 0;
+        }
+    }
+
+    private static boolean isCased(int codePoint) {
+        return Character.isUpperCase(codePoint) || Character.isLowerCase(codePoint) || Character.isTitleCase(codePoint);
+    }
+}
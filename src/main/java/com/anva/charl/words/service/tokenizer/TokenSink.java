@@ -0,0 +1,18 @@
+package com.anva.charl.words.service.tokenizer;
+
+/**
+ * Receives the words found by a {@link WordTokenizer}.
+ * The buffer is owned by the tokenizer and is reused for the next token,
+ * so implementations must copy the characters if they need to keep them.
+ */
+@FunctionalInterface
+public interface TokenSink {
+
+    /**
+     * Called once for every word in the text, in order of appearance.
+     *
+     * @param buffer The already case-folded characters of the word
+     * @param length The number of valid characters in the buffer
+     */
+    void accept(char[] buffer, int length);
+}
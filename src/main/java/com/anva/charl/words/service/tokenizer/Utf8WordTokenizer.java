@@ -0,0 +1,251 @@
+package com.anva.charl.words.service.tokenizer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Tokenizer that works directly on UTF-8 bytes, without decoding the text to UTF-16.
+ * The words are case-folded while scanning and handed to the sink as UTF-8 bytes.
+ *
+ * ASCII bytes go through a single table lookup. Multi-byte sequences are decoded to a
+ * code point and, inside the Basic Multilingual Plane, classified and lowercased through
+ * tables computed once from {@link Character}. Malformed sequences separate words, just
+ * like the replacement character a decoder would produce for them.
+ *
+ * Text may arrive in chunks, sequences and words split across chunks are carried over.
+ * The output is the UTF-8 form of the words of {@link StreamingWordTokenizer}, including
+ * its handling of capital sigma.
+ *
+ * Not thread-safe, one instance is used per text.
+ */
+public class Utf8WordTokenizer {
+
+    private static final int CAPITAL_I_WITH_DOT = 0x0130;
+    private static final int CAPITAL_SIGMA = 0x03A3;
+    // second byte of the UTF-8 form of the final sigma U+03C2
+    private static final byte FINAL_SIGMA_LOW_BYTE = (byte) 0x82;
+
+    // Folded ASCII byte, or 0 for ASCII bytes that are not part of a word
+    private static final byte[] ASCII_FOLD = new byte[128];
+
+    private static final byte WORD = 1;
+    private static final byte CASED = 2;
+    // Lowercase form and WORD/CASED flags of every BMP code point
+    private static final char[] BMP_LOWER = new char[1 << 16];
+    private static final byte[] BMP_CLASS = new byte[1 << 16];
+
+    static {
+        for (char c = 0; c < 128; c++) ASCII_FOLD[c] = (byte) CodePointWordTokenizer.foldAscii(c);
+        for (int codePoint = 0; codePoint < BMP_LOWER.length; codePoint++) {
+            int folded = Character.toLowerCase(codePoint);
+            BMP_LOWER[codePoint] = (char) folded;
+            byte flags = 0;
+            if (!Character.isSurrogate((char) codePoint) && CodePointWordTokenizer.isWordCodePoint(folded)) flags |= WORD;
+            if (isCased(codePoint)) flags |= CASED;
+            BMP_CLASS[codePoint] = flags;
+        }
+    }
+
+    private final ByteTokenSink sink;
+
+    private byte[] buffer = new byte[64];
+    private int length;
+
+    // the multi-byte sequence being decoded
+    private int pending;
+    private int needed;
+    private int minimum;
+
+    // position of a small sigma in the buffer that may still have to become a final sigma
+    private int openSigma = -1;
+    private boolean previousCased;
+
+    /**
+     * @param sink Receiver of the case-folded words
+     */
+    public Utf8WordTokenizer(ByteTokenSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Tokenizes the next chunk of text.
+     *
+     * @param bytes The chunk
+     * @param offset Start of the chunk in the array
+     * @param count Number of bytes in the chunk
+     */
+    public void feed(byte[] bytes, int offset, int count) {
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            byte b = bytes[i];
+            if (b >= 0 && needed == 0) {
+                ascii(b);
+            } else {
+                multiByte(b);
+            }
+        }
+    }
+
+    /**
+     * Tokenizes the remaining bytes of a buffer, which may be a memory-mapped file.
+     * The position of the buffer is moved to its limit.
+     *
+     * @param bytes The chunk
+     */
+    public void feed(ByteBuffer bytes) {
+        int end = bytes.limit();
+        for (int i = bytes.position(); i < end; i++) {
+            byte b = bytes.get(i);
+            if (b >= 0 && needed == 0) {
+                ascii(b);
+            } else {
+                multiByte(b);
+            }
+        }
+        bytes.position(end);
+    }
+
+    /**
+     * Signals the end of the text, flushing the last word.
+     * A sequence cut off at the end is malformed and ignored.
+     */
+    public void finish() {
+        needed = 0;
+        endWord();
+    }
+
+    private void ascii(byte b) {
+        byte folded = ASCII_FOLD[b];
+        if (folded != 0) {
+            boolean letter = folded > '9';
+            resolveSigma(letter);
+            if (length == buffer.length) buffer = Arrays.copyOf(buffer, length * 2);
+            buffer[length++] = folded;
+            previousCased = letter;
+        } else {
+            endWord();
+        }
+    }
+
+    private void multiByte(byte b) {
+        if (needed > 0) {
+            if ((b & 0xC0) == 0x80) {
+                pending = (pending << 6) | (b & 0x3F);
+                if (--needed == 0) decoded();
+                return;
+            }
+            // the sequence is cut short, the byte starts something new
+            needed = 0;
+            endWord();
+            if (b >= 0) {
+                ascii(b);
+                return;
+            }
+        }
+
+        int lead = b & 0xFF;
+        if (lead >= 0xC0 && lead < 0xE0) {
+            pending = lead & 0x1F;
+            needed = 1;
+            minimum = 0x80;
+        } else if (lead >= 0xE0 && lead < 0xF0) {
+            pending = lead & 0x0F;
+            needed = 2;
+            minimum = 0x800;
+        } else if (lead >= 0xF0 && lead < 0xF8) {
+            pending = lead & 0x07;
+            needed = 3;
+            minimum = 0x10000;
+        } else {
+            // a continuation byte without a lead, or a byte that never occurs in UTF-8
+            endWord();
+        }
+    }
+
+    private void decoded() {
+        int codePoint = pending;
+        // overlong forms, surrogates and values beyond Unicode are malformed
+        if (codePoint < minimum || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            endWord();
+            return;
+        }
+        codePoint(codePoint);
+    }
+
+    private void codePoint(int codePoint) {
+        if (codePoint == CAPITAL_I_WITH_DOT) {
+            // lowercases to "i" + U+0307, and the combining dot is not a letter
+            resolveSigma(true);
+            if (length == buffer.length) buffer = Arrays.copyOf(buffer, length * 2);
+            buffer[length++] = 'i';
+            endWord();
+            return;
+        }
+
+        boolean cased;
+        boolean word;
+        int folded;
+        if (codePoint < BMP_LOWER.length) {
+            byte flags = BMP_CLASS[codePoint];
+            cased = (flags & CASED) != 0;
+            word = (flags & WORD) != 0;
+            folded = BMP_LOWER[codePoint];
+        } else {
+            cased = isCased(codePoint);
+            folded = Character.toLowerCase(codePoint);
+            word = CodePointWordTokenizer.isWordCodePoint(folded);
+        }
+        if (!word) {
+            endWord();
+            return;
+        }
+
+        resolveSigma(cased);
+        if (codePoint == CAPITAL_SIGMA && previousCased && length > 0) {
+            openSigma = length;
+        }
+        append(folded);
+        previousCased = cased;
+    }
+
+    private void append(int codePoint) {
+        if (length + 4 > buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        if (codePoint < 0x80) {
+            // e.g. the Kelvin sign, which lowercases to an ASCII k
+            buffer[length++] = (byte) codePoint;
+            return;
+        }
+        if (codePoint < 0x800) {
+            buffer[length++] = (byte) (0xC0 | (codePoint >> 6));
+        } else if (codePoint < 0x10000) {
+            buffer[length++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        } else {
+            buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        }
+        buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+    }
+
+    // An open sigma stays small when a cased letter follows, and becomes final otherwise
+    private void resolveSigma(boolean nextCased) {
+        if (openSigma < 0) return;
+        if (!nextCased) buffer[openSigma + 1] = FINAL_SIGMA_LOW_BYTE;
+        openSigma = -1;
+    }
+
+    private void endWord() {
+        resolveSigma(false);
+        previousCased = false;
+        if (length > 0) {
+            sink.accept(buffer, length);
+            length = 0;
+        }
+    }
+
+    private static boolean isCased(int codePoint) {
+        return Character.isUpperCase(codePoint) || Character.isLowerCase(codePoint) || Character.isTitleCase(codePoint);
+    }
+}
@@ -0,0 +1,172 @@
+package com.anva.charl.words.service.tokenizer;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Tokenizer that classifies and folds ASCII text a whole vector of characters at a time
+ * with the incubating Vector API. The text is copied block by block into a char array,
+ * every vector is compared against the letter and digit ranges, uppercase letters are
+ * folded in place, and the word runs are read off the bits of the resulting mask.
+ *
+ * A vector holding any non-ASCII character is handed to a {@link CodePointWordTokenizer},
+ * from the start of the word it interrupts up to the next ASCII separator, so the output
+ * is identical to {@link RegexWordTokenizer}. Texts containing a capital sigma are left to
+ * the scalar tokenizer completely, the sigma rule looks beyond word boundaries.
+ *
+ * Requires {@code --add-modules jdk.incubator.vector}, create it through
+ * {@link WordTokenizers#create(boolean)} to fall back to the scalar tokenizer without it.
+ */
+public class VectorWordTokenizer implements WordTokenizer {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int BLOCK_SIZE = 4 * 1024;
+    private static final char CAPITAL_SIGMA = '\u03A3';
+
+    private final CodePointWordTokenizer scalar = new CodePointWordTokenizer();
+
+    @Override
+    public void tokenize(CharSequence text, TokenSink sink) {
+        tokenize(text, 0, text.length(), sink);
+    }
+
+    @Override
+    public void tokenize(CharSequence text, int start, int end, TokenSink sink) {
+        // indexOf returns at once for Latin-1 strings, which cannot hold a sigma
+        if (!(text instanceof String string) || end - start < LANES || containsSigma(string, start, end)) {
+            scalar.tokenize(text, start, end, sink);
+            return;
+        }
+        new Scan(string, end, sink).run(start);
+    }
+
+    private static boolean containsSigma(String text, int start, int end) {
+        int sigma = text.indexOf(CAPITAL_SIGMA, start);
+        return sigma >= 0 && sigma < end;
+    }
+
+    /**
+     * State of tokenizing one text, the tokenizer itself stays shareable.
+     */
+    private final class Scan {
+
+        private final String text;
+        private final int end;
+        private final TokenSink sink;
+        private final char[] block;
+
+        private char[] word = new char[32];
+        private int length;
+        // text index of the first character of the word in progress
+        private int wordStart;
+        // minimum length handed to the scalar tokenizer, grows while vectors keep holding non-ASCII
+        private int span = LANES;
+
+        Scan(String text, int end, TokenSink sink) {
+            this.text = text;
+            this.end = end;
+            this.sink = sink;
+            this.block = new char[BLOCK_SIZE];
+        }
+
+        void run(int start) {
+            int i = start;
+            while (end - i >= LANES) {
+                int count = Math.min(BLOCK_SIZE, end - i);
+                text.getChars(i, i + count, block, 0);
+
+                int j = 0;
+                while (j + LANES <= count) {
+                    ShortVector chars = ShortVector.fromCharArray(SPECIES, block, j);
+                    if (chars.compare(VectorOperators.UNSIGNED_GT, (short) 127).anyTrue()) {
+                        int resume = delegate(i + j);
+                        j = resume - i;
+                        continue;
+                    }
+                    span = LANES;
+                    words(chars, i, j);
+                    j += LANES;
+                }
+                i += j;
+            }
+            if (i < end) {
+                delegate(i, end);
+            } else {
+                endWord();
+            }
+        }
+
+        private void words(ShortVector chars, int blockStart, int j) {
+            ShortVector lower = chars.or((short) 0x20);
+            VectorMask<Short> letters = lower.compare(VectorOperators.GE, (short) 'a')
+                    .and(lower.compare(VectorOperators.LE, (short) 'z'));
+            VectorMask<Short> digits = chars.compare(VectorOperators.GE, (short) '0')
+                    .and(chars.compare(VectorOperators.LE, (short) '9'));
+            long bits = letters.or(digits).toLong();
+            if (bits == 0) {
+                endWord();
+                return;
+            }
+            chars.blend(lower, letters).intoCharArray(block, j);
+
+            int lane = 0;
+            while (lane < LANES) {
+                long rest = bits >>> lane;
+                if ((rest & 1) == 0) {
+                    endWord();
+                    if (rest == 0) return;
+                    lane += Long.numberOfTrailingZeros(rest);
+                    rest = bits >>> lane;
+                }
+                // a run reaching the last lane continues in the next vector
+                int run = Math.min(Long.numberOfTrailingZeros(~rest), LANES - lane);
+                if (length == 0) wordStart = blockStart + j + lane;
+                append(j + lane, run);
+                lane += run;
+            }
+        }
+
+        /**
+         * Tokenizes from a vector with a non-ASCII character up to an ASCII separator after it
+         * with the scalar tokenizer. Consecutive hand-overs double the span, so text that is
+         * mostly non-ASCII is not reloaded into vectors after every separator.
+         *
+         * @return Text index to continue with the vectors at
+         */
+        private int delegate(int vectorStart) {
+            int position = Math.min(end, vectorStart + span);
+            while (position < end && !isAsciiSeparator(text.charAt(position))) position++;
+            delegate(vectorStart, position);
+            span = Math.min(span * 2, BLOCK_SIZE);
+            return position;
+        }
+
+        private void delegate(int from, int to) {
+            int regionStart = length > 0 ? wordStart : from;
+            length = 0;
+            scalar.tokenize(text, regionStart, to, sink);
+        }
+
+        private void append(int offset, int count) {
+            if (length + count > word.length) word = Arrays.copyOf(word, Math.max(word.length * 2, length + count));
+            System.arraycopy(block, offset, word, length, count);
+            length += count;
+        }
+
+        private void endWord() {
+            if (length > 0) {
+                sink.accept(word, length);
+                length = 0;
+            }
+        }
+    }
+
+    private static boolean isAsciiSeparator(char c) {
+        return c < 128 && CodePointWordTokenizer.foldAscii(c) == 0;
+    }
+}
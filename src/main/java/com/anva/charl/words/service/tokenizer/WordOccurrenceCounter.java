@@ -0,0 +1,105 @@
+package com.anva.charl.words.service.tokenizer;
+
+import java.util.Locale;
+
+/**
+ * Counts the occurrences of a single word without building a frequency map.
+ * The text is scanned once with the same word boundaries and case folding as
+ * {@link CodePointWordTokenizer}, but words are compared to the target while they
+ * are being scanned: as soon as a character differs (usually the first one) or the
+ * word gets longer than the target, the rest of the word is only classified.
+ * Nothing is allocated per word, so "cat" is found in "the cat" but not in "staircase"
+ * at the cost of one table lookup per character.
+ */
+public final class WordOccurrenceCounter {
+
+    private static final char CAPITAL_I_WITH_DOT = '\u0130';
+    private static final char CAPITAL_SIGMA = '\u03A3';
+
+    private WordOccurrenceCounter() {
+    }
+
+    /**
+     * Counts how many times the word occurs in the text.
+     *
+     * @param text The input text to search in
+     * @param word The word to count, folded with {@code toLowerCase(Locale.ROOT)} before the scan
+     * @return The number of occurrences of the word
+     */
+    public static int count(CharSequence text, String word) {
+        char[] target = word.toLowerCase(Locale.ROOT).toCharArray();
+        if (target.length == 0) return 0;
+
+        int textLength = text.length();
+        int occurrences = 0;
+        boolean inWord = false;
+        // number of target characters matched in the current word, or -1 once it can no longer match
+        int matched = 0;
+
+        String lowercased = null;
+        int dottedCapitalIs = 0;
+
+        int i = 0;
+        while (i < textLength) {
+            char c = text.charAt(i);
+            int folded;
+            int charCount = 1;
+            boolean endsWord = false;
+
+            if (c < 128) {
+                folded = CodePointWordTokenizer.foldAscii(c);
+                if (folded == 0) endsWord = true;
+            } else {
+                int codePoint = Character.codePointAt(text, i);
+                charCount = Character.charCount(codePoint);
+                if (c == CAPITAL_I_WITH_DOT) {
+                    // lowercases to "i" + U+0307, and the combining dot is not a letter
+                    folded = 'i';
+                    dottedCapitalIs++;
+                } else if (c == CAPITAL_SIGMA) {
+                    if (lowercased == null) lowercased = text.toString().toLowerCase(Locale.ROOT);
+                    folded = lowercased.charAt(i + dottedCapitalIs);
+                } else {
+                    folded = Character.toLowerCase(codePoint);
+                }
+                if (!CodePointWordTokenizer.isWordCodePoint(folded)) endsWord = true;
+            }
+
+            if (!endsWord) {
+                if (!inWord) {
+                    inWord = true;
+                    matched = 0;
+                }
+                if (matched >= 0) matched = match(target, matched, folded);
+                if (c == CAPITAL_I_WITH_DOT) endsWord = true;
+            }
+
+            if (endsWord && inWord) {
+                if (matched == target.length) occurrences++;
+                inWord = false;
+            }
+            i += charCount;
+        }
+
+        if (inWord && matched == target.length) occurrences++;
+        return occurrences;
+    }
+
+    /**
+     * Compares the next code point of a word against the target.
+     *
+     * @return The new number of matched characters, or -1 on a mismatch
+     */
+    private static int match(char[] target, int matched, int codePoint) {
+        if (Character.isBmpCodePoint(codePoint)) {
+            if (matched < target.length && target[matched] == codePoint) return matched + 1;
+            return -1;
+        }
+        if (matched + 1 < target.length
+                && target[matched] == Character.highSurrogate(codePoint)
+                && target[matched + 1] == Character.lowSurrogate(codePoint)) {
+            return matched + 2;
+        }
+        return -1;
+    }
+}
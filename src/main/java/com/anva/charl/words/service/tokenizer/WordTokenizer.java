@@ -0,0 +1,32 @@
+package com.anva.charl.words.service.tokenizer;
+
+/**
+ * Splits text into lowercase words.
+ * A word is a maximal run of Unicode letters and numbers ({@code [\p{L}\p{N}]+})
+ * of the text after it has been lowercased with {@code Locale.ROOT}.
+ *
+ * Implementations must be stateless so a single instance can be shared between requests.
+ */
+public interface WordTokenizer {
+
+    /**
+     * Tokenizes the given text and hands every word to the sink.
+     *
+     * @param text The input text to tokenize
+     * @param sink Receiver of the case-folded words
+     */
+    void tokenize(CharSequence text, TokenSink sink);
+
+    /**
+     * Tokenizes a region of the given text, used to count segments of a large text in parallel.
+     * The region must start and end on a word boundary, see {@link CodePointWordTokenizer#isSeparator(char)}.
+     *
+     * @param text The input text to tokenize
+     * @param start Index of the first character of the region
+     * @param end Index after the last character of the region
+     * @param sink Receiver of the case-folded words
+     */
+    default void tokenize(CharSequence text, int start, int end, TokenSink sink) {
+        tokenize(text.subSequence(start, end), sink);
+    }
+}
@@ -0,0 +1,44 @@
+package com.anva.charl.words.service.tokenizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the tokenizer of the service.
+ * The {@link VectorWordTokenizer} is only loaded when the incubating Vector API module
+ * has been added to the JVM, otherwise the scalar {@link CodePointWordTokenizer} is used.
+ * It is loaded by name, since it is compiled on its own with the module added, after the rest of the code.
+ */
+public final class WordTokenizers {
+
+    private static final Logger log = LoggerFactory.getLogger(WordTokenizers.class);
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_TOKENIZER = WordTokenizers.class.getPackageName() + ".VectorWordTokenizer";
+
+    private WordTokenizers() {
+    }
+
+    /**
+     * @param vectorized Whether the vectorized tokenizer is requested
+     * @return The vectorized tokenizer if it was requested and can run, the scalar tokenizer otherwise
+     */
+    public static WordTokenizer create(boolean vectorized) {
+        if (!vectorized) return new CodePointWordTokenizer();
+        if (!isVectorApiAvailable()) {
+            log.warn("The vectorized tokenizer needs --add-modules {}, falling back to the scalar tokenizer", VECTOR_MODULE);
+            return new CodePointWordTokenizer();
+        }
+        try {
+            return Class.forName(VECTOR_TOKENIZER).asSubclass(WordTokenizer.class).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the vectorized tokenizer", e);
+        }
+    }
+
+    /**
+     * @return Whether the Vector API module has been added to the JVM
+     */
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
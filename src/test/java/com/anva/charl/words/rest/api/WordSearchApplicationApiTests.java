@@ -1,27 +1,48 @@
 package com.anva.charl.words.rest.api;
 
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.rest.format.WordFrequencyColumnsHttpMessageConverter;
+import com.anva.charl.words.rest.model.BatchTextsRequest;
+import com.anva.charl.words.rest.model.CorpusRequest;
 import com.anva.charl.words.rest.model.HighestFrequencyRequest;
 import com.anva.charl.words.rest.model.HighestFrequencySpecificRequest;
 import com.anva.charl.words.rest.model.MostFrequentWordsRequest;
+import com.anva.charl.words.rest.model.WordPositionsRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_PLAIN;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = {"words.documents.directory=target/test-documents", "words.jobs.directory=target/test-jobs"})
 @EnableAutoConfiguration
 @AutoConfigureMockMvc
 class WordSearchApplicationApiTests {
@@ -60,6 +81,32 @@ class WordSearchApplicationApiTests {
                 .andExpect(jsonPath("amount", equalTo(1)));
     }
 
+    @Test
+    void searchForWordPositionsWithSnippets() throws Exception {
+
+        var request = new WordPositionsRequest("The fox jumps. A FOX; the Fox!", "Fox", 2, 3);
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/positions")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("frequency", equalTo(3)))
+                .andExpect(jsonPath("occurrences", hasSize(2)))
+                .andExpect(jsonPath("occurrences[0].start", equalTo(4)))
+                .andExpect(jsonPath("occurrences[0].end", equalTo(7)))
+                .andExpect(jsonPath("occurrences[0].snippet", equalTo("he fox ju")))
+                .andExpect(jsonPath("occurrences[1].start", equalTo(17)));
+
+        mockMvc.perform(post("/api/words/freq/positions")
+                        .param("word", "the")
+                        .contentType(TEXT_PLAIN)
+                        .content("The fox jumps. A FOX; the Fox!"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("frequency", equalTo(2)))
+                .andExpect(jsonPath("occurrences[1].start", equalTo(22)))
+                .andExpect(jsonPath("occurrences[1].snippet").doesNotExist());
+    }
+
     @Test
     void seachForHighestFrequencyWithoutSpecificWords() throws Exception {
 
@@ -127,6 +174,287 @@ class WordSearchApplicationApiTests {
                 .andExpect(jsonPath("$[4].frequency").value(5));
     }
 
+    @Test
+    void streamMostFrequentWordsFromPlainText() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/page")
+                .param("limit", "2")
+                .contentType(TEXT_PLAIN)
+                .content("The quick brown fox jumps over the lazy dog. The fox sleeps."));
+
+        result.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].word").value("the"))
+                .andExpect(jsonPath("$[0].frequency").value(3))
+                .andExpect(jsonPath("$[1].word").value("fox"))
+                .andExpect(jsonPath("$[1].frequency").value(2));
+    }
+
+    @Test
+    void seachForMostFrequentWordsAsColumns() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/page")
+                .param("limit", "3")
+                .contentType(TEXT_PLAIN)
+                .accept(WordFrequencyColumnsHttpMessageConverter.MEDIA_TYPE)
+                .content("The quick brown fox jumps over the lazy dog. The fox sleeps."));
+
+        result.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(WordFrequencyColumnsHttpMessageConverter.MEDIA_TYPE));
+        DataInputStream columns = new DataInputStream(
+                new ByteArrayInputStream(result.andReturn().getResponse().getContentAsByteArray()));
+        assertThat(columns.readInt()).isEqualTo(0x57464331);
+        assertThat(columns.readInt()).isEqualTo(3);
+        assertThat(new int[] {columns.readInt(), columns.readInt(), columns.readInt()}).containsExactly(3, 2, 1);
+        // every word is short enough for a single byte varint length
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 3; i++) words.add(new String(columns.readNBytes(columns.readUnsignedByte()), UTF_8));
+        assertThat(words).containsExactly("the", "fox", "brown");
+        assertThat(columns.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void seachForMostFrequentWordsAsCbor() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/page")
+                .param("limit", "3")
+                .contentType(TEXT_PLAIN)
+                .accept(APPLICATION_CBOR)
+                .content("The quick brown fox jumps over the lazy dog. The fox sleeps."));
+
+        result.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_CBOR));
+        List<WordFrequencyDTO> words = new CBORMapper().readValue(
+                result.andReturn().getResponse().getContentAsByteArray(), new TypeReference<>() {});
+        assertThat(words).containsExactly(
+                new WordFrequencyDTO("the", 3), new WordFrequencyDTO("fox", 2), new WordFrequencyDTO("brown", 1));
+    }
+
+    @Test
+    void seachForMostFrequentWordsWithNormalization() throws Exception {
+
+        var frequencyRequest = new MostFrequentWordsRequest("The Straße, the STRASSE and the café near the cafe.", 2);
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/page")
+                .param("caseFold", "true")
+                .param("stripDiacritics", "true")
+                .param("stopwords", "en")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(frequencyRequest)));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].word").value("cafe"))
+                .andExpect(jsonPath("$[0].frequency").value(2))
+                .andExpect(jsonPath("$[1].word").value("strasse"))
+                .andExpect(jsonPath("$[1].frequency").value(2));
+    }
+
+    @Test
+    void validateNormalizationBadRequest_UnsupportedLanguage() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/highest")
+                .param("stopwords", "xx")
+                .contentType(TEXT_PLAIN)
+                .content("Some text"));
+
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("problem", equalTo("Input Validation Failed")));
+    }
+
+    @Test
+    void validateStreamSpecificWordBadRequest_MissingWord() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/specific")
+                .contentType(TEXT_PLAIN)
+                .content("Some text"));
+
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("problem", equalTo("Input Validation Failed")))
+                .andExpect(jsonPath("fieldErrors", hasSize(1)))
+                .andExpect(jsonPath("fieldErrors[0].field", equalTo("word")))
+                .andExpect(jsonPath("fieldErrors[0].message", equalTo("A word to search for is missing")));
+    }
+
+    @Test
+    void validateStreamUnsupportedMediaType_UnknownCharset() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/freq/highest")
+                .header(HttpHeaders.CONTENT_TYPE, "text/plain; charset=bogus")
+                .content("Some text"));
+
+        result.andExpect(status().isUnsupportedMediaType())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("problem", containsString("bogus")))
+                .andExpect(jsonPath("fieldErrors", hasSize(0)));
+    }
+
+    @Test
+    void validateDocumentUnsupportedMediaType_IllegalCharsetName() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/documents")
+                .header(HttpHeaders.CONTENT_TYPE, "text/plain; charset=\"no/such?charset\"")
+                .content("Some text"));
+
+        result.andExpect(status().isUnsupportedMediaType())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("problem", containsString("no/such?charset")));
+    }
+
+    @Test
+    void searchForMostFrequentBigrams() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/ngrams/freq/page")
+                .param("limit", "2")
+                .param("n", "2")
+                .contentType(TEXT_PLAIN)
+                .content("New York is big. In New York, out of memory errors; out of memory in new york!"));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].word").value("new york"))
+                .andExpect(jsonPath("$[0].frequency").value(3))
+                .andExpect(jsonPath("$[0].errorBound").value(0))
+                .andExpect(jsonPath("$[1].word").value("in new"))
+                .andExpect(jsonPath("$[1].frequency").value(2));
+    }
+
+    @Test
+    void validateNGramBadRequest_TooManyWords() throws Exception {
+
+        final ResultActions result = mockMvc.perform(post("/api/words/ngrams/freq/highest")
+                .param("n", "6")
+                .contentType(TEXT_PLAIN)
+                .content("Some text"));
+
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("problem", equalTo("Input Validation Failed")))
+                .andExpect(jsonPath("fieldErrors[0].field", equalTo("n")))
+                .andExpect(jsonPath("fieldErrors[0].message", equalTo("An n-gram has at most 5 words")));
+    }
+
+    @Test
+    void uploadDocumentThenQueryById() throws Exception {
+
+        final String response = mockMvc.perform(post("/api/documents")
+                        .contentType(TEXT_PLAIN)
+                        .content("The quick brown fox jumps over the lazy dog. The fox sleeps."))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("distinctWords", equalTo(9)))
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(response).get("id").asText();
+
+        mockMvc.perform(get("/api/documents/{id}/freq/highest", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("amount", equalTo(3)));
+        mockMvc.perform(get("/api/documents/{id}/freq/specific", id).param("word", "Fox"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("amount", equalTo(2)));
+        mockMvc.perform(get("/api/documents/{id}/freq/page", id).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].word").value("the"));
+
+        mockMvc.perform(delete("/api/documents/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/documents/{id}/freq/highest", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void submitJobThenPollAndQueryResults() throws Exception {
+
+        final String response = mockMvc.perform(post("/api/jobs")
+                        .contentType(TEXT_PLAIN)
+                        .content("The quick brown fox jumps over the lazy dog. The fox sleeps."))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("totalBytes", equalTo(60)))
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(response).get("id").asText();
+
+        String state = "QUEUED";
+        for (int attempt = 0; attempt < 500 && !state.equals("COMPLETED"); attempt++) {
+            Thread.sleep(10);
+            String job = mockMvc.perform(get("/api/jobs/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            state = objectMapper.readTree(job).get("state").asText();
+        }
+        assertThat(state).isEqualTo("COMPLETED");
+
+        mockMvc.perform(get("/api/jobs/{id}", id))
+                .andExpect(jsonPath("bytesProcessed", equalTo(60)))
+                .andExpect(jsonPath("words", equalTo(12)))
+                .andExpect(jsonPath("etaSeconds", equalTo(0)));
+        mockMvc.perform(get("/api/jobs/{id}/freq/highest", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("amount", equalTo(3)));
+        mockMvc.perform(get("/api/jobs/{id}/freq/specific", id).param("word", "Fox"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("amount", equalTo(2)));
+        mockMvc.perform(get("/api/jobs/{id}/freq/page", id).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].word").value("the"));
+
+        mockMvc.perform(delete("/api/jobs/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/jobs/{id}/freq/highest", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batchTextsReportsInvalidItemsIndividually() throws Exception {
+
+        var request = new BatchTextsRequest(List.of("The fox and the dog", " ", "A fox"), List.of("fox", ""), 1);
+        final ResultActions result = mockMvc.perform(post("/api/words/batch/texts")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].highestFrequency").value(2))
+                .andExpect(jsonPath("$[0].frequencies.fox").value(1))
+                .andExpect(jsonPath("$[0].mostFrequentWords[0].word").value("the"))
+                .andExpect(jsonPath("$[0].error.fieldErrors[0].field").value("words[1]"))
+                .andExpect(jsonPath("$[1].error.fieldErrors[0].field").value("texts[1]"))
+                .andExpect(jsonPath("$[1].error.fieldErrors[0].message").value("Text block to search in is missing"))
+                .andExpect(jsonPath("$[2].frequencies.fox").value(1));
+    }
+
+    @Test
+    void corpusKeywordsSkipWordsOfEveryDocument() throws Exception {
+
+        var request = new CorpusRequest(List.of("The fox and the dog", "The fox and the cat", "The fish"),
+                List.of("the", "fox"), 2, "bm25");
+        final ResultActions result = mockMvc.perform(post("/api/words/corpus/keywords")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("documentCount").value(3))
+                .andExpect(jsonPath("documentFrequencies.the").value(3))
+                .andExpect(jsonPath("documentFrequencies.fox").value(2))
+                .andExpect(jsonPath("documents[0].length").value(5))
+                .andExpect(jsonPath("documents[0].frequencies.the").value(2))
+                .andExpect(jsonPath("documents[0].keywords", hasSize(2)))
+                .andExpect(jsonPath("documents[0].keywords[0].word").value("dog"))
+                .andExpect(jsonPath("documents[2].keywords[0].word").value("fish"));
+    }
+
+    @Test
+    void validateCorpusBadRequest_UnknownWeighting() throws Exception {
+        var request = new CorpusRequest(List.of("The fox"), null, null, "count");
+
+        final ResultActions result = mockMvc.perform(post("/api/words/corpus/keywords")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("problem", equalTo("Input Validation Failed")))
+                .andExpect(jsonPath("fieldErrors[0].field", equalTo("weighting")))
+                .andExpect(jsonPath("fieldErrors[0].message", equalTo("The weighting is tf-idf or bm25")));
+    }
+
     @Test
     void validateHighestFrequencyBadRequest_EmptyText() throws Exception {
         var request = new HighestFrequencyRequest("");
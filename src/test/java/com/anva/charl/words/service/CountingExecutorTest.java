@@ -0,0 +1,113 @@
+package com.anva.charl.words.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingExecutorTest {
+
+    @Test
+    void call_InterruptedWhileTaskRuns_GivesUpOnlyOnceTaskIsDone() throws InterruptedException {
+        // given a task that ignores interrupts, like the tokenizers
+        var executor = new CountingExecutor(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicBoolean finishedWhenGivenUp = new AtomicBoolean();
+        AtomicBoolean interruptedWhenGivenUp = new AtomicBoolean();
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                executor.run(() -> {
+                    running.countDown();
+                    while (release.getCount() > 0) Thread.onSpinWait();
+                    finished.set(true);
+                });
+            } catch (CancellationException e) {
+                finishedWhenGivenUp.set(finished.get());
+                interruptedWhenGivenUp.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        running.await();
+
+        // when
+        caller.interrupt();
+        caller.join(200);
+
+        // then the caller still waits, and gives up once the task is done
+        assertThat(caller.isAlive()).isTrue();
+        release.countDown();
+        caller.join();
+        assertThat(finishedWhenGivenUp).isTrue();
+        assertThat(interruptedWhenGivenUp).isTrue();
+        executor.shutdown();
+    }
+
+    @Test
+    void call_InterruptedWhileTaskQueued_DropsTask() throws InterruptedException {
+        // given a pool whose only thread is busy
+        var executor = new CountingExecutor(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = Thread.ofPlatform().start(() -> executor.run(() -> {
+            running.countDown();
+            while (release.getCount() > 0) Thread.onSpinWait();
+        }));
+        running.await();
+        AtomicBoolean ran = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                executor.run(() -> ran.set(true));
+            } catch (CancellationException e) {
+                failure.set(e);
+            }
+        });
+
+        // when
+        caller.interrupt();
+        caller.join();
+        release.countDown();
+        busy.join();
+
+        // then the queued task never runs
+        assertThat(failure.get()).isInstanceOf(CancellationException.class);
+        assertThat(executor.call(ran::get)).isFalse();
+        executor.shutdown();
+    }
+
+    @Test
+    void shutdown_TaskQueued_CancelsItsCaller() throws InterruptedException {
+        // given a pool whose only thread is busy
+        var executor = new CountingExecutor(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = Thread.ofPlatform().start(() -> executor.run(() -> {
+            running.countDown();
+            while (release.getCount() > 0) Thread.onSpinWait();
+        }));
+        running.await();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                executor.run(() -> {});
+            } catch (CancellationException e) {
+                failure.set(e);
+            }
+        });
+        while (caller.getState() != Thread.State.WAITING) Thread.sleep(5);
+
+        // when
+        executor.shutdown();
+        caller.join();
+        release.countDown();
+        busy.join();
+
+        // then the caller does not wait forever
+        assertThat(failure.get()).isInstanceOf(CancellationException.class);
+    }
+}
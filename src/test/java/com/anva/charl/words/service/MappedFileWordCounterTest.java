@@ -0,0 +1,72 @@
+package com.anva.charl.words.service;
+
+import com.anva.charl.words.service.table.FrequencyTable;
+import com.anva.charl.words.service.table.Utf8FrequencyTable;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedFileWordCounterTest {
+
+    private static final String TEXT = """
+            The quick brown fox jumps over the lazy dog. Der schnelle braune Fuchs springt über den faulen Hund.
+            青い空と白い雲が美しいです。Быстрая коричневая лиса, ÉCOLE école naïve İstanbul — the END.
+            """;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 64, 1024})
+    void count_AnyRegionSize_MatchesStringTokenizer(int regionSize) throws IOException {
+        // given
+        Path file = directory.resolve("corpus.txt");
+        Files.writeString(file, TEXT.repeat(20));
+        FrequencyTable expected = new FrequencyTable();
+        new CodePointWordTokenizer().tokenize(TEXT.repeat(20), expected);
+
+        // when
+        Utf8FrequencyTable actual = new MappedFileWordCounter(ForkJoinPool.commonPool(), regionSize).count(file);
+
+        // then
+        assertEquals(expected.size(), actual.size());
+        for (int entry = 0; entry < expected.size(); entry++) {
+            assertEquals(expected.count(entry), actual.get(expected.word(entry)), expected.word(entry));
+        }
+    }
+
+    @Test
+    void count_MalformedBytes_SeparateWords() throws IOException {
+        // given
+        Path file = directory.resolve("broken.txt");
+        Files.write(file, new byte[]{'f', 'o', 'x', (byte) 0xFF, 'f', 'o', 'x'});
+
+        // when
+        Utf8FrequencyTable table = new MappedFileWordCounter(ForkJoinPool.commonPool(), 16).count(file);
+
+        // then
+        assertThat(table.get("fox")).isEqualTo(2);
+    }
+
+    @Test
+    void count_EmptyFile_ReturnsEmptyTable() throws IOException {
+        // given
+        Path file = Files.createFile(directory.resolve("empty.txt"));
+
+        // when
+        Utf8FrequencyTable table = new MappedFileWordCounter(ForkJoinPool.commonPool(), 16).count(file);
+
+        // then
+        assertThat(table.size()).isZero();
+    }
+}
@@ -1,6 +1,14 @@
 package com.anva.charl.words.service;
 
 import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.service.cache.CacheProperties;
+import com.anva.charl.words.service.cache.FrequencyTableCache;
+import com.anva.charl.words.service.metrics.AnalysisMetrics;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -8,8 +16,25 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
-
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -246,4 +271,246 @@ class SimpleFrequencySearchServiceTest {
                 assertEquals(2, list.get(2).frequency());
             });
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4})
+    void calculateMostFrequentNWords_ParallelCountingMatchesSequential(int parallelism) {
+        // given a text above a deliberately low threshold
+        String text = "The fox and the hound, the cat and the dog; 青い空と白い雲 über Über 𐐀𐐁 İstanbul\n".repeat(500);
+        var parallelService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), new AnalysisProperties(100, parallelism, 0, false, 16, DataSize.ofMegabytes(4)), FrequencyTableCache.disabled());
+        var sequentialService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), new AnalysisProperties(Integer.MAX_VALUE, 0, 0, false, 16, DataSize.ofMegabytes(4)), FrequencyTableCache.disabled());
+
+        // when
+        List<WordFrequency> parallel = parallelService.calculateMostFrequentNWords(text, 100);
+        List<WordFrequency> sequential = sequentialService.calculateMostFrequentNWords(text, 100);
+
+        // then
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+        assertEquals(2000, parallelService.calculateHighestFrequency(text));
+    }
+
+    @Test
+    void calculateMostFrequentNWords_NormalizationOptionsArePartOfTheCacheKey() {
+        // given a cached analysis of the same text without normalization
+        var cachingService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), AnalysisProperties.defaults(),
+                new FrequencyTableCache(new CacheProperties(true, 16, DataSize.ofMegabytes(16), Duration.ZERO)));
+        String text = "The Straße and the strasse, the café and the cafe.";
+        var options = new NormalizationOptions(false, true, true, "en", null);
+        cachingService.calculateMostFrequentNWords(text, 3);
+
+        // when
+        List<WordFrequency> normalized = cachingService.calculateMostFrequentNWords(text, 3, options);
+
+        // then
+        assertThat(normalized).containsExactly(new WordFrequencyDTO("cafe", 2), new WordFrequencyDTO("strasse", 2));
+        assertEquals(4, cachingService.calculateHighestFrequency(text));
+        assertEquals(2, cachingService.calculateFrequencyForWord(text, "STRASSE", options));
+        assertEquals(0, cachingService.calculateFrequencyForWord(text, "the", options));
+    }
+
+    @Test
+    void calculateFrequencyForWords_CountsAllWordsInOnePass() {
+        // given
+        String text = "The cat walks over the staircase. The CAT sleeps!";
+
+        // when
+        Map<String, Integer> result = service.calculateFrequencyForWords(text, List.of("the", "Cat", "stair", "dog"));
+
+        // then
+        assertThat(result).containsExactly(
+                Map.entry("the", 3),
+                Map.entry("Cat", 2),
+                Map.entry("stair", 0),
+                Map.entry("dog", 0));
+    }
+
+    @Test
+    void tokenize_LargeText_FeedsEveryWordInOrderInChunks() {
+        // given a text of several chunks
+        String text = IntStream.range(0, 40_000).mapToObj(i -> "Word" + i).collect(Collectors.joining(" "));
+        List<String> expected = new ArrayList<>();
+        new CodePointWordTokenizer().tokenize(text, (buffer, length) -> expected.add(new String(buffer, 0, length)));
+
+        // when
+        List<String> words = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+        service.tokenize(text, (buffer, length) -> {
+            words.add(new String(buffer, 0, length));
+            threads.add(Thread.currentThread().getName());
+        });
+
+        // then
+        assertThat(words).isEqualTo(expected);
+        assertThat(threads).allMatch(name -> name.startsWith("word-counter-"));
+    }
+
+    @Test
+    void calculateMostFrequentNWords_RecordsStageTimersAndTextSizes() {
+        // given
+        MeterRegistry registry = new SimpleMeterRegistry();
+        var measuredService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), AnalysisProperties.defaults(),
+                FrequencyTableCache.disabled(), new AnalysisMetrics(registry));
+
+        // when
+        measuredService.calculateMostFrequentNWords("The cat walks over the staircase", 2);
+
+        // then
+        assertThat(registry.get("words.analysis.stage").tag("stage", "count").timer().count()).isEqualTo(1);
+        assertThat(registry.get("words.analysis.stage").tag("stage", "rank").timer().count()).isEqualTo(1);
+        assertThat(registry.get("words.analysis.input.size").summary().totalAmount()).isEqualTo(32);
+        assertThat(registry.get("words.analysis.tokens").summary().totalAmount()).isEqualTo(6);
+        assertThat(registry.get("words.analysis.distinct.words").summary().totalAmount()).isEqualTo(5);
+    }
+
+    @Test
+    void calculateMostFrequentNWords_UncachedTextsInARow_DoNotSeeEachOthersWords() {
+        // given
+        service.calculateMostFrequentNWords("the fox and the dog", 10);
+
+        // when
+        List<WordFrequency> result = service.calculateMostFrequentNWords("a cat and a bird", 10);
+
+        // then
+        assertThat(result).containsExactly(
+                new WordFrequencyDTO("a", 2),
+                new WordFrequencyDTO("and", 1),
+                new WordFrequencyDTO("bird", 1),
+                new WordFrequencyDTO("cat", 1));
+    }
+
+    @Test
+    void calculateHighestFrequency_UncachedSmallText_CountsInPooledTable() {
+        // given a text of a thousand distinct words, and a pooled table that has grown to hold them
+        var pooledService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), singleCountingThread(),
+                FrequencyTableCache.disabled());
+        String text = IntStream.range(0, 1000).mapToObj(i -> "word" + i).collect(Collectors.joining(" "));
+        for (int i = 0; i < 2_000; i++) pooledService.calculateHighestFrequency(text);
+
+        // when
+        long before = allocatedBytes(pooledService);
+        for (int i = 0; i < 100; i++) pooledService.calculateHighestFrequency(text);
+        long allocatedPerCall = (allocatedBytes(pooledService) - before) / 100;
+        pooledService.shutdown();
+
+        // then only the word buffer of the tokenizer is left, a new table would take tens of kilobytes
+        assertThat(allocatedPerCall).isLessThan(1024);
+    }
+
+    @Test
+    void calculateMostFrequentNWords_UncachedSmallText_CountsAndRanksInPooledTable() {
+        // given
+        var pooledService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), singleCountingThread(),
+                FrequencyTableCache.disabled());
+        String text = IntStream.range(0, 500).mapToObj(i -> "word" + i + " word" + (i % 10)).collect(Collectors.joining(" "));
+        for (int i = 0; i < 2_000; i++) pooledService.calculateMostFrequentNWords(text, 3);
+
+        // when
+        long before = allocatedBytes(pooledService);
+        for (int i = 0; i < 100; i++) pooledService.calculateMostFrequentNWords(text, 3);
+        long allocatedPerCall = (allocatedBytes(pooledService) - before) / 100;
+        pooledService.shutdown();
+
+        // then only the word buffer and the three results are left
+        assertThat(allocatedPerCall).isLessThan(2048);
+    }
+
+    @Test
+    void calculateMostFrequentNWords_CachedText_AnswersRepeatsWithoutAllocatingTables() {
+        // given the default cache settings
+        var cachingService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), singleCountingThread(),
+                new FrequencyTableCache(new CacheProperties(true, 256, DataSize.ofMegabytes(256), Duration.ZERO)));
+        String text = IntStream.range(0, 500).mapToObj(i -> "word" + i + " word" + (i % 10)).collect(Collectors.joining(" "));
+        for (int i = 0; i < 2_000; i++) cachingService.calculateMostFrequentNWords(text, 3);
+
+        // when
+        long before = allocatedBytes(cachingService);
+        for (int i = 0; i < 100; i++) {
+            cachingService.calculateHighestFrequency(text);
+            cachingService.calculateMostFrequentNWords(text, 3);
+        }
+        long allocatedPerCall = (allocatedBytes(cachingService) - before) / 200;
+        cachingService.shutdown();
+
+        // then a hit costs the key and the view of the result, the ranking uses a pooled histogram
+        assertThat(allocatedPerCall).isLessThan(256);
+    }
+
+    @Test
+    void calculateMostFrequentNWords_UncachedTextWithCache_KeepsOnlyExactlySizedTable() {
+        // given the default cache settings and texts it has not seen
+        var cachingService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), singleCountingThread(),
+                new FrequencyTableCache(new CacheProperties(true, 256, DataSize.ofMegabytes(256), Duration.ZERO)));
+        String words = IntStream.range(0, 1000).mapToObj(i -> "word" + i).collect(Collectors.joining(" "));
+        List<String> texts = IntStream.range(0, 2_200).mapToObj(i -> words + " text" + i).toList();
+        for (int i = 0; i < 2_000; i++) cachingService.calculateMostFrequentNWords(texts.get(i), 3);
+
+        // when
+        long before = allocatedBytes(cachingService);
+        for (int i = 2_000; i < 2_100; i++) cachingService.calculateMostFrequentNWords(texts.get(i), 3);
+        long allocatedPerCall = (allocatedBytes(cachingService) - before) / 100;
+
+        // then the cached copy is all that is allocated on top of a hit, the counting table is pooled
+        long cachedTable = cachingService.buildFrequencyTable(texts.get(2_000)).estimatedBytes();
+        cachingService.shutdown();
+        assertThat(allocatedPerCall).isLessThan(cachedTable + 2048);
+    }
+
+    @Test
+    void calculateHighestFrequency_SmallTextWhileStreamWaitsForNextChunk_IsCountedMeanwhile() throws Exception {
+        // given a single counting thread, and a stream of a full chunk that then stalls
+        var loadedService = new SimpleFrequencySearchService(new CodePointWordTokenizer(), singleCountingThread(),
+                FrequencyTableCache.disabled());
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        InputStream rest = new InputStream() {
+            @Override
+            public int read() {
+                return -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                stalled.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return -1;
+            }
+        };
+        byte[] chunk = "fox ".repeat(64 * 1024 / 4).getBytes(StandardCharsets.UTF_8);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> stream = executor.submit(() -> loadedService.calculateHighestFrequency(
+                    new SequenceInputStream(new ByteArrayInputStream(chunk), rest)));
+            stalled.await();
+
+            // when a small text is analyzed while the stream waits for its next chunk
+            Future<Integer> small = executor.submit(() -> loadedService.calculateHighestFrequency("the cat and the dog"));
+
+            // then the stream does not hold the counting thread meanwhile
+            assertEquals(2, small.get(10, TimeUnit.SECONDS));
+            assertThat(stream.isDone()).isFalse();
+            resume.countDown();
+            assertEquals(64 * 1024 / 4, stream.get());
+        } finally {
+            loadedService.shutdown();
+        }
+    }
+
+    // one counting thread, which is the only thread next to the calling one an analysis allocates on
+    private static AnalysisProperties singleCountingThread() {
+        AnalysisProperties defaults = AnalysisProperties.defaults();
+        return new AnalysisProperties(defaults.parallelThreshold(), defaults.parallelism(), 1, defaults.vectorTokenizer(),
+                defaults.scratchSets(), defaults.scratchTableSize());
+    }
+
+    // the calling thread and the counting thread of the service, sampled on it, no other thread of the JVM
+    private static long allocatedBytes(SimpleFrequencySearchService service) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] counting = new long[1];
+        service.count(() -> counting[0] = threads.getCurrentThreadAllocatedBytes());
+        return threads.getCurrentThreadAllocatedBytes() + counting[0];
+    }
 }
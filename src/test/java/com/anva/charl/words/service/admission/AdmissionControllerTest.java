@@ -0,0 +1,128 @@
+package com.anva.charl.words.service.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControllerTest {
+
+    private static final DataSize LARGE = DataSize.ofKilobytes(1);
+    private static final DataSize BUDGET = DataSize.ofKilobytes(4);
+
+    @Test
+    void admit_SmallRequests_DoNotTakeBudget() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(true, LARGE, BUDGET, BUDGET, 0, Duration.ZERO));
+
+        // when
+        admission.admit(LARGE.toBytes() - 1);
+        admission.admit(0);
+
+        // then
+        assertThat(admission.availableBudget()).isEqualTo(BUDGET.toBytes());
+    }
+
+    @Test
+    void admit_LargeRequests_ShareBudgetByWeight() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(true, LARGE, BUDGET, BUDGET, 0, Duration.ZERO));
+
+        // when
+        var first = admission.admit(DataSize.ofKilobytes(3).toBytes());
+        var second = admission.admit(LARGE.toBytes());
+
+        // then the budget is used up
+        assertThat(admission.availableBudget()).isZero();
+        assertThatThrownBy(() -> admission.admit(LARGE.toBytes()))
+                .isInstanceOf(AdmissionRejectedException.class);
+
+        // and closing a permit returns its share, once
+        first.close();
+        first.close();
+        second.close();
+        assertThat(admission.availableBudget()).isEqualTo(BUDGET.toBytes());
+    }
+
+    @Test
+    void admit_RequestLargerThanBudget_RunsAlone() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(true, LARGE, BUDGET, BUDGET, 0, Duration.ZERO));
+
+        // when
+        admission.admit(DataSize.ofMegabytes(50).toBytes());
+
+        // then
+        assertThat(admission.availableBudget()).isZero();
+    }
+
+    @Test
+    void admit_NoRoomToWait_RejectsAsQueueFull() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(true, LARGE, BUDGET, BUDGET, 0, Duration.ofSeconds(5)));
+        admission.admit(BUDGET.toBytes());
+
+        // when / then
+        assertThatThrownBy(() -> admission.admit(LARGE.toBytes()))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        ex -> assertThat(ex.reason()).isEqualTo(AdmissionRejectedException.Reason.QUEUE_FULL));
+    }
+
+    @Test
+    void admit_WaitingTooLong_RejectsAsTimeout() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(true, LARGE, BUDGET, BUDGET, 1, Duration.ofMillis(10)));
+        admission.admit(BUDGET.toBytes());
+
+        // when / then
+        assertThatThrownBy(() -> admission.admit(-1))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        ex -> assertThat(ex.reason()).isEqualTo(AdmissionRejectedException.Reason.TIMEOUT));
+    }
+
+    @Test
+    void admit_UnknownLength_ChargedUnknownRequestSize() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(true, LARGE, BUDGET, DataSize.ofKilobytes(3), 0, Duration.ZERO));
+
+        // when
+        var chunked = admission.admit(-1);
+
+        // then a second body of unknown length does not fit next to it
+        assertThat(admission.availableBudget()).isEqualTo(LARGE.toBytes());
+        assertThatThrownBy(() -> admission.admit(-1))
+                .isInstanceOf(AdmissionRejectedException.class);
+        chunked.close();
+        assertThat(admission.availableBudget()).isEqualTo(BUDGET.toBytes());
+    }
+
+    @Test
+    void admit_UnknownLengthByDefault_RunsAlone() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(true, LARGE, BUDGET, BUDGET, 0, Duration.ZERO));
+
+        // when
+        admission.admit(-1);
+
+        // then
+        assertThat(admission.availableBudget()).isZero();
+        assertThatThrownBy(() -> admission.admit(LARGE.toBytes()))
+                .isInstanceOf(AdmissionRejectedException.class);
+    }
+
+    @Test
+    void admit_Disabled_AdmitsEverything() {
+        // given
+        var admission = new AdmissionController(new AdmissionProperties(false, LARGE, BUDGET, BUDGET, 0, Duration.ZERO));
+
+        // when
+        admission.admit(DataSize.ofMegabytes(50).toBytes());
+        admission.admit(DataSize.ofMegabytes(50).toBytes());
+
+        // then
+        assertThat(admission.availableBudget()).isEqualTo(BUDGET.toBytes());
+    }
+}
@@ -0,0 +1,118 @@
+package com.anva.charl.words.service.approximate;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApproximateCountsTest {
+
+    private static final int VOCABULARY = 200_000;
+    private static final int WORDS = 1_000_000;
+
+    private static FrequencyTable exact;
+    private static ApproximateCounts approximate;
+
+    @BeforeAll
+    static void countZipfianText() {
+        // given Zipf distributed words, counted exactly and in a sketch far smaller than the vocabulary
+        double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+
+        Random random = new Random(42);
+        exact = new FrequencyTable();
+        approximate = new ApproximateCounts(1 << 14, 5, 500);
+        for (int i = 0; i < WORDS; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            char[] word = ("w" + (rank < 0 ? -rank - 1 : rank)).toCharArray();
+            exact.accept(word, word.length);
+            approximate.accept(word, word.length);
+        }
+    }
+
+    @Test
+    void frequency_EveryWord_WithinErrorBound() {
+        int outside = 0;
+        for (int entry = 0; entry < exact.size(); entry++) {
+            ApproximateFrequency estimate = approximate.frequency(exact.word(entry));
+            int count = exact.count(entry);
+            assertThat(estimate.frequency()).isGreaterThanOrEqualTo(count);
+            if (estimate.frequency() - estimate.errorBound() > count) outside++;
+        }
+        // the sketch bound may fail for a share of 1 - confidence of the words
+        assertThat(outside).isLessThanOrEqualTo((int) (exact.size() * Math.exp(-5)));
+    }
+
+    @Test
+    void frequency_UnseenWord_IsBounded() {
+        ApproximateFrequency estimate = approximate.frequency("never");
+
+        assertThat(estimate.frequency() - estimate.errorBound()).isLessThanOrEqualTo(0);
+        assertThat(estimate.frequency()).isLessThanOrEqualTo((int) Math.ceil(Math.E / (1 << 14) * WORDS));
+    }
+
+    @Test
+    void mostFrequentWords_MatchesExactTopWords() {
+        var top = approximate.mostFrequentWords(20);
+        var expected = TopWordsSelector.select(exact, 20);
+
+        assertThat(top).extracting(WordFrequency::word).containsExactlyElementsOf(expected.stream().map(WordFrequency::word).toList());
+        for (int i = 0; i < top.size(); i++) {
+            ApproximateWordFrequency estimate = top.get(i);
+            assertThat(estimate.frequency()).isGreaterThanOrEqualTo(expected.get(i).frequency());
+            assertThat(estimate.frequency() - estimate.errorBound()).isLessThanOrEqualTo(expected.get(i).frequency());
+        }
+    }
+
+    @Test
+    void highestFrequency_BoundsExactHighestFrequency() {
+        ApproximateFrequency highest = approximate.highestFrequency();
+
+        assertThat(highest.frequency()).isGreaterThanOrEqualTo(exact.maxCount());
+        assertThat(highest.frequency() - highest.errorBound()).isLessThanOrEqualTo(exact.maxCount());
+        assertThat(highest.confidence()).isEqualTo(1.0);
+    }
+
+    @Test
+    void estimatedBytes_DoesNotGrowWithVocabulary() {
+        assertThat(approximate.estimatedBytes()).isLessThan(exact.estimatedBytes() / 4);
+    }
+
+    @Test
+    void of_SmallText_DoesNotAllocateConfiguredSketch() {
+        // given
+        ApproximateProperties properties = ApproximateProperties.defaults();
+        String text = "the quick fox and the lazy dog";
+
+        // when
+        var unknownLength = ApproximateCounts.of(properties, -1);
+        var largeText = ApproximateCounts.of(properties, 100_000_000);
+        var smallText = ApproximateCounts.of(properties, text.length());
+        for (String word : text.split(" ")) smallText.accept(word.toCharArray(), word.length());
+
+        // then only texts with enough room for distinct words get the configured size
+        assertThat(unknownLength.estimatedBytes()).isGreaterThan(properties.sketchSize().toBytes() / 2);
+        assertThat(largeText.estimatedBytes()).isEqualTo(unknownLength.estimatedBytes());
+        assertThat(smallText.estimatedBytes()).isLessThan(unknownLength.estimatedBytes() / 100);
+        assertThat(smallText.frequency("the").frequency()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyText_EstimatesZero() {
+        var empty = new ApproximateCounts(1 << 10, 3, 10);
+
+        assertThat(empty.highestFrequency()).isEqualTo(new ApproximateFrequency(0, 0, 1.0));
+        assertThat(empty.mostFrequentWords(5)).isEmpty();
+    }
+}
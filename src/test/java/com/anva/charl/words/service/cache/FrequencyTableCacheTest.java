@@ -0,0 +1,228 @@
+package com.anva.charl.words.service.cache;
+
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import com.anva.charl.words.service.position.PositionalIndex;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FrequencyTableCacheTest {
+
+    private static final String NORMALIZATION = "test";
+
+    @Test
+    void get_RepeatedText_BuildsTableOnce() {
+        // given
+        var cache = new FrequencyTableCache(new CacheProperties(true, 10, DataSize.ofMegabytes(1), Duration.ZERO));
+        AtomicInteger builds = new AtomicInteger();
+
+        // when
+        FrequencyTable first = cache.get(ContentKey.of(NORMALIZATION, "the fox"), () -> table(builds));
+        FrequencyTable second = cache.get(ContentKey.of(NORMALIZATION, new StringBuilder("the fox")), () -> table(builds));
+
+        // then
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertThat(cache.stats()).isEqualTo(new CacheStats(1, 1, 0, 1, first.estimatedBytes()));
+    }
+
+    @Test
+    void getPositions_TextCachedWithTable_ReplacesTableWithIndex() {
+        // given
+        var cache = new FrequencyTableCache(new CacheProperties(true, 10, DataSize.ofMegabytes(1), Duration.ZERO));
+        ContentKey key = ContentKey.of(NORMALIZATION, "the fox");
+        cache.put(key, new FrequencyTable());
+        AtomicInteger builds = new AtomicInteger();
+
+        // when
+        PositionalIndex first = cache.getPositions(key, () -> index(builds));
+        PositionalIndex second = cache.getPositions(key, () -> index(builds));
+
+        // then the index answers the lookups of the table as well
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertSame(first.table(), cache.getIfPresent(key));
+        assertThat(cache.stats().weightBytes()).isEqualTo(first.estimatedBytes());
+    }
+
+    @Test
+    void get_ConcurrentMissesOfSameText_BuildTableOnce() throws InterruptedException {
+        // given a build that blocks until it is released
+        var cache = new FrequencyTableCache(new CacheProperties(true, 10, DataSize.ofMegabytes(1), Duration.ZERO));
+        ContentKey key = ContentKey.of(NORMALIZATION, "the fox");
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<FrequencyTable> builder = () -> {
+            building.countDown();
+            awaitLatch(release);
+            return table(builds);
+        };
+        FrequencyTable[] results = new FrequencyTable[4];
+        Thread[] threads = new Thread[results.length];
+
+        // when more requests miss while the first one builds
+        threads[0] = Thread.ofPlatform().start(() -> results[0] = cache.get(key, builder));
+        building.await();
+        for (int i = 1; i < threads.length; i++) {
+            int n = i;
+            threads[i] = Thread.ofPlatform().start(() -> results[n] = cache.get(key, builder));
+        }
+        awaitWaiting(Arrays.copyOfRange(threads, 1, threads.length));
+        release.countDown();
+        for (Thread thread : threads) thread.join();
+
+        // then they all get the table of the first build
+        assertEquals(1, builds.get());
+        assertThat(results).allSatisfy(result -> assertSame(results[0], result));
+    }
+
+    @Test
+    void get_ConcurrentBuildFails_WaitingRequestBuildsItself() throws InterruptedException {
+        // given a build that fails once it is released
+        var cache = new FrequencyTableCache(new CacheProperties(true, 10, DataSize.ofMegabytes(1), Duration.ZERO));
+        ContentKey key = ContentKey.of(NORMALIZATION, "the fox");
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<FrequencyTable> result = new AtomicReference<>();
+
+        // when another request misses while it builds
+        Thread failing = Thread.ofPlatform().start(() -> {
+            try {
+                cache.get(key, () -> {
+                    building.countDown();
+                    awaitLatch(release);
+                    throw new IllegalStateException("Build failed");
+                });
+            } catch (IllegalStateException e) {
+                failure.set(e);
+            }
+        });
+        building.await();
+        Thread waiting = Thread.ofPlatform().start(() -> result.set(cache.get(key, () -> table(builds))));
+        awaitWaiting(waiting);
+        release.countDown();
+        failing.join();
+        waiting.join();
+
+        // then the failure stays with the first request
+        assertThat(failure.get()).hasMessage("Build failed");
+        assertEquals(1, builds.get());
+        assertSame(result.get(), cache.getIfPresent(key));
+    }
+
+    @Test
+    void put_OverWeightLimit_EvictsLeastRecentlyUsed() {
+        // given room for two tables
+        long tableWeight = new FrequencyTable().estimatedBytes();
+        var cache = new FrequencyTableCache(new CacheProperties(true, 10, DataSize.ofBytes(tableWeight * 2), Duration.ZERO));
+        ContentKey a = ContentKey.of(NORMALIZATION, "a");
+        ContentKey b = ContentKey.of(NORMALIZATION, "b");
+        ContentKey c = ContentKey.of(NORMALIZATION, "c");
+
+        // when
+        cache.put(a, new FrequencyTable());
+        cache.put(b, new FrequencyTable());
+        cache.getIfPresent(a);
+        cache.put(c, new FrequencyTable());
+
+        // then
+        assertThat(cache.getIfPresent(a)).isNotNull();
+        assertThat(cache.getIfPresent(b)).isNull();
+        assertThat(cache.getIfPresent(c)).isNotNull();
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void getIfPresent_AfterTtl_ReturnsNull() {
+        // given
+        MutableClock clock = new MutableClock();
+        var cache = new FrequencyTableCache(new CacheProperties(true, 10, DataSize.ofMegabytes(1), Duration.ofMinutes(1)), clock);
+        ContentKey key = ContentKey.of(NORMALIZATION, "the fox");
+        cache.put(key, new FrequencyTable());
+
+        // when
+        clock.advance(Duration.ofMinutes(2));
+
+        // then
+        assertThat(cache.getIfPresent(key)).isNull();
+        assertThat(cache.stats()).isEqualTo(new CacheStats(0, 1, 1, 0, 0));
+    }
+
+    @Test
+    void contentKey_DiffersForDifferentTextOrNormalization() {
+        assertThat(ContentKey.of(NORMALIZATION, "the fox")).isNotEqualTo(ContentKey.of(NORMALIZATION, "the dog"));
+        assertThat(ContentKey.of(NORMALIZATION, "the fox")).isNotEqualTo(ContentKey.of("other", "the fox"));
+    }
+
+    private static FrequencyTable table(AtomicInteger builds) {
+        builds.incrementAndGet();
+        FrequencyTable table = new FrequencyTable();
+        table.accept("fox".toCharArray(), 3);
+        return table;
+    }
+
+    private static PositionalIndex index(AtomicInteger builds) {
+        builds.incrementAndGet();
+        return PositionalIndex.build("the fox", NormalizationPipeline.NONE);
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // until every thread is parked, which the threads of these tests only are while they wait for a build
+    private static void awaitWaiting(Thread... threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (Arrays.stream(threads).anyMatch(thread -> thread.getState() != Thread.State.WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(threads).allMatch(thread -> thread.getState() == Thread.State.WAITING);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.anva.charl.words.service.corpus;
+
+import com.anva.charl.words.data.model.WeightedWordFrequency;
+import com.anva.charl.words.service.AnalysisProperties;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.cache.FrequencyTableCache;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+import com.anva.charl.words.service.tokenizer.WordTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorpusAnalysisServiceTest {
+
+    private static final List<String> DOCUMENTS = List.of(
+            "The cat sat on the mat. The cat purred.",
+            "The dog chased the cat and the ball.",
+            "The market fell and the market rose.",
+            "   ");
+
+    private final CorpusAnalysisService service = new CorpusAnalysisService(new SimpleFrequencySearchService());
+
+    @Test
+    void analyze_ReportsTermAndDocumentFrequencies() {
+        // when
+        var analysis = service.analyze(DOCUMENTS, List.of("the", "Cat", "zebra"), 3, TermWeighting.TF_IDF, NormalizationOptions.NONE);
+
+        // then the blank document is an empty document of the corpus
+        assertThat(analysis.documentCount()).isEqualTo(4);
+        assertThat(analysis.vocabularySize()).isEqualTo(13);
+        assertThat(analysis.documentFrequencies()).containsEntry("the", 3).containsEntry("Cat", 2).containsEntry("zebra", 0);
+        assertThat(analysis.documents()).extracting(CorpusAnalysis.Document::length).containsExactly(9, 8, 7, 0);
+        assertThat(analysis.documents().get(1).frequencies()).containsEntry("the", 3).containsEntry("Cat", 1);
+        assertThat(analysis.documents().get(3).keywords()).isEmpty();
+    }
+
+    @Test
+    void analyze_TfIdf_RanksWordsOfEveryDocumentLast() {
+        // when
+        var analysis = service.analyze(DOCUMENTS, List.of(), 3, TermWeighting.TF_IDF, NormalizationOptions.NONE);
+
+        // then "the" is the most frequent word of every document, but no keyword
+        assertThat(analysis.documents().get(0).keywords()).extracting(WeightedWordFrequency::word)
+                .containsExactly("cat", "mat", "on");
+        assertThat(analysis.documents().get(2).keywords()).extracting(WeightedWordFrequency::word)
+                .containsExactly("market", "fell", "rose");
+        assertThat(analysis.documents().get(2).keywords().getFirst().weight()).isEqualTo(2 * Math.log(4.0));
+    }
+
+    @Test
+    void topTerms_Bm25_MatchesWeightingEveryTerm() {
+        // given a corpus of many documents counted concurrently
+        List<String> documents = new ArrayList<>();
+        for (int d = 0; d < 50; d++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 500; i++) text.append("w").append((i + d) % (40 + d)).append(' ');
+            documents.add(text.toString());
+        }
+
+        // when
+        CorpusIndex index = service.index(documents, NormalizationOptions.NONE);
+
+        // then the heap selection agrees with weighting all terms
+        for (int d = 0; d < documents.size(); d++) {
+            List<WeightedWordFrequency> all = index.topTerms(d, Integer.MAX_VALUE, TermWeighting.BM25);
+            assertThat(index.topTerms(d, 5, TermWeighting.BM25)).isEqualTo(all.subList(0, 5));
+            assertThat(all).isSortedAccordingTo((a, b) -> Double.compare(b.weight(), a.weight()));
+            assertThat(all).hasSize(Math.min(40 + d, 500));
+        }
+        assertThat(index.vocabularySize()).isEqualTo(89);
+        assertThat(index.documentFrequency("w0")).isEqualTo(50);
+        assertThat(index.documentFrequency("w88")).isEqualTo(1);
+    }
+
+    @Test
+    void index_CountsDocumentsOnTheCountingThreads() {
+        // given a tokenizer that notes the threads it runs on
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        WordTokenizer tokenizer = new WordTokenizer() {
+            private final WordTokenizer delegate = new CodePointWordTokenizer();
+
+            @Override
+            public void tokenize(CharSequence text, TokenSink sink) {
+                threads.add(Thread.currentThread().getName());
+                delegate.tokenize(text, sink);
+            }
+        };
+        var searchService = new SimpleFrequencySearchService(tokenizer, AnalysisProperties.defaults(), FrequencyTableCache.disabled());
+
+        // when
+        CorpusIndex index = new CorpusAnalysisService(searchService).index(DOCUMENTS, NormalizationOptions.NONE);
+        searchService.shutdown();
+
+        // then no worker of the common pool counts
+        assertThat(index.documentCount()).isEqualTo(4);
+        assertThat(threads).isNotEmpty().allMatch(name -> name.startsWith("word-counter-"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.anva.charl.words.service.document;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DocumentStoreTest {
+
+    private final SimpleFrequencySearchService service = new SimpleFrequencySearchService();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void add_ThenRestart_ReloadsDocumentFromDisk() throws Exception {
+        // given
+        var store = new DocumentStore(new DocumentProperties(directory));
+        store.load();
+        String id = store.add(service.buildFrequencyTable("the fox and the hound and the cat")).id();
+
+        // when
+        var restarted = new DocumentStore(new DocumentProperties(directory));
+        restarted.load();
+        StoredDocument document = restarted.get(id);
+
+        // then
+        assertEquals(3, document.highestFrequency());
+        assertEquals(2, document.frequencyForWord("AND"));
+        assertEquals(0, document.frequencyForWord("dog"));
+        assertThat(document.mostFrequentWords(3))
+                .extracting(WordFrequency::word)
+                .containsExactly("the", "and", "cat");
+    }
+
+    @Test
+    void delete_RemovesDocumentFromMemoryAndDisk() throws Exception {
+        // given
+        var store = new DocumentStore(new DocumentProperties(directory));
+        store.load();
+        String id = store.add(service.buildFrequencyTable("the fox")).id();
+
+        // when
+        store.delete(id);
+
+        // then
+        assertThatThrownBy(() -> store.get(id)).isInstanceOf(DocumentNotFoundException.class);
+        var restarted = new DocumentStore(new DocumentProperties(directory));
+        restarted.load();
+        assertThatThrownBy(() -> restarted.get(id)).isInstanceOf(DocumentNotFoundException.class);
+    }
+
+    @Test
+    void load_CorruptFile_SkipsItAndLoadsTheOthers() throws Exception {
+        // given a stored document, and a file whose header claims a huge table it does not hold
+        var store = new DocumentStore(new DocumentProperties(directory));
+        store.load();
+        String id = store.add(service.buildFrequencyTable("the fox")).id();
+        try (var out = new DataOutputStream(Files.newOutputStream(directory.resolve("corrupt.wft")))) {
+            out.writeInt(0x57465431);
+            out.writeInt(Integer.MAX_VALUE);
+            out.writeInt(-1);
+        }
+
+        // when
+        var restarted = new DocumentStore(new DocumentProperties(directory));
+        restarted.load();
+
+        // then
+        assertEquals(1, restarted.get(id).highestFrequency());
+        assertThatThrownBy(() -> restarted.get("corrupt")).isInstanceOf(DocumentNotFoundException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.anva.charl.words.service.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CorpusFilesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resolve_FileInDirectory_ReturnsIt() throws IOException {
+        // given
+        Path corpora = Files.createDirectories(directory.resolve("corpora/logs"));
+        Path file = Files.writeString(corpora.resolve("dump.txt"), "the fox");
+        var corpusFiles = new CorpusFiles(new CorpusFileProperties(directory.resolve("corpora")));
+
+        // when
+        Path resolved = corpusFiles.resolve("logs/dump.txt");
+
+        // then
+        assertThat(resolved).isEqualTo(file.toRealPath());
+    }
+
+    @Test
+    void resolve_OutsideOfDirectory_IsNotFound() throws IOException {
+        // given
+        Files.createDirectories(directory.resolve("corpora"));
+        Files.writeString(directory.resolve("secret.txt"), "the fox");
+        var corpusFiles = new CorpusFiles(new CorpusFileProperties(directory.resolve("corpora")));
+
+        // when / then
+        assertThatThrownBy(() -> corpusFiles.resolve("../secret.txt")).isInstanceOf(CorpusFileNotFoundException.class);
+        assertThatThrownBy(() -> corpusFiles.resolve(directory.resolve("secret.txt").toString()))
+                .isInstanceOf(CorpusFileNotFoundException.class);
+        assertThatThrownBy(() -> corpusFiles.resolve(".")).isInstanceOf(CorpusFileNotFoundException.class);
+        assertThatThrownBy(() -> corpusFiles.resolve("missing.txt")).isInstanceOf(CorpusFileNotFoundException.class);
+    }
+}
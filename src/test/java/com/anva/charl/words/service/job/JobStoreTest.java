@@ -0,0 +1,174 @@
+package com.anva.charl.words.service.job;
+
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.service.AnalysisProgress;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.admission.AdmissionRejectedException;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.table.WordTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private JobStore store;
+
+    @AfterEach
+    void shutdown() {
+        if (store != null) store.shutdown();
+    }
+
+    @Test
+    void submitText_Completes_AnswersQueriesAndDeletesSpooledText() throws Exception {
+        // given
+        store = new JobStore(new SimpleFrequencySearchService(), properties(2, 4), Clock.systemUTC());
+
+        // when
+        AnalysisJob job = store.submitText(text("The quick brown fox jumps over the lazy dog. The fox sleeps."),
+                NormalizationOptions.NONE);
+        awaitFinished(job);
+
+        // then
+        assertThat(job.state()).isEqualTo(JobState.COMPLETED);
+        assertThat(job.bytesProcessed()).isEqualTo(job.totalBytes()).isEqualTo(60);
+        assertThat(job.words()).isEqualTo(12);
+        assertThat(job.highestFrequency()).isEqualTo(3);
+        assertThat(job.frequencyForWord("FOX")).isEqualTo(2);
+        assertThat(job.mostFrequentWords(2)).containsExactly(
+                new WordFrequencyDTO("the", 3), new WordFrequencyDTO("fox", 2));
+        assertThat(spooledTexts()).isZero();
+    }
+
+    @Test
+    void submitText_SameTextAndOptions_ReturnsEarlierJob() throws Exception {
+        // given
+        store = new JobStore(new SimpleFrequencySearchService(), properties(2, 4), Clock.systemUTC());
+        AnalysisJob first = store.submitText(text("the fox and the dog"), NormalizationOptions.NONE);
+        awaitFinished(first);
+
+        // when
+        AnalysisJob again = store.submitText(text("the fox and the dog"), NormalizationOptions.NONE);
+        AnalysisJob normalized = store.submitText(text("the fox and the dog"),
+                new NormalizationOptions(false, false, false, "en", null));
+        awaitFinished(normalized);
+
+        // then
+        assertThat(again).isSameAs(first);
+        assertThat(normalized).isNotSameAs(first);
+        assertThat(normalized.mostFrequentWords(5)).containsExactly(
+                new WordFrequencyDTO("dog", 1), new WordFrequencyDTO("fox", 1));
+    }
+
+    @Test
+    void cancel_RunningJob_StopsAtNextChunkAndDropsResults() throws Exception {
+        // given
+        var service = new BlockingSearchService();
+        store = new JobStore(service, properties(2, 4), Clock.systemUTC());
+        AnalysisJob job = store.submitText(text("the fox"), NormalizationOptions.NONE);
+        assertThat(service.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        store.cancel(job.id());
+        awaitFinished(job);
+
+        // then
+        assertThat(job.state()).isEqualTo(JobState.CANCELLED);
+        assertThat(job.words()).isPositive();
+        assertThatThrownBy(job::highestFrequency).isInstanceOf(JobNotCompletedException.class);
+        assertThat(spooledTexts()).isZero();
+    }
+
+    @Test
+    void submit_QueueFull_RejectsAndCancelsQueuedJobAtOnce() throws Exception {
+        // given one running and one queued job
+        var service = new BlockingSearchService();
+        store = new JobStore(service, properties(1, 1), Clock.systemUTC());
+        AnalysisJob running = store.submitText(text("one"), NormalizationOptions.NONE);
+        assertThat(service.started.await(5, TimeUnit.SECONDS)).isTrue();
+        AnalysisJob queued = store.submitText(text("two"), NormalizationOptions.NONE);
+
+        // when
+        assertThatThrownBy(() -> store.submitText(text("three"), NormalizationOptions.NONE))
+                .isInstanceOf(AdmissionRejectedException.class);
+        store.cancel(queued.id());
+
+        // then
+        assertThat(queued.state()).isEqualTo(JobState.CANCELLED);
+        assertThat(running.state()).isEqualTo(JobState.RUNNING);
+        assertThat(spooledTexts()).isEqualTo(1);
+        store.cancel(running.id());
+    }
+
+    @Test
+    void finish_MoreThanMaxResults_EvictsLeastRecentlyUsedJob() throws Exception {
+        // given
+        store = new JobStore(new SimpleFrequencySearchService(), properties(2, 4), Clock.systemUTC());
+        AnalysisJob first = store.submitText(text("first"), NormalizationOptions.NONE);
+        awaitFinished(first);
+        AnalysisJob second = store.submitText(text("second"), NormalizationOptions.NONE);
+        awaitFinished(second);
+        store.get(first.id());
+
+        // when
+        AnalysisJob third = store.submitText(text("third"), NormalizationOptions.NONE);
+        awaitFinished(third);
+
+        // then
+        assertThat(store.get(first.id()).highestFrequency()).isEqualTo(1);
+        assertThat(store.get(third.id()).highestFrequency()).isEqualTo(1);
+        assertThatThrownBy(() -> store.get(second.id())).isInstanceOf(JobNotFoundException.class);
+    }
+
+    private JobProperties properties(int maxResults, int maxQueued) {
+        return new JobProperties(1, maxQueued, maxResults, DataSize.ofMegabytes(64), directory);
+    }
+
+    private static InputStream text(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long spooledTexts() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static void awaitFinished(AnalysisJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.state().isFinished() && System.nanoTime() < deadline) Thread.sleep(5);
+        assertThat(job.state().isFinished()).isTrue();
+    }
+
+    // Keeps reporting progress until the job stops it
+    private static final class BlockingSearchService extends SimpleFrequencySearchService {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        @Override
+        public WordTable buildFrequencyTable(InputStream in, NormalizationOptions options, AnalysisProgress progress) {
+            started.countDown();
+            for (long words = 1; ; words++) {
+                progress.counted(words);
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.anva.charl.words.service.ngram;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.service.approximate.ApproximateFrequency;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NGramCountsTest {
+
+    private final CodePointWordTokenizer tokenizer = new CodePointWordTokenizer();
+
+    @Test
+    void mostFrequentNGrams_Bigrams_CountsExactlyAcrossPunctuation() {
+        // given
+        NGramCounts counts = new NGramCounts(2, 1_000);
+
+        // when
+        tokenizer.tokenize("New York is big. In New York, out of memory errors; out of memory in new york!", counts);
+
+        // then
+        assertThat(counts.totalNGrams()).isEqualTo(16);
+        assertThat(counts.highestFrequency()).isEqualTo(new ApproximateFrequency(3, 0, 1.0));
+        assertThat(counts.mostFrequentNGrams(4)).containsExactly(
+                new ApproximateWordFrequency("new york", 3, 0, 1.0),
+                new ApproximateWordFrequency("in new", 2, 0, 1.0),
+                new ApproximateWordFrequency("of memory", 2, 0, 1.0),
+                new ApproximateWordFrequency("out of", 2, 0, 1.0));
+    }
+
+    @Test
+    void mostFrequentNGrams_TextShorterThanN_IsEmpty() {
+        // given
+        NGramCounts counts = new NGramCounts(5, 1_000);
+
+        // when
+        tokenizer.tokenize("only four words here", counts);
+
+        // then
+        assertThat(counts.totalNGrams()).isZero();
+        assertThat(counts.mostFrequentNGrams(3)).isEmpty();
+        assertThat(counts.highestFrequency().frequency()).isZero();
+    }
+
+    @Test
+    void accept_MoreDistinctNGramsThanFit_BoundsEveryEstimate() {
+        // given random trigrams, far more than the table holds, and one phrase that keeps repeating
+        Random random = new Random(3);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            if (i % 50 == 0) words.addAll(List.of("out", "of", "memory"));
+            words.add("w" + random.nextInt(500));
+        }
+        Map<String, Integer> exact = new HashMap<>();
+        for (int i = 0; i + 3 <= words.size(); i++) exact.merge(String.join(" ", words.subList(i, i + 3)), 1, Integer::sum);
+        NGramCounts counts = new NGramCounts(3, 1_000);
+
+        // when
+        tokenizer.tokenize(String.join(" ", words), counts);
+
+        // then
+        List<ApproximateWordFrequency> top = counts.mostFrequentNGrams(10);
+        assertThat(exact.size()).isGreaterThan(50_000);
+        assertThat(top.getFirst().word()).isEqualTo("out of memory");
+        for (ApproximateWordFrequency estimate : top) {
+            int count = exact.getOrDefault(estimate.word(), 0);
+            assertThat(estimate.frequency()).isGreaterThanOrEqualTo(count);
+            assertThat(estimate.frequency() - estimate.errorBound()).isLessThanOrEqualTo(count);
+        }
+        ApproximateFrequency highest = counts.highestFrequency();
+        assertThat(highest.frequency()).isGreaterThanOrEqualTo(2_000);
+        assertThat(highest.frequency() - highest.errorBound()).isLessThanOrEqualTo(2_000);
+    }
+
+    @Test
+    void constructor_NOutOfRange_Throws() {
+        assertThatThrownBy(() -> new NGramCounts(0, 1_000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new NGramCounts(NGramCounts.MAX_N + 1, 1_000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.anva.charl.words.service.ngram;
+
+import com.anva.charl.words.data.model.ApproximateWordFrequency;
+import com.anva.charl.words.service.AnalysisProperties;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.cache.FrequencyTableCache;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+import com.anva.charl.words.service.tokenizer.WordTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NGramFrequencyServiceTest {
+
+    private static final String TEXT = "Out of memory: the cache ran out of memory again, OUT OF MEMORY!";
+
+    private final NGramFrequencyService service =
+            new NGramFrequencyService(new SimpleFrequencySearchService(), NGramProperties.defaults());
+
+    @Test
+    void calculateFrequencyForPhrase_MatchesWordByWordIgnoringCaseAndPunctuation() throws Exception {
+        assertThat(service.calculateFrequencyForPhrase(TEXT, "out of Memory", NormalizationOptions.NONE)).isEqualTo(3);
+        assertThat(service.calculateFrequencyForPhrase(new StringReader(TEXT), "memory again out", NormalizationOptions.NONE)).isEqualTo(1);
+        assertThat(service.calculateFrequencyForPhrase(TEXT, "the memory", NormalizationOptions.NONE)).isZero();
+        assertThat(service.calculateFrequencyForPhrase(TEXT, "memory. The cache", NormalizationOptions.NONE)).isEqualTo(1);
+        assertThat(service.calculateFrequencyForPhrase(TEXT, "?!", NormalizationOptions.NONE)).isZero();
+    }
+
+    @Test
+    void calculateMostFrequentNGrams_WithStopwords_CountsTheRemainingWords() {
+        // given
+        var options = new NormalizationOptions(false, false, false, "en", null);
+
+        // when
+        var top = service.calculateMostFrequentNGrams(TEXT, 2, 10, options);
+
+        // then the stopwords are left out before the words are paired
+        assertThat(top).extracting(ApproximateWordFrequency::word)
+                .containsExactly("cache ran", "memory cache", "memory memory", "ran memory");
+        assertThat(service.calculateFrequencyForPhrase(TEXT, "out of the memory", options)).isEqualTo(3);
+    }
+
+    @Test
+    void calculateMostFrequentNGrams_CountsOnTheCountingThreads() {
+        // given a tokenizer that notes the threads it runs on
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        WordTokenizer tokenizer = new WordTokenizer() {
+            private final WordTokenizer delegate = new CodePointWordTokenizer();
+
+            @Override
+            public void tokenize(CharSequence text, TokenSink sink) {
+                threads.add(Thread.currentThread().getName());
+                delegate.tokenize(text, sink);
+            }
+        };
+        var searchService = new SimpleFrequencySearchService(tokenizer, AnalysisProperties.defaults(), FrequencyTableCache.disabled());
+        var ngrams = new NGramFrequencyService(searchService, NGramProperties.defaults());
+
+        // when
+        var top = ngrams.calculateMostFrequentNGrams(TEXT, 3, 1, NormalizationOptions.NONE);
+        searchService.shutdown();
+
+        // then the request thread never counts
+        assertThat(top).extracting(ApproximateWordFrequency::word).containsExactly("out of memory");
+        assertThat(threads).isNotEmpty().allMatch(name -> name.startsWith("word-counter-"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.anva.charl.words.service.normalize;
+
+import com.anva.charl.words.service.tokenizer.CodePointWordTokenizer;
+import com.anva.charl.words.service.tokenizer.TokenSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NormalizationPipelineTest {
+
+    private static List<String> normalize(String text, NormalizationOptions options) {
+        List<String> words = new ArrayList<>();
+        new CodePointWordTokenizer().tokenize(text,
+                NormalizationPipeline.of(options).wrap((buffer, length) -> words.add(new String(buffer, 0, length))));
+        return words;
+    }
+
+    @Test
+    void wrap_NoOptions_ReturnsSinkItself() {
+        List<String> words = new ArrayList<>();
+        TokenSink sink = (buffer, length) -> words.add(new String(buffer, 0, length));
+
+        assertThat(NormalizationPipeline.of(NormalizationOptions.NONE).wrap(sink)).isSameAs(sink);
+    }
+
+    @Test
+    void caseFold_SharpS_MatchesDoubleS() {
+        var options = new NormalizationOptions(false, true, false, null, null);
+
+        assertThat(normalize("Straße STRASSE strasse", options)).containsExactly("strasse", "strasse", "strasse");
+    }
+
+    @Test
+    void nfkc_CompatibilityCharacters_BecomePlainWords() {
+        var options = new NormalizationOptions(true, false, false, null, null);
+
+        // the ligature and the full width letters become plain letters, the fraction becomes two numbers
+        assertThat(normalize("ﬁsh ＡＢＣ ½", options)).containsExactly("fish", "abc", "1", "2");
+    }
+
+    @Test
+    void stripDiacritics_AccentedWords_MatchPlainWords() {
+        var options = new NormalizationOptions(false, false, true, null, null);
+
+        assertThat(normalize("Café naïve Ångström 日本", options)).containsExactly("cafe", "naive", "angstrom", "日本");
+    }
+
+    @Test
+    void stopwords_AreLeftOut_AfterTheUnicodeStages() {
+        var options = new NormalizationOptions(false, false, true, "de", null);
+
+        // "für" is a stopword, and so is "fur" once diacritics are stripped
+        assertThat(normalize("Das Haus für fur alle", options)).containsExactly("haus");
+    }
+
+    @Test
+    void englishStemmer_ConflatesPlurals() {
+        var options = new NormalizationOptions(false, false, false, null, "en");
+
+        assertThat(normalize("parties party cats bus glass shoes", options))
+                .containsExactly("party", "party", "cat", "bus", "glass", "shoes");
+    }
+
+    @Test
+    void germanStemmer_RemovesInflections() {
+        var options = new NormalizationOptions(false, false, false, null, "de");
+
+        assertThat(normalize("Häuser Hauses Haus", options)).containsExactly("haus", "haus", "haus");
+    }
+
+    @Test
+    void normalizeWord_StopwordOrSeveralWords_ReturnsNull() {
+        var pipeline = NormalizationPipeline.of(new NormalizationOptions(true, false, false, "en", "en"));
+
+        assertThat(pipeline.normalizeWord("Foxes")).isEqualTo("foxe");
+        assertThat(pipeline.normalizeWord("The")).isNull();
+        assertThat(pipeline.normalizeWord("½")).isNull();
+    }
+
+    @Test
+    void of_SameOptions_ReturnsSharedPipeline() {
+        var options = new NormalizationOptions(true, true, true, "EN", "en");
+
+        assertThat(NormalizationPipeline.of(options)).isSameAs(NormalizationPipeline.of(new NormalizationOptions(true, true, true, "en", "en")));
+        assertThat(options.key()).isEqualTo("+nfkc+casefold+nodiacritics+stopwords:en+stemmer:en");
+    }
+
+    @Test
+    void options_UnsupportedLanguage_Throws() {
+        assertThatThrownBy(() -> new NormalizationOptions(false, false, false, "xx", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
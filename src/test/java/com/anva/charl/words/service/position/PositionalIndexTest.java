@@ -0,0 +1,58 @@
+package com.anva.charl.words.service.position;
+
+import com.anva.charl.words.data.model.WordOccurrence;
+import com.anva.charl.words.service.normalize.NormalizationOptions;
+import com.anva.charl.words.service.normalize.NormalizationPipeline;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PositionalIndexTest {
+
+    private static final String TEXT = "The fox jumps. A FOX; the Fox!";
+
+    @Test
+    void occurrences_ReturnsFirstOffsetsWithSnippets() {
+        // when
+        PositionalIndex index = PositionalIndex.build(TEXT, NormalizationPipeline.NONE);
+
+        // then
+        assertEquals(3, index.frequency("fox"));
+        assertEquals(7, index.table().totalCount());
+        assertThat(index.occurrences("fox", 2, 3)).containsExactly(
+                new WordOccurrence(4, 7, "he fox ju"),
+                new WordOccurrence(17, 20, " A FOX; t"));
+        assertThat(index.occurrences("fox", 10, -1)).extracting(WordOccurrence::start).containsExactly(4, 17, 26);
+        assertThat(index.occurrences("fox", 10, -1).getLast().snippet()).isNull();
+        assertThat(index.occurrences("cat", 10, 3)).isEmpty();
+    }
+
+    @Test
+    void occurrences_FarApart_DecodeAcrossMultiByteDeltas() {
+        // given gaps that take up to three varint bytes
+        String gap = " ".repeat(20_000);
+        String text = "fox" + gap + "fox" + " ".repeat(100) + "foxes" + gap + gap + "fox";
+
+        // when
+        PositionalIndex index = PositionalIndex.build(text, NormalizationPipeline.NONE);
+
+        // then
+        assertThat(index.occurrences("fox", 10, -1)).extracting(WordOccurrence::start)
+                .containsExactly(0, 20_003, 60_111);
+        assertThat(index.occurrences("foxes", 10, 0)).containsExactly(new WordOccurrence(20_106, 20_111, "foxes"));
+    }
+
+    @Test
+    void build_WithStopwords_KeepsOffsetsOfTheOriginalWords() {
+        // given
+        var options = new NormalizationOptions(false, true, true, "en", null);
+
+        // when
+        PositionalIndex index = PositionalIndex.build("The café and the CAFE", NormalizationPipeline.of(options));
+
+        // then
+        assertEquals(0, index.frequency("the"));
+        assertThat(index.occurrences("cafe", 10, 0)).extracting(WordOccurrence::snippet).containsExactly("café", "CAFE");
+    }
+}
@@ -0,0 +1,45 @@
+package com.anva.charl.words.service.ranking;
+
+import com.anva.charl.words.data.model.WordFrequency;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopWordsSelectorTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 10, 50, 999, 1000, 5000})
+    void select_MatchesFullSort(int n) {
+        // given 1000 words with many equal frequencies, plus a few outliers above the bucket limit
+        Random random = new Random(42);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            counts.put("w" + random.nextInt(100_000), 1 + random.nextInt(20));
+        }
+        counts.put("huge", 1_000_000);
+        FrequencyTable table = new FrequencyTable();
+        counts.forEach((word, count) -> table.add(word.toCharArray(), 0, word.length(), count));
+
+        // when
+        List<WordFrequency> result = TopWordsSelector.select(table, n);
+
+        // then
+        List<String> expected = counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(n)
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .toList();
+        assertThat(result)
+                .extracting(w -> w.word() + "=" + w.frequency())
+                .containsExactlyElementsOf(expected);
+    }
+}
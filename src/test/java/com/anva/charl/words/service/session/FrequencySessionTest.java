@@ -0,0 +1,130 @@
+package com.anva.charl.words.service.session;
+
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySessionTest {
+
+    private static final Executor COUNT_HERE = Runnable::run;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void append_WithoutWindow_CountsAllChunks() {
+        // given
+        var session = new FrequencySession("s", 0, Duration.ZERO, clock);
+
+        // when
+        session.append("The quick brown fox.", COUNT_HERE);
+        session.append("The fox sleeps.", COUNT_HERE);
+
+        // then
+        assertThat(session.totalWords()).isEqualTo(7);
+        assertThat(session.highestFrequency()).isEqualTo(2);
+        assertThat(session.frequencyForWord("FOX")).isEqualTo(2);
+        assertThat(session.mostFrequentWords(2)).containsExactly(
+                new WordFrequencyDTO("fox", 2), new WordFrequencyDTO("the", 2));
+    }
+
+    @Test
+    void append_WordWindow_CountsOnlyMostRecentWords() {
+        // given
+        var session = new FrequencySession("s", 3, Duration.ZERO, clock);
+
+        // when
+        session.append("fox fox fox ", COUNT_HERE);
+        session.append("dog cat ", COUNT_HERE);
+
+        // then
+        assertThat(session.totalWords()).isEqualTo(3);
+        assertThat(session.mostFrequentWords(5)).containsExactly(
+                new WordFrequencyDTO("cat", 1), new WordFrequencyDTO("dog", 1), new WordFrequencyDTO("fox", 1));
+    }
+
+    @Test
+    void append_WordSplitAcrossChunks_CountsItOnceItEnds() {
+        // given
+        var session = new FrequencySession("s", 0, Duration.ZERO, clock);
+
+        // when
+        session.append("Say hel", COUNT_HERE);
+
+        // then the word is not counted before it ends
+        assertThat(session.totalWords()).isEqualTo(1);
+        assertThat(session.frequencyForWord("hel")).isZero();
+
+        // when
+        session.append("lo, hello", COUNT_HERE);
+        session.append(" world\n", COUNT_HERE);
+
+        // then
+        assertThat(session.frequencyForWord("hello")).isEqualTo(2);
+        assertThat(session.mostFrequentWords(5)).containsExactly(
+                new WordFrequencyDTO("hello", 2), new WordFrequencyDTO("say", 1), new WordFrequencyDTO("world", 1));
+    }
+
+    @Test
+    void query_AfterWindowAge_DropsExpiredChunks() {
+        // given
+        var session = new FrequencySession("s", 0, Duration.ofSeconds(10), clock);
+        session.append("fox fox dog ", COUNT_HERE);
+        clock.advance(Duration.ofSeconds(6));
+        session.append("dog ", COUNT_HERE);
+
+        // when
+        clock.advance(Duration.ofSeconds(5));
+
+        // then
+        assertThat(session.frequencyForWord("fox")).isZero();
+        assertThat(session.highestFrequency()).isEqualTo(1);
+        assertThat(session.distinctWords()).isEqualTo(1);
+    }
+
+    @Test
+    void append_ManyExpiredWords_CompactsAndKeepsCounting() {
+        // given a window that every word leaves after two chunks
+        var session = new FrequencySession("s", 0, Duration.ofSeconds(2), clock);
+
+        // when
+        for (int chunk = 0; chunk < 100; chunk++) {
+            session.append("word" + chunk + " common ", COUNT_HERE);
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        // then
+        assertThat(session.distinctWords()).isEqualTo(2);
+        assertThat(session.mostFrequentWords(3)).containsExactly(
+                new WordFrequencyDTO("common", 1), new WordFrequencyDTO("word99", 1));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.anva.charl.words.service.session;
+
+import com.anva.charl.words.service.ranking.TopWordsSelector;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedFrequencyTableTest {
+
+    @Test
+    void addAndRemove_RankingMatchesRecount() {
+        // given a window of 500 words sliding over a skewed stream
+        Random random = new Random(42);
+        RankedFrequencyTable ranked = new RankedFrequencyTable();
+        Map<String, Integer> counts = new HashMap<>();
+        ArrayDeque<Integer> entries = new ArrayDeque<>();
+        ArrayDeque<String> words = new ArrayDeque<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            // when
+            String word = "w" + (int) Math.pow(random.nextInt(1_000), 2) / 1_000;
+            entries.addLast(ranked.add(word.toCharArray(), 0, word.length()));
+            words.addLast(word);
+            counts.merge(word, 1, Integer::sum);
+            if (entries.size() > 500) {
+                ranked.remove(entries.removeFirst());
+                counts.merge(words.removeFirst(), -1, Integer::sum);
+            }
+
+            // then
+            if (step % 997 == 0) assertMatches(ranked, counts);
+        }
+        assertMatches(ranked, counts);
+    }
+
+    @Test
+    void compact_KeepsCountsAndRenumbersLiveEntries() {
+        // given
+        RankedFrequencyTable ranked = new RankedFrequencyTable();
+        int fox = ranked.add("fox".toCharArray(), 0, 3);
+        ranked.add("fox".toCharArray(), 0, 3);
+        int dog = ranked.add("dog".toCharArray(), 0, 3);
+        ranked.remove(dog);
+
+        // when
+        int[] renumbered = ranked.compact();
+
+        // then
+        assertThat(renumbered[dog]).isEqualTo(-1);
+        assertThat(renumbered[fox]).isEqualTo(0);
+        assertThat(ranked.distinctWords()).isEqualTo(1);
+        assertThat(ranked.frequencyForWord("fox")).isEqualTo(2);
+        assertThat(ranked.frequencyForWord("dog")).isZero();
+        ranked.remove(renumbered[fox]);
+        assertThat(ranked.highestFrequency()).isEqualTo(1);
+    }
+
+    private static void assertMatches(RankedFrequencyTable ranked, Map<String, Integer> counts) {
+        FrequencyTable recount = new FrequencyTable();
+        counts.forEach((word, count) -> {
+            if (count > 0) recount.add(word.toCharArray(), 0, word.length(), count);
+        });
+        assertThat(ranked.distinctWords()).isEqualTo(recount.size());
+        assertThat(ranked.highestFrequency()).isEqualTo(recount.maxCount());
+        for (int n : new int[] {1, 5, 50, 1_000}) {
+            assertThat(ranked.mostFrequentWords(n)).isEqualTo(TopWordsSelector.select(recount, n));
+        }
+    }
+}
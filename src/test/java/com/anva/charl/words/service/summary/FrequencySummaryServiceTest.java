@@ -0,0 +1,136 @@
+package com.anva.charl.words.service.summary;
+
+import com.anva.charl.words.data.model.WordFrequencyDTO;
+import com.anva.charl.words.service.SimpleFrequencySearchService;
+import com.anva.charl.words.service.table.FrequencyTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FrequencySummaryServiceTest {
+
+    private static final String[] WORDS = {
+            "the", "then", "there", "a", "ab", "abc", "Über", "über", "uber", "straße", "日本", "日本語", "𝔘𝔫𝔦𝔠𝔬𝔡𝔢", "z"
+    };
+
+    private final SimpleFrequencySearchService searchService = new SimpleFrequencySearchService();
+    private final FrequencySummaryService summaryService = new FrequencySummaryService(searchService);
+
+    @Test
+    void merge_InProcessShards_MatchesWholeText() throws IOException {
+        // given a corpus split into shards at word boundaries, summarized separately
+        String corpus = corpus(20_000);
+        List<InputStream> summaries = new ArrayList<>();
+        List<String> shards = shards(corpus, 4);
+        for (int i = 0; i < shards.size(); i++) summaries.add(summarize(shards.get(i), i % 2 == 0));
+
+        // when
+        MergedSummary merged = summaryService.merge(summaries, 5);
+
+        // then
+        FrequencyTable whole = searchService.buildFrequencyTable(corpus);
+        assertThat(merged.summaries()).isEqualTo(4);
+        assertThat(merged.totalWords()).isEqualTo(whole.totalCount());
+        assertThat(merged.distinctWords()).isEqualTo(whole.size());
+        assertThat(merged.highestFrequency()).isEqualTo(searchService.calculateHighestFrequency(corpus));
+        assertThat(merged.mostFrequentWords()).isEqualTo(searchService.calculateMostFrequentNWords(corpus, 5));
+    }
+
+    @Test
+    void merge_ToSummary_HasCountsOfWholeText() throws IOException {
+        // given
+        String corpus = corpus(5_000);
+        List<InputStream> summaries = new ArrayList<>();
+        for (String shard : shards(corpus, 3)) summaries.add(summarize(shard, true));
+
+        // when
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        summaryService.merge(summaries, merged, false);
+
+        // then every word of the text is in the merged summary, in ascending byte order, with its count
+        FrequencyTable whole = searchService.buildFrequencyTable(corpus);
+        try (SummaryReader reader = new SummaryReader(new ByteArrayInputStream(merged.toByteArray()))) {
+            assertThat(reader.totalWords()).isEqualTo(whole.totalCount());
+            int words = 0;
+            while (reader.next()) {
+                assertThat(reader.count()).isEqualTo(whole.get(reader.wordString()));
+                words++;
+            }
+            assertThat(words).isEqualTo(whole.size());
+        }
+    }
+
+    @Test
+    void merge_SummaryWithItself_DoublesCounts() throws IOException {
+        // given
+        byte[] summary = summarize("b a b c", false).readAllBytes();
+
+        // when
+        MergedSummary merged = summaryService.merge(
+                List.of(new ByteArrayInputStream(summary), new ByteArrayInputStream(summary)), 2);
+
+        // then
+        assertThat(merged.totalWords()).isEqualTo(8);
+        assertThat(merged.distinctWords()).isEqualTo(3);
+        assertThat(merged.highestFrequency()).isEqualTo(4);
+        assertThat(merged.mostFrequentWords()).containsExactly(new WordFrequencyDTO("b", 4), new WordFrequencyDTO("a", 2));
+    }
+
+    @Test
+    void summarize_EmptyText_MergesToNothing() throws IOException {
+        MergedSummary merged = summaryService.merge(List.of(summarize("", true)), 3);
+
+        assertThat(merged.totalWords()).isZero();
+        assertThat(merged.highestFrequency()).isZero();
+        assertThat(merged.mostFrequentWords()).isEmpty();
+    }
+
+    @Test
+    void merge_CorruptSummary_ThrowsInvalidSummaryException() throws IOException {
+        byte[] summary = summarize("one two three", false).readAllBytes();
+        byte[] truncated = Arrays.copyOf(summary, summary.length - 2);
+
+        assertThatThrownBy(() -> summaryService.merge(List.of(new ByteArrayInputStream(truncated)), 1))
+                .isInstanceOf(InvalidSummaryException.class);
+        assertThatThrownBy(() -> summaryService.merge(List.of(new ByteArrayInputStream("one two".getBytes())), 1))
+                .isInstanceOf(InvalidSummaryException.class);
+    }
+
+    private InputStream summarize(String text, boolean compressed) throws IOException {
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        summaryService.summarize(text, summary, compressed);
+        return new ByteArrayInputStream(summary.toByteArray());
+    }
+
+    private static String corpus(int words) {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            // skewed towards the first words, with a long tail of numbered ones
+            int pick = (int) (Math.abs(random.nextGaussian()) * 4);
+            text.append(pick < WORDS.length ? WORDS[pick] : "w" + random.nextInt(1_000)).append(i % 12 == 0 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    private static List<String> shards(String corpus, int count) {
+        List<String> shards = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= count; i++) {
+            int end = i == count ? corpus.length() : corpus.indexOf(' ', corpus.length() * i / count);
+            shards.add(corpus.substring(start, end));
+            start = end;
+        }
+        return shards;
+    }
+}
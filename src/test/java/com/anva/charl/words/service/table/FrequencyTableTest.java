@@ -0,0 +1,122 @@
+package com.anva.charl.words.service.table;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FrequencyTableTest {
+
+    @Test
+    void add_CountsLikeAHashMapAcrossResizes() {
+        // given
+        Random random = new Random(7);
+        Map<String, Integer> expected = new HashMap<>();
+        FrequencyTable table = new FrequencyTable();
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            String word = "w" + random.nextInt(20_000);
+            expected.merge(word, 1, Integer::sum);
+            char[] padded = ("##" + word + "#").toCharArray();
+            table.add(padded, 2, word.length(), 1);
+        }
+
+        // then
+        assertEquals(expected.size(), table.size());
+        expected.forEach((word, count) -> assertEquals(count, table.get(word), word));
+        assertEquals(0, table.get("missing"));
+        assertEquals(expected.values().stream().mapToInt(Integer::intValue).max().orElse(0), table.maxCount());
+    }
+
+    @Test
+    void merge_AddsCountsOfOtherTable() {
+        // given
+        FrequencyTable first = new FrequencyTable();
+        FrequencyTable second = new FrequencyTable();
+        first.accept("fox".toCharArray(), 3);
+        first.accept("dog".toCharArray(), 3);
+        second.accept("fox".toCharArray(), 3);
+        second.accept("cat".toCharArray(), 3);
+
+        // when
+        first.merge(second);
+
+        // then
+        assertEquals(3, first.size());
+        assertEquals(2, first.get("fox"));
+        assertEquals(1, first.get("dog"));
+        assertEquals(1, first.get("cat"));
+        assertThat(first.word(first.find("cat".toCharArray(), 0, 3))).isEqualTo("cat");
+    }
+
+    @Test
+    void addWordsOf_CountsEveryWordOnce() {
+        // given
+        FrequencyTable vocabulary = new FrequencyTable();
+        FrequencyTable document = new FrequencyTable();
+        vocabulary.accept("dog".toCharArray(), 3);
+        document.accept("fox".toCharArray(), 3);
+        document.accept("fox".toCharArray(), 3);
+        document.accept("dog".toCharArray(), 3);
+
+        // when
+        int[] entries = vocabulary.addWordsOf(document);
+
+        // then
+        assertThat(entries).containsExactly(1, 0);
+        assertEquals(1, vocabulary.get("fox"));
+        assertEquals(2, vocabulary.get("dog"));
+    }
+
+    @Test
+    void clear_RemovesAllWordsAndKeepsCounting() {
+        // given
+        FrequencyTable table = new FrequencyTable();
+        for (int i = 0; i < 1_000; i++) table.accept(("w" + i).toCharArray(), Integer.toString(i).length() + 1);
+        long capacity = table.estimatedBytes();
+
+        // when
+        table.clear();
+        table.accept("fox".toCharArray(), 3);
+        table.accept("fox".toCharArray(), 3);
+
+        // then
+        assertEquals(1, table.size());
+        assertEquals(2, table.totalCount());
+        assertEquals(2, table.get("fox"));
+        assertEquals(0, table.get("w1"));
+        assertThat(table.word(0)).isEqualTo("fox");
+        assertThat(table.estimatedBytes()).isEqualTo(capacity);
+    }
+
+    @Test
+    void compactCopy_KeepsEntriesWithoutSpareCapacity() {
+        // given a table that grew while counting
+        FrequencyTable table = FrequencyTable.forText(1_000_000);
+        for (int i = 0; i < 1_000; i++) table.accept(("w" + i).toCharArray(), Integer.toString(i).length() + 1);
+        table.accept("w7".toCharArray(), 2);
+
+        // when
+        FrequencyTable copy = table.compactCopy();
+
+        // then
+        assertEquals(1_000, copy.size());
+        assertEquals(1_001, copy.totalCount());
+        assertEquals(2, copy.get("w7"));
+        assertThat(copy.word(999)).isEqualTo("w999");
+        assertThat(copy.estimatedBytes()).isLessThan(table.estimatedBytes());
+
+        // and both tables still count on their own
+        copy.accept("fox".toCharArray(), 3);
+        assertEquals(1, copy.get("fox"));
+        assertEquals(0, table.get("fox"));
+        FrequencyTable empty = new FrequencyTable().compactCopy();
+        empty.accept("fox".toCharArray(), 3);
+        assertEquals(1, empty.get("fox"));
+    }
+}
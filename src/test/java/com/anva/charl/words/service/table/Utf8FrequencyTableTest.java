@@ -0,0 +1,71 @@
+package com.anva.charl.words.service.table;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Utf8FrequencyTableTest {
+
+    @Test
+    void add_RepeatedWords_CountsEveryWord() {
+        // given
+        var table = new Utf8FrequencyTable();
+
+        // when
+        for (int i = 0; i < 1_000; i++) {
+            add(table, "word" + (i % 100));
+            add(table, "слово");
+        }
+
+        // then
+        assertEquals(101, table.size());
+        assertEquals(10, table.get("word7"));
+        assertEquals(1_000, table.get("слово"));
+        assertEquals(0, table.get("missing"));
+        assertEquals(2_000, table.totalCount());
+    }
+
+    @Test
+    void merge_AddsCounts() {
+        // given
+        var first = new Utf8FrequencyTable();
+        add(first, "the");
+        add(first, "fox");
+        var second = new Utf8FrequencyTable();
+        add(second, "the");
+        add(second, "日本");
+
+        // when
+        first.merge(second);
+
+        // then
+        assertEquals(2, first.get("the"));
+        assertEquals(1, first.get("日本"));
+        assertEquals(3, first.size());
+    }
+
+    @Test
+    void compareWords_OrdersLikeStrings() {
+        // given words where UTF-8 byte order and UTF-16 order differ
+        String[] words = {"", "a", "ab", "b", "é", "日", "Ａ", "￿", "😀", "𝐀", "😀a"};
+        var table = new Utf8FrequencyTable();
+        for (String word : words) add(table, word);
+
+        // then
+        for (int a = 0; a < words.length; a++) {
+            for (int b = 0; b < words.length; b++) {
+                assertThat(Integer.signum(table.compareWords(a, b)))
+                        .as("%s vs %s", words[a], words[b])
+                        .isEqualTo(Integer.signum(words[a].compareTo(words[b])));
+            }
+        }
+    }
+
+    private static void add(Utf8FrequencyTable table, String word) {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        table.add(bytes, 0, bytes.length, 1);
+    }
+}
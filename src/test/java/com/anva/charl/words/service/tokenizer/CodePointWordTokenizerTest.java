@@ -0,0 +1,55 @@
+package com.anva.charl.words.service.tokenizer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodePointWordTokenizerTest {
+
+    private final WordTokenizer reference = new RegexWordTokenizer();
+    private final WordTokenizer tokenizer = new CodePointWordTokenizer();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "The quick brown fox jumps over the lazy dog",
+        "Word...word,word;word?word!",
+        "  leading and trailing  ",
+        "Der schnelle braune Fuchs springt über den faulen Hund.",
+        "青い空と白い雲が美しいです。空は とても 青く て 雲は とても 白い です。",
+        "안녕하세요 세상아 안녕하세요 여러분 안녕하세요.",
+        "İstanbul DİYARBAKIR",
+        "ΟΔΟΣ ΣΑΣ Σ aΣ.b ΣΣ",
+        "Ⅻ ½ ٣٤ 𝐀𝐁𝐂 𐐀𐐁 \uD800 lone surrogate",
+        "café naïve Straße KELVIN K",
+        "x"
+    })
+    void tokenize_MatchesRegexTokenizer(String text) {
+        assertThat(tokens(tokenizer, text)).containsExactlyElementsOf(tokens(reference, text));
+    }
+
+    @Test
+    void tokenizeWithOffsets_ReportsWhereEveryWordIsInTheText() {
+        // given
+        String text = "The FOX, İstanbul 𝐀b!";
+        List<String> words = new ArrayList<>();
+
+        // when
+        new CodePointWordTokenizer().tokenizeWithOffsets(text, (buffer, length, start, end) ->
+                words.add(new String(buffer, 0, length) + "=" + text.substring(start, end)));
+
+        // then the dotted capital I ends the word it belongs to
+        assertThat(words).containsExactly("the=The", "fox=FOX", "i=İ", "stanbul=stanbul", "𝐀b=𝐀b");
+        assertThat(tokens(tokenizer, text)).containsExactly("the", "fox", "i", "stanbul", "𝐀b");
+    }
+
+    private static List<String> tokens(WordTokenizer tokenizer, String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenizer.tokenize(text, (buffer, length) -> tokens.add(new String(buffer, 0, length)));
+        return tokens;
+    }
+}
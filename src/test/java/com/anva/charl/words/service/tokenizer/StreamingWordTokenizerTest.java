@@ -0,0 +1,38 @@
+package com.anva.charl.words.service.tokenizer;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingWordTokenizerTest {
+
+    private static final String TEXT = """
+            The quick brown fox jumps over the lazy dog. Word...word,word;word?word!
+            Der schnelle braune Fuchs springt über den faulen Hund. ΟΔΟΣ ΣΑΣ σοφός
+            青い空と白い雲が美しいです。안녕하세요 세상아 𝐀𝐁𝐂 𐐀𐐁 İstanbul
+            """;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 7, 64, 8192})
+    void feed_WordsSplitAcrossChunks_MatchWholeText(int chunkSize) {
+        // given
+        List<String> expected = new ArrayList<>();
+        new RegexWordTokenizer().tokenize(TEXT, (buffer, length) -> expected.add(new String(buffer, 0, length)));
+
+        // when
+        List<String> tokens = new ArrayList<>();
+        var tokenizer = new StreamingWordTokenizer((buffer, length) -> tokens.add(new String(buffer, 0, length)));
+        char[] chars = TEXT.toCharArray();
+        for (int offset = 0; offset < chars.length; offset += chunkSize) {
+            tokenizer.feed(chars, offset, Math.min(chunkSize, chars.length - offset));
+        }
+        tokenizer.finish();
+
+        // then
+        assertThat(tokens).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,85 @@
+package com.anva.charl.words.service.tokenizer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Utf8WordTokenizerTest {
+
+    private static final String TEXT = """
+            The quick brown fox jumps over the lazy dog. Word...word,word;word?word!
+            Der schnelle braune Fuchs springt über den faulen Hund. ΟΔΟΣ ΣΑΣ σοφός
+            青い空と白い雲が美しいです。안녕하세요 세상아 𝐀𝐁𝐂 𐐀𐐁 İstanbul Kelvin Ⱥ
+            """;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 7, 64, 8192})
+    void feed_SequencesSplitAcrossChunks_MatchCharTokenizer(int chunkSize) {
+        // given
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+
+        // when
+        List<String> tokens = new ArrayList<>();
+        var tokenizer = new Utf8WordTokenizer((buffer, length) -> tokens.add(new String(buffer, 0, length, StandardCharsets.UTF_8)));
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            tokenizer.feed(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+        tokenizer.finish();
+
+        // then
+        assertThat(tokens).containsExactlyElementsOf(charTokens(TEXT));
+    }
+
+    @Test
+    void feed_ByteBuffer_MatchesArray() {
+        // given
+        ByteBuffer bytes = ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        List<String> tokens = new ArrayList<>();
+        var tokenizer = new Utf8WordTokenizer((buffer, length) -> tokens.add(new String(buffer, 0, length, StandardCharsets.UTF_8)));
+        tokenizer.feed(bytes);
+        tokenizer.finish();
+
+        // then
+        assertThat(tokens).containsExactlyElementsOf(charTokens(TEXT));
+        assertThat(bytes.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void feed_MalformedBytes_SeparateWordsLikeReplacementCharacters() {
+        // given random bytes, mostly outside of ASCII, so most sequences are malformed
+        Random random = new Random(42);
+        for (int round = 0; round < 1_000; round++) {
+            byte[] bytes = new byte[random.nextInt(64)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) (random.nextInt(3) == 0 ? 'a' + random.nextInt(26) : 0x80 + random.nextInt(128));
+            }
+
+            // when
+            List<String> tokens = new ArrayList<>();
+            var tokenizer = new Utf8WordTokenizer((buffer, length) -> tokens.add(new String(buffer, 0, length, StandardCharsets.UTF_8)));
+            tokenizer.feed(bytes, 0, bytes.length);
+            tokenizer.finish();
+
+            // then
+            assertThat(tokens).containsExactlyElementsOf(charTokens(new String(bytes, StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static List<String> charTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        var tokenizer = new StreamingWordTokenizer((buffer, length) -> tokens.add(new String(buffer, 0, length)));
+        tokenizer.feed(text.toCharArray(), 0, text.length());
+        tokenizer.finish();
+        return tokens;
+    }
+}
@@ -0,0 +1,87 @@
+package com.anva.charl.words.service.tokenizer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VectorWordTokenizerTest {
+
+    // ASCII heavy, with the characters the vectors hand over to the scalar tokenizer
+    private static final String[] PIECES = {
+        "the", "Quick", "BROWN", "fox", "x", "42", "a1b2", " ", " ", " ", ".", ",", "...", "\n", "-", "'", "_", "@", "[", "`", "{",
+        "über", "Straße", "naïve", "café", "青い空", "안녕", "𝐀𝐁𝐂", "İstanbul", "K", "½", " ", "\uD800"
+    };
+
+    private final WordTokenizer reference = new RegexWordTokenizer();
+
+    @BeforeAll
+    static void requireVectorApi() {
+        assumeTrue(WordTokenizers.isVectorApiAvailable(), "run with --add-modules jdk.incubator.vector");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "The quick brown fox jumps over the lazy dog, again and again and again and again.",
+        "Word...word,word;word?word!Word...word,word;word?word!Word...word,word;word?word!",
+        "Der schnelle braune Fuchs springt über den faulen Hund, über den faulen Hund.",
+        "青い空と白い雲が美しいです。空は とても 青く て 雲は とても 白い です。 and some ASCII words",
+        "İstanbul DİYARBAKIR İstanbul DİYARBAKIR İstanbul DİYARBAKIR İstanbul",
+        "ΟΔΟΣ ΣΑΣ Σ aΣ.b ΣΣ ΟΔΟΣ ΣΑΣ Σ aΣ.b ΣΣ ΟΔΟΣ ΣΑΣ Σ aΣ.b ΣΣ ΟΔΟΣ ΣΑΣ",
+        "averyveryveryveryveryveryveryveryveryveryveryveryveryveryverylongwordcafé",
+        "short"
+    })
+    void tokenize_MatchesRegexTokenizer(String text) {
+        assertThat(tokens(new VectorWordTokenizer(), text)).containsExactlyElementsOf(tokens(reference, text));
+    }
+
+    @Test
+    void tokenize_RandomTextsAcrossBlocks_MatchesRegexTokenizer() {
+        // given texts up to three blocks long, so words run across vectors and blocks
+        Random random = new Random(42);
+        var tokenizer = new VectorWordTokenizer();
+        for (int round = 0; round < 200; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12 * 1024);
+            boolean ascii = random.nextBoolean();
+            while (text.length() < length) {
+                int piece = random.nextInt(ascii ? 21 : PIECES.length);
+                text.append(PIECES[piece]);
+            }
+
+            // when
+            List<String> tokens = tokens(tokenizer, text.toString());
+
+            // then
+            assertThat(tokens).containsExactlyElementsOf(tokens(reference, text.toString()));
+        }
+    }
+
+    @Test
+    void tokenize_Region_MatchesRegexTokenizerOnSubstring() {
+        // given
+        String text = "skipped words, The quick brown fox jumps over the lazy dog über café, skipped";
+        int start = text.indexOf("The");
+        int end = text.lastIndexOf(',');
+
+        // when
+        List<String> tokens = new ArrayList<>();
+        new VectorWordTokenizer().tokenize(text, start, end, (buffer, length) -> tokens.add(new String(buffer, 0, length)));
+
+        // then
+        assertThat(tokens).containsExactlyElementsOf(tokens(reference, text.substring(start, end)));
+    }
+
+    private static List<String> tokens(WordTokenizer tokenizer, String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenizer.tokenize(text, (buffer, length) -> tokens.add(new String(buffer, 0, length)));
+        return tokens;
+    }
+}
@@ -0,0 +1,38 @@
+package com.anva.charl.words.service.tokenizer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WordOccurrenceCounterTest {
+
+    @Test
+    void count_DoesNotMatchInsideLongerWords() {
+        assertEquals(1, WordOccurrenceCounter.count("The cat walks over the staircase", "cat"));
+        assertEquals(0, WordOccurrenceCounter.count("staircase cats scat", "cat"));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "The THE the tHe THe|the",
+        "Word...word,word;word?word!|WORD",
+        "İstanbul i stanbul|i",
+        "ΟΔΟΣ οδος οδοσ|οδος",
+        "𐐀𐐁 𐐨𐐩 𐐨|𐐨𐐩",
+        "quick-brown quick brown|quick-brown",
+        "Der Fuchs, der Hund und DER Fuchs|der"
+    })
+    void count_MatchesRegexTokenizer(String text, String word) {
+        List<String> tokens = new ArrayList<>();
+        new RegexWordTokenizer().tokenize(text, (buffer, length) -> tokens.add(new String(buffer, 0, length)));
+        String folded = word.toLowerCase(Locale.ROOT);
+
+        assertEquals(tokens.stream().filter(folded::equals).count(), WordOccurrenceCounter.count(text, word));
+    }
+}